@@ -3,6 +3,7 @@ package eu.dfid.server;
 import java.text.SimpleDateFormat;
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.function.Supplier;
 import com.fasterxml.jackson.annotation.JsonInclude;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.databind.SerializationFeature;
@@ -12,11 +13,14 @@ import eu.dfid.dataaccess.dao.CleanProjectDAO;
 import eu.dfid.dataaccess.dao.DAOFactory;
 import eu.dfid.dataaccess.dto.clean.DFIDCleanProject;
 import eu.dl.dataaccess.dao.CleanTenderDAO;
+import eu.dl.dataaccess.dao.KeysetPage;
 import eu.dl.dataaccess.dao.TransactionUtils;
 import eu.dl.dataaccess.dto.clean.CleanTender;
 import eu.dl.server.JsonTransformer;
 import eu.dl.server.exceptions.NotFoundException;
+import eu.dl.server.exceptions.ParameterFormattingException;
 
+import static spark.Spark.afterAfter;
 import static spark.Spark.get;
 
 /**
@@ -55,6 +59,9 @@ public final class DfidApi extends BaseServer {
         registerCleanTenderEndpoints();
 
         registerCleanProjectEndpoints();
+
+        // requests are served in parallel, each request thread returns its db connection once the request is done
+        afterAfter((request, response) -> transactionUtils.release());
     }
 
     /**
@@ -90,6 +97,27 @@ public final class DfidApi extends BaseServer {
             transactionUtils.commit();
             return result;
         }, new JsonTransformer());
+
+        get("/protected/clean_tender/timestamp/:timestamp", "application/json", (request, response) -> {
+            LocalDateTime timestamp = getDate(request.params(":timestamp"));
+            String after = request.queryParams("after");
+            transactionUtils.begin();
+            KeysetPage<CleanTender> result = getKeysetPage(() ->
+                cleanTenderDao.getModifiedAfterKeyset(timestamp, null, null, after));
+            transactionUtils.commit();
+            return result;
+        }, new JsonTransformer());
+
+        get("/protected/clean_tender/timestamp/:timestamp/source/:source", "application/json", (request, response) -> {
+            LocalDateTime timestamp = getDate(request.params(":timestamp"));
+            String source = request.params(":source");
+            String after = request.queryParams("after");
+            transactionUtils.begin();
+            KeysetPage<CleanTender> result = getKeysetPage(() ->
+                cleanTenderDao.getModifiedAfterKeyset(timestamp, source, null, after));
+            transactionUtils.commit();
+            return result;
+        }, new JsonTransformer());
     }
 
     /**
@@ -125,5 +153,43 @@ public final class DfidApi extends BaseServer {
             transactionUtils.commit();
             return result;
         }, new JsonTransformer());
+
+        get("/protected/clean_project/timestamp/:timestamp", "application/json", (request, response) -> {
+            LocalDateTime timestamp = getDate(request.params(":timestamp"));
+            String after = request.queryParams("after");
+            transactionUtils.begin();
+            KeysetPage<DFIDCleanProject> result = getKeysetPage(() ->
+                cleanProjectDao.getModifiedAfterKeyset(timestamp, null, null, after));
+            transactionUtils.commit();
+            return result;
+        }, new JsonTransformer());
+
+        get("/protected/clean_project/timestamp/:timestamp/source/:source", "application/json", (request, response) -> {
+            LocalDateTime timestamp = getDate(request.params(":timestamp"));
+            String source = request.params(":source");
+            String after = request.queryParams("after");
+            transactionUtils.begin();
+            KeysetPage<DFIDCleanProject> result = getKeysetPage(() ->
+                cleanProjectDao.getModifiedAfterKeyset(timestamp, source, null, after));
+            transactionUtils.commit();
+            return result;
+        }, new JsonTransformer());
+    }
+
+    /**
+     * Loads page of keyset paginated result. Stops the execution when the continuation token is invalid.
+     *
+     * @param <T>
+     *            item class
+     * @param loader
+     *            page loader
+     * @return loaded page or throws 400 with description
+     */
+    private static <T> KeysetPage<T> getKeysetPage(final Supplier<KeysetPage<T>> loader) {
+        try {
+            return loader.get();
+        } catch (IllegalArgumentException e) {
+            throw new ParameterFormattingException(e.getMessage(), e);
+        }
     }
 }
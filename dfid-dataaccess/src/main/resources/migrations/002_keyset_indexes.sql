@@ -0,0 +1,8 @@
+SET search_path TO dfid_test;
+
+-- keyset pagination seeks by (modified, id), see GenericJdbcDAO#getModifiedAfterKeyset
+CREATE INDEX clean_tender_modified_id_idx ON clean_tender (modified, id);
+CREATE INDEX clean_project_modified_id_idx ON clean_project (modified, id);
+
+-- keyset pagination of tenders by country, see GenericJdbcDAO#getByCountryKeyset
+CREATE INDEX clean_tender_country_modified_id_idx ON clean_tender ((data->>'country'), modified, id);
@@ -2,10 +2,9 @@ package eu.dfid.worker.ec.raw;
 
 import java.io.InputStream;
 import java.net.URL;
+import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
-import java.util.HashMap;
 import java.util.List;
-import java.util.Map;
 
 import org.apache.commons.compress.archivers.ArchiveStreamFactory;
 import org.apache.commons.compress.compressors.CompressorStreamFactory;
@@ -49,26 +48,28 @@ public final class EATedProcurementDownloader extends BaseDFIDTenderFtpDownloade
 
                 logger.info("Unpacking daily package {}.", fileUrl);
                 final InputStream dailyPackageStream = getFtpClient().retrieveFileStream(fileUrl);
-                final HashMap<String, String> files = ArchiveUtils.extract(dailyPackageStream,
-                        FilenameUtils.getName(fileUrl), ArchiveStreamFactory.TAR, CompressorStreamFactory.GZIP);
+                final URL sourceUrl = url;
 
-                for (final Map.Entry<String, String> file : files.entrySet()) {
-                    if (!isEuropeAid(file.getValue())) {
-                        continue;
+                // files are processed one by one, so that only EuropeAid tenders are kept in memory
+                ArchiveUtils.extract(dailyPackageStream, FilenameUtils.getName(fileUrl), ArchiveStreamFactory.TAR,
+                        CompressorStreamFactory.GZIP, StandardCharsets.UTF_8, null, file -> {
+                    final String content = file.getContent();
+                    if (!isEuropeAid(content)) {
+                        return;
                     }
 
-                    logger.info("Extracting file {}.", file.getKey());
+                    logger.info("Extracting file {}.", file.getName());
 
                     // init tender
                     final RawData tender = new RawData();
-                    tender.setSourceData(file.getValue());
-                    tender.setSourceUrl(url);
-                    tender.setSourceFileName(file.getKey());
+                    tender.setSourceData(content);
+                    tender.setSourceUrl(sourceUrl);
+                    tender.setSourceFileName(file.getName());
 
                     rawData.add(tender);
 
-                    logger.info("New tender downloaded from url {}.", url);
-                }
+                    logger.info("New tender downloaded from url {}.", sourceUrl);
+                });
             }
         } catch (final Exception e) {
             logger.error("Downloading failed for daily package {}.", url, e);
@@ -59,7 +59,7 @@ public final class WBProcurementPlansCrawler extends BaseWorldBankCrawler {
 
         final Message outgoingMessage = MessageFactory.getMessage();
         outgoingMessage.setValue("url", documentDetailPage.getUrl().toString());
-        outgoingMessage.setValue("sourceData", documentDetailPage.getWebResponse().getContentAsString());
+        setSourceData(outgoingMessage, documentDetailPage.getWebResponse().getContentAsString());
         HtmlAnchor txtFileLink = documentDetailPage.getFirstByXPath(
                 "//ul[@class='documentLnks']/li[@class='textdoc']/a");
         // TXT file can be unavailable - see
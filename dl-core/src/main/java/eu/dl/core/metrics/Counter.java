@@ -0,0 +1,44 @@
+package eu.dl.core.metrics;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Monotonically increasing counter. Counters are created via {@link Metrics#counter(String, String, String...)}.
+ */
+public final class Counter {
+
+    private final LongAdder value = new LongAdder();
+
+    /**
+     * Package private constructor, use {@link Metrics}.
+     */
+    Counter() {
+    }
+
+    /**
+     * Increments the counter by one.
+     */
+    public void inc() {
+        value.increment();
+    }
+
+    /**
+     * Increments the counter.
+     *
+     * @param amount
+     *      non-negative increment
+     */
+    public void inc(final long amount) {
+        if (amount < 0) {
+            throw new IllegalArgumentException("Counter can't be decremented");
+        }
+        value.add(amount);
+    }
+
+    /**
+     * @return current value
+     */
+    public long get() {
+        return value.sum();
+    }
+}
@@ -0,0 +1,90 @@
+package eu.dl.core.metrics;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.DoubleAdder;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Histogram of durations in seconds with fixed buckets. Histograms are created via
+ * {@link Metrics#histogram(String, String, String...)}.
+ */
+public final class Histogram {
+
+    /**
+     * Upper bounds of the buckets in seconds, the last bucket (+Inf) is implicit.
+     */
+    static final double[] BUCKETS = {0.001, 0.005, 0.01, 0.025, 0.05, 0.1, 0.25, 0.5, 1, 2.5, 5, 10, 30, 60};
+
+    private final LongAdder[] buckets = new LongAdder[BUCKETS.length + 1];
+
+    private final LongAdder count = new LongAdder();
+
+    private final DoubleAdder sum = new DoubleAdder();
+
+    /**
+     * Package private constructor, use {@link Metrics}.
+     */
+    Histogram() {
+        for (int i = 0; i < buckets.length; i++) {
+            buckets[i] = new LongAdder();
+        }
+    }
+
+    /**
+     * Records an observation.
+     *
+     * @param seconds
+     *      observed duration in seconds
+     */
+    public void observe(final double seconds) {
+        int i = 0;
+        while (i < BUCKETS.length && seconds > BUCKETS[i]) {
+            i++;
+        }
+
+        buckets[i].increment();
+        count.increment();
+        sum.add(seconds);
+    }
+
+    /**
+     * Records duration elapsed since the given time.
+     *
+     * @param startNanos
+     *      start time as returned by {@link System#nanoTime()}
+     * @return elapsed time in nanoseconds
+     */
+    public long observeSince(final long startNanos) {
+        final long elapsed = System.nanoTime() - startNanos;
+        observe((double) elapsed / TimeUnit.SECONDS.toNanos(1));
+        return elapsed;
+    }
+
+    /**
+     * @return number of observations
+     */
+    public long getCount() {
+        return count.sum();
+    }
+
+    /**
+     * @return sum of all observations in seconds
+     */
+    public double getSum() {
+        return sum.sum();
+    }
+
+    /**
+     * @return cumulative counts of observations for each bucket including +Inf
+     */
+    long[] getCumulativeCounts() {
+        final long[] result = new long[buckets.length];
+        long total = 0;
+        for (int i = 0; i < buckets.length; i++) {
+            total += buckets[i].sum();
+            result[i] = total;
+        }
+
+        return result;
+    }
+}
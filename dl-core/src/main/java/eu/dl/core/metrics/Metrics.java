@@ -0,0 +1,331 @@
+package eu.dl.core.metrics;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.lang.management.ManagementFactory;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.function.DoubleSupplier;
+
+import javax.management.ObjectName;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.sun.net.httpserver.HttpServer;
+
+import eu.dl.core.UnrecoverableException;
+import eu.dl.core.config.Config;
+import eu.dl.core.config.MisconfigurationException;
+
+/**
+ * Registry of the process metrics. Metric is identified by its name and series of the metric by label values, labels
+ * are passed as pairs of name and value. Repeated calls with the same name and labels return the same series, so the
+ * metrics can be looked up anytime and needn't be kept in fields.
+ *
+ * Metrics are exposed via JMX ({@code eu.dl.core:type=Metrics}) and optionally via HTTP endpoint {@code /metrics}
+ * in Prometheus text format. The endpoint listens on port set with a configuration property
+ * {@code <worker_class>.metrics.port} or {@code metrics.port} and host {@code metrics.host} (default localhost).
+ */
+public final class Metrics {
+
+    private static final Logger logger = LoggerFactory.getLogger(Metrics.class.getName());
+
+    private static final ConcurrentMap<String, Family> FAMILIES = new ConcurrentHashMap<>();
+
+    private static final String DEFAULT_HOST = "localhost";
+
+    private static boolean started = false;
+
+    /**
+     * Utility class.
+     */
+    private Metrics() {
+    }
+
+    /**
+     * Returns counter.
+     *
+     * @param name
+     *      metric name
+     * @param help
+     *      metric description
+     * @param labels
+     *      pairs of label name and value
+     * @return counter
+     */
+    public static Counter counter(final String name, final String help, final String... labels) {
+        return (Counter) family(name, help, Type.COUNTER).series.computeIfAbsent(labels(labels), n -> new Counter());
+    }
+
+    /**
+     * Returns histogram of durations in seconds.
+     *
+     * @param name
+     *      metric name
+     * @param help
+     *      metric description
+     * @param labels
+     *      pairs of label name and value
+     * @return histogram
+     */
+    public static Histogram histogram(final String name, final String help, final String... labels) {
+        return (Histogram) family(name, help, Type.HISTOGRAM).series.computeIfAbsent(labels(labels),
+            n -> new Histogram());
+    }
+
+    /**
+     * Registers gauge. The value is read from the supplier whenever the metrics are collected. Already registered
+     * gauge with the same name and labels is replaced.
+     *
+     * @param name
+     *      metric name
+     * @param help
+     *      metric description
+     * @param value
+     *      supplier of the gauge value
+     * @param labels
+     *      pairs of label name and value
+     */
+    public static void gauge(final String name, final String help, final DoubleSupplier value,
+        final String... labels) {
+        family(name, help, Type.GAUGE).series.put(labels(labels), value);
+    }
+
+    /**
+     * Exposes the metrics via JMX and HTTP endpoint in case that the port is configured. Repeated calls have no
+     * effect.
+     *
+     * @param workerName
+     *      name of the worker used to look up the worker specific port
+     */
+    public static synchronized void start(final String workerName) {
+        if (started) {
+            return;
+        }
+        started = true;
+
+        registerMBean();
+
+        final Config config = Config.getInstance();
+        String port = config.getParam(workerName + ".metrics.port");
+        if (port == null || port.trim().isEmpty()) {
+            port = config.getParam("metrics.port");
+        }
+        if (port == null || port.trim().isEmpty()) {
+            logger.debug("No metrics port configured, metrics are available only via JMX");
+            return;
+        }
+
+        final String host = config.getParam("metrics.host");
+        final InetSocketAddress address;
+        try {
+            address = new InetSocketAddress(host == null || host.trim().isEmpty() ? DEFAULT_HOST : host.trim(),
+                Integer.parseInt(port.trim()));
+        } catch (IllegalArgumentException e) {
+            logger.error("Value '{}' isn't a valid metrics port", port);
+            throw new MisconfigurationException("Metrics port must be a valid port number");
+        }
+
+        try {
+            final HttpServer server = HttpServer.create(address, 0);
+            server.createContext("/metrics", exchange -> {
+                final byte[] body = scrape().getBytes(StandardCharsets.UTF_8);
+                exchange.getResponseHeaders().set("Content-Type", "text/plain; version=0.0.4; charset=utf-8");
+                exchange.sendResponseHeaders(200, body.length);
+                try (OutputStream out = exchange.getResponseBody()) {
+                    out.write(body);
+                }
+            });
+            server.start();
+            logger.info("Metrics endpoint listening on http://{}:{}/metrics", address.getHostString(),
+                address.getPort());
+        } catch (IOException e) {
+            logger.error("Unable to start metrics endpoint on {} because of {}", address, e);
+            throw new UnrecoverableException("Unable to start metrics endpoint", e);
+        }
+    }
+
+    /**
+     * Returns all metrics in Prometheus text format.
+     *
+     * @return metrics
+     */
+    public static String scrape() {
+        final StringBuilder result = new StringBuilder();
+        for (Family family : new TreeMap<>(FAMILIES).values()) {
+            result.append("# HELP ").append(family.name).append(' ')
+                .append(family.help.replace("\\", "\\\\").replace("\n", "\\n")).append('\n');
+            result.append("# TYPE ").append(family.name).append(' ').append(family.type.name().toLowerCase())
+                .append('\n');
+
+            for (Map.Entry<String, Object> series : new TreeMap<>(family.series).entrySet()) {
+                final String labels = series.getKey();
+                switch (family.type) {
+                    case COUNTER:
+                        sample(result, family.name, labels, ((Counter) series.getValue()).get());
+                        break;
+                    case GAUGE:
+                        sample(result, family.name, labels, ((DoubleSupplier) series.getValue()).getAsDouble());
+                        break;
+                    default:
+                        final Histogram histogram = (Histogram) series.getValue();
+                        final long[] counts = histogram.getCumulativeCounts();
+                        final String prefix = labels.isEmpty() ? "" : labels + ",";
+                        for (int i = 0; i < counts.length; i++) {
+                            final String le = i < Histogram.BUCKETS.length ? String.valueOf(Histogram.BUCKETS[i])
+                                : "+Inf";
+                            sample(result, family.name + "_bucket", prefix + "le=\"" + le + "\"", counts[i]);
+                        }
+                        sample(result, family.name + "_sum", labels, histogram.getSum());
+                        sample(result, family.name + "_count", labels, counts[counts.length - 1]);
+                        break;
+                }
+            }
+        }
+
+        return result.toString();
+    }
+
+    /**
+     * Returns current values of all series. Key is the series name with labels, histograms are represented by their
+     * count and sum.
+     *
+     * @return values of the series
+     */
+    static Map<String, Object> snapshot() {
+        final Map<String, Object> result = new TreeMap<>();
+        for (Family family : FAMILIES.values()) {
+            for (Map.Entry<String, Object> series : family.series.entrySet()) {
+                final String labels = series.getKey().isEmpty() ? "" : "{" + series.getKey() + "}";
+                switch (family.type) {
+                    case COUNTER:
+                        result.put(family.name + labels, ((Counter) series.getValue()).get());
+                        break;
+                    case GAUGE:
+                        result.put(family.name + labels, ((DoubleSupplier) series.getValue()).getAsDouble());
+                        break;
+                    default:
+                        final Histogram histogram = (Histogram) series.getValue();
+                        result.put(family.name + "_count" + labels, histogram.getCount());
+                        result.put(family.name + "_sum" + labels, histogram.getSum());
+                        break;
+                }
+            }
+        }
+
+        return result;
+    }
+
+    /**
+     * @param result
+     *      output
+     * @param name
+     *      sample name
+     * @param labels
+     *      formatted labels
+     * @param value
+     *      sample value
+     */
+    private static void sample(final StringBuilder result, final String name, final String labels,
+        final Object value) {
+        result.append(name);
+        if (!labels.isEmpty()) {
+            result.append('{').append(labels).append('}');
+        }
+        result.append(' ').append(value).append('\n');
+    }
+
+    /**
+     * @param name
+     *      metric name
+     * @param help
+     *      metric description
+     * @param type
+     *      metric type
+     * @return metric family
+     */
+    private static Family family(final String name, final String help, final Type type) {
+        final Family family = FAMILIES.computeIfAbsent(name, n -> new Family(name, help, type));
+        if (family.type != type) {
+            throw new IllegalArgumentException("Metric " + name + " is already registered as " + family.type);
+        }
+
+        return family;
+    }
+
+    /**
+     * @param labels
+     *      pairs of label name and value
+     * @return labels in Prometheus format without braces
+     */
+    private static String labels(final String... labels) {
+        if (labels.length % 2 != 0) {
+            throw new IllegalArgumentException("Labels must be pairs of name and value");
+        }
+
+        final StringBuilder result = new StringBuilder();
+        for (int i = 0; i < labels.length; i += 2) {
+            if (i > 0) {
+                result.append(',');
+            }
+            result.append(labels[i]).append("=\"").append(String.valueOf(labels[i + 1]).replace("\\", "\\\\")
+                .replace("\"", "\\\"").replace("\n", "\\n")).append('"');
+        }
+
+        return result.toString();
+    }
+
+    /**
+     * Registers the metrics to the platform MBean server.
+     */
+    private static void registerMBean() {
+        try {
+            final ObjectName name = new ObjectName("eu.dl.core:type=Metrics");
+            if (!ManagementFactory.getPlatformMBeanServer().isRegistered(name)) {
+                ManagementFactory.getPlatformMBeanServer().registerMBean(new MetricsDynamicMBean(), name);
+            }
+        } catch (Exception e) {
+            logger.warn("Unable to register metrics MBean because of", e);
+        }
+    }
+
+    /**
+     * Metric types.
+     */
+    private enum Type {
+        COUNTER, GAUGE, HISTOGRAM
+    }
+
+    /**
+     * All series of one metric.
+     */
+    private static final class Family {
+
+        private final String name;
+
+        private final String help;
+
+        private final Type type;
+
+        private final ConcurrentMap<String, Object> series = new ConcurrentHashMap<>();
+
+        /**
+         * @param name
+         *      metric name
+         * @param help
+         *      metric description
+         * @param type
+         *      metric type
+         */
+        Family(final String name, final String help, final Type type) {
+            this.name = name;
+            this.help = help == null ? "" : help;
+            this.type = type;
+        }
+    }
+}
@@ -0,0 +1,70 @@
+package eu.dl.core.metrics;
+
+import java.util.Map;
+
+import javax.management.Attribute;
+import javax.management.AttributeList;
+import javax.management.AttributeNotFoundException;
+import javax.management.DynamicMBean;
+import javax.management.MBeanAttributeInfo;
+import javax.management.MBeanInfo;
+import javax.management.MBeanOperationInfo;
+
+/**
+ * Exposes all the metrics via JMX. Each series is a read-only attribute, set of the attributes grows as the metrics
+ * are registered.
+ */
+final class MetricsDynamicMBean implements DynamicMBean {
+
+    @Override
+    public Object getAttribute(final String attribute) throws AttributeNotFoundException {
+        final Object value = Metrics.snapshot().get(attribute);
+        if (value == null) {
+            throw new AttributeNotFoundException("No metric " + attribute);
+        }
+
+        return value;
+    }
+
+    @Override
+    public void setAttribute(final Attribute attribute) {
+        throw new UnsupportedOperationException("Metrics are read-only");
+    }
+
+    @Override
+    public AttributeList getAttributes(final String[] attributes) {
+        final Map<String, Object> snapshot = Metrics.snapshot();
+        final AttributeList result = new AttributeList();
+        for (String name : attributes) {
+            if (snapshot.containsKey(name)) {
+                result.add(new Attribute(name, snapshot.get(name)));
+            }
+        }
+
+        return result;
+    }
+
+    @Override
+    public AttributeList setAttributes(final AttributeList attributes) {
+        return new AttributeList();
+    }
+
+    @Override
+    public Object invoke(final String actionName, final Object[] params, final String[] signature) {
+        throw new UnsupportedOperationException("No operations available");
+    }
+
+    @Override
+    public MBeanInfo getMBeanInfo() {
+        final Map<String, Object> snapshot = Metrics.snapshot();
+        final MBeanAttributeInfo[] attributes = new MBeanAttributeInfo[snapshot.size()];
+        int i = 0;
+        for (Map.Entry<String, Object> n : snapshot.entrySet()) {
+            attributes[i++] = new MBeanAttributeInfo(n.getKey(), n.getValue().getClass().getName(), n.getKey(),
+                true, false, false);
+        }
+
+        return new MBeanInfo(getClass().getName(), "Worker metrics", attributes, null,
+            new MBeanOperationInfo[0], null);
+    }
+}
@@ -6,7 +6,9 @@ import java.io.FileNotFoundException;
 import java.io.IOException;
 import java.io.InputStream;
 import java.nio.file.Files;
+import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
 import java.util.UUID;
 
 import org.apache.commons.codec.digest.DigestUtils;
@@ -56,11 +58,7 @@ public class FileSystemStorageService implements StorageService {
     @Override
     public final String save(final InputStream inputStream, final String namespace) {
         String uuid = UUID.randomUUID().toString();
-        String sanitizedNamespace = DEFAULT_NAMESPACE;
-
-        if (!namespace.equalsIgnoreCase(DEFAULT_NAMESPACE)) {
-            sanitizedNamespace = DigestUtils.md5Hex(namespace);
-        }
+        String sanitizedNamespace = sanitizeNamespace(namespace);
 
         String dirPath = getPathFromKey(sanitizedNamespace + NAMESPACE_SEPARATOR + uuid, true);
 
@@ -80,6 +78,41 @@ public class FileSystemStorageService implements StorageService {
         return save(inputStream, DEFAULT_NAMESPACE);
     }
 
+    /* (non-Javadoc)
+     * @see eu.dl.core.storage.StorageService#saveContent(byte[], java.lang.String)
+     */
+    @Override
+    public final String saveContent(final byte[] content, final String namespace) {
+        String key = sanitizeNamespace(namespace) + NAMESPACE_SEPARATOR + UUID.randomUUID().toString();
+
+        Path path = Paths.get(getPathFromKey(key, true));
+        try {
+            // content is written to a temporary file first, so the concurrent readers never see a partial file
+            Path tmp = Files.createTempFile(path.getParent(), path.getFileName().toString(), ".tmp");
+            try {
+                Files.write(tmp, content);
+                Files.move(tmp, path, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+            } finally {
+                Files.deleteIfExists(tmp);
+            }
+        } catch (IOException e) {
+            logger.error("Unable to save content {}", e);
+            throw new RecoverableException("Unable to save content", e);
+        }
+
+        logger.debug("Content stored into namespace {} with key {}", namespace, key);
+        return key;
+    }
+
+    /**
+     * @param namespace
+     *      namespace
+     * @return name of the namespace directory
+     */
+    private static String sanitizeNamespace(final String namespace) {
+        return namespace.equalsIgnoreCase(DEFAULT_NAMESPACE) ? DEFAULT_NAMESPACE : DigestUtils.md5Hex(namespace);
+    }
+
     /* (non-Javadoc)
      * @see eu.dl.core.storage.StorageService#get(java.lang.String)
      */
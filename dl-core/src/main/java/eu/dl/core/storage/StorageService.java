@@ -32,6 +32,18 @@ public interface StorageService {
      */
     String save(InputStream inputStream);
 
+    /**
+     * Saves content to persistent storage under a new unique key. The content is written atomically, so it is either
+     * complete or missing for concurrent readers.
+     *
+     * @param content
+     *            the content to be stored
+     * @param namespace
+     *            the namespace where to store the file
+     * @return key assigned to this content
+     */
+    String saveContent(byte[] content, String namespace);
+
     /**
      * Gets the file from persistent storage.
      * 
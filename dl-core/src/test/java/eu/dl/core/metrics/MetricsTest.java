@@ -0,0 +1,77 @@
+package eu.dl.core.metrics;
+
+import static eu.dl.core.ThrowableAssertion.assertThrown;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Map;
+
+import org.junit.Test;
+
+/**
+ * Test of metrics registry.
+ */
+public final class MetricsTest {
+
+    /**
+     * Test of counters and their text format.
+     */
+    @Test
+    public void counterTest() {
+        Counter counter = Metrics.counter("test_messages_total", "Test messages", "worker", "a", "outcome", "acked");
+        assertSame(counter, Metrics.counter("test_messages_total", "Test messages", "worker", "a", "outcome",
+            "acked"));
+
+        counter.inc();
+        counter.inc(2);
+        Metrics.counter("test_messages_total", "Test messages", "worker", "a\"b", "outcome", "nacked").inc();
+
+        assertEquals(3, counter.get());
+
+        String text = Metrics.scrape();
+        assertTrue(text.contains("# TYPE test_messages_total counter\n"));
+        assertTrue(text.contains("test_messages_total{worker=\"a\",outcome=\"acked\"} 3\n"));
+        assertTrue(text.contains("test_messages_total{worker=\"a\\\"b\",outcome=\"nacked\"} 1\n"));
+
+        Map<String, Object> snapshot = Metrics.snapshot();
+        assertEquals(3L, snapshot.get("test_messages_total{worker=\"a\",outcome=\"acked\"}"));
+
+        assertThrown(() -> Metrics.histogram("test_messages_total", "Test messages"))
+            .isInstanceOf(IllegalArgumentException.class);
+        assertThrown(() -> Metrics.counter("test_messages_total", "Test messages", "worker"))
+            .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    /**
+     * Test of histograms and their text format.
+     */
+    @Test
+    public void histogramTest() {
+        Histogram histogram = Metrics.histogram("test_duration_seconds", "Test duration", "plugin", "p");
+        histogram.observe(0.0005);
+        histogram.observe(0.003);
+        histogram.observe(100);
+
+        assertEquals(3, histogram.getCount());
+        assertEquals(100.0035, histogram.getSum(), 0.000001);
+
+        String text = Metrics.scrape();
+        assertTrue(text.contains("# TYPE test_duration_seconds histogram\n"));
+        assertTrue(text.contains("test_duration_seconds_bucket{plugin=\"p\",le=\"0.001\"} 1\n"));
+        assertTrue(text.contains("test_duration_seconds_bucket{plugin=\"p\",le=\"0.005\"} 2\n"));
+        assertTrue(text.contains("test_duration_seconds_bucket{plugin=\"p\",le=\"60.0\"} 2\n"));
+        assertTrue(text.contains("test_duration_seconds_bucket{plugin=\"p\",le=\"+Inf\"} 3\n"));
+        assertTrue(text.contains("test_duration_seconds_count{plugin=\"p\"} 3\n"));
+    }
+
+    /**
+     * Test of gauges.
+     */
+    @Test
+    public void gaugeTest() {
+        Metrics.gauge("test_size", "Test size", () -> 42);
+        assertTrue(Metrics.scrape().contains("test_size 42.0\n"));
+        assertEquals(42.0, Metrics.snapshot().get("test_size"));
+    }
+}
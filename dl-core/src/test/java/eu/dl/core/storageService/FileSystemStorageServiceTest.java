@@ -1,6 +1,8 @@
 package eu.dl.core.storageService;
 
 import static eu.dl.core.ThrowableAssertion.assertThrown;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotEquals;
 import static org.junit.Assert.assertNull;
 import static org.junit.Assert.assertTrue;
 
@@ -108,5 +110,32 @@ public class FileSystemStorageServiceTest {
 
         assertTrue("test".equals(result.toString("UTF-8")));
     }
-}
 
+    /**
+     * @throws IOException
+     *             in case of failure
+     */
+    @Test
+    public final void saveContentTest() throws IOException {
+        String key = storageService.saveContent("test content".getBytes("UTF-8"), "namespace");
+
+        // every save gets its own key, even for the same content
+        String otherKey = storageService.saveContent("test content".getBytes("UTF-8"), "namespace");
+        assertNotEquals(key, otherKey);
+        assertTrue(storageService.remove(otherKey));
+
+        ByteArrayOutputStream result = new ByteArrayOutputStream();
+        try (InputStream returnedStream = storageService.get(key)) {
+            byte[] buffer = new byte[1024];
+            int length;
+            while ((length = returnedStream.read(buffer)) != -1) {
+                result.write(buffer, 0, length);
+            }
+        }
+
+        assertEquals("test content", result.toString("UTF-8"));
+
+        assertTrue(storageService.remove(key));
+        assertNull(storageService.get(key));
+    }
+}
@@ -24,6 +24,16 @@ public interface CleanTenderDAO<T extends CleanTender> extends CleanDAO<T> {
      */
     T getById(String id);
 
+    /**
+     * Returns the objects with given ids.
+     *
+     * @param ids
+     *         ids to be searched
+     *
+     * @return clean tenders with given ids, missing ids are skipped
+     */
+    List<T> getByIds(List<String> ids);
+
     /**
      * Returns paged list of clean items for a specific country.
      *
@@ -36,6 +46,17 @@ public interface CleanTenderDAO<T extends CleanTender> extends CleanDAO<T> {
      */
     List<T> getByCountry(String countryCode, Integer page);
 
+    /**
+     * Gets tenders for a specific country (and source). The result is paged with keyset pagination ordered by
+     * (modified, id).
+     *
+     * @param countryCode country code
+     * @param createdBy source, optional
+     * @param after continuation token of the previous page, null for the first page
+     * @return page with tenders
+     */
+    KeysetPage<T> getByCountryKeyset(String countryCode, String createdBy, String after);
+
     /**
      * Gets list of publication source IDs which are included.
      *
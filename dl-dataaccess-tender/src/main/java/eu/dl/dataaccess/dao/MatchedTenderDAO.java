@@ -4,8 +4,10 @@ import eu.dl.dataaccess.dto.matched.MatchedTender;
 
 import java.net.URL;
 import java.time.LocalDate;
+import java.util.Collection;
 import java.util.List;
 import java.util.Map;
+import java.util.stream.Stream;
 
 /**
  * DAO for matched body.
@@ -24,6 +26,16 @@ public interface MatchedTenderDAO<T extends MatchedTender> extends MatchedDAO<T>
      */
     String save(T matchedTender);
 
+    /**
+     * Saves given matched tenders to persistent storage in batches.
+     *
+     * @param matchedTenders
+     *            matched tenders to be saved
+     *
+     * @return ids of saved matched tenders in the order of the given collection
+     */
+    List<String> saveAll(Collection<T> matchedTenders);
+
     /**
      * Returns the object by given id.
      *
@@ -104,6 +116,19 @@ public interface MatchedTenderDAO<T extends MatchedTender> extends MatchedDAO<T>
      */
     List<T> getForResend(String name, String version);
 
+    /**
+     * Returns objects which have been stored by the particular version of the matcher as a lazy stream. The objects
+     * are used to resend so they have to contain group ID. The stream holds database resources and has to be closed
+     * after use.
+     *
+     * @param name
+     *            matcher name
+     * @param version
+     *            matcher version
+     * @return stream of objects with only one attribute id and one attribute group ID having set.
+     */
+    Stream<T> streamForResend(String name, String version);
+
     /**
      * Returns list of tenders that have non-empty intersection with the given list of tender publications source ids
      * and publication dates.
@@ -105,7 +105,25 @@ public final class TenderUtils {
             return Collections.emptyMap();
         }
 
-        List<MatchedTender> group = dao.getByGroupId(groupId);
+        return getLatestPublications(dao.getByGroupId(groupId), formTypes);
+    }
+
+    /**
+     * From given group of matched tenders selects latest published matched tenders of given form types.
+     *
+     * @param group
+     *      matched tenders of one group
+     * @param formTypes
+     *      list of searched form types
+     * @return map, where key includes the form type and value holds the found tender. If no tender is found returns
+     *          an empty map
+     */
+    public static Map<PublicationFormType, MatchedTender> getLatestPublications(final List<MatchedTender> group,
+        final List<PublicationFormType> formTypes) {
+        if (group == null || formTypes == null || formTypes.isEmpty()) {
+            return Collections.emptyMap();
+        }
+
         Map<PublicationFormType, MatchedTender> latest = new HashMap<>();
         for (MatchedTender t : group) {
             if (t != null && t.getPublications() != null) {
@@ -2,6 +2,7 @@ package eu.dl.dataaccess.dao;
 
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.stream.Stream;
 
 /**
  * Clean item DAO interface. Specifies methods for manipulating data about items
@@ -47,6 +48,23 @@ public interface CleanDAO<T> {
      */
     List<T> getMine(String name, String version, String fromDate, String toDate);
 
+    /**
+     * Returns objects which has been stored by the particular version of the crawler/downloader as a lazy stream. The
+     * stream holds database resources and has to be closed after use.
+     *
+     * @param name
+     *            downloader/crawler name
+     * @param version
+     *            downloader/crawler version
+     * @param fromDate
+     *            from date
+     * @param toDate
+     *            to date
+     *
+     * @return stream of objects with only one attribute id having set.
+     */
+    Stream<T> streamMine(String name, String version, String fromDate, String toDate);
+
     /**
      * Returns objects which has been modified after timestamp. The result is
      * paged with 1000 records per page.
@@ -92,6 +110,25 @@ public interface CleanDAO<T> {
      */
     List<T> getModifiedAfter(LocalDateTime timestamp, String createdBy, String country, Integer page);
 
+    /**
+     * Returns objects which has been modified after timestamp. The result is paged with keyset pagination ordered by
+     * (modified, id), so the performance doesn't depend on the page order.
+     *
+     * @param timestamp
+     *            objects modified after this timestamp will be returned
+     * @param createdBy
+     *            "author" of the change, optional
+     * @param countryCode
+     *            country code, optional
+     * @param after
+     *            continuation token of the previous page, null for the first page
+     *
+     * @return page of objects modified after timestamp
+     * @throws IllegalArgumentException
+     *            in case that the continuation token is invalid
+     */
+    KeysetPage<T> getModifiedAfterKeyset(LocalDateTime timestamp, String createdBy, String countryCode, String after);
+
     /**
      * Returns new instance of T.
      *
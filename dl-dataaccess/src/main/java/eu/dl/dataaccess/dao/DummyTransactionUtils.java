@@ -26,4 +26,9 @@ public class DummyTransactionUtils implements TransactionUtils {
 
     }
 
+    @Override
+    public void release() {
+        // nothing to release
+    }
+
 }
@@ -29,6 +29,18 @@ public interface ExchangeRatesDAO<ExchangeRates> {
      * @return exchange rates
      */
     ExchangeRates getByDate(LocalDate date);
+
+    /**
+     * Returns exchange rates for all dates of the given range.
+     *
+     * @param from
+     *            first date of the range (inclusive)
+     * @param to
+     *            last date of the range (inclusive)
+     *
+     * @return exchange rates or empty list
+     */
+    List<ExchangeRates> getByDateRange(LocalDate from, LocalDate to);
     
     /**
      * Returns all exchange rates.
@@ -1,7 +1,9 @@
 package eu.dl.dataaccess.dao;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.stream.Stream;
 
 /**
  * @param <T>
@@ -18,6 +20,15 @@ public interface GenericDAO<T> extends BaseDAO<T> {
      */
     String save(T t);
 
+    /**
+     * Saves the objects in batches and returns their ids. Objects without id are inserted, the others updated.
+     *
+     * @param items
+     *            objects to be saved
+     * @return saved ids in the order of the given objects
+     */
+    List<String> saveAll(Collection<T> items);
+
     /**
      * Returns object identified by the id.
      *
@@ -53,6 +64,23 @@ public interface GenericDAO<T> extends BaseDAO<T> {
      */
     List<T> getMine(String name, String version, String fromDate, String toDate);
 
+    /**
+     * Returns objects which has been stored by the particular version of the crawler/downloader as a lazy stream. The
+     * stream holds database resources and has to be closed after use.
+     *
+     * @param name
+     *            downloader/crawler name
+     * @param version
+     *            downloader/crawler version
+     * @param fromDate
+     *            from date
+     * @param toDate
+     *            to date
+     *
+     * @return stream of objects with only one attribute id having set.
+     */
+    Stream<T> streamMine(String name, String version, String fromDate, String toDate);
+
     /**
      * Returns objects which has been modified after timestamp. The result is
      * paged with 1000 records per page.
@@ -97,6 +125,55 @@ public interface GenericDAO<T> extends BaseDAO<T> {
      * @return set of objects modified after timestamp
      */
     List<T> getModifiedAfter(LocalDateTime timestamp, String createdBy, String countryCode, Integer page);
+
+    /**
+     * Returns objects which has been modified after timestamp. The result is paged with keyset pagination ordered by
+     * (modified, id), so the performance doesn't depend on the page order.
+     *
+     * @param timestamp
+     *            objects modified after this timestamp will be returned
+     * @param createdBy
+     *            "author" of the change, optional
+     * @param countryCode
+     *            country code, optional
+     * @param after
+     *            continuation token of the previous page, null for the first page
+     *
+     * @return page of objects modified after timestamp
+     * @throws IllegalArgumentException
+     *            in case that the continuation token is invalid
+     */
+    KeysetPage<T> getModifiedAfterKeyset(LocalDateTime timestamp, String createdBy, String countryCode, String after);
+
+    /**
+     * Returns objects for a specific country (and source). The result is paged with keyset pagination ordered by
+     * (modified, id).
+     *
+     * @param countryCode
+     *            country code
+     * @param createdBy
+     *            "author" of the object, optional
+     * @param after
+     *            continuation token of the previous page, null for the first page
+     *
+     * @return page of objects
+     * @throws IllegalArgumentException
+     *            in case that the continuation token is invalid
+     */
+    KeysetPage<T> getByCountryKeyset(String countryCode, String createdBy, String after);
+
+    /**
+     * Returns objects which have been stored by the particular version of the worker (or its relative). The result is
+     * paged with keyset pagination ordered by (processingOrder, id), objects without processing order are the last.
+     *
+     * @param after
+     *            continuation token of the previous page, null for the first page
+     *
+     * @return page of objects
+     * @throws IllegalArgumentException
+     *            in case that the continuation token is invalid
+     */
+    KeysetPage<T> getMineKeyset(String after);
     
     /**
      * Removes object identified by the id.
@@ -0,0 +1,54 @@
+package eu.dl.dataaccess.dao;
+
+import java.util.List;
+
+import eu.dl.dataaccess.annotation.Transformable;
+
+/**
+ * One page of the keyset (seek) paginated result. The next page is requested with the continuation token of the
+ * previous page.
+ *
+ * @param <T>
+ *            item class
+ */
+@Transformable
+public class KeysetPage<T> {
+
+    private List<T> items;
+
+    private String next;
+
+    /**
+     * @return items of the page
+     */
+    public final List<T> getItems() {
+        return items;
+    }
+
+    /**
+     * @param items
+     *            items of the page
+     * @return this instance for chaining
+     */
+    public final KeysetPage<T> setItems(final List<T> items) {
+        this.items = items;
+        return this;
+    }
+
+    /**
+     * @return continuation token of the next page or null in case that this page is the last one
+     */
+    public final String getNext() {
+        return next;
+    }
+
+    /**
+     * @param next
+     *            continuation token of the next page
+     * @return this instance for chaining
+     */
+    public final KeysetPage<T> setNext(final String next) {
+        this.next = next;
+        return this;
+    }
+}
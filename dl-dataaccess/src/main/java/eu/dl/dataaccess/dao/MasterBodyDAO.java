@@ -4,6 +4,7 @@ import eu.dl.dataaccess.dto.master.MasterBody;
 
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Set;
 
 /**
  * DAO for mastered body.
@@ -92,4 +93,14 @@ public interface MasterBodyDAO<T extends MasterBody> extends MasterDAO<T> {
      * @return boolean
      */
     boolean existsInPoliticalExposedPersons(String bvdIdNumber);
+
+    /**
+     * Returns all BVD ids from table political exposed persons, so that the callers can keep them in memory instead of
+     * calling {@link #existsInPoliticalExposedPersons(String)} for each id.
+     *
+     * @return set of BVD ids or null if the implementation doesn't support bulk loading (default)
+     */
+    default Set<String> getPoliticalExposedPersons() {
+        return null;
+    }
 }
@@ -1,7 +1,12 @@
 package eu.dl.dataaccess.dao;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Map;
+import java.util.stream.Stream;
+
+import org.apache.commons.lang3.tuple.Pair;
 
 import eu.dl.dataaccess.dto.codetables.BodyType;
 import eu.dl.dataaccess.dto.matched.MatchedBody;
@@ -25,6 +30,16 @@ public interface MatchedBodyDAO<T extends MatchedBody>
      */
     String save(T matchedBody);
 
+    /**
+     * Saves given matched bodies to persistent storage in batches.
+     *
+     * @param matchedBodies
+     *            matched bodies to be saved
+     *
+     * @return ids of saved matched bodies in the order of the given collection
+     */
+    List<String> saveAll(Collection<T> matchedBodies);
+
     /**
      * Returns the object by given id.
      *
@@ -73,6 +88,19 @@ public interface MatchedBodyDAO<T extends MatchedBody>
      * @return set of objects with only one attribute id and one attribute group ID having set.
      */
     List<T> getForResend(String name, String version);
+
+    /**
+     * Returns objects which have been stored by the particular version of the matcher as a lazy stream. The objects
+     * are used to resend so they have to contain group ID. The stream holds database resources and has to be closed
+     * after use.
+     *
+     * @param name
+     *            matcher name
+     * @param version
+     *            matcher version
+     * @return stream of objects with only one attribute id and one attribute group ID having set.
+     */
+    Stream<T> streamForResend(String name, String version);
     
     /**
      * Returns ids of groups with etalon entry.
@@ -88,6 +116,24 @@ public interface MatchedBodyDAO<T extends MatchedBody>
      */
     Map<String, String> getHashAndGroupIds();
 
+    /**
+     * Returns stream of hash and group pairs of the bodies modified after the given timestamp. The stream must be
+     * closed after use.
+     *
+     * @param timestamp
+     *          pairs of bodies modified after this timestamp are returned, null means all pairs
+     * @return stream of hashes and group ids
+     */
+    Stream<Pair<String, String>> streamHashAndGroupIds(LocalDateTime timestamp);
+
+    /**
+     * Returns stream of all bodies which can be included in approximate matching pool. The bodies have set id, group
+     * id and all attributes used for approximate matching. The stream must be closed after use.
+     *
+     * @return stream of bodies
+     */
+    Stream<T> streamApproximateMatchBodies();
+
     /**
      * Returns list of bodies with the given name and role.
      *
@@ -1,7 +1,9 @@
 package eu.dl.dataaccess.dao;
 
+import java.time.LocalDateTime;
 import java.util.Collection;
 import java.util.List;
+import java.util.Map;
 
 /**
  * Shared methods for matched DAOs.
@@ -20,6 +22,17 @@ public interface MatchedDAO<T> {
      */
     List<T> getByGroupId(String groupId);
 
+    /**
+     * Returns modification timestamps of the objects with the same groupId. Only ids and timestamps are read, so
+     * the method is much cheaper than {@link #getByGroupId(String)}.
+     *
+     * @param groupId
+     *         group id to be searched
+     *
+     * @return modification timestamps by object ids
+     */
+    Map<String, LocalDateTime> getModifiedByGroupId(String groupId);
+
     /**
      * Returns objects with the same ids.
      *
@@ -50,6 +63,19 @@ public interface MatchedDAO<T> {
      */
     List<T> getMineByHash(String hash);
 
+    /**
+     * Returns objects which have been stored by the particular version of the matcher (or its relative). The result
+     * is paged with keyset pagination ordered by (processingOrder, id), objects without processing order are the last.
+     *
+     * @param after
+     *         continuation token of the previous page, null for the first page
+     *
+     * @return page of objects
+     * @throws IllegalArgumentException
+     *         in case that the continuation token is invalid
+     */
+    KeysetPage<T> getMineKeyset(String after);
+
     /**
      * Returns objects with the same hash (if additional workers are set, then also records modified by additional
      * workers are returned).
@@ -1,7 +1,9 @@
 package eu.dl.dataaccess.dao;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.stream.Stream;
 
 import eu.dl.dataaccess.dto.parsed.Parsable;
 
@@ -25,6 +27,16 @@ public interface ParsedDAO<T extends Parsable> {
      */
     String save(T parsedItem);
 
+    /**
+     * Saves given parsed items to persistent storage in batches.
+     *
+     * @param parsedItems
+     *            parsed items to be saved
+     *
+     * @return ids of saved parsed items in the order of the given collection
+     */
+    List<String> saveAll(Collection<T> parsedItems);
+
     /**
      * Returns the object by given id.
      *
@@ -52,6 +64,23 @@ public interface ParsedDAO<T extends Parsable> {
      */
     List<T> getMine(String name, String version, String fromDate, String toDate);
 
+    /**
+     * Returns objects which has been stored by the particular version of the crawler/downloader as a lazy stream. The
+     * stream holds database resources and has to be closed after use.
+     *
+     * @param name
+     *            downloader/crawler name
+     * @param version
+     *            downloader/crawler version
+     * @param fromDate
+     *            from date
+     * @param toDate
+     *            to date
+     *
+     * @return stream of objects with only one attribute id having set.
+     */
+    Stream<T> streamMine(String name, String version, String fromDate, String toDate);
+
     /**
      * Returns objects which has been modified after timestamp. The result is
      * paged with 1000 records per page.
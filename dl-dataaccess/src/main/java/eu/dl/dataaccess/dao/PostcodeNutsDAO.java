@@ -1,5 +1,9 @@
 package eu.dl.dataaccess.dao;
 
+import eu.dl.dataaccess.dto.PostcodeNuts;
+
+import java.util.stream.Stream;
+
 /**
  * Postcode NUTS DAO interface.
  */
@@ -14,4 +18,12 @@ public interface PostcodeNutsDAO {
      * @return NUTS
      */
     String getNutsByPostcode(String postcode, String country);
+
+    /**
+     * Returns all postcode NUTS mappings as a lazy stream. The stream has to be closed to release the underlying
+     * resources.
+     *
+     * @return stream of mappings
+     */
+    Stream<PostcodeNuts> streamAll();
 }
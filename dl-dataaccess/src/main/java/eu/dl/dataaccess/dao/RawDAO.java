@@ -1,6 +1,8 @@
 package eu.dl.dataaccess.dao;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.stream.Stream;
 
 import eu.dl.dataaccess.dto.raw.Raw;
 
@@ -24,6 +26,16 @@ public interface RawDAO<T extends Raw> {
      */
     String save(T parsedItem);
 
+    /**
+     * Saves given items to persistent storage in batches.
+     *
+     * @param items
+     *            items to be saved
+     *
+     * @return ids of saved items in the order of the given collection
+     */
+    List<String> saveAll(Collection<T> items);
+
     /**
      * Returns the object by given id.
      *
@@ -61,6 +73,23 @@ public interface RawDAO<T extends Raw> {
      */
     List<T> getMine(String name, String version, String fromDate, String toDate);
 
+    /**
+     * Returns objects which has been stored by the particular version of the crawler/downloader as a lazy stream. The
+     * stream holds database resources and has to be closed after use.
+     *
+     * @param name
+     *            downloader/crawler name
+     * @param version
+     *            downloader/crawler version
+     * @param fromDate
+     *            from date
+     * @param toDate
+     *            to date
+     *
+     * @return stream of objects with only one attribute id having set.
+     */
+    Stream<T> streamMine(String name, String version, String fromDate, String toDate);
+
     /**
      * Returns new instance of T.
      *
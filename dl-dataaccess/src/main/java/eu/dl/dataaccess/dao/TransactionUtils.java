@@ -19,4 +19,10 @@ public interface TransactionUtils {
      * Rollbacks transaction.
      */
     void rollback();
+
+    /**
+     * Ends the unit of work of the current thread and releases resources (eg. connection) bound to it. Uncommited
+     * changes are discarded.
+     */
+    void release();
 }
@@ -1,11 +1,10 @@
 package eu.dl.dataaccess.dao.jdbc;
 
-import com.fasterxml.jackson.annotation.JsonInclude.Include;
-import com.fasterxml.jackson.databind.DeserializationFeature;
 import com.fasterxml.jackson.databind.ObjectMapper;
-import com.fasterxml.jackson.databind.SerializationFeature;
-import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import eu.dl.core.UnrecoverableException;
 import eu.dl.core.config.Config;
+import eu.dl.core.metrics.Histogram;
+import eu.dl.core.metrics.Metrics;
 import eu.dl.dataaccess.dao.BaseDAO;
 import org.apache.commons.lang3.StringEscapeUtils;
 import org.apache.commons.lang3.tuple.Pair;
@@ -13,11 +12,24 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.sql.Connection;
-import java.text.SimpleDateFormat;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.Iterator;
 import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 
 /**
- * Basic JDBC DAO implementation.
+ * Basic JDBC DAO implementation. DAO methods record durations of their statement executions in histogram
+ * {@code dl_db_query_duration_seconds} labeled by the DAO class and method and by the operation (read or write), see
+ * {@link #observeRead(String, long)} and {@link #observeWrite(String, long)}.
  *
  * @param <T>
  *         DTO to be handled
@@ -46,24 +58,64 @@ public abstract class BaseJdbcDAO<T> implements BaseDAO<T> {
      */
     public static final Integer PAGE_SIZE = 10000;
 
+    /**
+     * Default number of rows fetched from the database cursor at once in streamed methods.
+     */
+    private static final int FETCH_SIZE_DEFAULT = 1000;
+
+    /**
+     * Histograms of the query durations by DAO class and method, the first histogram of the pair is for reads and the
+     * second one for writes. Histograms are resolved once per DAO method, not on each execution.
+     */
+    private static final ClassValue<ConcurrentMap<String, Histogram[]>> QUERY_HISTOGRAMS = new ClassValue<>() {
+        @Override
+        protected ConcurrentMap<String, Histogram[]> computeValue(final Class<?> type) {
+            return new ConcurrentHashMap<>();
+        }
+    };
+
+    private final ConcurrentMap<String, Histogram[]> queryHistograms = QUERY_HISTOGRAMS.get(getClass());
+
+    /**
+     * Maps one row of the result set to an object.
+     *
+     * @param <R>
+     *         class of the object
+     */
+    @FunctionalInterface
+    protected interface RowMapper<R> {
+        /**
+         * @param rs
+         *         result set positioned on the row
+         *
+         * @return mapped object
+         * @throws SQLException
+         *         when retrieving of values fail
+         */
+        R map(ResultSet rs) throws SQLException;
+    }
+
     /**
      * Initializes connection etc.
      */
     protected BaseJdbcDAO() {
+        this(JdbcTransactionUtils.getInstance().getConnectionProxy());
+    }
+
+    /**
+     * Initializes DAO with the given connection instead of the connection of the current thread (eg. in tests).
+     *
+     * @param connection
+     *         connection used by the DAO
+     */
+    protected BaseJdbcDAO(final Connection connection) {
         config = Config.getInstance();
 
         schema = config.getParam("jdbc.schema");
 
-        connection = JdbcTransactionUtils.getInstance().getConnection();
+        this.connection = connection;
 
-        mapper = new ObjectMapper();
-        mapper.enable(DeserializationFeature.USE_BIG_DECIMAL_FOR_FLOATS);
-        mapper.registerModule(new JavaTimeModule());
-        mapper.setDateFormat(new SimpleDateFormat("yyyy-MM-dd'T'HH:mm:ss.SSS'Z'"));
-        mapper.setSerializationInclusion(Include.NON_NULL);
-        mapper.configure(SerializationFeature.WRITE_NULL_MAP_VALUES, false);
-
-        mapper.configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false);
+        mapper = JdbcJsonMapper.getMapper();
     }
 
     /**
@@ -125,6 +177,174 @@ public abstract class BaseJdbcDAO<T> implements BaseDAO<T> {
         return this;
     }
 
+    /**
+     * Executes the query and returns its rows as a lazy stream. The rows are fetched from a server-side cursor in
+     * chunks of jdbc.fetchSize rows (default 1000), so the memory consumption doesn't depend on the result size.
+     * The cursor lives in a transaction of the connection bound to the current thread. The returned stream has to
+     * be closed (eg. try-with-resources) to release the cursor and end the transaction.
+     *
+     * @param <R>
+     *         class of the streamed objects
+     * @param method
+     *         name of the DAO method used in query duration metrics
+     * @param query
+     *         sql query with placeholders
+     * @param parameters
+     *         query parameters
+     * @param rowMapper
+     *         maps rows to objects
+     *
+     * @return stream of objects
+     */
+    protected final <R> Stream<R> stream(final String method, final String query, final List<Object> parameters,
+        final RowMapper<R> rowMapper) {
+        boolean autoCommit = true;
+        PreparedStatement statement = null;
+        try {
+            autoCommit = connection.getAutoCommit();
+            if (autoCommit) {
+                // postgres uses cursor only inside a transaction
+                connection.setAutoCommit(false);
+            }
+
+            statement = connection.prepareStatement(query, ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+            statement.setFetchSize(getFetchSize());
+            for (int i = 0; i < parameters.size(); i++) {
+                statement.setObject(i + 1, parameters.get(i));
+            }
+
+            final PreparedStatement cursorStatement = statement;
+            final long start = System.nanoTime();
+            final ResultSet rs = statement.executeQuery();
+            observeRead(method, start);
+            final boolean restoreAutoCommit = autoCommit;
+
+            Iterator<R> iterator = new Iterator<R>() {
+                private Boolean hasNext;
+
+                @Override
+                public boolean hasNext() {
+                    if (hasNext == null) {
+                        try {
+                            hasNext = rs.next();
+                        } catch (SQLException e) {
+                            logger.error("Unable to fetch next row, because of {}", e);
+                            throw new UnrecoverableException("Unable to fetch next row.", e);
+                        }
+                    }
+                    return hasNext;
+                }
+
+                @Override
+                public R next() {
+                    if (!hasNext()) {
+                        throw new NoSuchElementException();
+                    }
+
+                    hasNext = null;
+                    try {
+                        return rowMapper.map(rs);
+                    } catch (SQLException e) {
+                        logger.error("Unable to read row, because of {}", e);
+                        throw new UnrecoverableException("Unable to read row.", e);
+                    }
+                }
+            };
+
+            return StreamSupport.stream(Spliterators.spliteratorUnknownSize(iterator, Spliterator.ORDERED), false)
+                .onClose(() -> closeCursor(rs, cursorStatement, restoreAutoCommit));
+        } catch (SQLException e) {
+            closeCursor(null, statement, autoCommit);
+            logger.error("Unable to perform query, because of {}", e);
+            throw new UnrecoverableException("Unable to perform query.", e);
+        }
+    }
+
+    /**
+     * Closes cursor opened by {@link #stream(String, String, List, RowMapper)} and ends its transaction.
+     *
+     * @param rs
+     *         result set, might be null
+     * @param statement
+     *         statement, might be null
+     * @param restoreAutoCommit
+     *         whether the autocommit mode should be restored
+     */
+    private void closeCursor(final ResultSet rs, final Statement statement, final boolean restoreAutoCommit) {
+        try {
+            if (rs != null) {
+                rs.close();
+            }
+            if (statement != null) {
+                statement.close();
+            }
+            if (restoreAutoCommit) {
+                connection.commit();
+                connection.setAutoCommit(true);
+            }
+        } catch (SQLException e) {
+            logger.error("Unable to close cursor, because of {}", e);
+            throw new UnrecoverableException("Unable to close cursor.", e);
+        }
+    }
+
+    /**
+     * Records duration of the reading statement execution.
+     *
+     * @param method
+     *         name of the DAO method which executed the statement
+     * @param start
+     *         {@link System#nanoTime()} before the execution
+     */
+    protected final void observeRead(final String method, final long start) {
+        getQueryHistograms(method)[0].observeSince(start);
+    }
+
+    /**
+     * Records duration of the writing statement execution.
+     *
+     * @param method
+     *         name of the DAO method which executed the statement
+     * @param start
+     *         {@link System#nanoTime()} before the execution
+     */
+    protected final void observeWrite(final String method, final long start) {
+        getQueryHistograms(method)[1].observeSince(start);
+    }
+
+    /**
+     * @param method
+     *         name of the DAO method
+     *
+     * @return read and write histograms of the DAO method
+     */
+    private Histogram[] getQueryHistograms(final String method) {
+        Histogram[] histograms = queryHistograms.get(method);
+        if (histograms == null) {
+            // anonymous DAOs are labeled by their named superclass
+            Class<?> type = getClass();
+            while (type.getSimpleName().isEmpty()) {
+                type = type.getSuperclass();
+            }
+
+            final String label = type.getSimpleName() + "." + method;
+            final String help = "Duration of database statement execution";
+            histograms = queryHistograms.computeIfAbsent(method, m -> new Histogram[]{
+                Metrics.histogram("dl_db_query_duration_seconds", help, "method", label, "operation", "read"),
+                Metrics.histogram("dl_db_query_duration_seconds", help, "method", label, "operation", "write")});
+        }
+
+        return histograms;
+    }
+
+    /**
+     * @return number of rows fetched from the database cursor at once
+     */
+    private int getFetchSize() {
+        String fetchSize = config.getParam("jdbc.fetchSize");
+        return fetchSize == null ? FETCH_SIZE_DEFAULT : Integer.parseInt(fetchSize);
+    }
+
     /**
      * Escapes string to be usable in statements.
      *
@@ -1,12 +1,14 @@
 package eu.dl.dataaccess.dao.jdbc;
 
-import com.fasterxml.jackson.databind.ObjectWriter;
 import eu.dl.core.UnrecoverableException;
 import eu.dl.dataaccess.dao.GenericDAO;
+import eu.dl.dataaccess.dao.KeysetPage;
 import eu.dl.dataaccess.dto.StorableDTO;
 import eu.dl.dataaccess.dto.codetables.PublicationFormType;
+import eu.dl.dataaccess.utils.KeysetTokenUtils;
 
 import java.io.IOException;
+import java.sql.Connection;
 import java.sql.PreparedStatement;
 import java.sql.ResultSet;
 import java.sql.SQLException;
@@ -15,11 +17,15 @@ import java.sql.Timestamp;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collection;
 import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.UUID;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 /**
  * Generic DAO implementation for Jdbc connection.
@@ -29,6 +35,32 @@ import java.util.stream.Collectors;
  */
 public abstract class GenericJdbcDAO<T extends StorableDTO> extends BaseJdbcDAO<T> implements GenericDAO<T> {
 
+    /**
+     * Maximal number of statements sent to the database in one batch.
+     */
+    private static final int BATCH_SIZE = 1000;
+
+    private String insertSql;
+
+    private String updateSql;
+
+    /**
+     * Initializes DAO with the connection of the current thread.
+     */
+    protected GenericJdbcDAO() {
+        super();
+    }
+
+    /**
+     * Initializes DAO with the given connection.
+     *
+     * @param connection
+     *         connection used by the DAO
+     */
+    protected GenericJdbcDAO(final Connection connection) {
+        super(connection);
+    }
+
     /**
      * Gets tenders for a specific country.
      *
@@ -45,7 +77,9 @@ public abstract class GenericJdbcDAO<T extends StorableDTO> extends BaseJdbcDAO<
 
             statement.setInt(1, PAGE_SIZE);
             statement.setInt(2, page * PAGE_SIZE);
+            final long start = System.nanoTime();
             ResultSet rs = statement.executeQuery();
+            observeRead("getByCountry", start);
 
             List<T> result = new ArrayList<T>();
 
@@ -80,7 +114,9 @@ public abstract class GenericJdbcDAO<T extends StorableDTO> extends BaseJdbcDAO<
             statement.setString(1, createdBy);
             statement.setInt(2, PAGE_SIZE);
             statement.setInt(3, page * PAGE_SIZE);
+            final long start = System.nanoTime();
             ResultSet rs = statement.executeQuery();
+            observeRead("getByCountry", start);
 
             List<T> result = new ArrayList<>();
             while (rs.next()) {
@@ -113,7 +149,9 @@ public abstract class GenericJdbcDAO<T extends StorableDTO> extends BaseJdbcDAO<
                             sanitizeForJsonString(
                             groupId) + "\"}' ");
 
+            final long start = System.nanoTime();
             ResultSet rs = statement.executeQuery();
+            observeRead("getByGroupId", start);
 
             List<T> result = new ArrayList<T>();
 
@@ -131,6 +169,41 @@ public abstract class GenericJdbcDAO<T extends StorableDTO> extends BaseJdbcDAO<
         }
     }
 
+    /**
+     * Returns modification timestamps of the items with the group id. Only ids and timestamps are selected, the data
+     * aren't read nor deserialized.
+     *
+     * @param groupId
+     *         group id to be searched for
+     *
+     * @return modification timestamps by item ids
+     */
+    public final Map<String, LocalDateTime> getModifiedByGroupId(final String groupId) {
+        try {
+            PreparedStatement statement = connection.prepareStatement(
+                    "SELECT id, modified FROM " + getTableWithSchema() + " WHERE data @> '{ \"groupId\":\"" +
+                            sanitizeForJsonString(groupId) + "\"}' ");
+
+            final long start = System.nanoTime();
+            ResultSet rs = statement.executeQuery();
+            observeRead("getModifiedByGroupId", start);
+
+            Map<String, LocalDateTime> result = new HashMap<>();
+
+            while (rs.next()) {
+                result.put(rs.getString("id"), rs.getTimestamp("modified").toLocalDateTime());
+            }
+
+            rs.close();
+            statement.close();
+
+            return result;
+        } catch (Exception e) {
+            logger.error("Unable to perform query, because of of {}", e);
+            throw new UnrecoverableException("Unable to perform query.", e);
+        }
+    }
+
     /**
      * Returns items with the group id.
      *
@@ -167,7 +240,9 @@ public abstract class GenericJdbcDAO<T extends StorableDTO> extends BaseJdbcDAO<
                 PreparedStatement statement = connection.prepareStatement(
                         "SELECT * FROM " + getTableWithSchema() + " WHERE " + condition + " ORDER BY data->>'processingOrder';");
 
+                final long start = System.nanoTime();
                 ResultSet rs = statement.executeQuery();
+                observeRead("getByGroupIds", start);
 
                 while (rs.next()) {
                     result.add(createFromResultSet(rs));
@@ -194,60 +269,30 @@ public abstract class GenericJdbcDAO<T extends StorableDTO> extends BaseJdbcDAO<
                 PreparedStatement statement = null;
 
                 // generate now stamp
-                LocalDateTime now = LocalDateTime.now();
-                Timestamp timestamp = Timestamp.valueOf(now);
+                Timestamp timestamp = Timestamp.valueOf(LocalDateTime.now());
 
                 if (t.getId() == null) {
                     // insert
-                    statement = connection.prepareStatement(
-                            "INSERT INTO " + getTableWithSchema() + " (id, created, createdBy, createdByVersion, " +
-                                    "modified, modifiedBy, modifiedByVersion, data)" + " VALUES (?, ?, ?, ?, ?, ?, ?,"
-                                    + "" + "" + "" + "" + "" + "" + "" + "" + " ?)",
-                            Statement.RETURN_GENERATED_KEYS);
-
-                    // generate id and populate data
-                    t.setId(UUID.randomUUID().toString());
-                    t.setCreatedBy(getWorkerName());
-                    t.setCreatedByVersion(getWorkerVersion());
-                    t.setCreated(timestamp.toLocalDateTime());
-                    t.setModifiedBy(getWorkerName());
-                    t.setModifiedByVersion(getWorkerVersion());
-                    t.setModified(timestamp.toLocalDateTime());
-
-                    statement.setString(1, t.getId());
-                    statement.setTimestamp(2, timestamp);
-                    statement.setString(3, getWorkerName());
-                    statement.setString(4, getWorkerVersion());
-                    statement.setTimestamp(5, timestamp);
-                    statement.setString(6, getWorkerName());
-                    statement.setString(7, getWorkerVersion());
-                    statement.setString(8, serializeToJson(t));
+                    statement = connection.prepareStatement(getInsertSql(), Statement.RETURN_GENERATED_KEYS);
+                    populateInsert(statement, t, timestamp);
 
                     // execute insert ad get primary key returned
+                    final long start = System.nanoTime();
                     statement.executeUpdate();
+                    observeWrite("save", start);
                     ResultSet rs = statement.getGeneratedKeys();
                     if (rs.next()) {
                         t.setId(rs.getString(1));
                     }
                 } else {
                     // update
-                    statement = connection.prepareStatement(
-                            "UPDATE " + getTableWithSchema() + " SET modified = ? , modifiedBy = ?, " +
-                                    "modifiedByVersion" + " = ?, data = ? WHERE id = ?;");
-
-                    // populate data for json
-                    t.setModifiedBy(getWorkerName());
-                    t.setModifiedByVersion(getWorkerVersion());
-                    t.setModified(timestamp.toLocalDateTime());
-
-                    statement.setTimestamp(1, timestamp);
-                    statement.setString(2, getWorkerName());
-                    statement.setString(3, getWorkerVersion());
-                    statement.setString(4, serializeToJson(t));
-                    statement.setString(5, t.getId());
+                    statement = connection.prepareStatement(getUpdateSql());
+                    populateUpdate(statement, t, timestamp);
 
                     // execute insert ad get primary key returned
+                    final long start = System.nanoTime();
                     statement.executeUpdate();
+                    observeWrite("save", start);
                 }
                 return t.getId();
             } catch (SQLException e) {
@@ -260,6 +305,152 @@ public abstract class GenericJdbcDAO<T extends StorableDTO> extends BaseJdbcDAO<
         }
     }
 
+    @Override
+    public final List<String> saveAll(final Collection<T> items) {
+        if (items == null || items.contains(null)) {
+            logger.error("Unable to save null");
+            throw new UnrecoverableException("Unable to save null!");
+        }
+
+        if (items.isEmpty()) {
+            return new ArrayList<>();
+        }
+
+        // all items of the batch share the same now stamp
+        Timestamp timestamp = Timestamp.valueOf(LocalDateTime.now());
+
+        List<T> inserts = items.stream().filter(t -> t.getId() == null).collect(Collectors.toList());
+        List<T> updates = items.stream().filter(t -> t.getId() != null).collect(Collectors.toList());
+
+        try {
+            if (!inserts.isEmpty()) {
+                try (PreparedStatement statement = connection.prepareStatement(getInsertSql())) {
+                    int batchSize = 0;
+                    for (T t : inserts) {
+                        populateInsert(statement, t, timestamp);
+                        statement.addBatch();
+                        if (++batchSize % BATCH_SIZE == 0) {
+                            final long start = System.nanoTime();
+                            statement.executeBatch();
+                            observeWrite("saveAll", start);
+                        }
+                    }
+                    final long start = System.nanoTime();
+                    statement.executeBatch();
+                    observeWrite("saveAll", start);
+                }
+            }
+
+            if (!updates.isEmpty()) {
+                try (PreparedStatement statement = connection.prepareStatement(getUpdateSql())) {
+                    int batchSize = 0;
+                    for (T t : updates) {
+                        populateUpdate(statement, t, timestamp);
+                        statement.addBatch();
+                        if (++batchSize % BATCH_SIZE == 0) {
+                            final long start = System.nanoTime();
+                            statement.executeBatch();
+                            observeWrite("saveAll", start);
+                        }
+                    }
+                    final long start = System.nanoTime();
+                    statement.executeBatch();
+                    observeWrite("saveAll", start);
+                }
+            }
+        } catch (SQLException e) {
+            logger.error("Unable to perform batch query, because of {}", e.getNextException() != null
+                ? e.getNextException() : e);
+            throw new UnrecoverableException("Unable to perform batch query.", e);
+        }
+
+        logger.debug("Saved {} items ({} inserted, {} updated) to {}", items.size(), inserts.size(), updates.size(),
+            getTableWithSchema());
+
+        return items.stream().map(StorableDTO::getId).collect(Collectors.toList());
+    }
+
+    /**
+     * Generates id, populates audit fields of the object and sets parameters of the insert statement.
+     *
+     * @param statement
+     *         insert statement prepared from {@link #getInsertSql()}
+     * @param t
+     *         object to be inserted
+     * @param timestamp
+     *         now stamp
+     * @throws SQLException
+     *         in case that the parameter setting fails
+     */
+    private void populateInsert(final PreparedStatement statement, final T t, final Timestamp timestamp)
+            throws SQLException {
+        // generate id and populate data
+        t.setId(UUID.randomUUID().toString());
+        t.setCreatedBy(getWorkerName());
+        t.setCreatedByVersion(getWorkerVersion());
+        t.setCreated(timestamp.toLocalDateTime());
+        t.setModifiedBy(getWorkerName());
+        t.setModifiedByVersion(getWorkerVersion());
+        t.setModified(timestamp.toLocalDateTime());
+
+        statement.setString(1, t.getId());
+        statement.setTimestamp(2, timestamp);
+        statement.setString(3, getWorkerName());
+        statement.setString(4, getWorkerVersion());
+        statement.setTimestamp(5, timestamp);
+        statement.setString(6, getWorkerName());
+        statement.setString(7, getWorkerVersion());
+        statement.setString(8, serializeToJson(t));
+    }
+
+    /**
+     * Populates audit fields of the object and sets parameters of the update statement.
+     *
+     * @param statement
+     *         update statement prepared from {@link #getUpdateSql()}
+     * @param t
+     *         object to be updated
+     * @param timestamp
+     *         now stamp
+     * @throws SQLException
+     *         in case that the parameter setting fails
+     */
+    private void populateUpdate(final PreparedStatement statement, final T t, final Timestamp timestamp)
+            throws SQLException {
+        // populate data for json
+        t.setModifiedBy(getWorkerName());
+        t.setModifiedByVersion(getWorkerVersion());
+        t.setModified(timestamp.toLocalDateTime());
+
+        statement.setTimestamp(1, timestamp);
+        statement.setString(2, getWorkerName());
+        statement.setString(3, getWorkerVersion());
+        statement.setString(4, serializeToJson(t));
+        statement.setString(5, t.getId());
+    }
+
+    /**
+     * @return insert statement of one object
+     */
+    private String getInsertSql() {
+        if (insertSql == null) {
+            insertSql = "INSERT INTO " + getTableWithSchema() + " (id, created, createdBy, createdByVersion, "
+                + "modified, modifiedBy, modifiedByVersion, data) VALUES (?, ?, ?, ?, ?, ?, ?, ?)";
+        }
+        return insertSql;
+    }
+
+    /**
+     * @return update statement of one object
+     */
+    private String getUpdateSql() {
+        if (updateSql == null) {
+            updateSql = "UPDATE " + getTableWithSchema() + " SET modified = ? , modifiedBy = ?, "
+                + "modifiedByVersion = ?, data = ? WHERE id = ?;";
+        }
+        return updateSql;
+    }
+
     @Override
     public final T getById(final String id) {
         try {
@@ -267,9 +458,11 @@ public abstract class GenericJdbcDAO<T extends StorableDTO> extends BaseJdbcDAO<
                     "SELECT * FROM " + getTableWithSchema() + " WHERE id = ?");
 
             statement.setString(1, id);
+            final long start = System.nanoTime();
             statement.executeQuery();
 
             ResultSet rs = statement.executeQuery();
+            observeRead("getById", start);
 
             T result = null;
 
@@ -305,9 +498,11 @@ public abstract class GenericJdbcDAO<T extends StorableDTO> extends BaseJdbcDAO<
 
             PreparedStatement statement = connection.prepareStatement(sql.toString());
 
+            final long start = System.nanoTime();
             statement.executeQuery();
 
             ResultSet rs = statement.executeQuery();
+            observeRead("getByIds", start);
 
             List<T> result = new ArrayList<T>();
 
@@ -328,33 +523,20 @@ public abstract class GenericJdbcDAO<T extends StorableDTO> extends BaseJdbcDAO<
     @Override
     public final List<T> getMine(final String name, final String version, final String fromDate, final String toDate) {
         try {
-            PreparedStatement statement;
-            if (fromDate != null && toDate != null) {
-                statement = connection.prepareStatement(
-                        "SELECT id FROM " + getTableWithSchema() + " WHERE createdby = ? AND createdbyversion = ? "
-                                + "AND modified >= ? AND modified <= ? ORDER BY data->>'processingOrder'");
-                statement.setString(3, fromDate);
-                statement.setString(4, toDate);
-            } else if (fromDate != null) {
-                statement = connection.prepareStatement(
-                        "SELECT id FROM " + getTableWithSchema() + " WHERE createdby = ? AND createdbyversion = ? "
-                                + "AND modified >= ? ORDER BY data->>'processingOrder'");
+            PreparedStatement statement = connection.prepareStatement(getMineQuery(fromDate, toDate));
+            if (fromDate != null) {
                 statement.setString(3, fromDate);
-            } else if (toDate != null) {
-                statement = connection.prepareStatement(
-                        "SELECT id FROM " + getTableWithSchema() + " WHERE createdby = ? AND createdbyversion = ? "
-                                + "modified <= ? ORDER BY data->>'processingOrder'");
-                statement.setString(3, toDate);
-            } else {
-                statement = connection.prepareStatement(
-                        "SELECT id FROM " + getTableWithSchema() + " WHERE createdby = ? AND createdbyversion = ? " +
-                                "ORDER BY data->>'processingOrder'");
+            }
+            if (toDate != null) {
+                statement.setString(fromDate != null ? 4 : 3, toDate);
             }
 
             statement.setString(1, name);
             statement.setString(2, version);
 
+            final long start = System.nanoTime();
             ResultSet rs = statement.executeQuery();
+            observeRead("getMine", start);
 
             List<T> result = new ArrayList<T>();
 
@@ -374,6 +556,47 @@ public abstract class GenericJdbcDAO<T extends StorableDTO> extends BaseJdbcDAO<
         }
     }
 
+    @Override
+    public final Stream<T> streamMine(final String name, final String version, final String fromDate,
+        final String toDate) {
+        List<Object> parameters = new ArrayList<>(Arrays.asList(name, version));
+        if (fromDate != null) {
+            parameters.add(fromDate);
+        }
+        if (toDate != null) {
+            parameters.add(toDate);
+        }
+
+        return stream("streamMine", getMineQuery(fromDate, toDate), parameters, rs -> {
+            T t = getEmptyInstance();
+            t.setId(rs.getString("id"));
+            return t;
+        });
+    }
+
+    /**
+     * Prepares query for objects stored by the particular version of the worker. Parameters of the query are worker
+     * name, worker version and optionally from and to dates.
+     *
+     * @param fromDate
+     *         from date
+     * @param toDate
+     *         to date
+     *
+     * @return query
+     */
+    private String getMineQuery(final String fromDate, final String toDate) {
+        String query = "SELECT id FROM " + getTableWithSchema() + " WHERE createdby = ? AND createdbyversion = ?";
+        if (fromDate != null) {
+            query += " AND modified >= ?";
+        }
+        if (toDate != null) {
+            query += " AND modified <= ?";
+        }
+
+        return query + " ORDER BY data->>'processingOrder'";
+    }
+
     /**
      * Returns objects with the same hash which have been stored by the particular version of the matcher.
      *
@@ -391,7 +614,9 @@ public abstract class GenericJdbcDAO<T extends StorableDTO> extends BaseJdbcDAO<
             statement.setString(1, workerName);
             statement.setString(2, workerVersion);
 
+            final long start = System.nanoTime();
             ResultSet rs = statement.executeQuery();
+            observeRead("getMineByHash", start);
 
             List<T> result = new ArrayList<T>();
 
@@ -431,7 +656,9 @@ public abstract class GenericJdbcDAO<T extends StorableDTO> extends BaseJdbcDAO<
             statement.setInt(3, PAGE_SIZE);
             statement.setInt(4, page * PAGE_SIZE);
             
+            final long start = System.nanoTime();
             ResultSet rs = statement.executeQuery();
+            observeRead("getMine", start);
 
             List<T> result = new ArrayList<T>();
 
@@ -470,7 +697,9 @@ public abstract class GenericJdbcDAO<T extends StorableDTO> extends BaseJdbcDAO<
             statement.setString(1, workerName);
             statement.setString(2, workerVersion);
 
+            final long start = System.nanoTime();
             ResultSet rs = statement.executeQuery();
+            observeRead("getByHash", start);
 
             List<T> result = new ArrayList<T>();
 
@@ -499,7 +728,9 @@ public abstract class GenericJdbcDAO<T extends StorableDTO> extends BaseJdbcDAO<
             statement.setInt(2, PAGE_SIZE);
             statement.setInt(3, page * PAGE_SIZE);
 
+            final long start = System.nanoTime();
             ResultSet rs = statement.executeQuery();
+            observeRead("getModifiedAfter", start);
 
             List<T> result = new ArrayList<T>();
 
@@ -529,7 +760,9 @@ public abstract class GenericJdbcDAO<T extends StorableDTO> extends BaseJdbcDAO<
             statement.setInt(3, PAGE_SIZE);
             statement.setInt(4, page * PAGE_SIZE);
 
+            final long start = System.nanoTime();
             ResultSet rs = statement.executeQuery();
+            observeRead("getModifiedAfter", start);
 
             List<T> result = new ArrayList<T>();
 
@@ -572,7 +805,9 @@ public abstract class GenericJdbcDAO<T extends StorableDTO> extends BaseJdbcDAO<
             statement.setInt(2, PAGE_SIZE);
             statement.setInt(3, page * PAGE_SIZE);
 
+            final long start = System.nanoTime();
             ResultSet rs = statement.executeQuery();
+            observeRead("getModifiedAfter", start);
 
             List<T> result = new ArrayList<T>();
 
@@ -590,6 +825,179 @@ public abstract class GenericJdbcDAO<T extends StorableDTO> extends BaseJdbcDAO<
         }
     }
 
+    @Override
+    public final KeysetPage<T> getModifiedAfterKeyset(final LocalDateTime timestamp, final String createdBy,
+        final String countryCode, final String after) {
+        String condition = "modified > ?";
+        List<Object> parameters = new ArrayList<>();
+        parameters.add(Timestamp.valueOf(timestamp));
+
+        if (createdBy != null && !createdBy.isEmpty()) {
+            condition += " AND createdby = ?";
+            parameters.add(createdBy);
+        }
+
+        if (countryCode != null && !countryCode.isEmpty()) {
+            condition += " AND data ->> 'country' = ?";
+            parameters.add(countryCode);
+        }
+
+        return seekByModified("getModifiedAfterKeyset", condition, parameters, after);
+    }
+
+    @Override
+    public final KeysetPage<T> getByCountryKeyset(final String countryCode, final String createdBy,
+        final String after) {
+        String condition = "data ->> 'country' = ?";
+        List<Object> parameters = new ArrayList<>();
+        parameters.add(countryCode);
+
+        if (createdBy != null && !createdBy.isEmpty()) {
+            condition += " AND createdby = ?";
+            parameters.add(createdBy);
+        }
+
+        return seekByModified("getByCountryKeyset", condition, parameters, after);
+    }
+
+    @Override
+    public final KeysetPage<T> getMineKeyset(final String after) {
+        String query = "SELECT * FROM " + getTableWithSchema()
+            + " WHERE ((createdBy = ? AND createdByVersion = ?) " + prepareAdditionalWorkersCondition() + ")";
+
+        String[] keys = after == null ? null : decodeToken(after);
+        if (keys != null) {
+            // records without processing order are sorted as the last ones
+            if (keys[0] == null) {
+                query += " AND data->>'processingOrder' IS NULL AND id > ?";
+            } else {
+                query += " AND ((data->>'processingOrder', id) > (?, ?) OR data->>'processingOrder' IS NULL)";
+            }
+        }
+
+        query += " ORDER BY data->>'processingOrder' ASC, id ASC LIMIT ?";
+
+        try (PreparedStatement statement = connection.prepareStatement(query)) {
+            int i = 1;
+            statement.setString(i++, workerName);
+            statement.setString(i++, workerVersion);
+            if (keys != null) {
+                if (keys[0] != null) {
+                    statement.setString(i++, keys[0]);
+                }
+                statement.setString(i++, keys[1]);
+            }
+            statement.setInt(i, PAGE_SIZE);
+
+            List<T> result = new ArrayList<>();
+            String lastProcessingOrder = null;
+            String lastId = null;
+            final long start = System.nanoTime();
+            try (ResultSet rs = statement.executeQuery()) {
+                observeRead("getMineKeyset", start);
+                while (rs.next()) {
+                    T t = createFromResultSet(rs);
+                    lastProcessingOrder = t.getProcessingOrder();
+                    lastId = t.getId();
+                    result.add(t);
+                }
+            }
+
+            return new KeysetPage<T>()
+                .setItems(result)
+                .setNext(result.size() < PAGE_SIZE ? null : KeysetTokenUtils.encode(lastProcessingOrder, lastId));
+        } catch (Exception e) {
+            logger.error("Unable to perform query, because of {}", e);
+            throw new UnrecoverableException("Unable to perform query.", e);
+        }
+    }
+
+    /**
+     * Returns one page of records which match the condition ordered by (modified, id). The seek is served by the
+     * (modified, id) index of the table.
+     *
+     * @param method
+     *         name of the DAO method used in query duration metrics
+     * @param condition
+     *         sql condition with placeholders
+     * @param parameters
+     *         condition parameters
+     * @param after
+     *         continuation token of the previous page, null for the first page
+     *
+     * @return page of records
+     * @throws IllegalArgumentException
+     *         in case that the continuation token is invalid
+     */
+    private KeysetPage<T> seekByModified(final String method, final String condition, final List<Object> parameters,
+        final String after) {
+        String query = "SELECT * FROM " + getTableWithSchema() + " WHERE " + condition;
+
+        List<Object> queryParameters = new ArrayList<>(parameters);
+        if (after != null) {
+            String[] keys = decodeToken(after);
+            try {
+                queryParameters.add(Timestamp.valueOf(LocalDateTime.parse(keys[0])));
+            } catch (Exception e) {
+                logger.error("Invalid continuation token {}", after);
+                throw new IllegalArgumentException("Invalid continuation token " + after, e);
+            }
+            queryParameters.add(keys[1]);
+            query += " AND (modified, id) > (?, ?)";
+        }
+
+        query += " ORDER BY modified ASC, id ASC LIMIT ?";
+        queryParameters.add(PAGE_SIZE);
+
+        try (PreparedStatement statement = connection.prepareStatement(query)) {
+            for (int i = 0; i < queryParameters.size(); i++) {
+                statement.setObject(i + 1, queryParameters.get(i));
+            }
+
+            List<T> result = new ArrayList<>();
+            Timestamp lastModified = null;
+            String lastId = null;
+            final long start = System.nanoTime();
+            try (ResultSet rs = statement.executeQuery()) {
+                observeRead(method, start);
+                while (rs.next()) {
+                    lastModified = rs.getTimestamp("modified");
+                    lastId = rs.getString("id");
+                    result.add(createFromResultSet(rs));
+                }
+            }
+
+            return new KeysetPage<T>()
+                .setItems(result)
+                .setNext(result.size() < PAGE_SIZE ? null
+                    : KeysetTokenUtils.encode(lastModified.toLocalDateTime().toString(), lastId));
+        } catch (Exception e) {
+            logger.error("Unable to perform query, because of {}", e);
+            throw new UnrecoverableException("Unable to perform query.", e);
+        }
+    }
+
+    /**
+     * Decodes continuation token of the keyset pagination.
+     *
+     * @param token
+     *         continuation token
+     *
+     * @return pair of keys
+     */
+    private String[] decodeToken(final String token) {
+        try {
+            String[] keys = KeysetTokenUtils.decode(token, 2);
+            if (keys[1] == null) {
+                throw new IllegalArgumentException("Id is missing in the token");
+            }
+            return keys;
+        } catch (IllegalArgumentException e) {
+            logger.error("Invalid continuation token {}", token);
+            throw new IllegalArgumentException("Invalid continuation token " + token, e);
+        }
+    }
+
     /**
      * Creates item from result set.
      *
@@ -610,9 +1018,10 @@ public abstract class GenericJdbcDAO<T extends StorableDTO> extends BaseJdbcDAO<
         t.setCreatedBy(rs.getString("createdBy"));
         t.setCreatedByVersion(rs.getString("createdByVersion"));
 
-        String data = rs.getString("data");
+        // raw UTF-8 bytes of the document are parsed directly, without intermediate string
+        byte[] data = rs.getBytes("data");
         try {
-            mapper.readerForUpdating(t).readValue(data);
+            JdbcJsonMapper.update(data, t);
             logger.debug("Deserialized object {} with id {}", t, t.getId());
         } catch (IOException e) {
             logger.error("Unable to deserialize data from json exception {}", e);
@@ -653,7 +1062,9 @@ public abstract class GenericJdbcDAO<T extends StorableDTO> extends BaseJdbcDAO<
         try {
             PreparedStatement st = connection.prepareStatement("SET enable_indexscan TO 'off';");
 
+            final long start = System.nanoTime();
             st.executeUpdate();
+            observeWrite("disableIndexScan", start);
         } catch (Exception e) {
             logger.error("Unable to perform query, because of of {}", e);
             throw new UnrecoverableException("Unable to perform query.", e);
@@ -670,7 +1081,9 @@ public abstract class GenericJdbcDAO<T extends StorableDTO> extends BaseJdbcDAO<
         try {
             PreparedStatement st = connection.prepareStatement("SET enable_indexscan TO 'on';");
 
+            final long start = System.nanoTime();
             st.executeUpdate();
+            observeWrite("enableIndexScan", start);
         } catch (Exception e) {
             logger.error("Unable to perform query, because of of {}", e);
             throw new UnrecoverableException("Unable to perform query.", e);
@@ -687,7 +1100,9 @@ public abstract class GenericJdbcDAO<T extends StorableDTO> extends BaseJdbcDAO<
         try {
             PreparedStatement st = connection.prepareStatement("SET enable_seqscan TO 'off';");
 
+            final long start = System.nanoTime();
             st.executeUpdate();
+            observeWrite("disableSeqScan", start);
         } catch (Exception e) {
             logger.error("Unable to perform query, because of of {}", e);
             throw new UnrecoverableException("Unable to perform query.", e);
@@ -704,7 +1119,9 @@ public abstract class GenericJdbcDAO<T extends StorableDTO> extends BaseJdbcDAO<
         try {
             PreparedStatement st = connection.prepareStatement("SET enable_seqscan TO 'on';");
 
+            final long start = System.nanoTime();
             st.executeUpdate();
+            observeWrite("enableSeqScan", start);
         } catch (Exception e) {
             logger.error("Unable to perform query, because of of {}", e);
             throw new UnrecoverableException("Unable to perform query.", e);
@@ -737,12 +1154,7 @@ public abstract class GenericJdbcDAO<T extends StorableDTO> extends BaseJdbcDAO<
         try {
             // sanitize the input first
             t.setData(null);
-            ObjectWriter objectWriter = mapper.writerWithDefaultPrettyPrinter();
-            byte[] tWritten = objectWriter.writeValueAsBytes(t);
-
-            // Written json
-            String jsonData = new String(tWritten, "UTF-8");
-            return jsonData;
+            return JdbcJsonMapper.write(t);
         } catch (Exception e) {
             logger.error("Unable to serialize data to json exception {}", e);
             throw new UnrecoverableException("Unable to serialize data to json", e);
@@ -756,7 +1168,9 @@ public abstract class GenericJdbcDAO<T extends StorableDTO> extends BaseJdbcDAO<
                     "DELETE FROM " + getTableWithSchema() + " WHERE id = ?");
 
             statement.setString(1, id);
+            final long start = System.nanoTime();
             statement.executeUpdate();
+            observeWrite("removeById", start);
 
             statement.close();
 
@@ -781,7 +1195,9 @@ public abstract class GenericJdbcDAO<T extends StorableDTO> extends BaseJdbcDAO<
                 statement.setString(2, version);
             }
 
+            final long start = System.nanoTime();
             ResultSet rs = statement.executeQuery();
+            observeRead("getIdsBySourceAndVersion", start);
             List<String> result = new ArrayList<String>();
 
             while (rs.next()) {
@@ -831,7 +1247,9 @@ public abstract class GenericJdbcDAO<T extends StorableDTO> extends BaseJdbcDAO<
             statement.setString(1, from.toString());
             statement.setString(2, to.toString());
 
+            final long start = System.nanoTime();
             ResultSet rs = statement.executeQuery();
+            observeRead("getBuyerTendersInPeriod", start);
             
             List<T> result = new ArrayList<>();
             while (rs.next()) {                
@@ -909,7 +1327,9 @@ public abstract class GenericJdbcDAO<T extends StorableDTO> extends BaseJdbcDAO<
             statement.setString(1, from.toString());
             statement.setString(2, to.toString());
 
+            final long start = System.nanoTime();
             ResultSet rs = statement.executeQuery();
+            observeRead("getCPVMedianInPeriod", start);
             int[] median;
             median = rs.next() ? new int[]{rs.getInt("median"), rs.getInt("tenders_cnt")} : new int[]{0, 0};
 
@@ -65,9 +65,11 @@ public class JdbcCrawlerAuditDAO extends GenericJdbcDAO<BasicCrawlerAuditRecord>
 
             statement.setString(1, getWorkerName());
             statement.setString(2, getWorkerVersion());
+            final long start = System.nanoTime();
             statement.executeQuery();
 
             ResultSet rs = statement.executeQuery();
+            observeRead("getByNameAndVersion", start);
 
             BasicCrawlerAuditRecord result = getEmptyInstance();
 
@@ -4,6 +4,7 @@ import java.sql.PreparedStatement;
 import java.sql.ResultSet;
 import java.time.LocalDate;
 import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
 import java.util.List;
 
 import eu.dl.core.UnrecoverableException;
@@ -25,7 +26,9 @@ public class JdbcExhangeRatesDAO extends GenericJdbcDAO<ExchangeRates> implement
                     "SELECT * FROM " + getTableWithSchema() + " WHERE data @> '{ \"date\":\"" +
                             sanitizeForJsonString(date.format(DateTimeFormatter.ISO_LOCAL_DATE)) + "\"}' ");
 
+            final long start = System.nanoTime();
             ResultSet rs = statement.executeQuery();
+            observeRead("getByDate", start);
 
             ExchangeRates result = null;
 
@@ -43,6 +46,36 @@ public class JdbcExhangeRatesDAO extends GenericJdbcDAO<ExchangeRates> implement
         }
     }
 
+    @Override
+    public final List<ExchangeRates> getByDateRange(final LocalDate from, final LocalDate to) {
+        try {
+            PreparedStatement statement = connection.prepareStatement(
+                    "SELECT * FROM " + getTableWithSchema() + " WHERE data ->> 'date' BETWEEN ? AND ?");
+
+            // ISO dates are compared as strings, their lexicographical order is chronological
+            statement.setString(1, from.format(DateTimeFormatter.ISO_LOCAL_DATE));
+            statement.setString(2, to.format(DateTimeFormatter.ISO_LOCAL_DATE));
+
+            final long start = System.nanoTime();
+            ResultSet rs = statement.executeQuery();
+            observeRead("getByDateRange", start);
+
+            List<ExchangeRates> result = new ArrayList<>();
+
+            while (rs.next()) {
+                result.add(createFromResultSet(rs));
+            }
+
+            rs.close();
+            statement.close();
+
+            return result;
+        } catch (Exception e) {
+            logger.error("Unable to perform query, because of {}", e);
+            throw new UnrecoverableException("Unable to perform query.", e);
+        }
+    }
+
     @Override
     public final List<ExchangeRates> findAll() {
         // TODO Auto-generated method stub
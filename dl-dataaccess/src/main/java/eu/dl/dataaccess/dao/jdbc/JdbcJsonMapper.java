@@ -0,0 +1,104 @@
+package eu.dl.dataaccess.dao.jdbc;
+
+import java.io.IOException;
+import java.text.SimpleDateFormat;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import com.fasterxml.jackson.annotation.JsonInclude.Include;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+
+/**
+ * Serializer of the objects stored in JSONB columns. The mapper is shared by all the DAOs and readers/writers are
+ * cached per type, they are immutable and thread-safe. Documents are written as compact JSON (no indentation).
+ */
+public final class JdbcJsonMapper {
+
+    private static final ObjectMapper MAPPER = createMapper();
+
+    private static final ConcurrentMap<Class<?>, ObjectReader> READERS = new ConcurrentHashMap<>();
+
+    private static final ConcurrentMap<Class<?>, ObjectWriter> WRITERS = new ConcurrentHashMap<>();
+
+    /**
+     * Suppress default constructor for noninstatiability.
+     */
+    private JdbcJsonMapper() {
+    }
+
+    /**
+     * @return new mapper configured for the stored documents
+     */
+    static ObjectMapper createMapper() {
+        ObjectMapper mapper = new ObjectMapper();
+        mapper.enable(DeserializationFeature.USE_BIG_DECIMAL_FOR_FLOATS);
+        mapper.registerModule(new JavaTimeModule());
+        mapper.setDateFormat(new SimpleDateFormat("yyyy-MM-dd'T'HH:mm:ss.SSS'Z'"));
+        mapper.setSerializationInclusion(Include.NON_NULL);
+        mapper.configure(SerializationFeature.WRITE_NULL_MAP_VALUES, false);
+
+        mapper.configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false);
+        return mapper;
+    }
+
+    /**
+     * @return shared mapper
+     */
+    public static ObjectMapper getMapper() {
+        return MAPPER;
+    }
+
+    /**
+     * @param clazz
+     *      class of the deserialized objects
+     * @return cached reader for the class
+     */
+    public static ObjectReader readerFor(final Class<?> clazz) {
+        return READERS.computeIfAbsent(clazz, MAPPER::readerFor);
+    }
+
+    /**
+     * @param clazz
+     *      class of the serialized objects
+     * @return cached writer for the class
+     */
+    public static ObjectWriter writerFor(final Class<?> clazz) {
+        return WRITERS.computeIfAbsent(clazz, MAPPER::writerFor);
+    }
+
+    /**
+     * Serializes the object to compact JSON.
+     *
+     * @param object
+     *      object to be serialized
+     * @return JSON string
+     * @throws JsonProcessingException
+     *      in case that the serialization fails
+     */
+    public static String write(final Object object) throws JsonProcessingException {
+        return writerFor(object.getClass()).writeValueAsString(object);
+    }
+
+    /**
+     * Deserializes JSON document into the existing object, values missing in the document are kept untouched.
+     *
+     * @param <T>
+     *      class of the object
+     * @param data
+     *      UTF-8 encoded JSON document
+     * @param object
+     *      object to be updated
+     * @return updated object
+     * @throws IOException
+     *      in case that the deserialization fails
+     */
+    public static <T> T update(final byte[] data, final T object) throws IOException {
+        return readerFor(object.getClass()).withValueToUpdate(object).readValue(data);
+    }
+}
@@ -30,9 +30,11 @@ public class JdbcPlainDocumentDAO extends GenericJdbcDAO<PlainDocument> implemen
                     "SELECT * FROM " + getTableWithSchema() + " WHERE data @> '{ \"hash\":\"" + sanitize(
                             hash) + "\"}'");
 
+            final long start = System.nanoTime();
             statement.executeQuery();
 
             ResultSet rs = statement.executeQuery();
+            observeRead("getLastByHash", start);
 
             PlainDocument result = null;
 
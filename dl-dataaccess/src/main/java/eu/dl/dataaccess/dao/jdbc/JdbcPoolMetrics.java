@@ -0,0 +1,103 @@
+package eu.dl.dataaccess.dao.jdbc;
+
+import com.zaxxer.hikari.metrics.IMetricsTracker;
+import com.zaxxer.hikari.metrics.MetricsTrackerFactory;
+import com.zaxxer.hikari.metrics.PoolStats;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Collects metrics of the JDBC connection pool. The pool reports each borrowed connection, the metrics are available
+ * via getters and JMX.
+ */
+public final class JdbcPoolMetrics implements MetricsTrackerFactory, JdbcPoolMetricsMXBean {
+
+    private volatile PoolStats poolStats;
+
+    private final LongAdder acquiredCount = new LongAdder();
+
+    private final LongAdder waitNanos = new LongAdder();
+
+    private final AtomicLong maxWaitNanos = new AtomicLong();
+
+    private final LongAdder timeoutCount = new LongAdder();
+
+    @Override
+    public IMetricsTracker create(final String poolName, final PoolStats stats) {
+        this.poolStats = stats;
+
+        return new IMetricsTracker() {
+            @Override
+            public void recordConnectionAcquiredNanos(final long elapsedAcquiredNanos) {
+                acquiredCount.increment();
+                waitNanos.add(elapsedAcquiredNanos);
+                maxWaitNanos.accumulateAndGet(elapsedAcquiredNanos, Math::max);
+            }
+
+            @Override
+            public void recordConnectionTimeout() {
+                timeoutCount.increment();
+            }
+        };
+    }
+
+    @Override
+    public int getActiveConnections() {
+        return poolStats == null ? 0 : poolStats.getActiveConnections();
+    }
+
+    @Override
+    public int getIdleConnections() {
+        return poolStats == null ? 0 : poolStats.getIdleConnections();
+    }
+
+    @Override
+    public int getTotalConnections() {
+        return poolStats == null ? 0 : poolStats.getTotalConnections();
+    }
+
+    @Override
+    public int getPendingThreads() {
+        return poolStats == null ? 0 : poolStats.getPendingThreads();
+    }
+
+    @Override
+    public long getAcquiredCount() {
+        return acquiredCount.sum();
+    }
+
+    @Override
+    public double getAverageWaitMillis() {
+        long count = acquiredCount.sum();
+        return count == 0 ? 0 : toMillis(waitNanos.sum()) / count;
+    }
+
+    @Override
+    public double getMaxWaitMillis() {
+        return toMillis(maxWaitNanos.get());
+    }
+
+    @Override
+    public long getTimeoutCount() {
+        return timeoutCount.sum();
+    }
+
+    @Override
+    public String toString() {
+        return String.format("active: %d, idle: %d, total: %d, pending: %d, acquired: %d, avg wait: %.3f ms,"
+                + " max wait: %.3f ms, timeouts: %d", getActiveConnections(), getIdleConnections(),
+            getTotalConnections(), getPendingThreads(), getAcquiredCount(), getAverageWaitMillis(), getMaxWaitMillis(),
+            getTimeoutCount());
+    }
+
+    /**
+     * @param nanos
+     *      nanoseconds
+     * @return milliseconds
+     */
+    private static double toMillis(final long nanos) {
+        return (double) nanos / TimeUnit.MILLISECONDS.toNanos(1);
+    }
+}
@@ -0,0 +1,46 @@
+package eu.dl.dataaccess.dao.jdbc;
+
+/**
+ * JMX interface of the JDBC connection pool metrics.
+ */
+public interface JdbcPoolMetricsMXBean {
+    /**
+     * @return number of connections in use
+     */
+    int getActiveConnections();
+
+    /**
+     * @return number of idle connections
+     */
+    int getIdleConnections();
+
+    /**
+     * @return total number of connections in the pool
+     */
+    int getTotalConnections();
+
+    /**
+     * @return number of threads waiting for a connection
+     */
+    int getPendingThreads();
+
+    /**
+     * @return number of connections borrowed from the pool
+     */
+    long getAcquiredCount();
+
+    /**
+     * @return average time spent waiting for a connection in milliseconds
+     */
+    double getAverageWaitMillis();
+
+    /**
+     * @return maximal time spent waiting for a connection in milliseconds
+     */
+    double getMaxWaitMillis();
+
+    /**
+     * @return number of requests for a connection that timed out
+     */
+    long getTimeoutCount();
+}
@@ -1,45 +1,21 @@
 package eu.dl.dataaccess.dao.jdbc;
 
 import eu.dl.core.UnrecoverableException;
-import eu.dl.core.config.Config;
 import eu.dl.dataaccess.dao.PostcodeNutsDAO;
-import java.sql.Connection;
+import eu.dl.dataaccess.dto.PostcodeNuts;
 
 import java.sql.PreparedStatement;
 import java.sql.ResultSet;
-import java.util.List;
-import org.apache.commons.lang3.tuple.Pair;
-import org.slf4j.Logger;
-import org.slf4j.LoggerFactory;
+import java.util.Collections;
+import java.util.stream.Stream;
 
 /**
  * JDBC implementation of postcode NUTS DAO.
  */
-public final class JdbcPostcodeNutsDAO implements PostcodeNutsDAO {
-
-    protected final Logger logger = LoggerFactory.getLogger(this.getClass());
-
-    protected Config config;
-
-    protected String schema;
-
-    protected List<Pair<String, String>> additionalWorkers;
-
-    protected final Connection connection;
+public final class JdbcPostcodeNutsDAO extends BaseJdbcDAO<PostcodeNuts> implements PostcodeNutsDAO {
 
     private static final String TABLE_NAME = "postcode_nuts";
 
-    /**
-     * Initializes connection etc.
-     */
-    public JdbcPostcodeNutsDAO() {
-        config = Config.getInstance();
-
-        schema = config.getParam("jdbc.schema");
-
-        connection = JdbcTransactionUtils.getInstance().getConnection();
-    }
-
     /**
      * @return table name with schema
      */
@@ -62,7 +38,9 @@ public final class JdbcPostcodeNutsDAO implements PostcodeNutsDAO {
             statement.setString(1, country);
             statement.setString(2, postcode);
 
+            final long start = System.nanoTime();
             ResultSet rs = statement.executeQuery();
+            observeRead("getNutsByPostcode", start);
             String nuts = null;
             // get the first record
             if (rs.next()) {
@@ -78,4 +56,14 @@ public final class JdbcPostcodeNutsDAO implements PostcodeNutsDAO {
             throw new UnrecoverableException("Unable to perform query.", e);
         }
     }
-}
\ No newline at end of file
+
+    @Override
+    public Stream<PostcodeNuts> streamAll() {
+        return stream("streamAll", "SELECT country, postcode, nuts FROM " + getTableWithSchema(),
+            Collections.emptyList(),
+            rs -> new PostcodeNuts()
+                .setCountry(rs.getString("country"))
+                .setPostcode(rs.getString("postcode"))
+                .setNuts(rs.getString("nuts")));
+    }
+}
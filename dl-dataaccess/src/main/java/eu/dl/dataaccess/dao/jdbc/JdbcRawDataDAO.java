@@ -40,7 +40,9 @@ public class JdbcRawDataDAO extends GenericJdbcDAO<RawData> implements RawDataDA
             statement.setString(2, version);
             statement.setString(3, sourceUrl);
 
+            final long start = System.nanoTime();
             ResultSet rs = statement.executeQuery();
+            observeRead("getBySourceUrl", start);
 
             RawData result = null;
 
@@ -1,107 +1,284 @@
 package eu.dl.dataaccess.dao.jdbc;
 
+import java.lang.management.ManagementFactory;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
 import java.sql.Connection;
-import java.sql.DriverManager;
 import java.sql.SQLException;
 
+import javax.management.ObjectName;
+
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import com.zaxxer.hikari.HikariConfig;
+import com.zaxxer.hikari.HikariDataSource;
+
 import eu.dl.core.UnrecoverableException;
 import eu.dl.core.config.Config;
+import eu.dl.core.metrics.Metrics;
 import eu.dl.dataaccess.dao.TransactionUtils;
 
 /**
- * Transaction handling for hibernate.
+ * Transaction handling for JDBC. Connections are borrowed from a pool and bound to the current thread for the
+ * duration of a unit of work, so the transactions of workers processing messages in parallel don't interfere.
+ * The connection is returned to the pool after commit, rollback or {@link #release()}.
+ *
+ * Pool is configured by following parameters:
+ * <ul>
+ *     <li>jdbc.url, jdbc.user, jdbc.password - database connection</li>
+ *     <li>jdbc.pool.minIdle - minimal number of idle connections (default 1)</li>
+ *     <li>jdbc.pool.maxSize - maximal number of connections (default 10)</li>
+ *     <li>jdbc.pool.connectionTimeout - maximal wait for a connection in milliseconds (default 30000)</li>
+ *     <li>jdbc.pool.validationTimeout - maximal time of the connection validation on borrow in milliseconds
+ *     (default 5000)</li>
+ *     <li>jdbc.pool.leakDetectionThreshold - time in milliseconds after which a connection out of the pool is
+ *     reported as a possible leak, 0 disables the detection (default 600000)</li>
+ * </ul>
  */
 public final class JdbcTransactionUtils implements TransactionUtils {
 
-    private Connection connection;
+    private static final String POOL_NAME = "dl-jdbc";
+
+    private static volatile JdbcTransactionUtils instance;
+
+    private final ThreadLocal<Connection> connection = new ThreadLocal<>();
 
-    private static JdbcTransactionUtils instance;
+    private final Connection connectionProxy;
+
+    private final HikariDataSource dataSource;
+
+    private final JdbcPoolMetrics poolMetrics = new JdbcPoolMetrics();
 
     private Logger logger;
 
     private Config config;
 
     /**
-     * Inits utils, creates connections etc.
+     * Inits utils, creates connection pool etc.
      */
     private JdbcTransactionUtils() {
-        try {
-            config = Config.getInstance();
+        config = Config.getInstance();
 
-            logger = LoggerFactory.getLogger(this.getClass().getName());
+        logger = LoggerFactory.getLogger(this.getClass().getName());
 
-            Class.forName("org.postgresql.Driver");
+        HikariConfig poolConfig = new HikariConfig();
+        poolConfig.setPoolName(POOL_NAME);
+        poolConfig.setDriverClassName("org.postgresql.Driver");
+        poolConfig.setJdbcUrl(config.getParam("jdbc.url"));
+        poolConfig.setUsername(config.getParam("jdbc.user"));
+        poolConfig.setPassword(config.getParam("jdbc.password"));
+        poolConfig.setMinimumIdle(getIntParam("jdbc.pool.minIdle", 1));
+        poolConfig.setMaximumPoolSize(getIntParam("jdbc.pool.maxSize", 10));
+        poolConfig.setConnectionTimeout(getIntParam("jdbc.pool.connectionTimeout", 30000));
+        poolConfig.setValidationTimeout(getIntParam("jdbc.pool.validationTimeout", 5000));
+        poolConfig.setLeakDetectionThreshold(getIntParam("jdbc.pool.leakDetectionThreshold", 600000));
+        poolConfig.setMetricsTrackerFactory(poolMetrics);
+        // driver sends batched inserts as multi-row statements
+        poolConfig.addDataSourceProperty("reWriteBatchedInserts", "true");
 
-            String url = config.getParam("jdbc.url");
-
-            connection = DriverManager.getConnection(url, config.getParam("jdbc.user"),
-                    config.getParam("jdbc.password"));
-
-            logger.info("Successfully established database connection to {}", url);
+        try {
+            // pool fails fast in case that the database isn't available
+            dataSource = new HikariDataSource(poolConfig);
         } catch (Exception e) {
             logger.error("Unable to establish db connection caused by {}", e);
             throw new UnrecoverableException("Unable to establish db connection because of", e);
         }
+
+        registerMetrics();
+
+        connectionProxy = (Connection) Proxy.newProxyInstance(Connection.class.getClassLoader(),
+            new Class<?>[]{Connection.class}, (proxy, method, args) -> {
+                switch (method.getName()) {
+                    case "equals":
+                        return proxy == args[0];
+                    case "hashCode":
+                        return System.identityHashCode(proxy);
+                    case "toString":
+                        return "Connection proxy of " + POOL_NAME;
+                    case "close":
+                        release();
+                        return null;
+                    default:
+                        try {
+                            return method.invoke(getConnection(), args);
+                        } catch (InvocationTargetException e) {
+                            throw e.getCause();
+                        }
+                }
+            });
+
+        Runtime.getRuntime().addShutdownHook(new Thread(dataSource::close));
+
+        logger.info("Successfully established database connection pool to {}", poolConfig.getJdbcUrl());
     }
 
     /**
      * Returns initialised utils.
-     * 
+     *
      * @return utils
      */
     public static JdbcTransactionUtils getInstance() {
         if (instance == null) {
-            instance = new JdbcTransactionUtils();
+            synchronized (JdbcTransactionUtils.class) {
+                if (instance == null) {
+                    instance = new JdbcTransactionUtils();
+                }
+            }
         }
 
         return instance;
     }
 
     /**
-     * Returns initialised entity manager.
-     * 
-     * @return entity manager
+     * Returns connection bound to the current thread. In case that there is no such connection, the connection is
+     * borrowed from the pool and bound to the thread until the end of the unit of work.
+     *
+     * @return connection
      */
     public Connection getConnection() {
-        return connection;
+        Connection threadConnection = connection.get();
+        if (threadConnection == null) {
+            try {
+                threadConnection = dataSource.getConnection();
+            } catch (SQLException e) {
+                logger.error("Unable to get db connection from pool ({}) caused by {}", poolMetrics, e);
+                throw new UnrecoverableException("Unable to get db connection from pool because of", e);
+            }
+
+            connection.set(threadConnection);
+            logger.trace("Connection({}) bound to thread {}", threadConnection.hashCode(),
+                Thread.currentThread().getName());
+        }
+
+        return threadConnection;
+    }
+
+    /**
+     * Returns connection which delegates each call to the connection of the calling thread. DAOs are shared among the
+     * threads, so they keep this proxy instead of the connection itself.
+     *
+     * @return connection proxy
+     */
+    public Connection getConnectionProxy() {
+        return connectionProxy;
+    }
+
+    /**
+     * @return metrics of the connection pool
+     */
+    public JdbcPoolMetrics getPoolMetrics() {
+        return poolMetrics;
     }
 
     @Override
     public void begin() {
-        logger.debug("Transaction({}) is started by default.", connection.hashCode());
+        logger.debug("Transaction({}) started.", getConnection().hashCode());
     }
 
     @Override
     public void commit() {
+        Connection threadConnection = connection.get();
+        if (threadConnection == null) {
+            logger.trace("No connection bound to the thread, no commit.");
+            return;
+        }
+
         try {
-            if (!connection.getAutoCommit()) {
-                connection.commit();
-                logger.debug("Transaction({}) commited.", connection.hashCode());
+            if (!threadConnection.getAutoCommit()) {
+                threadConnection.commit();
+                logger.debug("Transaction({}) commited.", threadConnection.hashCode());
             } else {
                 logger.trace("Transaction is in autocommit mode, no commmit.");
             }
         } catch (SQLException ex) {
             logger.error("Unable to commit transaction.");
             throw new UnrecoverableException("Unable to commit transaction", ex);
+        } finally {
+            release();
         }
     }
 
     @Override
     public void rollback() {
+        Connection threadConnection = connection.get();
+        if (threadConnection == null) {
+            logger.trace("No connection bound to the thread, no rollback needed.");
+            return;
+        }
+
         try {
-            if (!connection.getAutoCommit()) {
-                connection.rollback();
-                logger.debug("Transaction({}) rollbacked.", connection.hashCode());
+            if (!threadConnection.getAutoCommit()) {
+                threadConnection.rollback();
+                logger.debug("Transaction({}) rollbacked.", threadConnection.hashCode());
             } else {
                 logger.trace("Transaction is in autocommit mode, no rollback needed.");
             }
         } catch (SQLException ex) {
             logger.error("Unable to rollback transaction.");
             throw new UnrecoverableException("Unable to rollback transaction", ex);
+        } finally {
+            release();
+        }
+    }
+
+    @Override
+    public void release() {
+        Connection threadConnection = connection.get();
+        if (threadConnection == null) {
+            return;
+        }
+
+        connection.remove();
+        try {
+            // pool rollbacks uncommited changes of the returned connection
+            threadConnection.close();
+            logger.trace("Connection({}) returned to pool.", threadConnection.hashCode());
+        } catch (SQLException ex) {
+            logger.warn("Unable to return connection to pool because of", ex);
         }
     }
 
+    /**
+     * Registers pool metrics to the platform MBean server and as gauges of {@link Metrics}.
+     */
+    private void registerMetrics() {
+        final String help = "Number of connections in the JDBC pool";
+        Metrics.gauge("dl_db_pool_connections", help, poolMetrics::getActiveConnections, "state", "active");
+        Metrics.gauge("dl_db_pool_connections", help, poolMetrics::getIdleConnections, "state", "idle");
+        Metrics.gauge("dl_db_pool_pending_threads", "Number of threads waiting for a JDBC connection",
+            poolMetrics::getPendingThreads);
+
+        try {
+            ObjectName name = new ObjectName("eu.dl.dataaccess:type=JdbcPoolMetrics,name=" + POOL_NAME);
+            if (!ManagementFactory.getPlatformMBeanServer().isRegistered(name)) {
+                ManagementFactory.getPlatformMBeanServer().registerMBean(poolMetrics, name);
+            }
+        } catch (Exception e) {
+            logger.warn("Unable to register JDBC pool metrics because of", e);
+        }
+    }
+
+    /**
+     * Returns positive integer configuration parameter.
+     *
+     * @param name
+     *      parameter name
+     * @param defaultValue
+     *      value used when the parameter is not set
+     * @return parameter value
+     */
+    private int getIntParam(final String name, final int defaultValue) {
+        String value = config.getParam(name);
+        if (value == null || value.trim().isEmpty()) {
+            return defaultValue;
+        }
+
+        try {
+            return Integer.parseInt(value.trim());
+        } catch (NumberFormatException e) {
+            logger.error("Invalid value '{}' of parameter {}", value, name);
+            throw new UnrecoverableException("Invalid value of parameter " + name, e);
+        }
+    }
 }
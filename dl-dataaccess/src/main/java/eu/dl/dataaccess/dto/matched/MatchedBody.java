@@ -165,7 +165,7 @@ public class MatchedBody extends BaseMatchedStorableDTO
 
         setStandardizedName(stdName);
         setStandardizedAddress(stdAddress);
-        setDigest(DigestUtils.digest(this));
+        setDigest(DigestUtils.digest(this, stdName, stdAddress));
 
         setRole(role);
     }
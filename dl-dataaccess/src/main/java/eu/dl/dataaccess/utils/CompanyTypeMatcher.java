@@ -0,0 +1,152 @@
+package eu.dl.dataaccess.utils;
+
+import org.apache.commons.lang3.tuple.Pair;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+
+/**
+ * Immutable, precompiled set of company type replacements. Pseudo regular expressions are parsed, sorted and compiled
+ * only once when the matcher is created, so the matcher can be shared among threads and reused for each body name.
+ *
+ * Replacements are applied one by one in the same order as {@link DigestUtils#replace(String, Map)} applies them,
+ * so the result is the same. Before that, the input is checked by a single pattern combining all expressions, and
+ * the input which includes no company type is returned as it is.
+ */
+public final class CompanyTypeMatcher {
+
+    private static final String SPACE_REGEX = "[,\\.\\s]";
+
+    /**
+     * Matcher which doesn't replace anything.
+     */
+    public static final CompanyTypeMatcher EMPTY = new CompanyTypeMatcher(Collections.emptyList());
+
+    private final List<Pattern> patterns;
+
+    private final List<String> replacements;
+
+    /**
+     * Pattern which matches in case that at least one of the {@code patterns} matches.
+     */
+    private final Pattern anyPattern;
+
+    /**
+     * Creates matcher for the given expressions.
+     *
+     * @param expressions
+     *      list of pairs (replacement, pseudo regular expression) in order in which they should be applied
+     */
+    private CompanyTypeMatcher(final List<Pair<String, String>> expressions) {
+        List<Pattern> compiled = new ArrayList<>();
+        List<String> replaced = new ArrayList<>();
+        for (Pair<String, String> n : expressions) {
+            compiled.add(compile(n.getValue()));
+            replaced.add("${before}|" + n.getKey() + "|${after}");
+        }
+
+        patterns = Collections.unmodifiableList(compiled);
+        replacements = Collections.unmodifiableList(replaced);
+        anyPattern = expressions.isEmpty() ? null : Pattern.compile(expressions.stream()
+            .map(n -> "(?:" + expression(n.getValue(), false) + ")")
+            .collect(Collectors.joining("|")));
+    }
+
+    /**
+     * Creates matcher for the given mapping of the pseudo regular expressions. Duplicities are removed and all
+     * expressions are sorted by length in descending order.
+     *
+     * @param regex
+     *      mapping of regular expresions, where replacement is key and regular expression is value
+     * @return matcher
+     */
+    public static CompanyTypeMatcher of(final Map<String, String> regex) {
+        if (regex == null || regex.isEmpty()) {
+            return EMPTY;
+        }
+
+        final Set<String> seen = new HashSet<>();
+        final List<Pair<String, String>> expressions = new ArrayList<>();
+        for (Map.Entry<String, String> n : regex.entrySet()) {
+            // unique list by key (replacement), assumes that same keys includes same regular expression
+            if (seen.add(n.getKey())) {
+                parseExpressions(n.getValue()).forEach(m -> expressions.add(Pair.of(n.getKey(), m)));
+            }
+        }
+
+        // stable sort, expressions of the same length keep the order of the mapping
+        expressions.sort((o1, o2) -> Integer.compare(o2.getValue().length(), o1.getValue().length()));
+
+        return new CompanyTypeMatcher(expressions);
+    }
+
+    /**
+     * Applies all replacements on the given {@code input}.
+     *
+     * @param input
+     *      string to be replaced
+     * @return replaced string or input if no expression matches
+     */
+    public String replace(final String input) {
+        if (input == null || anyPattern == null || !anyPattern.matcher(input).find()) {
+            return input;
+        }
+
+        String cleanInput = input;
+        for (int i = 0; i < patterns.size(); i++) {
+            cleanInput = patterns.get(i).matcher(cleanInput).replaceAll(replacements.get(i));
+        }
+
+        return cleanInput;
+    }
+
+    /**
+     * Compiles the given pseudo regular expression. The expression matches only whole words, words of the expression
+     * may be separated by space, comma or dot. Matched string is surrounded by groups 'before' and 'after' which
+     * capture already replaced company type separator.
+     *
+     * @param regex
+     *      pseudo regular expression
+     * @return compiled pattern
+     */
+    public static Pattern compile(final String regex) {
+        return Pattern.compile(expression(regex, true));
+    }
+
+    /**
+     * @param regex
+     *      pseudo regular expression
+     * @param named
+     *      whether the separator groups should be named
+     * @return regular expression
+     */
+    private static String expression(final String regex, final boolean named) {
+        return
+            // begin of the input
+            "(?i)(\\A?" + SPACE_REGEX + "+|\\A|" + (named ? "(?<before>" : "(") + "\\|))"
+            // matched regex
+            + regex.replace(" ", SPACE_REGEX + "*")
+            // end of the input
+            + "(" + SPACE_REGEX + "+\\z?|\\z|" + (named ? "(?<after>" : "(") + "\\|))";
+    }
+
+    /**
+     * @param regex
+     *      comma separated regular expresions
+     * @return list of regular expressions or an empty list
+     */
+    static List<String> parseExpressions(final String regex) {
+        if (regex == null) {
+            return Collections.emptyList();
+        }
+
+        return Arrays.asList(regex.split(", ?"));
+    }
+}
@@ -4,7 +4,6 @@ import eu.dl.dataaccess.dto.codetables.BodyIdentifier;
 import eu.dl.dataaccess.dto.generic.Address;
 import eu.dl.dataaccess.dto.matched.MatchedBody;
 import org.apache.commons.lang3.StringUtils;
-import org.apache.commons.lang3.tuple.Pair;
 
 import java.text.Normalizer;
 import java.util.ArrayList;
@@ -32,8 +31,6 @@ import static org.apache.commons.codec.digest.DigestUtils.sha256Hex;
  * @author Tomas Mrazek
  */
 public final class DigestUtils {
-    
-    private static final String SPACE_REGEX = "[,\\.\\s]";
 
     /**
      * Set of regular expressions and their replacements which are used for replacing/standardizing of company types
@@ -134,6 +131,37 @@ public final class DigestUtils {
         repl.put("NV", "N V");
         COMPANY_TYPE_REGEX_REPLACEMENT.put("BE", repl);
     }
+
+    /**
+     * Company type replacements of all countries compiled on class initialization. Later changes of
+     * {@link #COMPANY_TYPE_REGEX_REPLACEMENT} don't affect standardization of names.
+     */
+    private static final CompanyTypeMatcher COMPANY_TYPE_MATCHER;
+
+    /**
+     * Company type replacements compiled for each country from {@link #COMPANY_TYPE_REGEX_REPLACEMENT}.
+     */
+    private static final Map<String, CompanyTypeMatcher> COUNTRY_COMPANY_TYPE_MATCHERS;
+    static {
+        // merging of regexes for all countries, the order of the merged map decides the order of replacements with
+        // the same length
+        Map<String, String> regex = new HashMap<>();
+        COMPANY_TYPE_REGEX_REPLACEMENT.entrySet().forEach(n -> regex.putAll(n.getValue()));
+        COMPANY_TYPE_MATCHER = CompanyTypeMatcher.of(regex);
+
+        Map<String, CompanyTypeMatcher> matchers = new HashMap<>();
+        COMPANY_TYPE_REGEX_REPLACEMENT.forEach((country, n) -> matchers.put(country, CompanyTypeMatcher.of(n)));
+        COUNTRY_COMPANY_TYPE_MATCHERS = Collections.unmodifiableMap(matchers);
+    }
+
+    private static final Pattern WHITESPACE_PATTERN = Pattern.compile("\\s+");
+
+    private static final Pattern ACCENTS_PATTERN = Pattern.compile("[\\p{InCombiningDiacriticalMarks}]");
+
+    /**
+     * Cache of patterns used for digests.
+     */
+    private static final Map<String, Pattern> DIGEST_PATTERNS = new ConcurrentHashMap<>();
     
     /**
      * Separator used when creating digest.
@@ -173,10 +201,10 @@ public final class DigestUtils {
             return null;
         }
 
-        return input
+        return WHITESPACE_PATTERN.matcher(input
             .trim()
-            .toLowerCase()            
-            .replaceAll("\\s+", " ");
+            .toLowerCase())
+            .replaceAll(" ");
     }
     
     /**
@@ -194,16 +222,41 @@ public final class DigestUtils {
             return null;
         }
 
-        String stdName = standardize(name);
+        return standardizeName(name, COMPANY_TYPE_MATCHER);
+    }
 
-        Map<String, String> regex = new HashMap();
-        // merging of regexes for selected countries
-        COMPANY_TYPE_REGEX_REPLACEMENT.entrySet().stream()
-            // TODO - filtering by country(ies)
-            //.filter()
-            .forEach(n -> regex.putAll(n.getValue()));
-        
-        stdName = replace(stdName, regex);
+    /**
+     * Standardizes body name with company types of the given country only. In case that the country is null or
+     * there are no company types for it, company types of all countries are used.
+     *
+     * @see DigestUtils#standardizeName(java.lang.String)
+     *
+     * @param name
+     *      name of the body
+     * @param country
+     *      ISO code of the country
+     * @return standardized name
+     */
+    public static String standardizeName(final String name, final String country) {
+        if (name == null) {
+            return null;
+        }
+
+        CompanyTypeMatcher matcher = country == null ? null
+            : COUNTRY_COMPANY_TYPE_MATCHERS.get(country.toUpperCase());
+
+        return standardizeName(name, matcher == null ? COMPANY_TYPE_MATCHER : matcher);
+    }
+
+    /**
+     * @param name
+     *      name of the body
+     * @param matcher
+     *      company type matcher
+     * @return standardized name
+     */
+    private static String standardizeName(final String name, final CompanyTypeMatcher matcher) {
+        String stdName = matcher.replace(standardize(name));
 
         return StringUtils.substring(removeAccents(stdName), 0, 513);
     }
@@ -226,19 +279,12 @@ public final class DigestUtils {
         }
         
         String cleanInput = input;
-        List<String> sortedRegex = parseExpressions(regex).stream()
+        List<String> sortedRegex = CompanyTypeMatcher.parseExpressions(regex).stream()
             .sorted(sortDescByLength(o -> o.length())).collect(Collectors.toList());
 
         for (String r : sortedRegex) {
-            String exp =
-                // begin of the input
-               "(?i)(\\A?" + SPACE_REGEX + "+|\\A|(?<before>\\|))"
-               // matched regex
-               + r.replace(" ", SPACE_REGEX + "*")
-               // end of the input
-               + "(" + SPACE_REGEX + "+\\z?|\\z|(?<after>\\|))";
-                        
-            cleanInput = cleanInput.replaceAll(exp, "${before}|" + replacement + "|${after}");
+            cleanInput = CompanyTypeMatcher.compile(r).matcher(cleanInput)
+                .replaceAll("${before}|" + replacement + "|${after}");
         }
 
         return cleanInput;
@@ -259,25 +305,7 @@ public final class DigestUtils {
             return input;
         }
 
-        final List<Pair<String, String>> expressions = new ArrayList<>();
-        regex.entrySet().stream()
-            // unique list by key (replacement), assumes that same keys includes same regular expression so we can
-            // remove duplicities
-            .filter(distinct(n -> n.getKey()))
-            // parse all regular expressions, one item may includes comma separated expressions
-            .forEach(n -> {
-                parseExpressions(n.getValue()).forEach(m -> expressions.add(Pair.of(n.getKey(), m)));
-            });
-
-        // expressions sorting and replacing
-        final String[] cleanInput = {input};
-        expressions.stream()
-            .sorted(sortDescByLength(o -> o.getValue().length()))
-            .forEach(n -> {
-               cleanInput[0] = replace(cleanInput[0], n.getValue(), n.getKey());
-            });
-                
-        return cleanInput[0];
+        return CompanyTypeMatcher.of(regex).replace(input);
     }
 
     /**
@@ -312,20 +340,6 @@ public final class DigestUtils {
         };
     }
 
-    /**
-     * @param regex
-     *      comma separated regular expresions
-     * @return list of regular expressions or an empty list
-     */
-    private static List<String> parseExpressions(final String regex) {
-        if (regex == null) {
-            return Collections.emptyList();
-        }
-        
-        return Arrays.asList(regex.split(", ?")).stream()
-            .collect(Collectors.toList());
-    }
-    
     /**
      * Standardizes body address as concatenation of standardized values of particular fields.
      * 
@@ -373,6 +387,23 @@ public final class DigestUtils {
             return null;
         }
 
+        return bodyHash(body, standardizeName(body.getName()));
+    }
+
+    /**
+     * Generates hash for the given clean body with already standardized name.
+     *
+     * @param body
+     *      matched body
+     * @param stdName
+     *      standardized name of the body
+     * @return body hash
+     */
+    public static String bodyHash(final MatchedBody body, final String stdName) {
+        if (body == null) {
+            return null;
+        }
+
         List<BodyIdentifier> bodyIds = Collections.emptyList();
         if (body.getBodyIds() != null) {
             bodyIds = body.getBodyIds().stream()
@@ -388,7 +419,7 @@ public final class DigestUtils {
         if (body.getName() != null && !bodyIds.isEmpty()) {
             final StringBuilder sb = new StringBuilder();
             
-            sb.append("name").append(standardizeName(body.getName()));
+            sb.append("name").append(stdName);
             
             bodyIds.forEach((bodyId) -> sb
                 .append(bodyId.getScope().name())
@@ -471,7 +502,7 @@ public final class DigestUtils {
         }
         
         final StringBuilder digest = new StringBuilder();
-        final Pattern p = Pattern.compile(regex);
+        final Pattern p = DIGEST_PATTERNS.computeIfAbsent(regex, Pattern::compile);
         final Matcher m = p.matcher(input);        
         while (m.find() && digest.length() < count) {
             digest.append(m.group());
@@ -493,10 +524,8 @@ public final class DigestUtils {
         }
 
         return
-            //input canonical decomposition
-            Normalizer.normalize(input, Normalizer.Form.NFD)
-            //accents removing
-            .replaceAll("[\\p{InCombiningDiacriticalMarks}]", "");
+            //accents removing from input canonical decomposition
+            ACCENTS_PATTERN.matcher(Normalizer.normalize(input, Normalizer.Form.NFD)).replaceAll("");
     }
 
     /**
@@ -547,9 +576,29 @@ public final class DigestUtils {
             return null;
         }
 
+        return digest(body, standardizeName(body.getName()), standardizeAddress(body.getAddress()));
+    }
+
+    /**
+     * Returns combination of digests for the given matched {@code body} with already standardized name and address.
+     *
+     * @see #digest(eu.dl.dataaccess.dto.matched.MatchedBody)
+     *
+     * @param body
+     *      matched body
+     * @param stdName
+     *      standardized name of the body
+     * @param stdAddress
+     *      standardized address of the body
+     * @return combined digest such a name_digestSEPARATORaddress_digest
+     */
+    public static String digest(final MatchedBody body, final String stdName, final String stdAddress) {
+        if (body == null) {
+            return null;
+        }
+
         Address adr = body.getAddress();
-        String stdName = standardizeName(body.getName());
-        String digest = digest(stdName, standardizeAddress(adr));
+        String digest = digest(stdName, stdAddress);
 
         if ((digest == null || digest.endsWith("|")) && adr != null) {
             List<String> fields = Arrays.asList(adr.getStreet(), adr.getCity(), adr.getPostcode(), adr.getCountry());
@@ -612,9 +661,16 @@ public final class DigestUtils {
      * @return hash or null if hash cannot be generated
      */
     public static WeightedHash nameAddressHash(final MatchedBody body) {
-    		String stdName = standardizeName(body.getName());
-    		String stdAddress = standardizeAddress(body.getAddress());
-    		
+        return nameAddressHash(standardizeName(body.getName()), standardizeAddress(body.getAddress()));
+    }
+
+    /**
+     * Generates hash in form standardized_name|standardized_address.
+     * @param stdName standardized name of the body
+     * @param stdAddress standardized address of the body
+     * @return hash or null if hash cannot be generated
+     */
+    public static WeightedHash nameAddressHash(final String stdName, final String stdAddress) {
     		if (stdName != null && stdAddress != null) {
     			return new WeightedHash()
     					.setHash(sha256Hex(stdName + HASH_SEPARATOR + stdAddress))
@@ -630,8 +686,18 @@ public final class DigestUtils {
      * @return hash or null if hash cannot be generated
      */
     public static List<WeightedHash> nameAddressIdHash(final MatchedBody body) {
-    		String stdName = standardizeName(body.getName());
-    		String stdAddress = standardizeAddress(body.getAddress());
+        return nameAddressIdHash(body, standardizeName(body.getName()), standardizeAddress(body.getAddress()));
+    }
+
+    /**
+     * Generates hash in form standardized_name|standardized_address.
+     * @param body matched body
+     * @param stdName standardized name of the body
+     * @param stdAddress standardized address of the body
+     * @return hash or null if hash cannot be generated
+     */
+    public static List<WeightedHash> nameAddressIdHash(final MatchedBody body, final String stdName,
+        final String stdAddress) {
     		List<WeightedHash> result = new ArrayList<WeightedHash>();
     		if (stdName != null && stdAddress != null && body.getBodyIds() != null && !body.getBodyIds().isEmpty()) {
     			for (BodyIdentifier bodyId : body.getBodyIds()) {
@@ -677,13 +743,28 @@ public final class DigestUtils {
      * @return generated hashes
      */
     public static List<WeightedHash> generateAlternativeBodyHashes(final MatchedBody body) {
+        return generateAlternativeBodyHashes(body, standardizeName(body.getName()),
+            standardizeAddress(body.getAddress()));
+    }
+
+    /**
+     * Generates hash list relevant for given body with already standardized name and address. The hashes should be
+     * ordered by its priority.
+     *
+     * @param body to generate hases for
+     * @param stdName standardized name of the body
+     * @param stdAddress standardized address of the body
+     * @return generated hashes
+     */
+    public static List<WeightedHash> generateAlternativeBodyHashes(final MatchedBody body, final String stdName,
+        final String stdAddress) {
 		List<WeightedHash> hashes = new ArrayList<WeightedHash>();
-		List<WeightedHash> nameAddressIdHashes = nameAddressIdHash(body);
+		List<WeightedHash> nameAddressIdHashes = nameAddressIdHash(body, stdName, stdAddress);
 		if (nameAddressIdHashes != null) {
-			hashes.addAll(nameAddressIdHash(body));
+			hashes.addAll(nameAddressIdHashes);
 		}
 		
-		WeightedHash nameAddressHash = nameAddressHash(body);
+		WeightedHash nameAddressHash = nameAddressHash(stdName, stdAddress);
 		if (nameAddressHash != null) {
 			hashes.add(nameAddressHash);
 		}
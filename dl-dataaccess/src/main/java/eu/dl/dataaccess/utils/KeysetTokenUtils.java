@@ -0,0 +1,87 @@
+package eu.dl.dataaccess.utils;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+/**
+ * Encodes and decodes continuation tokens of keyset (seek) pagination. The token is an opaque string which holds
+ * the sort key values of the last returned record.
+ */
+public final class KeysetTokenUtils {
+
+    private static final char SEPARATOR = '\u001f';
+
+    private static final char VALUE = 'v';
+
+    private static final char NULL = 'n';
+
+    /**
+     * Suppress default constructor for noninstatiability.
+     */
+    private KeysetTokenUtils() {
+    }
+
+    /**
+     * Encodes the key values to the token.
+     *
+     * @param keys
+     *      key values of the last returned record, null values are allowed
+     * @return url-safe token
+     */
+    public static String encode(final String... keys) {
+        StringBuilder token = new StringBuilder();
+        for (int i = 0; i < keys.length; i++) {
+            if (i > 0) {
+                token.append(SEPARATOR);
+            }
+
+            if (keys[i] == null) {
+                token.append(NULL);
+            } else {
+                token.append(VALUE).append(keys[i]);
+            }
+        }
+
+        return Base64.getUrlEncoder().withoutPadding()
+            .encodeToString(token.toString().getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Decodes the token to the key values.
+     *
+     * @param token
+     *      token created by {@link #encode(String...)}
+     * @param count
+     *      expected number of keys
+     * @return key values
+     * @throws IllegalArgumentException
+     *      in case that the token is malformed or holds unexpected number of keys
+     */
+    public static String[] decode(final String token, final int count) {
+        if (token == null) {
+            throw new IllegalArgumentException("Keyset token is null");
+        }
+
+        String decoded = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+
+        String[] parts = decoded.split(String.valueOf(SEPARATOR), -1);
+        if (parts.length != count) {
+            throw new IllegalArgumentException("Keyset token holds " + parts.length + " keys, expected " + count);
+        }
+
+        String[] keys = new String[count];
+        for (int i = 0; i < count; i++) {
+            if (parts[i].isEmpty()) {
+                throw new IllegalArgumentException("Malformed keyset token");
+            } else if (parts[i].charAt(0) == VALUE) {
+                keys[i] = parts[i].substring(1);
+            } else if (parts[i].charAt(0) == NULL && parts[i].length() == 1) {
+                keys[i] = null;
+            } else {
+                throw new IllegalArgumentException("Malformed keyset token");
+            }
+        }
+
+        return keys;
+    }
+}
@@ -0,0 +1,165 @@
+package eu.dl.dataaccess.dao.jdbc;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import eu.dl.core.config.Config;
+import eu.dl.core.metrics.Metrics;
+import eu.dl.dataaccess.dto.PlainDocument;
+
+/**
+ * Tests of GenericJdbcDAO queries on a connection stub which returns prepared rows.
+ */
+public final class GenericJdbcDAOTest {
+
+    private List<String> executedQueries;
+
+    private List<String> readColumns;
+
+    /**
+     * Loads the test configuration.
+     */
+    @Before
+    public void init() {
+        Config.getInstance().addConfigFile("unit_test");
+        executedQueries = new ArrayList<>();
+        readColumns = new ArrayList<>();
+    }
+
+    /**
+     * Test of modification timestamps of the group.
+     */
+    @Test
+    public void getModifiedByGroupIdTest() {
+        final LocalDateTime modified1 = LocalDateTime.of(2018, 3, 1, 10, 15, 30);
+        final LocalDateTime modified2 = LocalDateTime.of(2018, 3, 2, 8, 0);
+
+        final Map<String, Object> row1 = new HashMap<>();
+        row1.put("id", "1");
+        row1.put("modified", Timestamp.valueOf(modified1));
+        final Map<String, Object> row2 = new HashMap<>();
+        row2.put("id", "2");
+        row2.put("modified", Timestamp.valueOf(modified2));
+
+        final Map<String, LocalDateTime> result = createDAO(Arrays.asList(row1, row2)).getModifiedByGroupId("g'1");
+
+        assertEquals(2, result.size());
+        assertEquals(modified1, result.get("1"));
+        assertEquals(modified2, result.get("2"));
+
+        assertEquals(1, executedQueries.size());
+        final String query = executedQueries.get(0);
+        assertTrue(query.startsWith("SELECT id, modified FROM test.plain_document WHERE"));
+        assertTrue(query.contains("\"groupId\":\"g''1\""));
+        // the data aren't read
+        assertFalse(readColumns.contains("data"));
+        // anonymous DAO is labeled by its superclass
+        assertTrue(Metrics.scrape().contains(
+            "dl_db_query_duration_seconds_count{method=\"GenericJdbcDAO.getModifiedByGroupId\",operation=\"read\"}"));
+    }
+
+    /**
+     * Test of the group without items.
+     */
+    @Test
+    public void getModifiedByGroupIdEmptyTest() {
+        assertTrue(createDAO(new ArrayList<>()).getModifiedByGroupId("g1").isEmpty());
+    }
+
+    /**
+     * @param rows
+     *      rows returned by the query, values by column names
+     * @return DAO using a connection stub
+     */
+    private GenericJdbcDAO<PlainDocument> createDAO(final List<Map<String, Object>> rows) {
+        final Iterator<Map<String, Object>> iterator = rows.iterator();
+        final Map<String, Object>[] current = new Map[1];
+
+        final ResultSet rs = stub(ResultSet.class, (method, args) -> {
+            switch (method) {
+                case "next":
+                    current[0] = iterator.hasNext() ? iterator.next() : null;
+                    return current[0] != null;
+                case "getString":
+                case "getTimestamp":
+                case "getBytes":
+                    readColumns.add((String) args[0]);
+                    return current[0].get(args[0]);
+                default:
+                    return null;
+            }
+        });
+
+        final Connection connection = stub(Connection.class, (method, args) -> {
+            if (method.equals("prepareStatement")) {
+                final String sql = (String) args[0];
+                return stub(PreparedStatement.class, (statementMethod, statementArgs) -> {
+                    if (statementMethod.equals("executeQuery")) {
+                        executedQueries.add(sql);
+                        return rs;
+                    }
+                    return null;
+                });
+            }
+            return null;
+        });
+
+        return new GenericJdbcDAO<PlainDocument>(connection) {
+            @Override
+            public PlainDocument getEmptyInstance() {
+                return new PlainDocument();
+            }
+
+            @Override
+            protected String getTableWithSchema() {
+                return "test.plain_document";
+            }
+        };
+    }
+
+    /**
+     * Handler of the stub method calls.
+     */
+    @FunctionalInterface
+    private interface StubHandler {
+        /**
+         * @param method
+         *      method name
+         * @param args
+         *      method arguments
+         * @return result of the call
+         */
+        Object invoke(String method, Object[] args);
+    }
+
+    /**
+     * @param <S>
+     *      stubbed interface
+     * @param stubbedInterface
+     *      stubbed interface
+     * @param handler
+     *      handler of the method calls
+     * @return stub
+     */
+    private static <S> S stub(final Class<S> stubbedInterface, final StubHandler handler) {
+        return stubbedInterface.cast(Proxy.newProxyInstance(stubbedInterface.getClassLoader(),
+            new Class<?>[]{stubbedInterface}, (proxy, method, args) -> handler.invoke(method.getName(), args)));
+    }
+}
@@ -3,10 +3,14 @@ package eu.dl.dataaccess.utils;
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertNull;
 
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 
+import org.apache.commons.lang3.tuple.Pair;
+
 import org.junit.Test;
 
 import eu.dl.dataaccess.dto.codetables.BodyIdentifier;
@@ -81,6 +85,50 @@ public final class DigestUtilsTest {
         assertEquals("ptacek", DigestUtils.standardizeName("Ptáček"));            
         assertEquals("name|GM|", DigestUtils.standardizeName("Name g m b h"));
     }
+
+    /**
+     * Tests that DigestUtils#standardizeName(java.langString) returns the same names as the replacing of company
+     * types expression by expression.
+     */
+    @Test
+    public void standardizeNameCompatibilityTest() {
+        Map<String, String> regex = new HashMap<>();
+        DigestUtils.COMPANY_TYPE_REGEX_REPLACEMENT.values().forEach(regex::putAll);
+
+        List<Pair<String, String>> expressions = new ArrayList<>();
+        regex.forEach((k, v) -> Arrays.asList(v.split(", ?")).forEach(e -> expressions.add(Pair.of(k, e))));
+        expressions.sort((o1, o2) -> Integer.compare(o2.getValue().length(), o1.getValue().length()));
+
+        for (String name : Arrays.asList("Name s.r.o.", "AUTOCONT CZ a.s.", "Firma spol. s r. o.", "Ptáček v.o.s.",
+            "Stavby Praha, státní podnik", "Kovo s.p.|AS|", "Müller GmbH & Co. KG", "Bau m.b.h.", "ACME Ltd.",
+            "ACME Limited", "Tesco p.l.c.", "Constructora S.L.U.", "Obras S.A.", "Budimex Sp. z o.o.",
+            "Impresa S.r.l.", "Bouw B.V.", "Volvo Aktiebolaget", "Magyar Kft.", "Société S.A.R.L.", "no type",
+            "")) {
+            String expected = DigestUtils.standardize(name);
+            for (Pair<String, String> e : expressions) {
+                expected = DigestUtils.replace(expected, e.getValue(), e.getKey());
+            }
+            expected = DigestUtils.removeAccents(expected);
+
+            assertEquals(expected, DigestUtils.standardizeName(name));
+        }
+    }
+
+    /**
+     * Tests of DigestUtils#standardizeName(java.langString, java.lang.String) function.
+     */
+    @Test
+    public void standardizeNameByCountryTest() {
+        assertEquals("name|SR|", DigestUtils.standardizeName("Name s.r.o.", "CZ"));
+        assertEquals("name|SR|", DigestUtils.standardizeName("Name s.r.o.", "sk"));
+        // german company type isn't replaced for czech body
+        assertEquals("name gmbh", DigestUtils.standardizeName("Name GmbH", "CZ"));
+        assertEquals("name|GM|", DigestUtils.standardizeName("Name GmbH", "DE"));
+        // all company types for unknown country
+        assertEquals("name|GM|", DigestUtils.standardizeName("Name GmbH", "XX"));
+        assertEquals("name|GM|", DigestUtils.standardizeName("Name GmbH", null));
+        assertNull(DigestUtils.standardizeName(null, "CZ"));
+    }
     
     /**
      * Tests of DigestUtils#standardizeAddress(java.langString) function.
@@ -0,0 +1,42 @@
+package eu.dl.dataaccess.utils;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertFalse;
+
+import org.junit.Test;
+
+/**
+ * Tests for KeysetTokenUtils class.
+ */
+public final class KeysetTokenUtilsTest {
+    /**
+     * Test of token encoding and decoding.
+     */
+    @Test
+    public void roundTripTest() {
+        String[] keys = {"2018-03-01T10:15:30.123456", "7c1b8d3e-5b9d-4d8e-a0f4-2f1d9a6c3b21"};
+        String token = KeysetTokenUtils.encode(keys);
+        assertFalse(token.contains("/") || token.contains("+") || token.contains("="));
+        assertArrayEquals(keys, KeysetTokenUtils.decode(token, 2));
+
+        // null and empty keys
+        keys = new String[]{null, "", "a b"};
+        assertArrayEquals(keys, KeysetTokenUtils.decode(KeysetTokenUtils.encode(keys), 3));
+    }
+
+    /**
+     * Test of malformed tokens.
+     */
+    @Test(expected = IllegalArgumentException.class)
+    public void wrongKeysCountTest() {
+        KeysetTokenUtils.decode(KeysetTokenUtils.encode("a", "b"), 3);
+    }
+
+    /**
+     * Test of malformed tokens.
+     */
+    @Test(expected = IllegalArgumentException.class)
+    public void malformedTokenTest() {
+        KeysetTokenUtils.decode("not a token!", 2);
+    }
+}
@@ -14,8 +14,10 @@ import eu.dl.dataaccess.dto.matched.MatchedTender;
 import eu.dl.dataaccess.utils.TenderUtils;
 
 import java.util.Arrays;
+import java.util.List;
 import java.util.Map;
 import java.util.Objects;
+import java.util.stream.Collectors;
 
 import static eu.dl.dataaccess.dto.codetables.PublicationFormType.CONTRACT_AWARD;
 import static eu.dl.dataaccess.dto.codetables.PublicationFormType.CONTRACT_NOTICE;
@@ -23,7 +25,10 @@ import static eu.dl.dataaccess.dto.codetables.PublicationFormType.CONTRACT_NOTIC
 /**
  * This plugin calculates number of key missing fields in form.
  */
-public class KeyMissingFieldsIndicatorPlugin extends BaseIndicatorPlugin implements IndicatorPlugin<MasterTender> {
+public class KeyMissingFieldsIndicatorPlugin extends BaseIndicatorPlugin
+    implements ContextAwareIndicatorPlugin<MasterTender> {
+
+    private static final String CLEAN_TENDERS = "cleanTender";
 
     private final MatchedTenderDAO matchedTenderDAO;
 
@@ -45,18 +50,37 @@ public class KeyMissingFieldsIndicatorPlugin extends BaseIndicatorPlugin impleme
 
     @Override
     public final Indicator evaluate(final MasterTender tender) {
+        return evaluate(tender, null);
+    }
+
+    @Override
+    public final void prefetch(final MasterTender tender, final IndicatorContext context) {
+        if (tender == null) {
+            return;
+        }
+
+        context.require(CLEAN_TENDERS,
+            getLatestPublications(tender, context).values().stream().map(MatchedTender::getCleanObjectId)
+                .collect(Collectors.toList()),
+            ids -> ((List<CleanTender>) cleanTenderDAO.getByIds(ids)).stream()
+                .collect(Collectors.toMap(CleanTender::getId, t -> t, (a, b) -> a)));
+    }
+
+    @Override
+    public final Indicator evaluate(final MasterTender tender, final IndicatorContext context) {
         if (tender == null) {
             return insufficient();
         }
         
-        Map<PublicationFormType, MatchedTender> latest = TenderUtils.getLatestPublications(tender.getGroupId(),
-            matchedTenderDAO, Arrays.asList(CONTRACT_NOTICE, CONTRACT_AWARD));
+        Map<PublicationFormType, MatchedTender> latest = getLatestPublications(tender, context);
 
         // evaluates indicator
         IndicatorScore score = new IndicatorScore();
 
         latest.entrySet().forEach(n -> {
-            CleanTender cleanTender = (CleanTender) cleanTenderDAO.getById(n.getValue().getCleanObjectId());
+            String cleanObjectId = n.getValue().getCleanObjectId();
+            CleanTender cleanTender = context == null ? (CleanTender) cleanTenderDAO.getById(cleanObjectId)
+                : context.get(CLEAN_TENDERS, cleanObjectId);
 
             if (n.getKey() == CONTRACT_NOTICE) {
                 evaluateContractNotice(cleanTender, score);
@@ -68,6 +92,24 @@ public class KeyMissingFieldsIndicatorPlugin extends BaseIndicatorPlugin impleme
         return score.isInitialized() ? calculated(score.ration()) : insufficient();
     }
 
+    /**
+     * @param tender
+     *      master tender
+     * @param context
+     *      evaluation context or null
+     * @return latest contract notice and contract award of the tender group
+     */
+    private Map<PublicationFormType, MatchedTender> getLatestPublications(final MasterTender tender,
+        final IndicatorContext context) {
+        List<MatchedTender> group = context == null ? null : context.getMatchedItems(tender.getGroupId());
+        if (group == null) {
+            return TenderUtils.getLatestPublications(tender.getGroupId(), matchedTenderDAO,
+                Arrays.asList(CONTRACT_NOTICE, CONTRACT_AWARD));
+        }
+
+        return TenderUtils.getLatestPublications(group, Arrays.asList(CONTRACT_NOTICE, CONTRACT_AWARD));
+    }
+
     @Override
     public final String getType() {
         return TenderIndicatorType.TRANSPARENCY_NUMBER_OF_KEY_MISSING_FIELDS.name();
@@ -25,7 +25,7 @@ import java.util.function.Function;
  * This plugin calculates discrepancies between call for tender and contract award notices.
  */
 public class NoticeAndAwardDiscrepanciesIndicatorPlugin extends BaseIndicatorPlugin
-    implements IndicatorPlugin<MasterTender> {
+    implements ContextAwareIndicatorPlugin<MasterTender> {
 
     private final MatchedTenderDAO matchedTenderDAO;
 
@@ -41,12 +41,25 @@ public class NoticeAndAwardDiscrepanciesIndicatorPlugin extends BaseIndicatorPlu
 
     @Override
     public final Indicator evaluate(final MasterTender tender) {
+        return evaluate(tender, null);
+    }
+
+    @Override
+    public final void prefetch(final MasterTender tender, final IndicatorContext context) {
+        // only matched tenders of the group are needed, the context loads them on demand
+    }
+
+    @Override
+    public final Indicator evaluate(final MasterTender tender, final IndicatorContext context) {
         if (tender == null) {
             return insufficient();
         }
 
-        Map<PublicationFormType, MatchedTender> latest = TenderUtils.getLatestPublications(tender.getGroupId(),
-            matchedTenderDAO, Arrays.asList(CONTRACT_NOTICE, CONTRACT_AWARD));
+        List<MatchedTender> group = context == null ? null : context.getMatchedItems(tender.getGroupId());
+        Map<PublicationFormType, MatchedTender> latest = group == null
+            ? TenderUtils.getLatestPublications(tender.getGroupId(), matchedTenderDAO,
+                Arrays.asList(CONTRACT_NOTICE, CONTRACT_AWARD))
+            : TenderUtils.getLatestPublications(group, Arrays.asList(CONTRACT_NOTICE, CONTRACT_AWARD));
         
         MatchedTender notice = latest.get(CONTRACT_NOTICE);
         MatchedTender award = latest.get(CONTRACT_AWARD);
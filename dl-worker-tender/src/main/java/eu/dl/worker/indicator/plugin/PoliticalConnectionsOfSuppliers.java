@@ -4,8 +4,16 @@ import eu.dl.dataaccess.dao.MasterBodyDAO;
 import eu.dl.dataaccess.dto.codetables.PublicationFormType;
 import eu.dl.dataaccess.dto.indicator.Indicator;
 import eu.dl.dataaccess.dto.indicator.TenderIndicatorType;
+import eu.dl.dataaccess.dto.codetables.BodyIdentifier;
 import eu.dl.dataaccess.dto.master.MasterBid;
+import eu.dl.dataaccess.dto.master.MasterBody;
 import eu.dl.dataaccess.dto.master.MasterTender;
+import eu.dl.dataaccess.dto.master.MasterTenderLot;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
 
 import static eu.dl.dataaccess.dto.codetables.BodyIdentifier.Type.BVD_ID;
 
@@ -15,15 +23,39 @@ import static eu.dl.dataaccess.dto.codetables.BodyIdentifier.Type.BVD_ID;
 public final class PoliticalConnectionsOfSuppliers extends BaseIndicatorPlugin implements
         IndicatorPlugin<MasterTender> {
 
+    /**
+     * Default interval of reloading of the political exposed persons.
+     */
+    private static final Duration DEFAULT_REFRESH_INTERVAL = Duration.ofHours(1);
+
     private MasterBodyDAO masterBodyDAO;
 
+    private final long refreshInterval;
+
+    private Set<String> politicalExposedPersons;
+
+    private long politicalExposedPersonsLoadedAt;
+
+    private boolean politicalExposedPersonsLoaded = false;
+
     /**
      * Default constructor.
      *
      * @param masterBodyDAO dao to search with for bvd id.
      */
     public PoliticalConnectionsOfSuppliers(final MasterBodyDAO masterBodyDAO) {
+        this(masterBodyDAO, DEFAULT_REFRESH_INTERVAL);
+    }
+
+    /**
+     * Constructor with interval of reloading of the political exposed persons.
+     *
+     * @param masterBodyDAO dao to search with for bvd id.
+     * @param refreshInterval the political exposed persons are loaded again when older than this interval
+     */
+    public PoliticalConnectionsOfSuppliers(final MasterBodyDAO masterBodyDAO, final Duration refreshInterval) {
         this.masterBodyDAO = masterBodyDAO;
+        this.refreshInterval = refreshInterval.toNanos();
     }
 
     @Override
@@ -39,25 +71,63 @@ public final class PoliticalConnectionsOfSuppliers extends BaseIndicatorPlugin i
                 || bid.getBidders().stream().filter(bidder -> bidder.getBodyIds() != null).allMatch(bidder -> bidder
                 .getBodyIds() == null)))) {
             return insufficient();
-        } else if (item.getLots().stream().filter(lot -> lot.getBids() != null)
-                    .allMatch(lot -> lot.getBids().stream().filter(bid -> bid.getBidders() != null)
-                    .allMatch(bid -> bid.getBidders().stream().filter(bidder -> bidder.getBodyIds() != null)
-                    .allMatch(bidder -> bidder.getBodyIds().stream()
-                    .allMatch(id -> id.getType() == BVD_ID && id.getId() != null && isBidWinning(bid)
-                            && masterBodyDAO.existsInPoliticalExposedPersons(id.getId())))))) {
+        }
+
+        // visit all the body ids of bidders once, each BVD id is looked up at most once
+        Map<String, Boolean> exposed = new HashMap<>();
+        int total = 0;
+        int matched = 0;
+        for (MasterTenderLot lot : item.getLots()) {
+            if (lot.getBids() == null) {
+                continue;
+            }
+            for (MasterBid bid : lot.getBids()) {
+                if (bid.getBidders() == null) {
+                    continue;
+                }
+                for (MasterBody bidder : bid.getBidders()) {
+                    if (bidder.getBodyIds() == null) {
+                        continue;
+                    }
+                    for (BodyIdentifier id : bidder.getBodyIds()) {
+                        total++;
+                        if (id.getType() == BVD_ID && id.getId() != null && isBidWinning(bid)
+                                && exposed.computeIfAbsent(id.getId(), this::isPoliticallyExposed)) {
+                            matched++;
+                        }
+                    }
+                }
+            }
+        }
+
+        if (matched == total) {
             return calculated(0d);
-        } else if (item.getLots().stream().filter(lot -> lot.getBids() != null)
-                    .anyMatch(lot -> lot.getBids().stream().filter(bid -> bid.getBidders() != null)
-                    .anyMatch(bid -> bid.getBidders().stream().filter(bidder -> bidder.getBodyIds() != null)
-                    .anyMatch(bidder -> bidder.getBodyIds().stream()
-                    .anyMatch(id -> id.getType() == BVD_ID && id.getId() != null && isBidWinning(bid)
-                            && masterBodyDAO.existsInPoliticalExposedPersons(id.getId())))))) {
+        } else if (matched > 0) {
             return calculated(100d);
         } else {
             return insufficient();
         }
     }
 
+    /**
+     * Checks whether the BVD id is in the political exposed persons. The persons are loaded into memory and reloaded
+     * after the refresh interval, DAO is asked for each id only if it doesn't support the bulk loading.
+     *
+     * @param bvdId BVD id
+     * @return true if the id is in the political exposed persons
+     */
+    private synchronized boolean isPoliticallyExposed(final String bvdId) {
+        final long now = System.nanoTime();
+        if (!politicalExposedPersonsLoaded || now - politicalExposedPersonsLoadedAt >= refreshInterval) {
+            politicalExposedPersons = masterBodyDAO.getPoliticalExposedPersons();
+            politicalExposedPersonsLoadedAt = now;
+            politicalExposedPersonsLoaded = true;
+        }
+
+        return politicalExposedPersons != null ? politicalExposedPersons.contains(bvdId)
+            : masterBodyDAO.existsInPoliticalExposedPersons(bvdId);
+    }
+
     @Override
     public String getType() {
         return TenderIndicatorType.TRANSPARENCY_NUMBER_OF_KEY_MISSING_FIELDS.name();
@@ -5,7 +5,6 @@ import eu.dl.dataaccess.dto.codetables.TenderLotStatus;
 import eu.dl.dataaccess.dto.generic.BasePrice;
 import eu.dl.dataaccess.dto.generic.Payment;
 import eu.dl.dataaccess.dto.generic.Publication;
-import eu.dl.dataaccess.dto.generic.UnitPrice;
 import eu.dl.dataaccess.dto.master.MasterBid;
 import eu.dl.dataaccess.dto.master.MasterTender;
 import eu.dl.dataaccess.dto.master.MasterTenderLot;
@@ -16,7 +15,6 @@ import eu.dl.dataaccess.dto.matched.MatchedTenderLot;
 import eu.dl.dataaccess.dto.utils.DTOUtils;
 import eu.dl.utils.currency.CurrencyService;
 import eu.dl.utils.currency.CurrencyServiceFactory;
-import eu.dl.utils.currency.UnconvertableException;
 import eu.dl.worker.master.plugin.specific.DigiwhistPricePlugin;
 import eu.dl.worker.master.plugin.specific.NoLotStatusPlugin;
 import eu.dl.worker.master.utils.ContractImplementationUtils;
@@ -37,7 +35,6 @@ import java.util.stream.Collectors;
  */
 public abstract class BaseTenderMaster<T extends MatchedTender, V extends MasterTender> extends BaseMaster<T, V> {
 
-    private static final int NUMBER_OF_LOTS_THRESHOLD = 10000;
     private static final int NUMBER_OF_PUBLICATIONS = 10000;
 
     private final CurrencyService currencyService = CurrencyServiceFactory.getCurrencyService();
@@ -67,7 +64,6 @@ public abstract class BaseTenderMaster<T extends MatchedTender, V extends Master
         List preprocessedData = items.stream()
                 .filter(isNotContractImplementation())
                 .filter(isNotTypeOther())
-                .filter(hasNotTooMuchLots())
                 .collect(Collectors.toList());
 
         // add publication dates to TenderParts where needed i.e. Document
@@ -275,28 +271,6 @@ public abstract class BaseTenderMaster<T extends MatchedTender, V extends Master
         };
     }
     
-    /**
-     * Predicate used to filter the resulting set of items. In this case we don't want to master a tender 
-     * with too much lots because of performance issues.
-     *
-     * @return predicate testing whether the group does not contain too much lots
-     */
-    // TODO[Hruby] - get rid of this quick fix and make algorithm more effective
-    private Predicate<MatchedTender> hasNotTooMuchLots() {
-        return new Predicate<MatchedTender>() {
-
-            @Override
-            public boolean test(final MatchedTender t) {
-                if (t.getLots() != null && t.getLots().size() < NUMBER_OF_LOTS_THRESHOLD) {
-                    return true;
-                } else {
-                    return t.getLots() == null;
-                }
-            }
-
-        };
-    }
-
     @Override
     protected final V postProcessMasterRecord(final V masterTender,
             final List<T> matchedTenders) {
@@ -357,33 +331,36 @@ public abstract class BaseTenderMaster<T extends MatchedTender, V extends Master
             logger.info("There is no usable publication date found. Prices will not be converted.");
             return;
         }
-        convertPrice(tender.getEstimatedPrice(), conversionDate);
-        convertPrice(tender.getDocumentsPrice(), conversionDate);
-        convertPrice(tender.getFinalPrice(), conversionDate);
+
+        List<BasePrice> prices = new ArrayList<>();
+        prices.add(tender.getEstimatedPrice());
+        prices.add(tender.getDocumentsPrice());
+        prices.add(tender.getFinalPrice());
         if (tender.getLots() != null) {
             for (MasterTenderLot lot : tender.getLots()) {
-                convertPrice(lot.getRobustEstimatedPrice(), conversionDate);
-                convertPrice(lot.getEstimatedPrice(), conversionDate);
+                prices.add(lot.getRobustEstimatedPrice());
+                prices.add(lot.getEstimatedPrice());
                 if (lot.getBids() != null) {
                     for (MasterBid bid : lot.getBids()) {
-                        convertPrice(bid.getPrice(), conversionDate);
-                        convertPrice(bid.getRobustPrice(), conversionDate);
+                        prices.add(bid.getPrice());
+                        prices.add(bid.getRobustPrice());
 
                         if (bid.getPayments() != null) {
                             for (Payment payment : bid.getPayments()) {
-                                convertPrice(payment.getPrice(), conversionDate);
+                                prices.add(payment.getPrice());
                             }
                         }
 
                         if (bid.getUnitPrices() != null) {
-                            for (UnitPrice unitPrice : bid.getUnitPrices()) {
-                                convertPrice(unitPrice, conversionDate);
-                            }
+                            prices.addAll(bid.getUnitPrices());
                         }
                     }
                 }
             }
         }
+
+        // all prices are converted in one pass with the same exchange rates
+        currencyService.convertAll(prices, getNationalCurrency(), conversionDate);
     }
 
     /**
@@ -431,31 +408,6 @@ public abstract class BaseTenderMaster<T extends MatchedTender, V extends Master
         }
     }
 
-    /**
-     * This methods converts price to national currencies and EUR.
-     * @param price price to be converted
-     * @param date defines date, fow whixh should be the exchange rate taken
-     */
-    private void convertPrice(final BasePrice price, final LocalDate date) {
-       if (price == null) {
-           return;
-       }
-       try {
-           if (price.getNetAmount() != null) {
-               if (price.getNetAmountEur() == null) {
-                   price.setNetAmountEur(currencyService.convert(
-                           price.getCurrency(), Currency.getInstance("EUR"), price.getNetAmount(), date));
-               }
-               
-               price.setCurrencyNational(getNationalCurrency());
-               price.setNetAmountNational(currencyService.convert(
-                       price.getCurrency(), price.getCurrencyNational(), price.getNetAmount(), date));
-           }
-       } catch (UnconvertableException e) {
-           logger.error("Unable to convert prices because of {}", e);
-       }
-    }
-
     /**
      * Returns national currency relevant for this source.
      * @return national currency
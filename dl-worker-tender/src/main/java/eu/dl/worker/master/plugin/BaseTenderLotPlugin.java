@@ -7,12 +7,18 @@ import eu.dl.dataaccess.dto.matched.MatchedTenderLot;
 
 import java.util.ArrayList;
 import java.util.Arrays;
-import java.util.Comparator;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.Collections;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
+import java.util.Set;
 import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import java.util.stream.LongStream;
 
 /**
  * Tender Lot Mastering plugin. Matches lots of matched tenders and creates master record for each lot.
@@ -33,6 +39,26 @@ public abstract class BaseTenderLotPlugin<T extends MatchedTender, W extends Mas
      */
     public static final String PLUGIN_ID = "tenderLotPlugin";
 
+    /**
+     * Lots of a pair with matching ratio equal or higher than the threshold are matched.
+     */
+    private static final double MATCHING_RATIO_THRESHOLD = 0.5;
+
+    /**
+     * Number of cross tender lot pairs above which only pairs of lots sharing a blocking key are compared.
+     */
+    private static final long BLOCKING_THRESHOLD = 250000;
+
+    /**
+     * Blocks with more lots aren't selective enough and are ignored.
+     */
+    private static final int MAX_BLOCK_SIZE = 200;
+
+    /**
+     * Minimal length of a title word used as blocking key.
+     */
+    private static final int MIN_BLOCKING_WORD_LENGTH = 4;
+
     /**
      * This class contains matched tender lot and indices to input list of match method. It is important during matching
      * process where we want to know its parent tender and we want to avoid situation where two lots from one tender are
@@ -89,92 +115,23 @@ public abstract class BaseTenderLotPlugin<T extends MatchedTender, W extends Mas
     }
 
     /**
-     * This class contains information about two lots and its matching ratio.
-     */
-    private class MatchedTenderLotPairRatio {
-        private MatchedTenderLotOverview lot1Overview;
-        private MatchedTenderLotOverview lot2Overview;
-        private Double matchingRatio;
-
-        /**
-         * Private constructor to make this class static.
-         */
-        private MatchedTenderLotPairRatio() {
-        }
-
-        /**
-         * Constructor to initialise the class.
-         *
-         * @param lot1Overview
-         *         information about first lot
-         * @param lot2Overview
-         *         information about second lot
-         * @param matchingRatio
-         *         matching ratio of the two lots
-         */
-        MatchedTenderLotPairRatio(final MatchedTenderLotOverview lot1Overview,
-                                  final MatchedTenderLotOverview lot2Overview,
-                                  final Double matchingRatio) {
-            this.lot1Overview = lot1Overview;
-            this.lot2Overview = lot2Overview;
-            this.matchingRatio = matchingRatio;
-        }
-
-        /**
-         * @return information about first lot
-         */
-        public MatchedTenderLotOverview getLot1Overview() {
-            return lot1Overview;
-        }
-
-        /**
-         * @return information about second lot
-         */
-        public MatchedTenderLotOverview getLot2Overview() {
-            return lot2Overview;
-        }
-
-        /**
-         * @return matching ratio
-         */
-        public Double getMatchingRatio() {
-            return matchingRatio;
-        }
-    }
-
-    /**
-     * This comparator helps to order ratios in the ratio value order.
-     */
-    final class RatioComparator implements Comparator<MatchedTenderLotPairRatio> {
-        @Override
-        public int compare(final MatchedTenderLotPairRatio o1, final MatchedTenderLotPairRatio o2) {
-            return o1.getMatchingRatio().compareTo(o2.getMatchingRatio());
-        }
-    }
-
-    /**
-     * This class represents matched group of lots.
+     * This class represents matched group of lots. Groups are nodes of union-find structure, the group of a lot is
+     * the root of its node.
      */
     private class MatchedTenderLotOverviewGroup {
-        private HashMap<String, MatchedTenderLotOverview> lotOverviews;
-
-        /**
-         * Private constructor to make this class static.
-         */
-        private MatchedTenderLotOverviewGroup() {
-        }
+        private final int order;
+        private final HashMap<String, MatchedTenderLotOverview> lotOverviews = new HashMap<>();
+        private final BitSet tenders = new BitSet();
+        private boolean joined = false;
 
         /**
          * Constructor to initialise the class.
          *
-         * @param lotOverviews
-         *         list of information about lots from on group
+         * @param order
+         *         order of the group creation
          */
-        MatchedTenderLotOverviewGroup(final List<MatchedTenderLotOverview> lotOverviews) {
-            this.lotOverviews = new HashMap<String, MatchedTenderLotOverview>();
-            for (MatchedTenderLotOverview lotOverview : lotOverviews) {
-                this.lotOverviews.put(getKey(lotOverview), lotOverview);
-            }
+        MatchedTenderLotOverviewGroup(final int order) {
+            this.order = order;
         }
 
         /**
@@ -184,19 +141,8 @@ public abstract class BaseTenderLotPlugin<T extends MatchedTender, W extends Mas
          *          information about lot
          */
         void addLotOverview(final MatchedTenderLotOverview lotOverview) {
-            this.lotOverviews.put(getKey(lotOverview), lotOverview);
-        }
-
-        /**
-         * Checks whether lot is part of this group.
-         *
-         * @param lotOverview
-         *          information about lot
-         *
-         * @return true if lot is part of this group; otherwise false
-         */
-        boolean contains(final MatchedTenderLotOverview lotOverview) {
-            return lotOverviews.containsKey(getKey(lotOverview));
+            lotOverviews.put(getKey(lotOverview), lotOverview);
+            tenders.set(lotOverview.getTenderIndex());
         }
 
         /**
@@ -207,6 +153,8 @@ public abstract class BaseTenderLotPlugin<T extends MatchedTender, W extends Mas
          */
         void join(final MatchedTenderLotOverviewGroup group) {
             lotOverviews.putAll(group.getLotOverviews());
+            tenders.or(group.tenders);
+            group.joined = true;
         }
 
         /**
@@ -227,13 +175,11 @@ public abstract class BaseTenderLotPlugin<T extends MatchedTender, W extends Mas
          * @return true if group contains tender; otherwise false
          */
         boolean hasLotFromTender(final int tenderIndex) {
-            return lotOverviews.values()
-                    .stream()
-                    .anyMatch(lo -> lo.getTenderIndex() == tenderIndex);
+            return tenders.get(tenderIndex);
         }
         
         /**
-         * Creates map key from the lotOverview.
+         * Creates map key from the lotOverview. The keys decide the order of lots in the group.
          * 
          * @param lotOverview key will be created from this overview
          * @return key
@@ -250,7 +196,10 @@ public abstract class BaseTenderLotPlugin<T extends MatchedTender, W extends Mas
     }
 
     /**
-     * Lots matching.
+     * Lots matching. Matching ratio MR is calculated for cross tender lot-lot pairs and the pairs are visited from the
+     * highest MR. Pairs with MR &gt;= 0.5 join their lots into one group unless the group already has a lot from the
+     * same tender. For large tenders, only pairs of lots sharing a blocking key (see
+     * {@link #getBlockingKeys(MatchedTenderLot)}) are compared and the ratios are calculated in parallel.
      */
     @Override
     protected final List<List<U>> match(final List<List<U>> lotLists) {
@@ -263,89 +212,87 @@ public abstract class BaseTenderLotPlugin<T extends MatchedTender, W extends Mas
             return Arrays.asList(lotLists.stream().flatMap(List::stream).collect(Collectors.toList()));
         }
 
-        // calculate matching ratio MR for each cross tender lot-lot pair
-        List<MatchedTenderLotPairRatio> lotPairRatios = new ArrayList<>();
-        for (int firstLotTenderIndex = 0; firstLotTenderIndex < lotLists.size() - 1; ++firstLotTenderIndex) {
-            List<U> lotList1 = lotLists.get(firstLotTenderIndex);
-            for (int firstLotIndex = 0; firstLotIndex < lotList1.size(); ++firstLotIndex) {
-                // we can get the first lot to compare
-                U firstLot = lotList1.get(firstLotIndex);
-                for (int secondLotTenderIndex = firstLotTenderIndex + 1; secondLotTenderIndex < lotLists.size();
-                     ++secondLotTenderIndex) {
-                    List<U> lotList2 = lotLists.get(secondLotTenderIndex);
-                    for (int secondLotIndex = 0; secondLotIndex < lotList2.size(); ++secondLotIndex) {
-                        // we can get the second lot to compare
-                        U secondLot = lotList2.get(secondLotIndex);
-
-                        // calculating matching ratio MR
-                        Double matchingRatio = calculateMatchingRatio(firstLot, secondLot, lotLists);
-
-                        lotPairRatios.add(new MatchedTenderLotPairRatio(
-                                new MatchedTenderLotOverview(firstLotTenderIndex, firstLotIndex, firstLot),
-                                new MatchedTenderLotOverview(secondLotTenderIndex, secondLotIndex, secondLot),
-                                matchingRatio));
-                    }
-                }
+        List<MatchedTenderLotOverview> lots = new ArrayList<>();
+        for (int tenderIndex = 0; tenderIndex < lotLists.size(); ++tenderIndex) {
+            List<U> lotList = lotLists.get(tenderIndex);
+            for (int lotIndex = 0; lotIndex < lotList.size(); ++lotIndex) {
+                lots.add(new MatchedTenderLotOverview(tenderIndex, lotIndex, lotList.get(lotIndex)));
             }
         }
 
-        // sort all tender lot-lot pairs according to matching ratio MR
-        lotPairRatios = lotPairRatios.stream().sorted(new RatioComparator()).collect(Collectors.toList());
-
-        // visit all pairs from the end (with the higher score) to begin and create matched lot groups. Rules:
-        //   MR >= 0.5 ... match lots (they are in one group)
-        //   MR < 0.5  ... do not match lots (each lot is in separated group)
-        List<MatchedTenderLotOverviewGroup> lotOverviewGroups = new ArrayList<>();
-        while (!lotPairRatios.isEmpty()) {
-            // get pair with the higher score from the end of sorted list
-            MatchedTenderLotPairRatio lotPairRatio = lotPairRatios.remove(lotPairRatios.size() - 1);
-            MatchedTenderLotOverview lot1Overview = lotPairRatio.getLot1Overview();
-            MatchedTenderLotOverview lot2Overview = lotPairRatio.getLot2Overview();
-
-            // two lots of the pair belong to some group(s), because the pair is valid (invalid pairs were previously
-            // deleted)
-
-            if (lotPairRatio.getMatchingRatio().compareTo(new Double(0.5)) >= 0) {
-                boolean createNewGroup = true;
+        // cross tender lot-lot pairs, encoded as indices to lots list, in the order of the lots
+        long pairCount = 0;
+        long lotCount = 0;
+        for (List<U> lotList : lotLists) {
+            pairCount += lotCount * lotList.size();
+            lotCount += lotList.size();
+        }
 
-                for (int i = 0; i < lotOverviewGroups.size(); ++i) {
-                    MatchedTenderLotOverviewGroup lotOverviewGroup = lotOverviewGroups.get(i);
+        final boolean blocking = pairCount > BLOCKING_THRESHOLD;
+        final long[] pairs = blocking ? getBlockedPairs(lots) : getAllPairs(lots, (int) pairCount);
+        logger.debug("Comparing {} of {} lot pairs", pairs.length, pairCount);
 
-                    if (!lotOverviewGroup.contains(lot1Overview) && !lotOverviewGroup.contains(lot2Overview)) {
-                        // no lot of the pair is in the group -> try another one
-                        continue;
-                    }
+        // calculate matching ratio MR for each pair
+        final double[] ratios = new double[pairs.length];
+        IntStream indices = IntStream.range(0, pairs.length);
+        if (blocking) {
+            indices = indices.parallel();
+        }
+        indices.forEach(i -> ratios[i] = calculateMatchingRatio(lots.get(getFirst(pairs[i])).getLot(),
+            lots.get(getSecond(pairs[i])).getLot(), lotLists));
 
-                    // we know that the pair has to be joined to the group or ignored (when it cause invalid group or
-                    // the pair is already in group)
+        // sort pairs according to matching ratio MR, the higher score first (the later pair first for equal scores)
+        Integer[] order = new Integer[pairs.length];
+        for (int i = 0; i < order.length; ++i) {
+            order[i] = i;
+        }
+        Arrays.sort(order, (o1, o2) -> {
+            int result = Double.compare(ratios[o2], ratios[o1]);
+            return result != 0 ? result : Integer.compare(o2, o1);
+        });
 
-                    if (lotOverviewGroup.contains(lot1Overview) && !lotOverviewGroup.contains(lot2Overview)) {
-                        if (!lotOverviewGroup.hasLotFromTender(lot2Overview.getTenderIndex())) {
-                            addLotToGroup(lot2Overview, lotOverviewGroups, i);
-                        }
-                    } else if (!lotOverviewGroup.contains(lot1Overview) && lotOverviewGroup.contains(lot2Overview)){
-                        if (!lotOverviewGroup.hasLotFromTender(lot1Overview.getTenderIndex())) {
-                            addLotToGroup(lot1Overview, lotOverviewGroups, i);
+        // visit all pairs from the higher score and create matched lot groups. Rules:
+        //   MR >= 0.5 ... match lots (they are in one group)
+        //   MR < 0.5  ... do not match lots (each lot is in separated group)
+        final int[] parents = new int[lots.size()];
+        final List<MatchedTenderLotOverviewGroup> groups = new ArrayList<>(Collections.nCopies(lots.size(), null));
+        Arrays.fill(parents, -1);
+        List<MatchedTenderLotOverviewGroup> lotOverviewGroups = new ArrayList<>();
+        for (Integer pair : order) {
+            int lot1 = getFirst(pairs[pair]);
+            int lot2 = getSecond(pairs[pair]);
+            MatchedTenderLotOverview lot1Overview = lots.get(lot1);
+            MatchedTenderLotOverview lot2Overview = lots.get(lot2);
+
+            if (Double.compare(ratios[pair], MATCHING_RATIO_THRESHOLD) >= 0) {
+                int root1 = find(parents, lot1);
+                int root2 = find(parents, lot2);
+
+                if (root1 == -1 && root2 == -1) {
+                    MatchedTenderLotOverviewGroup group = createGroup(lotOverviewGroups, groups, parents, lot1,
+                        lot1Overview);
+                    addLot(group, groups, parents, lot1, lot2, lot2Overview);
+                } else if (root1 != root2) {
+                    // the pair has to be joined to the first group containing one of the lots or ignored (when it
+                    // causes invalid group)
+                    MatchedTenderLotOverviewGroup group1 = root1 == -1 ? null : groups.get(root1);
+                    MatchedTenderLotOverviewGroup group2 = root2 == -1 ? null : groups.get(root2);
+
+                    if (group2 == null || group1 != null && group1.order < group2.order) {
+                        if (!group1.hasLotFromTender(lot2Overview.getTenderIndex())) {
+                            addLot(group1, groups, parents, root1, lot2, lot2Overview);
                         }
+                    } else if (!group2.hasLotFromTender(lot1Overview.getTenderIndex())) {
+                        addLot(group2, groups, parents, root2, lot1, lot1Overview);
                     }
-
-                    createNewGroup = false;
-                    break;
-                }
-
-                if (createNewGroup) {
-                    lotOverviewGroups.add(new MatchedTenderLotOverviewGroup(
-                            new ArrayList<>(Arrays.asList(lot1Overview, lot2Overview))));
                 }
             } else { // MR < 0.5
                 // add each lot to separated group if it is not already in some other group
-                if (lotOverviewGroups.stream().noneMatch(g -> g.contains(lot1Overview))) {
-                    lotOverviewGroups.add(
-                            new MatchedTenderLotOverviewGroup(new ArrayList<>(Arrays.asList(lot1Overview))));
+                if (parents[lot1] == -1) {
+                    createGroup(lotOverviewGroups, groups, parents, lot1, lot1Overview);
                 }
-                if (lotOverviewGroups.stream().noneMatch(g -> g.contains(lot2Overview))) {
-                    lotOverviewGroups.add(
-                            new MatchedTenderLotOverviewGroup(new ArrayList<>(Arrays.asList(lot2Overview))));
+                if (parents[lot2] == -1) {
+                    createGroup(lotOverviewGroups, groups, parents, lot2, lot2Overview);
                 }
             }
         }
@@ -353,6 +300,7 @@ public abstract class BaseTenderLotPlugin<T extends MatchedTender, W extends Mas
         // convert groups structure which will be returned
         List<List<U>> matchedLots = lotOverviewGroups
                 .stream()
+                .filter(g -> !g.joined)
                 .map(g -> g.getLotOverviews().values()
                         .stream()
                         .map(l -> l.getLot())
@@ -360,17 +308,9 @@ public abstract class BaseTenderLotPlugin<T extends MatchedTender, W extends Mas
                 .collect(Collectors.toList());
 
         // create group with one lot if the lot is not in matched groups
-        for (int i = 0; i < lotLists.size(); ++i) {
-            List<U> lotList = lotLists.get(i);
-            for (int j = 0; j < lotList.size(); ++j) {
-                U lot = lotList.get(j);
-                if (!matchedLots
-                        .stream()
-                        .anyMatch(lotGroup -> lotGroup
-                                .stream()
-                                .anyMatch(l -> l.equals(lot)))) {
-                    matchedLots.add(Arrays.asList(lot));
-                }
+        for (int i = 0; i < lots.size(); ++i) {
+            if (parents[i] == -1) {
+                matchedLots.add(Arrays.asList(lots.get(i).getLot()));
             }
         }
 
@@ -405,31 +345,213 @@ public abstract class BaseTenderLotPlugin<T extends MatchedTender, W extends Mas
     protected abstract Double calculateMatchingRatio(U firstLot, U secondLot, List<List<U>> items);
 
     /**
-     * Adds lot to matched group of lots. The lot can be part of some other group (it is checked only with groups
-     * after the group) so the group may be joined with another one.
+     * Returns keys of blocks of lots which are compared with each other in large tenders. Lots which don't share any
+     * key aren't compared. Default keys are lot id, lot number, contract number, title words and CPV codes.
+     *
+     * @param lot
+     *          matched lot
+     * @return blocking keys
+     */
+    protected Collection<String> getBlockingKeys(final U lot) {
+        Set<String> keys = new HashSet<>();
+        if (lot.getLotId() != null) {
+            keys.add("id:" + lot.getLotId().trim().toLowerCase());
+        }
+        if (lot.getLotNumber() != null) {
+            keys.add("number:" + lot.getLotNumber());
+        }
+        if (lot.getContractNumber() != null) {
+            keys.add("contract:" + lot.getContractNumber().trim().toLowerCase());
+        }
+        if (lot.getTitle() != null) {
+            for (String word : lot.getTitle().toLowerCase().split("[^\\p{L}\\p{N}]+")) {
+                if (word.length() >= MIN_BLOCKING_WORD_LENGTH) {
+                    keys.add("title:" + word);
+                }
+            }
+        }
+        if (lot.getCpvs() != null) {
+            lot.getCpvs().stream().filter(c -> c != null && c.getCode() != null)
+                .forEach(c -> keys.add("cpv:" + c.getCode()));
+        }
+
+        return keys;
+    }
+
+    /**
+     * @param lots
+     *          all lots
+     * @param pairCount
+     *          number of cross tender pairs
+     * @return all cross tender pairs of lots ordered by the first and the second lot
+     */
+    private long[] getAllPairs(final List<MatchedTenderLotOverview> lots, final int pairCount) {
+        long[] pairs = new long[pairCount];
+        int n = 0;
+        for (int i = 0; i < lots.size(); ++i) {
+            for (int j = i + 1; j < lots.size(); ++j) {
+                if (lots.get(i).getTenderIndex() != lots.get(j).getTenderIndex()) {
+                    pairs[n++] = getPair(i, j);
+                }
+            }
+        }
+
+        return pairs;
+    }
+
+    /**
+     * @param lots
+     *          all lots
+     * @return cross tender pairs of lots sharing at least one blocking key ordered by the first and the second lot
+     */
+    private long[] getBlockedPairs(final List<MatchedTenderLotOverview> lots) {
+        Map<String, List<Integer>> blocks = new HashMap<>();
+        for (int i = 0; i < lots.size(); ++i) {
+            Collection<String> keys = getBlockingKeys(lots.get(i).getLot());
+            if (keys != null) {
+                for (String key : keys) {
+                    blocks.computeIfAbsent(key, k -> new ArrayList<>()).add(i);
+                }
+            }
+        }
+
+        LongStream.Builder pairs = LongStream.builder();
+        for (List<Integer> block : blocks.values()) {
+            // too large block isn't selective
+            if (block.size() > MAX_BLOCK_SIZE) {
+                continue;
+            }
+
+            for (int i = 0; i < block.size(); ++i) {
+                for (int j = i + 1; j < block.size(); ++j) {
+                    if (lots.get(block.get(i)).getTenderIndex() != lots.get(block.get(j)).getTenderIndex()) {
+                        pairs.add(getPair(block.get(i), block.get(j)));
+                    }
+                }
+            }
+        }
+
+        return pairs.build().sorted().distinct().toArray();
+    }
+
+    /**
+     * @param first
+     *          index of the first lot
+     * @param second
+     *          index of the second lot, greater than the first one
+     * @return encoded pair
+     */
+    private static long getPair(final int first, final int second) {
+        return ((long) first << 32) | second;
+    }
+
+    /**
+     * @param pair
+     *          encoded pair
+     * @return index of the first lot
+     */
+    private static int getFirst(final long pair) {
+        return (int) (pair >>> 32);
+    }
+
+    /**
+     * @param pair
+     *          encoded pair
+     * @return index of the second lot
+     */
+    private static int getSecond(final long pair) {
+        return (int) pair;
+    }
+
+    /**
+     * Finds root of the lot in union-find structure.
      *
+     * @param parents
+     *          parents of the lots, -1 for lots not in any group, the lot itself for roots
      * @param lot
-     *          lot to be added
+     *          lot index
+     * @return index of the root lot or -1 if the lot isn't in any group
+     */
+    private static int find(final int[] parents, final int lot) {
+        int root = lot;
+        while (parents[root] != -1 && parents[root] != root) {
+            root = parents[root];
+        }
+
+        if (parents[root] == -1) {
+            return -1;
+        }
+
+        // path compression
+        int node = lot;
+        while (parents[node] != root) {
+            int next = parents[node];
+            parents[node] = root;
+            node = next;
+        }
+
+        return root;
+    }
+
+    /**
+     * Creates new group with one lot.
+     *
+     * @param lotOverviewGroups
+     *          groups in order of creation
      * @param groups
-     *          matched groups of lots
-     * @param groupIndex
-     *          index to matched groups of lots to get the right group of lots
+     *          groups by root lot index
+     * @param parents
+     *          parents of the lots
+     * @param lot
+     *          lot index
+     * @param lotOverview
+     *          information about lot
+     * @return new group
      */
-    private void addLotToGroup(final MatchedTenderLotOverview lot,
-                               final List<MatchedTenderLotOverviewGroup> groups,
-                               final int groupIndex) {
+    private MatchedTenderLotOverviewGroup createGroup(final List<MatchedTenderLotOverviewGroup> lotOverviewGroups,
+                                                     final List<MatchedTenderLotOverviewGroup> groups,
+                                                     final int[] parents, final int lot,
+                                                     final MatchedTenderLotOverview lotOverview) {
+        MatchedTenderLotOverviewGroup group = new MatchedTenderLotOverviewGroup(lotOverviewGroups.size());
+        group.addLotOverview(lotOverview);
+        lotOverviewGroups.add(group);
+        groups.set(lot, group);
+        parents[lot] = lot;
+
+        return group;
+    }
+
+    /**
+     * Adds lot to matched group of lots. The lot can be part of some other (later) group, so the group is joined
+     * with it.
+     *
+     * @param group
+     *          group
+     * @param groups
+     *          groups by root lot index
+     * @param parents
+     *          parents of the lots
+     * @param root
+     *          index of the group root lot
+     * @param lot
+     *          index of lot to be added
+     * @param lotOverview
+     *          information about lot to be added
+     */
+    private void addLot(final MatchedTenderLotOverviewGroup group, final List<MatchedTenderLotOverviewGroup> groups,
+                        final int[] parents, final int root, final int lot,
+                        final MatchedTenderLotOverview lotOverview) {
         // add lot which is not in group
-        groups.get(groupIndex).addLotOverview(lot);
-
-        // it is possible that the pair joined two groups, so try to join
-        for (int j = groupIndex + 1; j < groups.size(); ++j) {
-            MatchedTenderLotOverviewGroup lotOverviewGroup = groups.get(j);
-            if (lotOverviewGroup.contains(lot)) {
-                // JOIN THE TWO GROUPS
-                groups.get(groupIndex).join(lotOverviewGroup);
-                groups.remove(j);
-                break;
-            }
+        group.addLotOverview(lotOverview);
+
+        // it is possible that the pair joined two groups, so join them
+        int otherRoot = find(parents, lot);
+        if (otherRoot != -1) {
+            group.join(groups.get(otherRoot));
+            groups.set(otherRoot, null);
+            parents[otherRoot] = root;
+        } else {
+            parents[lot] = root;
         }
     }
 }
\ No newline at end of file
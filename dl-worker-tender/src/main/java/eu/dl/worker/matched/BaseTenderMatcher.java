@@ -1,6 +1,7 @@
 package eu.dl.worker.matched;
 
 import eu.dl.core.UnrecoverableException;
+import eu.dl.core.metrics.Metrics;
 import eu.dl.dataaccess.dao.CleanTenderDAO;
 import eu.dl.dataaccess.dao.EtalonBodyDAO;
 import eu.dl.dataaccess.dao.ManualMatchDAO;
@@ -23,24 +24,32 @@ import eu.dl.worker.matched.plugin.ExactMatchingPlugin;
 import eu.dl.worker.matched.plugin.ManualMatchingPlugin;
 import eu.dl.worker.matched.plugin.MatchingPlugin;
 import eu.dl.worker.matched.plugin.MatchingResult;
+import eu.dl.worker.matched.utils.BodyHashIndex;
+import eu.dl.worker.utils.matched.BodyCandidateIndex;
 import eu.dl.worker.utils.BasicPluginRegistry;
 import eu.dl.worker.utils.PluginRegistry;
 import org.apache.commons.lang3.tuple.Pair;
 import org.apache.logging.log4j.ThreadContext;
-import org.cache2k.Cache;
-import org.cache2k.Cache2kBuilder;
 
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.Duration;
 import java.time.LocalDate;
+import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Comparator;
 import java.util.HashMap;
 import java.util.List;
-import java.util.Map;
+import java.util.stream.Stream;
 import java.util.Map.Entry;
 
 import static eu.dl.dataaccess.utils.DigestUtils.bodyFullHash;
 import static eu.dl.dataaccess.utils.DigestUtils.generateAlternativeBodyHashes;
+import static eu.dl.dataaccess.utils.DigestUtils.standardizeAddress;
+import static eu.dl.dataaccess.utils.DigestUtils.standardizeName;
 
 /**
  * Base class for tender matchers. Waits for clean tender data, matches each
@@ -98,17 +107,39 @@ public abstract class BaseTenderMatcher extends BaseMatcher {
 
     private final ManualMatchingPlugin<MatchedBody> manualBodyMatchingPlugin;
 
-    protected final Cache<String, String> bodyHashCache = new Cache2kBuilder<String, String>() {}
-    		.name("bodyHashCache")
-    		.eternal(true)
-    		.entryCapacity(90000000)
-    		.build();
+    /**
+     * Overlap of the incremental synchronizations of the body hash index. Hashes modified shortly before the last
+     * synchronization are read again, so the bodies saved during the synchronization aren't missed.
+     */
+    private static final Duration BODY_HASH_INDEX_SYNC_OVERLAP = Duration.ofMinutes(10);
+
+    /**
+     * Body hashes and their group ids together with etalon flags of the groups.
+     */
+    protected final BodyHashIndex bodyHashIndex;
+
+    /**
+     * Default maximal number of candidates returned by the approximate matching index.
+     */
+    private static final int APPROXIMATE_INDEX_LIMIT_DEFAULT = 200;
 
-    	protected final Cache<String, Boolean> groupEtalonCache = new Cache2kBuilder<String, Boolean>() {}
-    		.name("groupEtalonCache")
-    		.eternal(true)
-    		.entryCapacity(90000000)
-    		.build();
+    /**
+     * Minimal upper bound of the score of the candidate returned by the approximate matching index. It's the threshold
+     * of the approximate matching with a tolerance of the float rounding, so no body which can be matched is skipped.
+     */
+    private static final float APPROXIMATE_INDEX_MIN_SCORE = 0.75f - 0.0001f;
+
+    /**
+     * Resident index of matched bodies for approximate matching, null if the index isn't enabled.
+     */
+    protected final BodyCandidateIndex<MatchedBody> approximateBodyIndex;
+
+    /**
+     * Whether the execution times of the body matching plugins are stored in metadata of the matched body
+     * ("matchingTimes"). Times are always recorded in the worker metrics, storing can be turned off by
+     * &lt;worker&gt;.storeMatchingTimes=0.
+     */
+    private final boolean storeMatchingTimes;
 
     /**
      * Default constructor.
@@ -129,15 +160,26 @@ public abstract class BaseTenderMatcher extends BaseMatcher {
         matchedBodyDao = getMatchedBodyDAO(additionalMatchers);
         matchedTenderDao = getMatchedTenderDAO(additionalMatchers);
 
+        storeMatchingTimes = !"0".equals(config.getParam(getName() + ".storeMatchingTimes"));
+
+        approximateBodyIndex = populateApproximateBodyIndex();
+
         registerCommonBodyPlugins();
         registerBodyPlugins();
 
         registerCommonTenderPlugins();
         registerTenderPlugins();
 
-        populateBodyHashCache();
+        bodyHashIndex = populateBodyHashIndex();
         populateEtalonCache();
 
+        Metrics.gauge("dl_matcher_body_hashes", "Number of body hashes in the body hash index", bodyHashIndex::size,
+            "worker", getName());
+        if (approximateBodyIndex != null) {
+            Metrics.gauge("dl_matcher_indexed_bodies", "Number of bodies in the approximate matching index",
+                approximateBodyIndex::size, "worker", getName());
+        }
+
         manualBodyMatchingPlugin = new ManualMatchingPlugin<MatchedBody>(manualMatchDao, "body");
     }
 
@@ -155,11 +197,104 @@ public abstract class BaseTenderMatcher extends BaseMatcher {
         // set item processing order
         matchedTender.setProcessingOrder(cleanTender.getProcessingOrder());
 
-        matchedTender = matchBodies(matchedTender, cleanTender);
+        final List<Pair<MatchedBody, MatchedBody>> unsavedBodies = new ArrayList<>();
+        try {
+            matchedTender = matchBodies(matchedTender, cleanTender, unsavedBodies);
+
+            saveBodies(unsavedBodies);
+
+            logger.info("Matching tender {}", cleanTenderId);
+            matchTender(matchedTender);
+            getTransactionUtils().commit();
+        } catch (RuntimeException e) {
+            // the transaction is rolled back, so the bodies mustn't be candidates of the approximate matching
+            unindexBodies(unsavedBodies);
+            throw e;
+        }
 
-        logger.info("Matching tender {}", cleanTenderId);
-        matchTender(matchedTender);
-        getTransactionUtils().commit();
+        publishBodies(unsavedBodies);
+        publishTender(matchedTender);
+    }
+
+    /**
+     * Saves matched bodies of the tender which haven't been saved yet in one batch, populates ids of their
+     * "plain/reference" bodies and adds them to the approximate matching index. The bodies are saved before the
+     * matching plugins search the database for the next body of the tender, so the body can be matched with the
+     * previous bodies of the same tender.
+     *
+     * @param unsavedBodies
+     *         pairs of matched body and its "plain/reference" body
+     */
+    final void saveBodies(final List<Pair<MatchedBody, MatchedBody>> unsavedBodies) {
+        final List<Pair<MatchedBody, MatchedBody>> pending = new ArrayList<>();
+        final List<MatchedBody> bodies = new ArrayList<>();
+        for (Pair<MatchedBody, MatchedBody> pair : unsavedBodies) {
+            if (pair.getLeft().getId() == null) {
+                pending.add(pair);
+                bodies.add(pair.getLeft());
+            }
+        }
+
+        if (bodies.isEmpty()) {
+            return;
+        }
+
+        matchedBodyDao.saveAll(bodies);
+
+        for (Pair<MatchedBody, MatchedBody> pair : pending) {
+            pair.getRight().setId(pair.getLeft().getId());
+            if (approximateBodyIndex != null) {
+                approximateBodyIndex.add(pair.getLeft());
+            }
+        }
+    }
+
+    /**
+     * Removes bodies from the approximate matching index.
+     *
+     * @param bodies
+     *         pairs of matched body and its "plain/reference" body
+     */
+    private void unindexBodies(final List<Pair<MatchedBody, MatchedBody>> bodies) {
+        if (approximateBodyIndex == null) {
+            return;
+        }
+
+        for (Pair<MatchedBody, MatchedBody> pair : bodies) {
+            if (pair.getLeft().getId() != null) {
+                approximateBodyIndex.remove(pair.getLeft().getId());
+            }
+        }
+    }
+
+    /**
+     * Publishes messages about matched bodies.
+     *
+     * @param savedBodies
+     *         pairs of matched body and its "plain/reference" body
+     */
+    private void publishBodies(final List<Pair<MatchedBody, MatchedBody>> savedBodies) {
+        final String tag = getBodyMessagingTag();
+        for (Pair<MatchedBody, MatchedBody> pair : savedBodies) {
+            final Message outgoingMessage = MessageFactory.getMessage();
+            outgoingMessage.setValue("groupId", pair.getLeft().getGroupId());
+            publishMessage(outgoingMessage, tag);
+            logger.info("Body matching finished, published message '{}' with tag '{}'", outgoingMessage, tag);
+        }
+    }
+
+    /**
+     * Publishes message about matched tender.
+     *
+     * @param matchedTender
+     *         saved matched tender
+     */
+    private void publishTender(final MatchedTender matchedTender) {
+        final Message outgoingMessage = MessageFactory.getMessage();
+        final String tag = getTenderMessagingTag();
+        outgoingMessage.setValue("groupId", matchedTender.getGroupId());
+        publishMessage(outgoingMessage, tag);
+        logger.info("Tender matching finished, published message '{}' with tag '{}'", outgoingMessage, tag);
     }
 
     /**
@@ -170,10 +305,13 @@ public abstract class BaseTenderMatcher extends BaseMatcher {
      *
      * @param cleanTender
      *         clean tender
+     * @param unsavedBodies
+     *         list where the matched bodies waiting for save are collected
      *
      * @return tender with matched bodies set
      */
-    private MatchedTender matchBodies(final MatchedTender matchedTender, final CleanTender cleanTender) {
+    final MatchedTender matchBodies(final MatchedTender matchedTender, final CleanTender cleanTender,
+            final List<Pair<MatchedBody, MatchedBody>> unsavedBodies) {
         LocalDate publicationDate = null;
         String source = null;
         if (matchedTender.getPublications() != null) {
@@ -185,25 +323,30 @@ public abstract class BaseTenderMatcher extends BaseMatcher {
             }
         }
         matchedTender.setAdministrators(
-                matchBodySet(matchedTender.getAdministrators(), cleanTender, publicationDate, source));
+                matchBodySet(matchedTender.getAdministrators(), cleanTender, publicationDate, source, unsavedBodies));
         matchedTender.setApproachedBidders(
-                matchBodySet(matchedTender.getApproachedBidders(), cleanTender, publicationDate, source));
+                matchBodySet(matchedTender.getApproachedBidders(), cleanTender, publicationDate, source,
+                        unsavedBodies));
         matchedTender.setCandidates(
-                matchBodySet(matchedTender.getCandidates(), cleanTender, publicationDate, source));
+                matchBodySet(matchedTender.getCandidates(), cleanTender, publicationDate, source, unsavedBodies));
         matchedTender.setSupervisors(
-                matchBodySet(matchedTender.getSupervisors(), cleanTender, publicationDate, source));
-        matchedTender.setBuyers(matchBodySet(matchedTender.getBuyers(), cleanTender, publicationDate, source));
+                matchBodySet(matchedTender.getSupervisors(), cleanTender, publicationDate, source, unsavedBodies));
+        matchedTender.setBuyers(matchBodySet(matchedTender.getBuyers(), cleanTender, publicationDate, source,
+                unsavedBodies));
 
         matchedTender.setOnBehalfOf(
-                matchBodySet(matchedTender.getOnBehalfOf(), cleanTender, publicationDate, source));
+                matchBodySet(matchedTender.getOnBehalfOf(), cleanTender, publicationDate, source, unsavedBodies));
         matchedTender.setBidsRecipient(
-                matchBody(matchedTender.getBidsRecipient(), cleanTender, publicationDate, source));
+                matchBody(matchedTender.getBidsRecipient(), cleanTender, publicationDate, source, unsavedBodies));
         matchedTender.setFurtherInformationProvider(
-                matchBody(matchedTender.getFurtherInformationProvider(), cleanTender, publicationDate, source));
+                matchBody(matchedTender.getFurtherInformationProvider(), cleanTender, publicationDate, source,
+                        unsavedBodies));
         matchedTender.setSpecificationsCreator(
-                matchBody(matchedTender.getSpecificationsCreator(), cleanTender, publicationDate, source));
+                matchBody(matchedTender.getSpecificationsCreator(), cleanTender, publicationDate, source,
+                        unsavedBodies));
         matchedTender.setSpecificationsProvider(
-                matchBody(matchedTender.getSpecificationsProvider(), cleanTender, publicationDate, source));
+                matchBody(matchedTender.getSpecificationsProvider(), cleanTender, publicationDate, source,
+                        unsavedBodies));
 
         List<MatchedTenderLot> lots = matchedTender.getLots();
         if (lots != null) {
@@ -211,9 +354,11 @@ public abstract class BaseTenderMatcher extends BaseMatcher {
                 List<MatchedBid> bids = lot.getBids();
                 if (bids != null) {
                     for (MatchedBid bid : bids) {
-                        bid.setBidders(matchBodySet(bid.getBidders(), cleanTender, publicationDate, source));
+                        bid.setBidders(matchBodySet(bid.getBidders(), cleanTender, publicationDate, source,
+                                unsavedBodies));
                         bid.setSubcontractors(
-                                matchBodySet(bid.getSubcontractors(), cleanTender, publicationDate, source));
+                                matchBodySet(bid.getSubcontractors(), cleanTender, publicationDate, source,
+                                        unsavedBodies));
                     }
                 }
                 lot.setBids(bids);
@@ -234,16 +379,20 @@ public abstract class BaseTenderMatcher extends BaseMatcher {
      *         publication date
      * @param source
      *         body source
+     * @param unsavedBodies
+     *         list where the matched bodies waiting for save are collected
      *
      * @return list of matched bodies
      */
     private MatchedBody matchBody(final MatchedBody body, final CleanTender cleanTender,
-            final LocalDate publicationDate, final String source) {
+            final LocalDate publicationDate, final String source,
+            final List<Pair<MatchedBody, MatchedBody>> unsavedBodies) {
         if (body == null) {
             return null;
         }
 
-        List<MatchedBody> matchedBodies = matchBodySet(Arrays.asList(body), cleanTender, publicationDate, source);
+        List<MatchedBody> matchedBodies = matchBodySet(Arrays.asList(body), cleanTender, publicationDate, source,
+            unsavedBodies);
 
         if (matchedBodies != null && !matchedBodies.isEmpty()) {
             return matchedBodies.get(0);
@@ -263,11 +412,15 @@ public abstract class BaseTenderMatcher extends BaseMatcher {
      *         publication date
      * @param source
      *         body source
+     * @param unsavedBodies
+     *         list where the matched bodies waiting for save are collected, the bodies are saved in one batch before
+     *         the matching plugins search the database or once the whole tender is matched
      *
-     * @return list of "plain/reference" bodies
+     * @return list of "plain/reference" bodies (ids are populated once the bodies are saved)
      */
     private List<MatchedBody> matchBodySet(final List<MatchedBody> bodies, final CleanTender cleanTender,
-            final LocalDate publicationDate, final String source) {
+            final LocalDate publicationDate, final String source,
+            final List<Pair<MatchedBody, MatchedBody>> unsavedBodies) {
         if (bodies == null) {
             return null;
         }
@@ -284,8 +437,15 @@ public abstract class BaseTenderMatcher extends BaseMatcher {
                 metaData = body.getMetaData();
             }
 
+            // standardized name and address are computed once (usually when the matched body is created) and shared
+            // by all the hash functions
+            String stdName = body.getStandardizedName() != null ? body.getStandardizedName()
+                : standardizeName(body.getName());
+            String stdAddress = body.getStandardizedAddress() != null ? body.getStandardizedAddress()
+                : standardizeAddress(body.getAddress());
+
             // generate body hash
-            String mainBodyHash = generateBodyHash(body);
+            String mainBodyHash = generateBodyHash(body, stdName);
 
             if (mainBodyHash == null) {
                 logger.error("Unable to generate body hash. Body is skipped.");
@@ -299,17 +459,17 @@ public abstract class BaseTenderMatcher extends BaseMatcher {
             logger.debug("Calculated full hash {} for body {}.", fullHash, body.getName());
             body.setFullHash(fullHash);
 
-            body.setAlternativeHashes(generateAlternativeBodyHashes(body));
+            body.setAlternativeHashes(generateAlternativeBodyHashes(body, stdName, stdAddress));
 
             // search by manual matching plugin first
-            long pluginStartTime = System.currentTimeMillis();
+            long pluginStartTime = System.nanoTime();
             MatchingResult manualMatchingResult = manualBodyMatchingPlugin.match(body);
-            long pluginEndTime = System.currentTimeMillis();
+            long pluginTime = recordPluginTime("match", MANUAL_PLUGIN, pluginStartTime);
 
-            logMatchingData(pluginStartTime, pluginEndTime, "manual");
+            logMatchingData(pluginTime, MANUAL_PLUGIN);
 
             HashMap<String, Long> matchingTimes = new HashMap<String, Long>();
-            matchingTimes.put("manual", pluginEndTime - pluginStartTime);
+            matchingTimes.put("manual", pluginTime);
 
             if (manualMatchingResult.getMatched()) {
                 // match found, store group_id and matched by
@@ -320,13 +480,13 @@ public abstract class BaseTenderMatcher extends BaseMatcher {
             } else {
 
                 // search for potential matches in cache
-                pluginStartTime = System.currentTimeMillis();
+                pluginStartTime = System.nanoTime();
                 String matchedByHashGroupId = findByHashes(body);
-                pluginEndTime = System.currentTimeMillis();
+                pluginTime = recordPluginTime("match", HASH, pluginStartTime);
 
-                logMatchingData(pluginStartTime, pluginEndTime, "HASH");
+                logMatchingData(pluginTime, HASH);
 
-                matchingTimes.put("HASH", pluginEndTime - pluginStartTime);
+                matchingTimes.put("HASH", pluginTime);
 
                 if (matchedByHashGroupId != null) {
                     // the same hash found, storing into the same group
@@ -334,15 +494,18 @@ public abstract class BaseTenderMatcher extends BaseMatcher {
                     body.setMatchedBy(HASH);
                     metaData.put("matchedBy", HASH);
                 } else {
+                    // previous bodies of the tender are saved to be found by the plugins
+                    saveBodies(unsavedBodies);
+
                     Boolean matched = false;
                     // try all registered plugins for potential match
                     for (Entry<String, MatchingPlugin<MatchedBody>> entry : bodyPluginRegistry.getPlugins().entrySet()) {
                         MatchingPlugin<MatchedBody> plugin = entry.getValue();
-                        pluginStartTime = System.currentTimeMillis();
+                        pluginStartTime = System.nanoTime();
                         MatchingResult matchingResult = plugin.match(body);
-                        pluginEndTime = System.currentTimeMillis();
-                        logMatchingData(pluginStartTime, pluginEndTime, plugin.getClass().getName());
-                        matchingTimes.put(plugin.getClass().getName(), pluginEndTime - pluginStartTime);
+                        pluginTime = recordPluginTime("match", entry.getKey(), pluginStartTime);
+                        logMatchingData(pluginTime, plugin.getClass().getName());
+                        matchingTimes.put(plugin.getClass().getName(), pluginTime);
 
                         if (matchingResult.getMatched()) {
                             // match found, store group_id and matched by
@@ -355,10 +518,10 @@ public abstract class BaseTenderMatcher extends BaseMatcher {
                             // save results to cache
                             if (matchingResult.getMatchedBy().equals(ExactMatchingEtalonPlugin.MATCHED_BY)
                                     || matchingResult.getMatchedBy().equals(ApproximateMatchingEtalonPlugin.MATCHED_BY)) {
-                                groupEtalonCache.put(matchingResult.getGroupId(), true);
+                                bodyHashIndex.setEtalon(matchingResult.getGroupId(), true);
                                 putToCache(matchingResult.getGroupId(), matchingResult.getMatchedBody());
                             } else {
-                                groupEtalonCache.put(matchingResult.getGroupId(), false);
+                                bodyHashIndex.setEtalon(matchingResult.getGroupId(), false);
                             }
 
                             // end the plugin loop
@@ -388,25 +551,21 @@ public abstract class BaseTenderMatcher extends BaseMatcher {
             Double completenessScore = BodyUtils.completenessScore(body);
             metaData.put("completenessScore", completenessScore);
             metaData.put("cleanObjectPersistentId", cleanTender.getPersistentId());
-            metaData.put("matchingTimes", matchingTimes);
+            if (storeMatchingTimes) {
+                metaData.put("matchingTimes", matchingTimes);
+            }
 
             body.setMetaData(metaData);
-            matchedBodyDao.save(body);
 
             // we don't store the whole body, only the "plain", reference body
             MatchedBody plainBody = new MatchedBody();
-            plainBody.setId(body.getId());
             plainBody.setGroupId(body.getGroupId());
             plainBody.setCompletenessScore(completenessScore);
 
             matchedBodies.add(plainBody);
 
-            // publish message
-            final Message outgoingMessage = MessageFactory.getMessage();
-            final String tag = getBodyMessagingTag();
-            outgoingMessage.setValue("groupId", body.getGroupId());
-            publishMessage(outgoingMessage, tag);
-            logger.info("Body matching finished, published message '{}' with tag '{}'", outgoingMessage, tag);
+            // the body is saved and published together with the other bodies of the tender
+            unsavedBodies.add(Pair.of(body, plainBody));
         }
 
         if (matchedBodies != null && !matchedBodies.isEmpty()) {
@@ -425,15 +584,15 @@ public abstract class BaseTenderMatcher extends BaseMatcher {
      */
     private void putToCache(final String groupId, final MatchedBody body) {
     	if (body.getHash() != null) {
-    		bodyHashCache.put(body.getHash(), groupId);
+    		bodyHashIndex.put(body.getHash(), groupId);
     	}
 
         if (body.getFullHash() != null) {
-            bodyHashCache.put(body.getFullHash(), groupId);
+            bodyHashIndex.put(body.getFullHash(), groupId);
         }
 
     	for (WeightedHash hash : body.getAlternativeHashes()) {
-    		bodyHashCache.put(hash.getHash(), groupId);
+    		bodyHashIndex.put(hash.getHash(), groupId);
     	}
 	}
 
@@ -445,7 +604,7 @@ public abstract class BaseTenderMatcher extends BaseMatcher {
      */
     private String findByHashes(final MatchedBody body) {
     		// check first, whether there is not the "same"(in the sense of the equal hash) body
-        String groupId = bodyHashCache.peek(body.getHash());
+        String groupId = bodyHashIndex.get(body.getHash());
         if (groupId != null) {
         		return groupId;
     		}
@@ -459,12 +618,10 @@ public abstract class BaseTenderMatcher extends BaseMatcher {
                 .thenComparing(Comparator.comparing(WeightedHash::getHash)));
 
         for (WeightedHash hash : alternativeHashes) {
-            groupId = bodyHashCache.peek(hash.getHash());
+            groupId = bodyHashIndex.get(hash.getHash());
 
             if (groupId != null) {
-            		Boolean isEtalonGroup = groupEtalonCache.peek(groupId);
-
-            		if (isEtalonGroup != null && isEtalonGroup) {
+            		if (bodyHashIndex.isEtalon(groupId)) {
     					// etalon wins, no need to wait
     					return groupId;
             		}
@@ -511,12 +668,11 @@ public abstract class BaseTenderMatcher extends BaseMatcher {
             // try all registered plugins for potential match
             for (Entry<String, MatchingPlugin<MatchedTender>> entry : tenderPluginRegistry.getPlugins().entrySet()) {
                 MatchingPlugin<MatchedTender> plugin = entry.getValue();
-                long pluginStartTime = System.currentTimeMillis();
+                long pluginStartTime = System.nanoTime();
                 MatchingResult matchingResult = plugin.match(matchedTender);
-                long pluginEndTime = System.currentTimeMillis();
-                if ((pluginEndTime - pluginStartTime) > PLUGIN_TIME_THRESHOLD) {
-                    logger.warn("Execution of tender match plugin {} took {} ms.", plugin,
-                            pluginEndTime - pluginStartTime);
+                long pluginTime = recordPluginTime("match", entry.getKey(), pluginStartTime);
+                if (pluginTime > PLUGIN_TIME_THRESHOLD) {
+                    logger.warn("Execution of tender match plugin {} took {} ms.", plugin, pluginTime);
                 }
 
                 if (matchingResult.getMatched()) {
@@ -541,12 +697,6 @@ public abstract class BaseTenderMatcher extends BaseMatcher {
 
         // save the result
         matchedTenderDao.save(matchedTender);
-
-        final Message outgoingMessage = MessageFactory.getMessage();
-        final String tag = getTenderMessagingTag();
-        outgoingMessage.setValue("groupId", matchedTender.getGroupId());
-        publishMessage(outgoingMessage, tag);
-        logger.info("Tender matching finished, published message '{}' with tag '{}'", outgoingMessage, tag);
     }
 
     @Override
@@ -560,22 +710,23 @@ public abstract class BaseTenderMatcher extends BaseMatcher {
                 resendVersion = getVersion();
             }
 
-            final List<MatchedTender> tenders = matchedTenderDao.getForResend(getName(), resendVersion);
-
-            for (final MatchedTender tender : tenders) {
-                final Message outgoingMessage = MessageFactory.getMessage();
-                final String tag = getTenderMessagingTag();
-                outgoingMessage.setValue("groupId", tender.getGroupId());
-                publishMessage(outgoingMessage, tag);
+            final String tenderTag = getTenderMessagingTag();
+            try (Stream<MatchedTender> tenders = matchedTenderDao.streamForResend(getName(), resendVersion)) {
+                tenders.forEach(tender -> {
+                    final Message outgoingMessage = MessageFactory.getMessage();
+                    outgoingMessage.setValue("groupId", tender.getGroupId());
+                    publishMessage(outgoingMessage, tenderTag);
+                });
             }
             logger.info("Messages with matched tenders sent over.");
 
-            final List<MatchedBody> bodies = matchedBodyDao.getForResend(getName(), resendVersion);
-            for (MatchedBody body : bodies) {
-                final Message outgoingMessage = MessageFactory.getMessage();
-                final String tag = getBodyMessagingTag();
-                outgoingMessage.setValue("groupId", body.getGroupId());
-                publishMessage(outgoingMessage, tag);
+            final String bodyTag = getBodyMessagingTag();
+            try (Stream<MatchedBody> bodies = matchedBodyDao.streamForResend(getName(), resendVersion)) {
+                bodies.forEach(body -> {
+                    final Message outgoingMessage = MessageFactory.getMessage();
+                    outgoingMessage.setValue("groupId", body.getGroupId());
+                    publishMessage(outgoingMessage, bodyTag);
+                });
             }
             logger.info("Messages with matched bodies sent over.");
         } catch (final Exception ex) {
@@ -593,7 +744,8 @@ public abstract class BaseTenderMatcher extends BaseMatcher {
 
         bodyPluginRegistry.registerPlugin(EXACT_MATCH_BODY_PLUGIN, new ExactMatchingPlugin(matchedBodyDao));
 
-        bodyPluginRegistry.registerPlugin(APPROXIMATE_MATCH_BODY_PLUGIN, new ApproximateMatchingPlugin(matchedBodyDao));
+        bodyPluginRegistry.registerPlugin(APPROXIMATE_MATCH_BODY_PLUGIN,
+                new ApproximateMatchingPlugin(matchedBodyDao, approximateBodyIndex));
 
         bodyPluginRegistry.registerPlugin(APPROXIMATE_MATCH_ETALON_PLUGIN,
                 new ApproximateMatchingEtalonPlugin(matchedBodyDao, etalonBodyDao, getSourceId()));
@@ -635,6 +787,22 @@ public abstract class BaseTenderMatcher extends BaseMatcher {
      */
     protected abstract String generateBodyHash(MatchedBody matchedBody);
 
+    /**
+     * Generates the hash for the body with already standardized name. By default delegates to
+     * {@link #generateBodyHash(MatchedBody)}, implementations can override it to avoid standardizing the name again
+     * (see {@link eu.dl.dataaccess.utils.DigestUtils#bodyHash(MatchedBody, String)}).
+     *
+     * @param matchedBody
+     *         matched body used to generate hash
+     * @param standardizedName
+     *         standardized name of the body
+     *
+     * @return hash
+     */
+    protected String generateBodyHash(final MatchedBody matchedBody, final String standardizedName) {
+        return generateBodyHash(matchedBody);
+    }
+
     /**
      * This methods generates the hash for the tender. This hash is used to
      * group the same tenders together. The tenders with the same hash are not
@@ -718,28 +886,103 @@ public abstract class BaseTenderMatcher extends BaseMatcher {
     }
 
     /**
-     * Populates body hash cache with already matched results.
+     * Populates body hash index with already matched results. In case that the index file is configured
+     * (&lt;worker&gt;.bodyHashIndexFile), the index is loaded from this file and only the hashes modified since the
+     * last synchronization are read from the database. The index is saved to the file after the synchronization and
+     * on shutdown.
+     *
+     * @return populated index
      */
-    private void populateBodyHashCache() {
-    		logger.info("Populating body hash cache.");
-		Map<String, String> hashes = matchedBodyDao.getHashAndGroupIds();
-		for (Map.Entry<String, String> entry : hashes.entrySet()) {
-			String value = bodyHashCache.get(entry.getKey());
-			if (value == null) {
-				bodyHashCache.put(entry.getKey(), entry.getValue());
-			}
-		}
-		logger.info("Body hash cache populated.");
-	}
+    private BodyHashIndex populateBodyHashIndex() {
+        final String fileName = config.getParam(getName() + ".bodyHashIndexFile");
+        final Path file = fileName == null || fileName.trim().isEmpty() ? null : Paths.get(fileName.trim());
+
+        BodyHashIndex loaded = null;
+        if (file != null && Files.exists(file)) {
+            try {
+                loaded = BodyHashIndex.load(file);
+                logger.info("Body hash index with {} hashes loaded from {}.", loaded.size(), file);
+            } catch (IOException e) {
+                logger.warn("Unable to load body hash index from {}, index is populated from scratch because of",
+                    file, e);
+            }
+        }
+
+        final BodyHashIndex index = loaded != null ? loaded : new BodyHashIndex();
+        final LocalDateTime syncedAt = index.getSyncedAt();
+        final LocalDateTime syncStart = LocalDateTime.now().minus(BODY_HASH_INDEX_SYNC_OVERLAP);
+
+        logger.info("Populating body hash index with hashes modified after {}.", syncedAt);
+        try (Stream<Pair<String, String>> hashes = matchedBodyDao.streamHashAndGroupIds(syncedAt)) {
+            if (syncedAt == null) {
+                hashes.forEach(n -> index.putIfAbsent(n.getKey(), n.getValue()));
+            } else {
+                // newer group ids of already indexed hashes win as they do when matching
+                hashes.forEach(n -> index.put(n.getKey(), n.getValue()));
+            }
+        }
+        index.setSyncedAt(syncStart);
+        logger.info("Body hash index populated with {} hashes of {} groups.", index.size(), index.groupCount());
+
+        if (file != null) {
+            saveBodyHashIndex(index, file);
+            Runtime.getRuntime().addShutdownHook(new Thread(() -> saveBodyHashIndex(index, file)));
+        }
+
+        return index;
+    }
+
+    /**
+     * Populates the resident index of matched bodies used by approximate matching plugin instead of loading of the
+     * bodies pool from the database. The index is enabled by &lt;worker&gt;.approximateIndex=1, maximal number of
+     * candidates is set by &lt;worker&gt;.approximateIndex.limit. After the population only the bodies saved by this
+     * worker are added, so the bodies saved by other running instances of the worker aren't candidates until restart.
+     *
+     * @return populated index or null if the index isn't enabled
+     */
+    private BodyCandidateIndex<MatchedBody> populateApproximateBodyIndex() {
+        if (!"1".equals(config.getParam(getName() + ".approximateIndex"))) {
+            return null;
+        }
+
+        final BodyCandidateIndex<MatchedBody> index = new BodyCandidateIndex<>(
+            getIntParam(getName() + ".approximateIndex.limit", APPROXIMATE_INDEX_LIMIT_DEFAULT),
+            APPROXIMATE_INDEX_MIN_SCORE);
+
+        logger.info("Populating approximate matching index.");
+        try (Stream<MatchedBody> bodies = matchedBodyDao.streamApproximateMatchBodies()) {
+            bodies.forEach(index::add);
+        }
+        logger.info("Approximate matching index populated with {} bodies.", index.size());
+
+        return index;
+    }
+
+    /**
+     * Saves body hash index to the given file.
+     *
+     * @param index
+     *      body hash index
+     * @param file
+     *      target file
+     */
+    private void saveBodyHashIndex(final BodyHashIndex index, final Path file) {
+        try {
+            index.save(file);
+            logger.info("Body hash index with {} hashes saved to {}.", index.size(), file);
+        } catch (IOException e) {
+            logger.warn("Unable to save body hash index to {} because of", file, e);
+        }
+    }
 
     /**
-     * Populates body hash cache with already matched results.
+     * Flags etalon groups in body hash index.
      */
     private void populateEtalonCache() {
     		logger.info("Populating etalon cache.");
 	    	List<String> list = matchedBodyDao.getEtalonGroupIds();
 		for (String groupId : list) {
-			groupEtalonCache.put(groupId, true);
+			bodyHashIndex.setEtalon(groupId, true);
 		}
 		logger.info("Etalon cache populated.");
 	}
@@ -747,14 +990,12 @@ public abstract class BaseTenderMatcher extends BaseMatcher {
     /**
      * Logs about matching to thread context.
      *
-     * @param pluginStartTime start time
-     * @param pluginEndTime end time
+     * @param executionTime execution time in milliseconds
      * @param pluginName plugin name
      */
-	private void logMatchingData(final long pluginStartTime, final long pluginEndTime, final String pluginName) {
-        long executionTime = pluginEndTime - pluginStartTime;
-        ThreadContext.put("matching_time", new Long(executionTime).toString());
-        ThreadContext.put("matching_plugin_name", "manual");
-        logger.error("Execution of body match plugin {} took {} ms.", "manual", executionTime);
+	private void logMatchingData(final long executionTime, final String pluginName) {
+        ThreadContext.put("matching_time", Long.toString(executionTime));
+        ThreadContext.put("matching_plugin_name", pluginName);
+        logger.debug("Execution of body match plugin {} took {} ms.", pluginName, executionTime);
     }
 }
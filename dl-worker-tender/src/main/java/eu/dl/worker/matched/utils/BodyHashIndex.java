@@ -0,0 +1,590 @@
+package eu.dl.worker.matched.utils;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Compact index of body hashes and their group ids.
+ *
+ * SHA-256 hashes (64 lowercase hex characters) are stored as 32 byte binary keys in off-heap open addressing tables,
+ * group ids are stored only once in a dictionary and the tables hold just their 4 byte indexes. Hashes in any other
+ * format are kept in an ordinary map. Each group can be flagged as an etalon group.
+ *
+ * The index is thread-safe and can be saved to a file and loaded back, together with the time of the last
+ * synchronization with the database.
+ */
+public final class BodyHashIndex {
+
+    private static final int FILE_MAGIC = 0x42484931;
+
+    private static final int KEY_SIZE = 32;
+
+    private static final int SLOT_SIZE = KEY_SIZE + 4;
+
+    private static final int SEGMENT_BITS = 6;
+
+    private static final int INITIAL_SEGMENT_SLOTS = 1 << 12;
+
+    /**
+     * Maximal number of slots of a segment, keeps the size of the segment buffer under 2 GB.
+     */
+    private static final int MAX_SEGMENT_SLOTS = 1 << 25;
+
+    private final Segment[] segments = new Segment[1 << SEGMENT_BITS];
+
+    private final Map<String, Integer> otherHashes = new HashMap<>();
+
+    private final Map<String, Integer> groupIndexes = new HashMap<>();
+
+    private final List<String> groupIds = new ArrayList<>();
+
+    private final BitSet etalonGroups = new BitSet();
+
+    private volatile LocalDateTime syncedAt;
+
+    /**
+     * Creates empty index.
+     */
+    public BodyHashIndex() {
+        for (int i = 0; i < segments.length; i++) {
+            segments[i] = new Segment(INITIAL_SEGMENT_SLOTS);
+        }
+    }
+
+    /**
+     * Returns group id for the given hash.
+     *
+     * @param hash
+     *      body hash
+     * @return group id or null if the hash isn't indexed
+     */
+    public String get(final String hash) {
+        if (hash == null) {
+            return null;
+        }
+
+        final byte[] key = toKey(hash);
+        final int group;
+        if (key != null) {
+            group = segment(key).get(key);
+        } else {
+            synchronized (otherHashes) {
+                group = otherHashes.getOrDefault(hash, -1);
+            }
+        }
+
+        return group < 0 ? null : getGroupId(group);
+    }
+
+    /**
+     * Puts the hash to the index, the existing group id of the hash is replaced.
+     *
+     * @param hash
+     *      body hash
+     * @param groupId
+     *      group id
+     */
+    public void put(final String hash, final String groupId) {
+        put(hash, groupId, true);
+    }
+
+    /**
+     * Puts the hash to the index only if the hash isn't indexed yet.
+     *
+     * @param hash
+     *      body hash
+     * @param groupId
+     *      group id
+     */
+    public void putIfAbsent(final String hash, final String groupId) {
+        put(hash, groupId, false);
+    }
+
+    /**
+     * @param hash
+     *      body hash
+     * @param groupId
+     *      group id
+     * @param replace
+     *      whether the existing group id should be replaced
+     */
+    private void put(final String hash, final String groupId, final boolean replace) {
+        if (hash == null || groupId == null) {
+            return;
+        }
+
+        final int group = getGroupIndex(groupId);
+        final byte[] key = toKey(hash);
+        if (key != null) {
+            segment(key).put(key, group, replace);
+        } else {
+            synchronized (otherHashes) {
+                if (replace) {
+                    otherHashes.put(hash, group);
+                } else {
+                    otherHashes.putIfAbsent(hash, group);
+                }
+            }
+        }
+    }
+
+    /**
+     * Flags the group as an etalon or a non-etalon one.
+     *
+     * @param groupId
+     *      group id
+     * @param etalon
+     *      whether the group is an etalon group
+     */
+    public void setEtalon(final String groupId, final boolean etalon) {
+        if (groupId == null) {
+            return;
+        }
+
+        final int group = getGroupIndex(groupId);
+        synchronized (groupIndexes) {
+            etalonGroups.set(group, etalon);
+        }
+    }
+
+    /**
+     * @param groupId
+     *      group id
+     * @return true if the group is flagged as an etalon group, otherwise false
+     */
+    public boolean isEtalon(final String groupId) {
+        if (groupId == null) {
+            return false;
+        }
+
+        synchronized (groupIndexes) {
+            final Integer group = groupIndexes.get(groupId);
+            return group != null && etalonGroups.get(group);
+        }
+    }
+
+    /**
+     * @return number of indexed hashes
+     */
+    public long size() {
+        long size = 0;
+        for (Segment s : segments) {
+            size += s.size();
+        }
+
+        synchronized (otherHashes) {
+            return size + otherHashes.size();
+        }
+    }
+
+    /**
+     * @return number of distinct group ids
+     */
+    public int groupCount() {
+        synchronized (groupIndexes) {
+            return groupIds.size();
+        }
+    }
+
+    /**
+     * @return time of the last synchronization with the database or null
+     */
+    public LocalDateTime getSyncedAt() {
+        return syncedAt;
+    }
+
+    /**
+     * @param syncedAt
+     *      time of the last synchronization with the database
+     * @return this instance for chaining
+     */
+    public BodyHashIndex setSyncedAt(final LocalDateTime syncedAt) {
+        this.syncedAt = syncedAt;
+        return this;
+    }
+
+    /**
+     * Saves the index to the given file. The index is written to a temporary file first which replaces the given file
+     * afterwards, so the file is never left incomplete.
+     *
+     * @param file
+     *      target file
+     * @throws IOException
+     *      in case that the file can't be written
+     */
+    public void save(final Path file) throws IOException {
+        final Path tmp = file.resolveSibling(file.getFileName() + ".tmp");
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(tmp),
+            1 << 16))) {
+            out.writeInt(FILE_MAGIC);
+            final LocalDateTime synced = syncedAt;
+            out.writeLong(synced == null ? Long.MIN_VALUE : synced.toInstant(ZoneOffset.UTC).toEpochMilli());
+
+            // dictionary is written first, hashes of groups added later are skipped, they are modified after the
+            // last synchronization and so they are loaded from the database again
+            final int groupCount;
+            synchronized (groupIndexes) {
+                groupCount = groupIds.size();
+                out.writeInt(groupCount);
+                for (String groupId : groupIds) {
+                    out.writeUTF(groupId);
+                }
+
+                out.writeInt(etalonGroups.cardinality());
+                for (int i = etalonGroups.nextSetBit(0); i >= 0; i = etalonGroups.nextSetBit(i + 1)) {
+                    out.writeInt(i);
+                }
+            }
+
+            for (Segment s : segments) {
+                s.write(out, groupCount);
+            }
+
+            synchronized (otherHashes) {
+                out.writeInt((int) otherHashes.values().stream().filter(n -> n < groupCount).count());
+                for (Map.Entry<String, Integer> n : otherHashes.entrySet()) {
+                    if (n.getValue() < groupCount) {
+                        out.writeUTF(n.getKey());
+                        out.writeInt(n.getValue());
+                    }
+                }
+            }
+        }
+
+        Files.move(tmp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    /**
+     * Loads the index from the given file.
+     *
+     * @param file
+     *      file written by {@link #save(Path)}
+     * @return loaded index
+     * @throws IOException
+     *      in case that the file can't be read or has unknown format
+     */
+    public static BodyHashIndex load(final Path file) throws IOException {
+        final BodyHashIndex index = new BodyHashIndex();
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(file), 1 << 16))) {
+            if (in.readInt() != FILE_MAGIC) {
+                throw new IOException("Unknown format of body hash index file " + file);
+            }
+
+            final long synced = in.readLong();
+            if (synced != Long.MIN_VALUE) {
+                index.syncedAt = LocalDateTime.ofInstant(Instant.ofEpochMilli(synced), ZoneOffset.UTC);
+            }
+
+            final int groupCount = in.readInt();
+            for (int i = 0; i < groupCount; i++) {
+                index.getGroupIndex(in.readUTF());
+            }
+
+            final int etalonCount = in.readInt();
+            for (int i = 0; i < etalonCount; i++) {
+                index.etalonGroups.set(in.readInt());
+            }
+
+            final byte[] key = new byte[KEY_SIZE];
+            for (int i = 0; i < index.segments.length; i++) {
+                final int count = in.readInt();
+                for (int j = 0; j < count; j++) {
+                    in.readFully(key);
+                    index.segment(key).put(key, checkGroup(in.readInt(), groupCount), true);
+                }
+            }
+
+            final int otherCount = in.readInt();
+            for (int i = 0; i < otherCount; i++) {
+                index.otherHashes.put(in.readUTF(), checkGroup(in.readInt(), groupCount));
+            }
+        }
+
+        return index;
+    }
+
+    /**
+     * @param group
+     *      group index read from file
+     * @param groupCount
+     *      number of groups in the file
+     * @return group index
+     * @throws IOException
+     *      in case that the group index is out of range
+     */
+    private static int checkGroup(final int group, final int groupCount) throws IOException {
+        if (group < 0 || group >= groupCount) {
+            throw new IOException("Corrupted body hash index file, unknown group " + group);
+        }
+
+        return group;
+    }
+
+    /**
+     * Returns index of the group id in the dictionary, unknown group id is added to the dictionary.
+     *
+     * @param groupId
+     *      group id
+     * @return group index
+     */
+    private int getGroupIndex(final String groupId) {
+        synchronized (groupIndexes) {
+            Integer group = groupIndexes.get(groupId);
+            if (group == null) {
+                group = groupIds.size();
+                groupIds.add(groupId);
+                groupIndexes.put(groupId, group);
+            }
+
+            return group;
+        }
+    }
+
+    /**
+     * @param group
+     *      group index
+     * @return group id
+     */
+    private String getGroupId(final int group) {
+        synchronized (groupIndexes) {
+            return groupIds.get(group);
+        }
+    }
+
+    /**
+     * @param key
+     *      binary key
+     * @return segment of the key
+     */
+    private Segment segment(final byte[] key) {
+        return segments[(key[0] & 0xff) >>> (8 - SEGMENT_BITS)];
+    }
+
+    /**
+     * Converts SHA-256 hex string to binary key.
+     *
+     * @param hash
+     *      hash
+     * @return binary key or null if the hash isn't 64 characters long lowercase hex string
+     */
+    static byte[] toKey(final String hash) {
+        if (hash.length() != KEY_SIZE * 2) {
+            return null;
+        }
+
+        final byte[] key = new byte[KEY_SIZE];
+        for (int i = 0; i < KEY_SIZE; i++) {
+            final int hi = hexValue(hash.charAt(2 * i));
+            final int lo = hexValue(hash.charAt(2 * i + 1));
+            if (hi < 0 || lo < 0) {
+                return null;
+            }
+            key[i] = (byte) ((hi << 4) | lo);
+        }
+
+        return key;
+    }
+
+    /**
+     * @param c
+     *      character
+     * @return value of lowercase hex digit or -1
+     */
+    private static int hexValue(final char c) {
+        if (c >= '0' && c <= '9') {
+            return c - '0';
+        } else if (c >= 'a' && c <= 'f') {
+            return c - 'a' + 10;
+        }
+
+        return -1;
+    }
+
+    /**
+     * Open addressing table with linear probing stored in a direct buffer. Each slot consists of the key followed by
+     * the group index increased by one, zero marks an empty slot.
+     */
+    private static final class Segment {
+
+        private ByteBuffer table;
+
+        private int mask;
+
+        private int size;
+
+        /**
+         * @param slots
+         *      initial number of slots, power of two
+         */
+        Segment(final int slots) {
+            table = ByteBuffer.allocateDirect(slots * SLOT_SIZE);
+            mask = slots - 1;
+        }
+
+        /**
+         * @param key
+         *      binary key
+         * @return group index or -1 if the key isn't present
+         */
+        synchronized int get(final byte[] key) {
+            final int slot = find(table, mask, key);
+            return table.getInt(slot * SLOT_SIZE + KEY_SIZE) - 1;
+        }
+
+        /**
+         * @param key
+         *      binary key
+         * @param group
+         *      group index
+         * @param replace
+         *      whether the existing group index should be replaced
+         */
+        synchronized void put(final byte[] key, final int group, final boolean replace) {
+            final int slot = find(table, mask, key);
+            final int position = slot * SLOT_SIZE;
+            if (table.getInt(position + KEY_SIZE) == 0) {
+                for (int i = 0; i < KEY_SIZE; i++) {
+                    table.put(position + i, key[i]);
+                }
+                table.putInt(position + KEY_SIZE, group + 1);
+
+                size++;
+                if (size > (mask + 1) / 4 * 3) {
+                    grow();
+                }
+            } else if (replace) {
+                table.putInt(position + KEY_SIZE, group + 1);
+            }
+        }
+
+        /**
+         * @return number of keys
+         */
+        synchronized int size() {
+            return size;
+        }
+
+        /**
+         * Writes number of keys followed by the keys and their group indexes.
+         *
+         * @param out
+         *      output
+         * @param groupCount
+         *      only keys of groups with lower index are written
+         * @throws IOException
+         *      in case of writing error
+         */
+        synchronized void write(final DataOutputStream out, final int groupCount) throws IOException {
+            int count = 0;
+            for (int slot = 0; slot <= mask; slot++) {
+                final int group = table.getInt(slot * SLOT_SIZE + KEY_SIZE);
+                if (group != 0 && group <= groupCount) {
+                    count++;
+                }
+            }
+
+            out.writeInt(count);
+            final byte[] key = new byte[KEY_SIZE];
+            for (int slot = 0; slot <= mask; slot++) {
+                final int position = slot * SLOT_SIZE;
+                final int group = table.getInt(position + KEY_SIZE);
+                if (group != 0 && group <= groupCount) {
+                    for (int i = 0; i < KEY_SIZE; i++) {
+                        key[i] = table.get(position + i);
+                    }
+                    out.write(key);
+                    out.writeInt(group - 1);
+                }
+            }
+        }
+
+        /**
+         * Doubles the number of slots and rehashes all keys.
+         */
+        private void grow() {
+            final int slots = (mask + 1) * 2;
+            if (slots > MAX_SEGMENT_SLOTS) {
+                throw new IllegalStateException("Body hash index segment is full");
+            }
+
+            final ByteBuffer grown = ByteBuffer.allocateDirect(slots * SLOT_SIZE);
+            final int grownMask = slots - 1;
+            final byte[] key = new byte[KEY_SIZE];
+            for (int slot = 0; slot <= mask; slot++) {
+                final int position = slot * SLOT_SIZE;
+                final int group = table.getInt(position + KEY_SIZE);
+                if (group != 0) {
+                    for (int i = 0; i < KEY_SIZE; i++) {
+                        key[i] = table.get(position + i);
+                    }
+
+                    final int target = find(grown, grownMask, key) * SLOT_SIZE;
+                    for (int i = 0; i < KEY_SIZE; i++) {
+                        grown.put(target + i, key[i]);
+                    }
+                    grown.putInt(target + KEY_SIZE, group);
+                }
+            }
+
+            table = grown;
+            mask = grownMask;
+        }
+
+        /**
+         * @param buffer
+         *      table
+         * @param bufferMask
+         *      slot mask of the table
+         * @param key
+         *      binary key
+         * @return slot with the given key or empty slot where the key belongs
+         */
+        private static int find(final ByteBuffer buffer, final int bufferMask, final byte[] key) {
+            // keys are SHA-256 digests, so their bytes are already uniformly distributed
+            int slot = (((key[4] & 0xff) << 24) | ((key[5] & 0xff) << 16) | ((key[6] & 0xff) << 8)
+                | (key[7] & 0xff)) & bufferMask;
+
+            while (true) {
+                final int position = slot * SLOT_SIZE;
+                if (buffer.getInt(position + KEY_SIZE) == 0 || equalKey(buffer, position, key)) {
+                    return slot;
+                }
+                slot = (slot + 1) & bufferMask;
+            }
+        }
+
+        /**
+         * @param buffer
+         *      table
+         * @param position
+         *      position of the slot
+         * @param key
+         *      binary key
+         * @return true if the slot contains the given key
+         */
+        private static boolean equalKey(final ByteBuffer buffer, final int position, final byte[] key) {
+            for (int i = 0; i < KEY_SIZE; i++) {
+                if (buffer.get(position + i) != key[i]) {
+                    return false;
+                }
+            }
+
+            return true;
+        }
+    }
+}
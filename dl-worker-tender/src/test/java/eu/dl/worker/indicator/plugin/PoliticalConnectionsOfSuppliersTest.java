@@ -12,10 +12,13 @@ import eu.dl.dataaccess.dto.master.MasterTender;
 import eu.dl.dataaccess.dto.master.MasterTenderLot;
 import org.junit.Test;
 
+import java.time.Duration;
 import java.time.LocalDateTime;
 import java.util.Arrays;
 import java.util.Collection;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Set;
 
 import static eu.dl.dataaccess.dto.codetables.BodyIdentifier.Type.BVD_ID;
 import static org.junit.Assert.assertEquals;
@@ -192,6 +195,52 @@ public class PoliticalConnectionsOfSuppliersTest {
         assertEquals(pluginTrue.evaluate(anyMatch1).getStatus(), IndicatorStatus.CALCULATED);
     }
 
+    /**
+     * Test of the political exposed persons loaded into memory.
+     */
+    @Test
+    public final void politicalExposedPersonsSetTest() {
+        final PoliticalConnectionsOfSuppliers plugin = new PoliticalConnectionsOfSuppliers(new MasterBodyDAOtest() {
+            @Override
+            public Set<String> getPoliticalExposedPersons() {
+                return new HashSet<>(Arrays.asList("lorem"));
+            }
+        });
+
+        assertEquals(plugin.evaluate(allMatch1).getValue(), Double.valueOf(0));
+        assertEquals(plugin.evaluate(anyMatch1).getValue(), Double.valueOf(100));
+        assertEquals(plugin.evaluate(insufficient8).getStatus(), IndicatorStatus.INSUFFICIENT_DATA);
+    }
+
+    /**
+     * Test that the political exposed persons are loaded again after the refresh interval.
+     */
+    @Test
+    public final void politicalExposedPersonsRefreshTest() {
+        final Set<String> persons = new HashSet<>();
+        final int[] loads = {0};
+        final MasterBodyDAOtest dao = new MasterBodyDAOtest() {
+            @Override
+            public Set<String> getPoliticalExposedPersons() {
+                loads[0]++;
+                return new HashSet<>(persons);
+            }
+        };
+
+        final PoliticalConnectionsOfSuppliers cached = new PoliticalConnectionsOfSuppliers(dao);
+        assertEquals(cached.evaluate(allMatch1).getStatus(), IndicatorStatus.INSUFFICIENT_DATA);
+        persons.add("lorem");
+        assertEquals(cached.evaluate(allMatch1).getStatus(), IndicatorStatus.INSUFFICIENT_DATA);
+        assertEquals(1, loads[0]);
+
+        final PoliticalConnectionsOfSuppliers refreshed = new PoliticalConnectionsOfSuppliers(dao, Duration.ZERO);
+        persons.clear();
+        assertEquals(refreshed.evaluate(allMatch1).getStatus(), IndicatorStatus.INSUFFICIENT_DATA);
+        persons.add("lorem");
+        assertEquals(refreshed.evaluate(allMatch1).getValue(), Double.valueOf(0));
+        assertEquals(3, loads[0]);
+    }
+
     /**
      * Test of correct type.
      */
@@ -257,5 +306,10 @@ public class PoliticalConnectionsOfSuppliersTest {
         public MasterBody getEmptyInstance() {
             return null;
         }
+
+        @Override
+        public boolean existsInPoliticalExposedPersons(final String bvdIdNumber) {
+            throw new UnsupportedOperationException("Political exposed persons are loaded at once");
+        }
     }
 }
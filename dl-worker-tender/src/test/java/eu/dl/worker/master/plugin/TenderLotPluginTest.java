@@ -0,0 +1,90 @@
+package eu.dl.worker.master.plugin;
+
+import eu.dl.dataaccess.dto.master.MasterTender;
+import eu.dl.dataaccess.dto.master.MasterTenderLot;
+import eu.dl.dataaccess.dto.matched.MatchedTender;
+import eu.dl.dataaccess.dto.matched.MatchedTenderLot;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Objects;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Test of lots matching.
+ */
+public final class TenderLotPluginTest {
+
+    /**
+     * Plugin matching lots with the same lot number.
+     */
+    private final BaseTenderLotPlugin<MatchedTender, MasterTender, MatchedTenderLot, MasterTenderLot> plugin =
+        new BaseTenderLotPlugin<MatchedTender, MasterTender, MatchedTenderLot, MasterTenderLot>() {
+            @Override
+            protected Double calculateMatchingRatio(final MatchedTenderLot firstLot, final MatchedTenderLot secondLot,
+                                                    final List<List<MatchedTenderLot>> items) {
+                return Objects.equals(firstLot.getLotNumber(), secondLot.getLotNumber()) ? 1.0 : 0.0;
+            }
+
+            @Override
+            protected MasterTenderLot createEmptyListItemInstance() {
+                return new MasterTenderLot();
+            }
+
+            @Override
+            protected void registerNestedMasterPlugins() {
+            }
+        };
+
+    /**
+     * @param lotNumbers
+     *      lot numbers
+     * @return lots
+     */
+    private static List<MatchedTenderLot> lots(final Integer... lotNumbers) {
+        List<MatchedTenderLot> lots = new ArrayList<>();
+        for (Integer lotNumber : lotNumbers) {
+            lots.add(new MatchedTenderLot().setLotNumber(lotNumber));
+        }
+
+        return lots;
+    }
+
+    /**
+     * Test of matching of small tenders.
+     */
+    @Test
+    public void matchTest() {
+        List<List<MatchedTenderLot>> matched = plugin.match(Arrays.asList(lots(1, 2), lots(2, 1, 3), lots(1, 1)));
+
+        assertEquals(4, matched.size());
+        assertEquals(3, matched.get(0).size());
+        assertTrue(matched.get(0).stream().allMatch(l -> l.getLotNumber() == 1));
+        assertEquals(2, matched.get(1).size());
+        assertTrue(matched.get(1).stream().allMatch(l -> l.getLotNumber() == 2));
+        // the second lot number 1 of the third tender can't be matched with lots of the first group
+        assertEquals(1, matched.get(2).size());
+        assertEquals(1, matched.get(3).size());
+    }
+
+    /**
+     * Test of matching of large tenders where only lots sharing a blocking key are compared.
+     */
+    @Test
+    public void blockingTest() {
+        Integer[] lotNumbers = new Integer[1000];
+        for (int i = 0; i < lotNumbers.length; i++) {
+            lotNumbers[i] = i;
+        }
+
+        List<List<MatchedTenderLot>> matched = plugin.match(Arrays.asList(lots(lotNumbers), lots(lotNumbers)));
+
+        assertEquals(lotNumbers.length, matched.size());
+        assertTrue(matched.stream().allMatch(g -> g.size() == 2
+            && g.get(0).getLotNumber().equals(g.get(1).getLotNumber())));
+    }
+}
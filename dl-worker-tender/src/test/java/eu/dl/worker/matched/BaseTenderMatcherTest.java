@@ -0,0 +1,229 @@
+package eu.dl.worker.matched;
+
+import eu.dl.core.config.Config;
+import eu.dl.dataaccess.dao.CleanTenderDAO;
+import eu.dl.dataaccess.dao.EtalonBodyDAO;
+import eu.dl.dataaccess.dao.ManualMatchDAO;
+import eu.dl.dataaccess.dao.MatchedBodyDAO;
+import eu.dl.dataaccess.dao.MatchedTenderDAO;
+import eu.dl.dataaccess.dao.TransactionUtils;
+import eu.dl.dataaccess.dto.clean.CleanTender;
+import eu.dl.dataaccess.dto.codetables.BodyIdentifier;
+import eu.dl.dataaccess.dto.matched.MatchedBody;
+import eu.dl.dataaccess.dto.matched.MatchedTender;
+import org.apache.commons.lang3.tuple.Pair;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static org.apache.commons.codec.digest.DigestUtils.sha256Hex;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+
+/**
+ * Test of body matching of the tender matcher on DAO stubs.
+ */
+public final class BaseTenderMatcherTest {
+
+    /**
+     * Matched bodies saved by the DAO stub.
+     */
+    private static final List<MatchedBody> SAVED = new ArrayList<>();
+
+    /**
+     * Loads configuration with source id of the test matcher.
+     */
+    @BeforeClass
+    public static void setUp() {
+        Config.getInstance().addConfigFile("unit_test");
+    }
+
+    /**
+     * Tests that the body of the tender is matched with the previous body of the same tender by the database
+     * matching plugin. The bodies have different names, so they can be matched only by their identifiers.
+     */
+    @Test
+    public void matchBodiesOfTenderTest() {
+        SAVED.clear();
+        final TestMatcher matcher = new TestMatcher();
+
+        final MatchedTender tender = new MatchedTender();
+        tender.setBuyers(Arrays.asList(body("obec horni lhota"), body("obecni urad horni lhota")));
+
+        final CleanTender cleanTender = new CleanTender();
+        cleanTender.setId("1");
+
+        final List<Pair<MatchedBody, MatchedBody>> unsavedBodies = new ArrayList<>();
+        matcher.matchBodies(tender, cleanTender, unsavedBodies);
+        matcher.saveBodies(unsavedBodies);
+
+        assertEquals(2, SAVED.size());
+        final MatchedBody first = unsavedBodies.get(0).getLeft();
+        final MatchedBody second = unsavedBodies.get(1).getLeft();
+        assertNotNull(first.getGroupId());
+        assertEquals(first.getGroupId(), second.getGroupId());
+        assertEquals("exact", second.getMatchedBy());
+        assertEquals(first.getId(), tender.getBuyers().get(0).getId());
+        assertEquals(second.getId(), tender.getBuyers().get(1).getId());
+    }
+
+    /**
+     * @param name
+     *      name of the body
+     * @return body with the same identifiers as the other bodies of the test
+     */
+    private static MatchedBody body(final String name) {
+        final MatchedBody body = new MatchedBody();
+        body.setName(name);
+        body.setStandardizedName(name);
+        body.setBodyIds(Arrays.asList(
+            new BodyIdentifier().setId("00012345").setType(BodyIdentifier.Type.ORGANIZATION_ID)
+                .setScope(BodyIdentifier.Scope.EU),
+            new BodyIdentifier().setId("CZ00012345").setType(BodyIdentifier.Type.VAT)
+                .setScope(BodyIdentifier.Scope.EU)));
+        return body;
+    }
+
+    /**
+     * Creates stub of the interface. Methods which aren't handled return empty lists and streams or null.
+     *
+     * @param <S>
+     *      stubbed interface
+     * @param stubbedInterface
+     *      stubbed interface
+     * @param handler
+     *      handler of the method calls, returns null if the method isn't handled
+     * @return stub
+     */
+    private static <S> S stub(final Class<S> stubbedInterface, final StubHandler handler) {
+        return stubbedInterface.cast(Proxy.newProxyInstance(stubbedInterface.getClassLoader(),
+            new Class<?>[]{stubbedInterface}, (proxy, method, args) -> {
+                final Object result = handler.invoke(method.getName(), args);
+                return result != null ? result : defaultValue(method);
+            }));
+    }
+
+    /**
+     * @param method
+     *      stubbed method
+     * @return empty list or stream or null
+     */
+    private static Object defaultValue(final Method method) {
+        if (List.class.isAssignableFrom(method.getReturnType())) {
+            return new ArrayList<>();
+        } else if (Stream.class.isAssignableFrom(method.getReturnType())) {
+            return Stream.empty();
+        } else if (method.getReturnType().equals(Boolean.TYPE)) {
+            return false;
+        }
+        return null;
+    }
+
+    /**
+     * Handler of the stub method calls.
+     */
+    @FunctionalInterface
+    private interface StubHandler {
+        /**
+         * @param method
+         *      method name
+         * @param args
+         *      method arguments
+         * @return result of the call
+         */
+        Object invoke(String method, Object[] args);
+    }
+
+    /**
+     * Tender matcher with in-memory matched bodies, the exact matching plugin finds the saved bodies with the same
+     * identifiers. The other pools are empty.
+     */
+    private static final class TestMatcher extends BaseTenderMatcher {
+
+        @Override
+        protected void registerTenderPlugins() {
+        }
+
+        @Override
+        protected void registerBodyPlugins() {
+        }
+
+        @Override
+        protected String generateBodyHash(final MatchedBody matchedBody) {
+            return sha256Hex(matchedBody.getStandardizedName());
+        }
+
+        @Override
+        protected String generateTenderHash(final MatchedTender matchedTender) {
+            return null;
+        }
+
+        @Override
+        protected CleanTenderDAO getCleanTenderDAO() {
+            return stub(CleanTenderDAO.class, (method, args) -> null);
+        }
+
+        @Override
+        protected MatchedTenderDAO getMatchedTenderDAO(final List<Pair<String, String>> additionalMatchers) {
+            return stub(MatchedTenderDAO.class, (method, args) -> null);
+        }
+
+        @Override
+        protected MatchedBodyDAO getMatchedBodyDAO(final List<Pair<String, String>> additionalMatchers) {
+            return stub(MatchedBodyDAO.class, (method, args) -> {
+                switch (method) {
+                    case "saveAll":
+                        @SuppressWarnings("unchecked")
+                        final Collection<MatchedBody> bodies = (Collection<MatchedBody>) args[0];
+                        bodies.forEach(n -> {
+                            n.setId(String.valueOf(SAVED.size() + 1));
+                            SAVED.add(n);
+                        });
+                        return bodies.stream().map(MatchedBody::getId).collect(Collectors.toList());
+                    case "getExactMatchBodiesPool":
+                        return new ArrayList<>(SAVED);
+                    default:
+                        return null;
+                }
+            });
+        }
+
+        @Override
+        protected ManualMatchDAO getManualMatchDAO() {
+            return stub(ManualMatchDAO.class, (method, args) -> null);
+        }
+
+        @Override
+        protected String getTenderMessagingTag() {
+            return "tender";
+        }
+
+        @Override
+        protected String getBodyMessagingTag() {
+            return "body";
+        }
+
+        @Override
+        protected EtalonBodyDAO getEtalonBodyDAO() {
+            return stub(EtalonBodyDAO.class, (method, args) -> null);
+        }
+
+        @Override
+        protected String getVersion() {
+            return "1.0";
+        }
+
+        @Override
+        protected TransactionUtils getTransactionUtils() {
+            return null;
+        }
+    }
+}
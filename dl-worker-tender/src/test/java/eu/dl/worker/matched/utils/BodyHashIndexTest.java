@@ -0,0 +1,102 @@
+package eu.dl.worker.matched.utils;
+
+import org.junit.Test;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+
+import static org.apache.commons.codec.digest.DigestUtils.sha256Hex;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Test of body hash index.
+ */
+public final class BodyHashIndexTest {
+
+    /**
+     * Test of putting and getting of hashes.
+     */
+    @Test
+    public void putAndGetTest() {
+        BodyHashIndex index = new BodyHashIndex();
+        // enough hashes to grow the segments
+        for (int i = 0; i < 100000; i++) {
+            index.put(sha256Hex("body" + i), "group_" + (i % 1000));
+        }
+
+        assertEquals(100000, index.size());
+        assertEquals(1000, index.groupCount());
+        for (int i = 0; i < 100000; i++) {
+            assertEquals("group_" + (i % 1000), index.get(sha256Hex("body" + i)));
+        }
+        assertNull(index.get(sha256Hex("unknown")));
+        assertNull(index.get(null));
+
+        String hash = sha256Hex("body1");
+        index.putIfAbsent(hash, "other");
+        assertEquals("group_1", index.get(hash));
+        index.put(hash, "other");
+        assertEquals("other", index.get(hash));
+
+        // non SHA-256 hashes
+        index.put("short", "group_1");
+        index.put(hash.toUpperCase(), "group_2");
+        assertEquals("group_1", index.get("short"));
+        assertEquals("group_2", index.get(hash.toUpperCase()));
+        assertEquals("other", index.get(hash));
+    }
+
+    /**
+     * Test of etalon flags.
+     */
+    @Test
+    public void etalonTest() {
+        BodyHashIndex index = new BodyHashIndex();
+        assertFalse(index.isEtalon("group_1"));
+        index.setEtalon("group_1", true);
+        assertTrue(index.isEtalon("group_1"));
+        index.setEtalon("group_1", false);
+        assertFalse(index.isEtalon("group_1"));
+        assertFalse(index.isEtalon(null));
+    }
+
+    /**
+     * Test of saving and loading of the index.
+     *
+     * @throws Exception
+     *      in case of IO error
+     */
+    @Test
+    public void saveAndLoadTest() throws Exception {
+        BodyHashIndex index = new BodyHashIndex();
+        for (int i = 0; i < 10000; i++) {
+            index.put(sha256Hex("body" + i), "group_" + (i % 100));
+        }
+        index.put("short", "group_x");
+        index.setEtalon("group_7", true);
+        LocalDateTime syncedAt = LocalDateTime.of(2018, 5, 1, 10, 20, 30);
+        index.setSyncedAt(syncedAt);
+
+        Path file = Files.createTempFile("body_hash_index", ".bin");
+        try {
+            index.save(file);
+            BodyHashIndex loaded = BodyHashIndex.load(file);
+
+            assertEquals(index.size(), loaded.size());
+            assertEquals(index.groupCount(), loaded.groupCount());
+            assertEquals(syncedAt, loaded.getSyncedAt());
+            for (int i = 0; i < 10000; i++) {
+                assertEquals("group_" + (i % 100), loaded.get(sha256Hex("body" + i)));
+            }
+            assertEquals("group_x", loaded.get("short"));
+            assertTrue(loaded.isEtalon("group_7"));
+            assertFalse(loaded.isEtalon("group_8"));
+        } finally {
+            Files.deleteIfExists(file);
+        }
+    }
+}
@@ -6,9 +6,11 @@ import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
 import eu.dl.core.UnrecoverableException;
 import eu.dl.core.config.Config;
+import eu.dl.core.config.MisconfigurationException;
 import eu.dl.dataaccess.dao.ExchangeRatesDAO;
 import eu.dl.dataaccess.dao.jdbc.JdbcExhangeRatesDAO;
 import eu.dl.dataaccess.dto.ExchangeRates;
+import eu.dl.dataaccess.dto.generic.BasePrice;
 import eu.dl.worker.utils.ThreadUtils;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -20,16 +22,22 @@ import java.math.RoundingMode;
 import java.net.HttpURLConnection;
 import java.net.URL;
 import java.text.SimpleDateFormat;
+import java.time.DayOfWeek;
 import java.time.LocalDate;
 import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
 import java.time.temporal.ChronoUnit;
+import java.util.Collection;
 import java.util.Currency;
-import java.util.HashMap;
-import java.util.Map;
 
 /**
  * Provides functionality related currency and its conversions.
  *
+ * Exchange rates are kept in a table shared by all instances of the service. The table is filled lazily by whole
+ * months of exchange rates stored in db, a date range can be preloaded at startup with configuration properties
+ * {@code currency.preload.from} and {@code currency.preload.to} (ISO dates, the latter defaults to today). Dates
+ * without exchange rates fall back to the nearest previous business day within the retention period.
+ *
  */
 public class BasicCurrencyService implements CurrencyService {
     
@@ -37,11 +45,17 @@ public class BasicCurrencyService implements CurrencyService {
     
     private ExchangeRatesDAO<ExchangeRates> dao;
     
-    private Map<LocalDate, ExchangeRates> cache;
-    
+    private static final ExchangeRatesTable TABLE = new ExchangeRatesTable();
+
+    private static final Object REMOTE_LOCK = new Object();
+
+    private static boolean preloaded = false;
+
     private static final long RETENTION_PERIOD = 5;
 
     private static final String API_URL = "http://data.fixer.io/api/";
+
+    private static final Currency EUR = Currency.getInstance("EUR");
     
     /**
      * Creates currency service.
@@ -50,7 +64,7 @@ public class BasicCurrencyService implements CurrencyService {
     public BasicCurrencyService() {
         logger = LoggerFactory.getLogger(this.getClass());
         dao = new JdbcExhangeRatesDAO();
-        cache = new HashMap<LocalDate, ExchangeRates>();
+        preload();
     }
 
     @Override
@@ -66,10 +80,58 @@ public class BasicCurrencyService implements CurrencyService {
                     amount, currencyFrom, currencyTo);
             return null;
         }
-        
-        // get exchange rates for date
-        ExchangeRates exchangeRates = getExchangeRates(date);
-        if (exchangeRates == null || exchangeRates.getRates() == null) {
+
+        return convert(currencyFrom, currencyTo, amount, getEntry(date), date);
+    }
+
+    @Override
+    public final void convertAll(final Collection<? extends BasePrice> prices, final Currency currencyNational,
+            final LocalDate date) {
+        if (prices == null || prices.isEmpty()) {
+            return;
+        }
+
+        // exchange rates are looked up once for all prices
+        ExchangeRatesTable.Entry exchangeRates = getEntry(date);
+        for (BasePrice price : prices) {
+            if (price == null || price.getNetAmount() == null) {
+                continue;
+            }
+
+            try {
+                if (price.getNetAmountEur() == null) {
+                    price.setNetAmountEur(convert(price.getCurrency(), EUR, price.getNetAmount(), exchangeRates, date));
+                }
+
+                price.setCurrencyNational(currencyNational);
+                price.setNetAmountNational(convert(price.getCurrency(), currencyNational, price.getNetAmount(),
+                        exchangeRates, date));
+            } catch (UnconvertableException e) {
+                logger.error("Unable to convert prices because of {}", e);
+            }
+        }
+    }
+
+    /**
+     * Converts amount with the given exchange rates.
+     *
+     * @param currencyFrom currency in which the amount provided.
+     * @param currencyTo currency in which should be the amount returned
+     * @param amount amount
+     * @param exchangeRates exchange rates
+     * @param date date of the exchange rates
+     *
+     * @return converted amount
+     */
+    private BigDecimal convert(final Currency currencyFrom, final Currency currencyTo, final BigDecimal amount,
+            final ExchangeRatesTable.Entry exchangeRates, final LocalDate date) {
+        if (currencyFrom == null || currencyTo == null || amount == null) {
+            logger.debug("Unable to convert amout {} from {} to {}, unsufficient data provided", 
+                    amount, currencyFrom, currencyTo);
+            return null;
+        }
+
+        if (exchangeRates.isMissing()) {
             throw new UnconvertableException("Unable to convert currency, there are no exchange "
                     + "rates available for the desired date " + date);
         }
@@ -79,11 +141,14 @@ public class BasicCurrencyService implements CurrencyService {
             logger.debug("{} {} converted to {}", amount, currencyFrom, currencyTo);
             return amount;
         }
+
+        int from = ExchangeRatesTable.getOrdinal(currencyFrom.getCurrencyCode());
+        int to = ExchangeRatesTable.getOrdinal(currencyTo.getCurrencyCode());
         
         // currencyFrom is base
-        if (currencyFrom.getCurrencyCode().equals(exchangeRates.getBase())) {
+        if (exchangeRates.isBase(from)) {
             logger.debug("currencyFrom is the base for exchange rates");
-            BigDecimal exchangeRate = exchangeRates.getRates().get(currencyTo.getCurrencyCode());
+            BigDecimal exchangeRate = exchangeRates.getRate(to);
             if (exchangeRate != null) {
                 logger.debug("{} {} converted to {}", amount, currencyFrom, currencyTo);
                 return amount.multiply(exchangeRate);
@@ -94,8 +159,8 @@ public class BasicCurrencyService implements CurrencyService {
         }
         
         // currencyTo is base
-        if (currencyTo.getCurrencyCode().equals(exchangeRates.getBase())) {
-            BigDecimal exchangeRate = exchangeRates.getRates().get(currencyFrom.getCurrencyCode());
+        if (exchangeRates.isBase(to)) {
+            BigDecimal exchangeRate = exchangeRates.getRate(from);
             if (exchangeRate != null) {
                 logger.debug("{} {} converted to {}", amount, currencyFrom, currencyTo);
                 return amount.divide(exchangeRate, 0, RoundingMode.HALF_EVEN);
@@ -106,8 +171,8 @@ public class BasicCurrencyService implements CurrencyService {
         }
         
         // convert through base currency
-        BigDecimal exchangeRateFrom = exchangeRates.getRates().get(currencyFrom.getCurrencyCode());
-        BigDecimal exchangeRateTo = exchangeRates.getRates().get(currencyTo.getCurrencyCode());
+        BigDecimal exchangeRateFrom = exchangeRates.getRate(from);
+        BigDecimal exchangeRateTo = exchangeRates.getRate(to);
         if (exchangeRateFrom == null) {
             throw new UnconvertableException("Unable to convert currency, there is no exchange "
                     + "rates available for the desired currency " + currencyFrom.getCurrencyCode());
@@ -123,40 +188,153 @@ public class BasicCurrencyService implements CurrencyService {
 
     /**
      * Gets the exchange rates for a current date. The inner implementation retrieves entry from 
-     * a cache first, then from db. If nothing found locally, it tries to get data from remote API 
-     * and store them. If stored into cache, the entry is valid for the whole lifetime
-     * of the service unless cache cleaned explicitely.
+     * a shared table first, then from db. If nothing found locally, it tries to get data from remote API 
+     * and store them. If there are no exchange rates for the date, the exchange rates of the nearest previous
+     * business day within the retention period are returned. Entries stored in the table are valid for the whole
+     * lifetime of the process.
      * 
      * @param date the date to be searched 
      * @return found result or null
      */
     public final ExchangeRates getExchangeRates(final LocalDate date) {
-        // try cache first
-        if (cache.containsKey(date)) {
-            // rates for date found, return them
+        return getEntry(date).getExchangeRates();
+    }
+
+    /**
+     * Gets the exchange rates for a date with the fallback to the previous business days.
+     *
+     * @param date the date to be searched
+     * @return found entry or {@link ExchangeRatesTable#MISSING}
+     */
+    private ExchangeRatesTable.Entry getEntry(final LocalDate date) {
+        ExchangeRatesTable.Entry entry = getEntry(date, true);
+        if (!entry.isMissing()) {
+            return entry;
+        }
+
+        // previous days are looked up locally only, remote API is queried just for the desired date
+        for (LocalDate day = date.minusDays(1); !day.isBefore(date.minusDays(RETENTION_PERIOD));
+                day = day.minusDays(1)) {
+            if (day.getDayOfWeek() == DayOfWeek.SATURDAY || day.getDayOfWeek() == DayOfWeek.SUNDAY) {
+                continue;
+            }
+
+            entry = getEntry(day, false);
+            if (entry != null && !entry.isMissing()) {
+                logger.debug("Exchange rates for {} not found, using exchange rates for {}.", date, day);
+                return entry;
+            }
+        }
+
+        return ExchangeRatesTable.MISSING;
+    }
+
+    /**
+     * Gets the exchange rates for a date from the shared table, db or remote API.
+     *
+     * @param date the date to be searched
+     * @param remote whether the remote API should be queried
+     * @return found entry, {@link ExchangeRatesTable#MISSING} or null if the rates aren't available locally and the
+     *      remote API isn't queried
+     */
+    private ExchangeRatesTable.Entry getEntry(final LocalDate date, final boolean remote) {
+        ExchangeRatesTable.Entry entry = TABLE.get(date);
+        if (entry != null) {
             logger.debug("Exchange rates for {} found in cache.", date);
-            return cache.get(date);
+            return entry;
+        }
+
+        logger.debug("Exchange rates for {} not found in cache.", date);
+        if (date.withDayOfMonth(1).isBefore(LocalDate.now().withDayOfMonth(1))) {
+            // past months are complete, load them at once
+            if (!TABLE.isMonthLoaded(date)) {
+                load(date.withDayOfMonth(1), date.withDayOfMonth(date.lengthOfMonth()));
+                entry = TABLE.get(date);
+            }
         } else {
-            // no cache entry, check db
-            logger.debug("Exchange rates for {} not found in cache.", date);
+            // rates of the current month are still being added
             ExchangeRates exchangeRates = dao.getByDate(date);
             if (exchangeRates != null) {
-                // found in db, return
-                logger.debug("Exchange rates for {} found in db.", date);
-                cache.put(date, exchangeRates);
-                return exchangeRates;
-            } else {
-                // nothing found locally, download from remote API
-                logger.debug("Exchange rates for {} not found in db.", date);
-                exchangeRates = getExchangeRatesFromRemote(date);
-                if (exchangeRates != null) {
-                    dao.save(exchangeRates.setDate(date));
-                    logger.debug("Exchange rates retrieved from API, storing to db with id {}.", exchangeRates.getId());
-                }
-                cache.put(date, exchangeRates);
-                return exchangeRates;
+                entry = TABLE.put(date, exchangeRates);
+            }
+        }
+
+        if (entry != null) {
+            logger.debug("Exchange rates for {} found in db.", date);
+            return entry;
+        }
+
+        if (!remote) {
+            return null;
+        }
+
+        // nothing found locally, download from remote API
+        logger.debug("Exchange rates for {} not found in db.", date);
+        synchronized (REMOTE_LOCK) {
+            entry = TABLE.get(date);
+            if (entry != null) {
+                return entry;
+            }
+
+            ExchangeRates exchangeRates = getExchangeRatesFromRemote(date);
+            if (exchangeRates != null) {
+                dao.save(exchangeRates.setDate(date));
+                logger.debug("Exchange rates retrieved from API, storing to db with id {}.", exchangeRates.getId());
+            }
+            return TABLE.put(date, exchangeRates);
+        }
+    }
+
+    /**
+     * Loads exchange rates of whole months of the given range from db to the shared table.
+     *
+     * @param from first date of the range, the first day of a month
+     * @param to last date of the range, the last day of a month
+     */
+    private void load(final LocalDate from, final LocalDate to) {
+        for (ExchangeRates exchangeRates : dao.getByDateRange(from, to)) {
+            TABLE.put(exchangeRates.getDate(), exchangeRates);
+        }
+
+        // rates of the current month can still be added
+        LocalDate currentMonth = LocalDate.now().withDayOfMonth(1);
+        for (LocalDate month = from; !month.isAfter(to) && month.isBefore(currentMonth); month = month.plusMonths(1)) {
+            TABLE.setMonthLoaded(month);
+        }
+    }
+
+    /**
+     * Preloads the configured range of exchange rates to the shared table. Only the first call has an effect.
+     */
+    private void preload() {
+        synchronized (BasicCurrencyService.class) {
+            if (preloaded) {
+                return;
             }
+            preloaded = true;
+        }
+
+        Config config = Config.getInstance();
+        String from = config.getParam("currency.preload.from");
+        if (from == null || from.trim().isEmpty()) {
+            return;
         }
+
+        String to = config.getParam("currency.preload.to");
+        LocalDate fromDate;
+        LocalDate toDate;
+        try {
+            fromDate = LocalDate.parse(from.trim());
+            toDate = to == null || to.trim().isEmpty() ? LocalDate.now() : LocalDate.parse(to.trim());
+        } catch (DateTimeParseException e) {
+            logger.error("Exchange rates preload range {} - {} isn't valid", from, to);
+            throw new MisconfigurationException("Exchange rates preload range must be given by ISO dates");
+        }
+
+        long start = System.currentTimeMillis();
+        load(fromDate.withDayOfMonth(1), toDate.withDayOfMonth(toDate.lengthOfMonth()));
+        logger.info("Exchange rates for {} - {} preloaded in {} ms, {} dates available", fromDate, toDate,
+                System.currentTimeMillis() - start, TABLE.size());
     }
 
     /**
@@ -225,7 +403,7 @@ public class BasicCurrencyService implements CurrencyService {
 
     @Override
     public final void updateExchangeRates(final LocalDate date, final ExchangeRates exchangeRates) {
-        cache.put(date, exchangeRates);
+        TABLE.put(date, exchangeRates);
         dao.save(exchangeRates);
     }
 
@@ -1,9 +1,11 @@
 package eu.dl.utils.currency;
 
 import eu.dl.dataaccess.dto.ExchangeRates;
+import eu.dl.dataaccess.dto.generic.BasePrice;
 
 import java.math.BigDecimal;
 import java.time.LocalDate;
+import java.util.Collection;
 import java.util.Currency;
 
 /**
@@ -34,6 +36,17 @@ public interface CurrencyService {
      * @return converted amount
      */
     BigDecimal convert(Currency currencyFrom, Currency currencyTo, BigDecimal amount, LocalDate date);
+
+    /**
+     * Converts net amounts of all prices to EUR (unless already set) and to national currency. Exchange rates
+     * relevant for the date provided are looked up once for all prices. Prices which can't be converted are
+     * left unconverted.
+     *
+     * @param prices prices to be converted
+     * @param currencyNational national currency
+     * @param date exchange rate for the date is used
+     */
+    void convertAll(Collection<? extends BasePrice> prices, Currency currencyNational, LocalDate date);
     
     /**
      * Gets the exchange rates for a current date. The inner implementation retrieves entry from 
@@ -0,0 +1,202 @@
+package eu.dl.utils.currency;
+
+import eu.dl.dataaccess.dto.ExchangeRates;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Thread-safe table of exchange rates shared by all currency services of the process. Rates are indexed by epoch day
+ * and currency ordinal, so that the conversion doesn't need to look up the rates by currency code. Dates without
+ * exchange rates are stored as {@link #MISSING} so that they aren't looked up again.
+ */
+final class ExchangeRatesTable {
+
+    /**
+     * Entry of the dates without exchange rates.
+     */
+    static final Entry MISSING = new Entry(null, -1, new BigDecimal[0]);
+
+    /**
+     * Ordinals of the currency codes, the ordinals are assigned in order of appearance.
+     */
+    private static final ConcurrentMap<String, Integer> ORDINALS = new ConcurrentHashMap<>();
+
+    private final ConcurrentMap<Long, Entry> days = new ConcurrentHashMap<>();
+
+    private final Set<Long> loadedMonths = ConcurrentHashMap.newKeySet();
+
+    /**
+     * @param date
+     *      date
+     * @return entry for the date, {@link #MISSING} for the dates without exchange rates or null if the date isn't
+     *      known yet
+     */
+    Entry get(final LocalDate date) {
+        return days.get(date.toEpochDay());
+    }
+
+    /**
+     * Stores exchange rates for the date.
+     *
+     * @param date
+     *      date
+     * @param exchangeRates
+     *      exchange rates or null if there are no exchange rates for the date
+     * @return stored entry
+     */
+    Entry put(final LocalDate date, final ExchangeRates exchangeRates) {
+        final Entry entry = exchangeRates == null || exchangeRates.getRates() == null ? MISSING
+            : new Entry(exchangeRates);
+        days.put(date.toEpochDay(), entry);
+        return entry;
+    }
+
+    /**
+     * @param date
+     *      date
+     * @return true if all exchange rates of the month of the date are already stored
+     */
+    boolean isMonthLoaded(final LocalDate date) {
+        return loadedMonths.contains(epochMonth(date));
+    }
+
+    /**
+     * Marks the month of the date as loaded.
+     *
+     * @param date
+     *      date
+     */
+    void setMonthLoaded(final LocalDate date) {
+        loadedMonths.add(epochMonth(date));
+    }
+
+    /**
+     * @return number of stored dates including the dates without exchange rates
+     */
+    int size() {
+        return days.size();
+    }
+
+    /**
+     * @param currencyCode
+     *      currency code
+     * @return ordinal of the currency or -1 if the currency doesn't appear in any exchange rates
+     */
+    static int getOrdinal(final String currencyCode) {
+        final Integer ordinal = currencyCode == null ? null : ORDINALS.get(currencyCode);
+        return ordinal == null ? -1 : ordinal;
+    }
+
+    /**
+     * @param currencyCode
+     *      currency code
+     * @return ordinal of the currency, new ordinal is assigned to the unknown currencies
+     */
+    private static int assignOrdinal(final String currencyCode) {
+        final Integer ordinal = ORDINALS.get(currencyCode);
+        if (ordinal != null) {
+            return ordinal;
+        }
+
+        synchronized (ORDINALS) {
+            return ORDINALS.computeIfAbsent(currencyCode, c -> ORDINALS.size());
+        }
+    }
+
+    /**
+     * @param date
+     *      date
+     * @return number of months since epoch
+     */
+    private static long epochMonth(final LocalDate date) {
+        return date.getYear() * 12L + date.getMonthValue() - 1;
+    }
+
+    /**
+     * Exchange rates of one date.
+     */
+    static final class Entry {
+
+        private final ExchangeRates exchangeRates;
+
+        private final int base;
+
+        private final BigDecimal[] rates;
+
+        /**
+         * @param exchangeRates
+         *      exchange rates
+         * @param base
+         *      ordinal of the base currency
+         * @param rates
+         *      rates indexed by currency ordinal
+         */
+        private Entry(final ExchangeRates exchangeRates, final int base, final BigDecimal[] rates) {
+            this.exchangeRates = exchangeRates;
+            this.base = base;
+            this.rates = rates;
+        }
+
+        /**
+         * @param exchangeRates
+         *      exchange rates with non-null rates
+         */
+        private Entry(final ExchangeRates exchangeRates) {
+            this.exchangeRates = exchangeRates;
+            this.base = exchangeRates.getBase() == null ? -1 : assignOrdinal(exchangeRates.getBase());
+
+            int length = 0;
+            final int[] ordinals = new int[exchangeRates.getRates().size()];
+            final BigDecimal[] values = new BigDecimal[ordinals.length];
+            int i = 0;
+            for (Map.Entry<String, BigDecimal> rate : exchangeRates.getRates().entrySet()) {
+                ordinals[i] = assignOrdinal(rate.getKey());
+                values[i] = rate.getValue();
+                length = Math.max(length, ordinals[i] + 1);
+                i++;
+            }
+
+            this.rates = new BigDecimal[length];
+            for (i = 0; i < ordinals.length; i++) {
+                rates[ordinals[i]] = values[i];
+            }
+        }
+
+        /**
+         * @return true if there are no exchange rates for the date
+         */
+        boolean isMissing() {
+            return this == MISSING;
+        }
+
+        /**
+         * @return exchange rates or null for {@link #MISSING}
+         */
+        ExchangeRates getExchangeRates() {
+            return exchangeRates;
+        }
+
+        /**
+         * @param ordinal
+         *      currency ordinal
+         * @return true if the currency is the base of the exchange rates
+         */
+        boolean isBase(final int ordinal) {
+            return ordinal != -1 && ordinal == base;
+        }
+
+        /**
+         * @param ordinal
+         *      currency ordinal
+         * @return exchange rate of the currency or null
+         */
+        BigDecimal getRate(final int ordinal) {
+            return ordinal < 0 || ordinal >= rates.length ? null : rates[ordinal];
+        }
+    }
+}
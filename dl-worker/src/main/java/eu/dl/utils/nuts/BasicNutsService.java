@@ -1,11 +1,27 @@
 package eu.dl.utils.nuts;
 
+import eu.dl.core.config.Config;
+import eu.dl.core.config.MisconfigurationException;
+import eu.dl.core.metrics.Histogram;
+import eu.dl.core.metrics.Metrics;
 import eu.dl.dataaccess.dao.PostcodeNutsDAO;
+import eu.dl.dataaccess.dao.TransactionUtils;
 import eu.dl.dataaccess.dao.jdbc.JdbcPostcodeNutsDAO;
+import eu.dl.dataaccess.dao.jdbc.JdbcTransactionUtils;
+import eu.dl.dataaccess.dto.PostcodeNuts;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
 /**
+ * Converts postcodes to NUTS with an in-memory index of the postcode_nuts table. The index is shared by all
+ * instances of the service in the JVM, it is loaded on the first conversion and refreshed every
+ * {@code nuts.refreshInterval} minutes (default one day, 0 disables the refresh). The index can be disabled with
+ * {@code nuts.index=0}, the table is queried for each conversion then.
  *
  * @author Tomas Mrazek
  */
@@ -14,6 +30,15 @@ public class BasicNutsService implements NutsService {
 
     private final PostcodeNutsDAO dao;
 
+    private static volatile PostcodeNutsIndex index;
+
+    private static ScheduledExecutorService refreshExecutor;
+
+    private static final long DEFAULT_REFRESH_INTERVAL = TimeUnit.DAYS.toMinutes(1);
+
+    private static final Histogram LOOKUP_DURATION = Metrics.histogram("dl_nuts_lookup_duration_seconds",
+        "Duration of postcode to NUTS conversions");
+
     /**
      * Default constructor.
      */
@@ -29,6 +54,91 @@ public class BasicNutsService implements NutsService {
             return null;
         }
 
-        return dao.getNutsByPostcode(postcode, country);
+        final long start = System.nanoTime();
+        try {
+            if ("0".equals(Config.getInstance().getParam("nuts.index"))) {
+                return dao.getNutsByPostcode(postcode, country);
+            }
+
+            return getIndex().get(country, postcode);
+        } finally {
+            LOOKUP_DURATION.observeSince(start);
+        }
+    }
+
+    /**
+     * @return shared index, loaded on the first call
+     */
+    private PostcodeNutsIndex getIndex() {
+        PostcodeNutsIndex current = index;
+        if (current != null) {
+            return current;
+        }
+
+        synchronized (BasicNutsService.class) {
+            if (index == null) {
+                index = loadIndex();
+                Metrics.gauge("dl_nuts_index_postcodes", "Number of postcodes in the NUTS index", () -> index.size());
+                Metrics.gauge("dl_nuts_index_bytes", "Estimated memory footprint of the NUTS index",
+                    () -> index.getEstimatedSize());
+                scheduleRefresh();
+            }
+
+            return index;
+        }
+    }
+
+    /**
+     * @return index loaded from the table
+     */
+    private PostcodeNutsIndex loadIndex() {
+        final long start = System.currentTimeMillis();
+        final PostcodeNutsIndex loaded;
+        try (Stream<PostcodeNuts> mappings = dao.streamAll()) {
+            loaded = PostcodeNutsIndex.build(mappings);
+        }
+
+        logger.info("NUTS index of {} postcodes loaded in {} ms, estimated size {} kB", loaded.size(),
+            System.currentTimeMillis() - start, loaded.getEstimatedSize() / 1024);
+
+        return loaded;
+    }
+
+    /**
+     * Schedules periodical refresh of the index. Failed refresh keeps the current index. The database connection used
+     * by the refresh is returned to the pool after each refresh.
+     */
+    private void scheduleRefresh() {
+        final String param = Config.getInstance().getParam("nuts.refreshInterval");
+        final long interval;
+        try {
+            interval = param == null || param.trim().isEmpty() ? DEFAULT_REFRESH_INTERVAL
+                : Long.parseLong(param.trim());
+        } catch (NumberFormatException e) {
+            logger.error("NUTS index refresh interval {} isn't a number", param);
+            throw new MisconfigurationException("NUTS index refresh interval must be a number of minutes");
+        }
+
+        if (interval <= 0 || refreshExecutor != null) {
+            return;
+        }
+
+        refreshExecutor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            final Thread thread = new Thread(runnable, "nuts-index-refresh");
+            thread.setDaemon(true);
+            return thread;
+        });
+        refreshExecutor.scheduleWithFixedDelay(() -> {
+            final TransactionUtils transactionUtils = JdbcTransactionUtils.getInstance();
+            try {
+                transactionUtils.begin();
+                index = loadIndex();
+            } catch (RuntimeException e) {
+                logger.error("Unable to refresh NUTS index because of", e);
+            } finally {
+                // the refresh thread lives as long as the JVM, the connection mustn't stay bound to it
+                transactionUtils.release();
+            }
+        }, interval, interval, TimeUnit.MINUTES);
     }
 }
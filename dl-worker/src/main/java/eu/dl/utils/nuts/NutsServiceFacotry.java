@@ -17,7 +17,7 @@ public class NutsServiceFacotry {
     /**
      * @return NutsService instance
      */
-    public static NutsService getNutsService(){
+    public static synchronized NutsService getNutsService(){
         if (instance == null) {
             instance = new BasicNutsService();
         }
@@ -0,0 +1,367 @@
+package eu.dl.utils.nuts;
+
+import eu.dl.dataaccess.dto.PostcodeNuts;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.stream.Stream;
+
+/**
+ * Immutable in-memory index of postcode to NUTS mappings. Postcodes of each country are normalized (only letters and
+ * digits, upper case), sorted and packed into a single char array, NUTS codes are dictionary encoded.
+ *
+ * Lookup tries the exact postcode first, then the longest indexed postcode which is a prefix of the given one
+ * (eg. outward code of a full UK postcode) and finally, for partial postcodes, the longest common prefix of NUTS codes
+ * of all postcodes starting with the given one.
+ */
+final class PostcodeNutsIndex {
+
+    /**
+     * Minimal length of a postcode prefix used for the prefix lookups.
+     */
+    private static final int MIN_POSTCODE_PREFIX = 3;
+
+    /**
+     * Minimal length of a NUTS code returned for partial postcodes (NUTS 1).
+     */
+    private static final int MIN_NUTS_LENGTH = 3;
+
+    private final Map<String, CountryIndex> countries;
+
+    /**
+     * @param countries
+     *      indexes of the countries
+     */
+    private PostcodeNutsIndex(final Map<String, CountryIndex> countries) {
+        this.countries = countries;
+    }
+
+    /**
+     * Builds index from the mappings. In case of duplicate postcodes the first mapping wins.
+     *
+     * @param mappings
+     *      postcode NUTS mappings
+     * @return index
+     */
+    static PostcodeNutsIndex build(final Stream<PostcodeNuts> mappings) {
+        final Map<String, Builder> builders = new HashMap<>();
+        mappings.forEach(m -> {
+            final String country = normalizeCountry(m.getCountry());
+            final String postcode = normalizePostcode(m.getPostcode());
+            if (country != null && postcode != null && m.getNuts() != null && !m.getNuts().trim().isEmpty()) {
+                builders.computeIfAbsent(country, c -> new Builder()).add(postcode, m.getNuts().trim());
+            }
+        });
+
+        final Map<String, CountryIndex> countries = new HashMap<>();
+        builders.forEach((country, builder) -> countries.put(country, builder.build()));
+
+        return new PostcodeNutsIndex(countries);
+    }
+
+    /**
+     * Returns NUTS code for the given postcode and country.
+     *
+     * @param country
+     *      ISO 3166-1 alpha-2 country code
+     * @param postcode
+     *      postcode
+     * @return NUTS or null
+     */
+    String get(final String country, final String postcode) {
+        final CountryIndex index = countries.get(normalizeCountry(country));
+        final String key = normalizePostcode(postcode);
+        if (index == null || key == null) {
+            return null;
+        }
+
+        final int position = index.search(key, key.length());
+        if (position >= 0) {
+            return index.getNuts(position);
+        }
+
+        // indexed postcode is a prefix of the given one
+        for (int length = key.length() - 1; length >= MIN_POSTCODE_PREFIX; length--) {
+            final int prefix = index.search(key, length);
+            if (prefix >= 0) {
+                return index.getNuts(prefix);
+            }
+        }
+
+        // given postcode is a prefix of the indexed ones
+        if (key.length() >= MIN_POSTCODE_PREFIX) {
+            return index.getCommonNuts(-position - 1, key);
+        }
+
+        return null;
+    }
+
+    /**
+     * @return number of indexed postcodes
+     */
+    int size() {
+        return countries.values().stream().mapToInt(c -> c.nuts.length).sum();
+    }
+
+    /**
+     * @return estimated memory footprint of the index in bytes
+     */
+    long getEstimatedSize() {
+        return countries.values().stream().mapToLong(CountryIndex::getEstimatedSize).sum();
+    }
+
+    /**
+     * @param country
+     *      country code
+     * @return upper case country code or null
+     */
+    private static String normalizeCountry(final String country) {
+        return country == null ? null : country.trim().toUpperCase(Locale.ROOT);
+    }
+
+    /**
+     * @param postcode
+     *      postcode
+     * @return postcode consisting of upper case letters and digits only or null if it is empty
+     */
+    static String normalizePostcode(final String postcode) {
+        if (postcode == null) {
+            return null;
+        }
+
+        final StringBuilder result = new StringBuilder(postcode.length());
+        for (int i = 0; i < postcode.length(); i++) {
+            final char c = postcode.charAt(i);
+            if (Character.isLetterOrDigit(c)) {
+                result.append(Character.toUpperCase(c));
+            }
+        }
+
+        return result.length() == 0 ? null : result.toString();
+    }
+
+    /**
+     * Collects mappings of one country.
+     */
+    private static final class Builder {
+
+        private final List<String> postcodes = new ArrayList<>();
+
+        private final List<String> nuts = new ArrayList<>();
+
+        /**
+         * @param postcode
+         *      normalized postcode
+         * @param nutsCode
+         *      NUTS code
+         */
+        void add(final String postcode, final String nutsCode) {
+            postcodes.add(postcode);
+            nuts.add(nutsCode);
+        }
+
+        /**
+         * @return packed index
+         */
+        CountryIndex build() {
+            // stable sort keeps the first of duplicate postcodes first
+            final Integer[] order = new Integer[postcodes.size()];
+            for (int i = 0; i < order.length; i++) {
+                order[i] = i;
+            }
+            Arrays.sort(order, Comparator.comparing(postcodes::get));
+
+            final Map<String, Integer> dictionary = new HashMap<>();
+            final List<String> codes = new ArrayList<>();
+            final StringBuilder data = new StringBuilder();
+            final int[] offsets = new int[order.length + 1];
+            final int[] ids = new int[order.length];
+            int count = 0;
+            String previous = null;
+            for (Integer i : order) {
+                final String postcode = postcodes.get(i);
+                if (postcode.equals(previous)) {
+                    continue;
+                }
+                previous = postcode;
+
+                ids[count] = dictionary.computeIfAbsent(nuts.get(i), n -> {
+                    codes.add(n);
+                    return codes.size() - 1;
+                });
+                data.append(postcode);
+                offsets[++count] = data.length();
+            }
+
+            final char[] chars = new char[data.length()];
+            data.getChars(0, data.length(), chars, 0);
+
+            return new CountryIndex(chars, Arrays.copyOf(offsets, count + 1), Arrays.copyOf(ids, count),
+                codes.toArray(new String[0]));
+        }
+    }
+
+    /**
+     * Sorted postcodes of one country.
+     */
+    private static final class CountryIndex {
+
+        private final char[] data;
+
+        private final int[] offsets;
+
+        private final int[] nuts;
+
+        private final String[] dictionary;
+
+        /**
+         * @param data
+         *      sorted postcodes concatenated
+         * @param offsets
+         *      start offsets of the postcodes in data followed by the data length
+         * @param nuts
+         *      dictionary ids of NUTS codes of the postcodes
+         * @param dictionary
+         *      NUTS codes
+         */
+        CountryIndex(final char[] data, final int[] offsets, final int[] nuts, final String[] dictionary) {
+            this.data = data;
+            this.offsets = offsets;
+            this.nuts = nuts;
+            this.dictionary = dictionary;
+        }
+
+        /**
+         * Binary search of the key prefix.
+         *
+         * @param key
+         *      normalized postcode
+         * @param length
+         *      length of the key prefix to be searched
+         * @return position of the postcode or (-(insertion point) - 1) if not found
+         */
+        int search(final String key, final int length) {
+            int low = 0;
+            int high = nuts.length - 1;
+            while (low <= high) {
+                final int mid = (low + high) >>> 1;
+                final int cmp = compare(mid, key, length);
+                if (cmp < 0) {
+                    low = mid + 1;
+                } else if (cmp > 0) {
+                    high = mid - 1;
+                } else {
+                    return mid;
+                }
+            }
+
+            return -(low + 1);
+        }
+
+        /**
+         * Returns the longest common prefix of NUTS codes of the postcodes starting with the key.
+         *
+         * @param from
+         *      position of the first postcode not lower than the key
+         * @param key
+         *      normalized postcode
+         * @return common NUTS or null if there is no such postcode or the common prefix is too short
+         */
+        String getCommonNuts(final int from, final String key) {
+            String common = null;
+            int commonLength = 0;
+            for (int i = from; i < nuts.length && startsWith(i, key); i++) {
+                final String code = dictionary[nuts[i]];
+                if (common == null) {
+                    common = code;
+                    commonLength = code.length();
+                } else {
+                    int length = 0;
+                    while (length < commonLength && length < code.length()
+                        && common.charAt(length) == code.charAt(length)) {
+                        length++;
+                    }
+                    commonLength = length;
+                }
+
+                if (commonLength < MIN_NUTS_LENGTH) {
+                    return null;
+                }
+            }
+
+            return common == null ? null : common.substring(0, commonLength);
+        }
+
+        /**
+         * @param position
+         *      position of the postcode
+         * @return NUTS code of the postcode
+         */
+        String getNuts(final int position) {
+            return dictionary[nuts[position]];
+        }
+
+        /**
+         * @return estimated memory footprint in bytes
+         */
+        long getEstimatedSize() {
+            long size = 2L * data.length + 4L * offsets.length + 4L * nuts.length + 4L * dictionary.length;
+            for (String code : dictionary) {
+                size += 40 + code.length();
+            }
+
+            return size;
+        }
+
+        /**
+         * @param position
+         *      position of the postcode
+         * @param key
+         *      normalized postcode
+         * @param length
+         *      length of the key prefix
+         * @return comparison of the postcode and the key prefix
+         */
+        private int compare(final int position, final String key, final int length) {
+            final int start = offsets[position];
+            final int postcodeLength = offsets[position + 1] - start;
+            final int min = Math.min(postcodeLength, length);
+            for (int i = 0; i < min; i++) {
+                final char c = data[start + i];
+                final char k = key.charAt(i);
+                if (c != k) {
+                    return c - k;
+                }
+            }
+
+            return postcodeLength - length;
+        }
+
+        /**
+         * @param position
+         *      position of the postcode
+         * @param key
+         *      normalized postcode
+         * @return true if the postcode starts with the key
+         */
+        private boolean startsWith(final int position, final String key) {
+            final int start = offsets[position];
+            if (offsets[position + 1] - start < key.length()) {
+                return false;
+            }
+
+            for (int i = 0; i < key.length(); i++) {
+                if (data[start + i] != key.charAt(i)) {
+                    return false;
+                }
+            }
+
+            return true;
+        }
+    }
+}
@@ -13,18 +13,27 @@ import eu.dl.core.RecoverableException;
 import eu.dl.core.UnrecoverableException;
 import eu.dl.core.config.Config;
 import eu.dl.core.config.MisconfigurationException;
+import eu.dl.core.metrics.Metrics;
 import eu.dl.dataaccess.dao.TransactionUtils;
+import eu.dl.worker.utils.ThreadUtils;
 import org.apache.commons.lang3.StringUtils;
 import org.apache.logging.log4j.ThreadContext;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.io.IOException;
-import java.net.SocketException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collections;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
 import java.util.concurrent.TimeoutException;
 
 /**
@@ -52,9 +61,15 @@ public abstract class BaseWorker implements Worker {
     protected final Config config;
 
     /**
-     * RabbitMQ channel for outgoing messages.
+     * RabbitMQ connection for outgoing messages.
      */
-    private Channel outgoingChannel;
+    private volatile Connection outgoingConnection;
+
+    /**
+     * Outgoing messages and RabbitMQ channel of each thread. Channels mustn't be shared between consumer threads, so
+     * each thread publishes via its own channel.
+     */
+    private final ThreadLocal<OutgoingBatch> outgoingBatch = ThreadLocal.withInitial(OutgoingBatch::new);
 
     /**
      * Number of displayed characters of message on debug level.
@@ -79,6 +94,55 @@ public abstract class BaseWorker implements Worker {
     private static final Integer PUBLISH_MESSAGE_FAILURE_LIMIT = 5;
     private static final long PUBLISH_MESSAGE_FAILURE_SLEEP_TIME = 60000;
 
+    /**
+     * Maximal time to wait for publisher confirms in milliseconds.
+     */
+    private static final long PUBLISH_CONFIRM_TIMEOUT = 60000;
+
+    /**
+     * Default number of outgoing messages published at once. Can be overridden with a configuration property
+     * {@code <worker_class>.publishBatchSize}.
+     */
+    private static final int PUBLISH_BATCH_SIZE_DEFAULT = 100;
+
+    /**
+     * Default maximal number of published messages waiting for confirmation. Can be overridden with a configuration
+     * property {@code <worker_class>.publishWindow}.
+     */
+    private static final int PUBLISH_WINDOW_DEFAULT = 1000;
+
+    /**
+     * Coalescing window in milliseconds, 0 if the coalescing is disabled. Can be set with a configuration property
+     * {@code <worker_class>.coalesceWindow}.
+     */
+    private final int coalesceWindow;
+
+    /**
+     * Executor which processes coalesced messages, null if the coalescing is disabled.
+     */
+    private ScheduledExecutorService coalescingExecutor;
+
+    /**
+     * Coalesced messages waiting for processing or being processed by the coalescing key.
+     */
+    private final Map<String, CoalescedMessage> coalescedMessages = new HashMap<>();
+
+    private final int publishBatchSize;
+
+    private final int publishWindow;
+
+    /**
+     * Default number of consumers processing messages concurrently. Can be overridden with a configuration property
+     * {@code <worker_class>.consumers}.
+     */
+    private static final int CONSUMERS_DEFAULT = 1;
+
+    /**
+     * Default number of unacknowledged messages delivered to one consumer. Can be overridden with a configuration
+     * property {@code <worker_class>.prefetch}.
+     */
+    private static final int PREFETCH_DEFAULT = 1;
+
     /**
      * Initialization common for all the workers. Registers worker in the
      * messaging, reads configuration variables, prepares logging.
@@ -87,6 +151,9 @@ public abstract class BaseWorker implements Worker {
         config = Config.getInstance();
         envPrefix = config.getEnvId() + "_";
         retryCountLimit = RETRY_COUNT_DEFAULT_LIMIT;
+        publishBatchSize = getIntParam(getName() + ".publishBatchSize", PUBLISH_BATCH_SIZE_DEFAULT);
+        publishWindow = getIntParam(getName() + ".publishWindow", PUBLISH_WINDOW_DEFAULT);
+        coalesceWindow = getIntParam(getName() + ".coalesceWindow", 0);
 
         logger.debug("BaseWorker initialised");
     }
@@ -221,6 +288,8 @@ public abstract class BaseWorker implements Worker {
 
     @Override
     public final void startWork() {
+        Metrics.start(getName());
+
         // initialize messaging and start to consume and work on the tasks
         // delivered
         connectOutgoingExchange();
@@ -228,170 +297,373 @@ public abstract class BaseWorker implements Worker {
     }
 
     /**
-     * Registers itself to receive messages from the queue. This methods also
-     * handles error states when message is being processed. The queue is
-     * defined here (and created if it doesn't exist).
+     * Registers itself to receive messages from the queue. The number of consumers working in parallel is set with
+     * a configuration property {@code <worker_class>.consumers}, number of messages prefetched by each of them with
+     * {@code <worker_class>.prefetch}. The queue is defined here (and created if it doesn't exist).
      */
     private void connectIncomingQueue() {
         try {
+            final int consumers = getIntParam(getName() + ".consumers", CONSUMERS_DEFAULT);
+            final int prefetch = getIntParam(getName() + ".prefetch", PREFETCH_DEFAULT);
+
+            // deliveries of one channel are dispatched sequentially, so the executor bounds the number of messages
+            // processed at once and the acknowledgements of each consumer keep the delivery order
+            final ExecutorService executor = ThreadUtils.newConsumerExecutor(consumers, getClass().getSimpleName());
+            if (coalesceWindow > 0) {
+                coalescingExecutor = ThreadUtils.newScheduledExecutor(consumers, getClass().getSimpleName());
+                if (prefetch == 1) {
+                    logger.warn("Coalescing is enabled with prefetch 1, no messages will be coalesced");
+                }
+            }
+            final Connection connection = getConnectionFactory().newConnection(executor);
+
+            for (int i = 0; i < consumers; i++) {
+                final Channel channel = getIncommingChanel(connection, prefetch);
+                channel.basicConsume(envPrefix + getIncomingQueueName(), false, createConsumer(channel));
+            }
+
+            logger.info("Connected incomming exchange '{}', established que '{}' with tag '{}', {} consumer(s) with "
+                    + "prefetch {}",
+                        envPrefix + getIncomingExchangeName(),
+                        envPrefix + getIncomingQueueName(),
+                        envPrefix + getIncomingQueueName(),
+                        consumers, prefetch);
+        } catch (IOException | TimeoutException ex) {
+            logger.error("Unable to establish connection with messaging system - {}", ex);
+            throw new RuntimeException("Unable to establish connection with messaging system", ex);
+        }
+    }
+
+    /**
+     * Creates consumer of the incoming queue. Each consumer has its own channel, all the messages delivered to the
+     * consumer are acknowledged (or rejected) via this channel. In case that the coalescing is enabled, messages
+     * with a coalescing key are processed later by the coalescing executor, see {@link #getCoalescingKey(Message)}.
+     * The coalesced messages are acknowledged from the executor threads, so the acknowledgements are serialized by
+     * a lock of the channel.
+     *
+     * @param channel
+     *      channel of the consumer
+     * @return message consumer
+     */
+    private Consumer createConsumer(final Channel channel) {
+        final Object channelLock = new Object();
+        return new DefaultConsumer(channel) {
+            @Override
+            public void handleDelivery(final String consumerTag, final Envelope envelope,
+                                       final AMQP.BasicProperties properties, final byte[] body) throws IOException {
+                countMessage("received", 1);
+
+                final Delivery delivery = new Delivery(channel, channelLock, envelope.getDeliveryTag());
+                if (coalescingExecutor == null || !coalesce(consumerTag, body, delivery)) {
+                    processMessage(consumerTag, body, null, Collections.singletonList(delivery));
+                }
+            }
+        };
+    }
+
+    /**
+     * Processes the message and acknowledges all its deliveries. This methods also handles error states when message
+     * is being processed.
+     *
+     * @param consumerTag
+     *      consumer tag
+     * @param rawMessage
+     *      incoming message (UTF-8 encoded json)
+     * @param decodedMessage
+     *      already decoded incoming message or null
+     * @param deliveries
+     *      deliveries of the message, more than one in case that the deliveries were coalesced
+     * @throws IOException
+     *      in case the deliveries can't be acknowledged
+     */
+    private void processMessage(final String consumerTag, final byte[] rawMessage, final Message decodedMessage,
+                                final List<Delivery> deliveries) throws IOException {
+        final long startTime = System.nanoTime();
+
+        Message message = MessageFactory.getMessage();
+        outgoingBatch.get().begin();
+        try {
+            ThreadContext.put("message_id", UUID.randomUUID().toString());
+            ThreadContext.put("consumer_tag", consumerTag);
+            ThreadContext.put("environment", envPrefix);
+            ThreadContext.put("worker_name", getName());
+            ThreadContext.put("worker_version", getVersion());
             
-            final Channel channel = getIncommingChanel();
+            logger.info("Processing message");
+
+            if (logger.isDebugEnabled()) {
+                final String json = new String(rawMessage, StandardCharsets.UTF_8);
+                logger.debug("Raw message: {}", StringUtils.abbreviate(json, RAW_MESSAGE_LONG));
+                logger.trace("Raw message: {}", json);
+            }
+
+            // parse incoming json
+            message = decodedMessage != null ? decodedMessage : MessageFactory.getMessage(rawMessage);
+
+            logger.debug("Parsed message {}", message);
+
+            // check whether special command was send
+            final String command = message.getValue("command");
+            if (command != null) {
+                if (command.equals("resend")) {
+                    final String version = message.getValue("version");
+                    final String fromDate = message.getValue("fromDate");
+                    final String toDate = message.getValue("toDate");
+
+                    if (version != null) {
+                        logger.info("Triggering resend command with version {}", version);
+                        resend(version, fromDate, toDate);
+                    } else {
+                        logger.info("No version specified in the message, sending \"latest\" instead.");
+                        resend(LATEST, fromDate, toDate);
+                    }
+                } else {
+                    logger.error("Uknown command {}", command);
+                    throw new UnrecoverableException("Unknow command in the message ");
+                }
+            } else {
+                // no special command send, process message
+                doWork(message);
+            }
+
+            // messages published during the work have to be confirmed before the incoming message is
+            // acknowledged, otherwise they could be lost
+            confirmPublished();
+
+            logger.debug("Processed, sending ack back");
+
+            // acknowledge message - it will not be processed by next worker
+            for (Delivery delivery : deliveries) {
+                delivery.ack();
+            }
+            countMessage("acked", deliveries.size());
+            runAcknowledged(outgoingBatch.get());
+            logger.info("Message processed. Waiting for next work...");
+        } catch (final RecoverableException ex) {
+            getTransactionUtils().rollback();
+            ThreadContext.put("original_message", message.toJson());
+            ThreadContext.put("exception", ex.toString());
+            ThreadContext.put("stack_trace", stackTraceToString(ex));
             
-            // message consumer
-            final Consumer consumer = new DefaultConsumer(channel) {
-                @Override
-                public void handleDelivery(final String consumerTag, final Envelope envelope,
-                                           final AMQP.BasicProperties properties, final byte[] body) throws IOException {
-                    Message message = MessageFactory.getMessage();
-                    try {
-                        ThreadContext.put("message_id", UUID.randomUUID().toString());
-                        ThreadContext.put("environment", envPrefix);
-                        ThreadContext.put("worker_name", getName());
-                        ThreadContext.put("worker_version", getVersion());
-                        
-                        logger.info("Processing message");
-
-                        // convert bytes to string
-                        final String rawMessage = new String(body, "UTF-8");
-                        logger.debug("Raw message: {}", StringUtils.abbreviate(rawMessage, RAW_MESSAGE_LONG));
-                        logger.trace("Raw message: {}", rawMessage);
-
-                        // parse incoming json to hashmap
-                        message = MessageFactory.getMessage(rawMessage);
-
-                        logger.debug("Parsed message {}", message);
-
-                        // check whether special command was send
-                        final String command = message.getValue("command");
-                        if (command != null) {
-                            if (command.equals("resend")) {
-                                final String version = message.getValue("version");
-                                final String fromDate = message.getValue("fromDate");
-                                final String toDate = message.getValue("toDate");
-
-                                if (version != null) {
-                                    logger.info("Triggering resend command with version {}", version);
-                                    resend(version, fromDate, toDate);
-                                } else {
-                                    logger.info("No version specified in the message, sending \"latest\" instead.");
-                                    resend(LATEST, fromDate, toDate);
-                                }
-                            } else {
-                                logger.error("Uknown command {}", command);
-                                throw new UnrecoverableException("Unknow command in the message ");
-                            }
-                        } else {
-                            // no special command send, process message
-                            doWork(message);
-                        }
-
-                        logger.debug("Processed, sending ack back");
-
-                        // acknowledge message - it will not be processed by next worker
-                        channel.basicAck(envelope.getDeliveryTag(), false);
-                        logger.info("Message processed. Waiting for next work...");
-                    } catch (final RecoverableException ex) {
-                        getTransactionUtils().rollback();
-                        ThreadContext.put("original_message", message.toJson());
-                        ThreadContext.put("exception", ex.toString());
-                        ThreadContext.put("stack_trace", stackTraceToString(ex));
-                        
-                        logger.error("Recoverable exception thrown while doing work {}", ex);
-                        logger.error("Message body: {}", message.toJson());
-
-                        String retryCountString = message.getValue("retryCount");
-                        int retryCount = (retryCountString == null) ? 0 : Integer.parseInt(retryCountString);
-                        if (retryCount < getRetryCountLimit()) {
-                            // acknowledge the message, increment the "retryCount" and publish it as new message.
-                            // It will be tried again at the end of queue
-
-                            channel.basicAck(envelope.getDeliveryTag(), false);
-                            logger.error("Message was acknowledged and will be planned to requeue", ex);
-                            message.setValue("retryCount", Integer.toString(retryCount + 1));
-
-                            logger.info("Publishing json message to {}", envPrefix + getIncomingQueueName());
-                            logger.debug("Message body: {}",
-                                    StringUtils.abbreviate(message.toJson(), RAW_MESSAGE_LONG));
-                            logger.trace("Message body: {}", message.toJson());
-                            channel.basicPublish("", 
-                                                 envPrefix + getIncomingQueueName(), 
-                                                 null, 
-                                                 message.toJson().getBytes());
-                        } else {
-                            getTransactionUtils().rollback();
-                            // not acknowledge the message and don't allow requeue
-                            channel.basicNack(envelope.getDeliveryTag(), false, false);
-                            logger.warn(
-                                    "Recoverable exception has been thrown {} times for this message (limit is "
-                                            +
-                                    "{}) and the message WILL NOT BE REQUEUED",
-                                    retryCount + 1, getRetryCountLimit() + 1);
-                        }
-                    } catch (final UnrecoverableException ex) {
-                        getTransactionUtils().rollback();
-
-                        // add info to thread context to store data in logs
-                        ThreadContext.put("original_message", message.toJson());
-                        ThreadContext.put("exception", ex.toString());
-                        ThreadContext.put("stack_trace", stackTraceToString(ex));
-                        
-                        logger.error("Unrecoverable exception thrown while doing work {}", ex);
-                        logger.error("Message body: {}", message.toJson());
-                        // not acknowledge the message
-                        // and don't allow requeue
-
-                        channel.basicNack(envelope.getDeliveryTag(), false, false);
-                        logger.error("Message wasn't acknowledged and WILL NOT BE REQUEUED", ex);
-                    } catch (final Exception ex) {
-                        getTransactionUtils().rollback();
-                        // add info to thread context to store data in logs
-                        ThreadContext.put("original_message", message.toJson());
-                        ThreadContext.put("exception", ex.toString());
-                        ThreadContext.put("stack_trace", stackTraceToString(ex));
-                        
-                        logger.error("General exception thrown while doing work {}", ex);
-                        logger.error("Message body: {}", message.toJson());
-
-                        // not acknowledge the message
-                        // and don't allow requeue
-                        channel.basicNack(envelope.getDeliveryTag(), false, false);
-                        logger.error("Message wasn't acknowledged and WILL NOT BE REQUEUED", ex);
+            logger.error("Recoverable exception thrown while doing work {}", ex);
+            logger.error("Message body: {}", message.toJson());
+
+            String retryCountString = message.getValue("retryCount");
+            int retryCount = (retryCountString == null) ? 0 : Integer.parseInt(retryCountString);
+            if (retryCount < getRetryCountLimit()) {
+                // acknowledge the message, increment the "retryCount" and publish it as new message.
+                // It will be tried again at the end of queue
 
+                message.setValue("retryCount", Integer.toString(retryCount + 1));
+
+                final byte[] json = message.toJsonBytes();
+                logger.info("Publishing json message to {}", envPrefix + getIncomingQueueName());
+                logMessageBody(json);
+                // messages of the failed work are discarded, the retried message is published to the incoming queue
+                // via the outgoing channel of the current thread and confirmed before the deliveries are acknowledged
+                final OutgoingBatch batch = outgoingBatch.get();
+                batch.clear();
+                batch.queued.add(new OutgoingMessage("", envPrefix + getIncomingQueueName(), json));
+                boolean requeued = false;
+                try {
+                    confirmPublished();
+                    requeued = true;
+                } catch (final UnrecoverableException e) {
+                    logger.error("Unable to publish message to requeue {}", e);
+                }
+
+                if (requeued) {
+                    for (Delivery delivery : deliveries) {
+                        delivery.ack();
                     }
-                    ThreadContext.clearAll();
+                    countMessage("retried", deliveries.size());
+                    logger.error("Message was acknowledged and planned to requeue", ex);
+                } else {
+                    for (Delivery delivery : deliveries) {
+                        delivery.nack();
+                    }
+                    countMessage("nacked", deliveries.size());
+                    logger.error("Message wasn't acknowledged and WILL NOT BE REQUEUED", ex);
+                }
+            } else {
+                getTransactionUtils().rollback();
+                // not acknowledge the message and don't allow requeue
+                for (Delivery delivery : deliveries) {
+                    delivery.nack();
                 }
-            };
+                countMessage("nacked", deliveries.size());
+                logger.warn(
+                        "Recoverable exception has been thrown {} times for this message (limit is "
+                                +
+                        "{}) and the message WILL NOT BE REQUEUED",
+                        retryCount + 1, getRetryCountLimit() + 1);
+            }
+        } catch (final UnrecoverableException ex) {
+            getTransactionUtils().rollback();
+
+            // add info to thread context to store data in logs
+            ThreadContext.put("original_message", message.toJson());
+            ThreadContext.put("exception", ex.toString());
+            ThreadContext.put("stack_trace", stackTraceToString(ex));
             
-            logger.info("Connected incomming exchange '{}', established que '{}' with tag '{}'",
-                        envPrefix + getIncomingExchangeName(), 
-                        envPrefix + getIncomingQueueName(), 
-                        envPrefix + getIncomingQueueName());
-            channel.basicConsume(envPrefix + getIncomingQueueName(), false, consumer);
+            logger.error("Unrecoverable exception thrown while doing work {}", ex);
+            logger.error("Message body: {}", message.toJson());
+            // not acknowledge the message
+            // and don't allow requeue
 
-        } catch (IOException | TimeoutException ex) {
-            logger.error("Unable to establish connection with messaging system - {}", ex);
-            throw new RuntimeException("Unable to establish connection with messaging system", ex);
+            for (Delivery delivery : deliveries) {
+                delivery.nack();
+            }
+            countMessage("nacked", deliveries.size());
+            logger.error("Message wasn't acknowledged and WILL NOT BE REQUEUED", ex);
+        } catch (final Exception ex) {
+            getTransactionUtils().rollback();
+            // add info to thread context to store data in logs
+            ThreadContext.put("original_message", message.toJson());
+            ThreadContext.put("exception", ex.toString());
+            ThreadContext.put("stack_trace", stackTraceToString(ex));
+            
+            logger.error("General exception thrown while doing work {}", ex);
+            logger.error("Message body: {}", message.toJson());
+
+            // not acknowledge the message
+            // and don't allow requeue
+            for (Delivery delivery : deliveries) {
+                delivery.nack();
+            }
+            countMessage("nacked", deliveries.size());
+            logger.error("Message wasn't acknowledged and WILL NOT BE REQUEUED", ex);
+
+        } finally {
+            // unit of work is over, return resources (eg. db connection) bound to the consumer thread
+            getTransactionUtils().release();
+            // messages of the failed work aren't published
+            outgoingBatch.get().end();
+            Metrics.histogram("dl_worker_message_duration_seconds", "Duration of message processing",
+                "worker", getName()).observeSince(startTime);
+        }
+        ThreadContext.clearAll();
+    }
+
+    /**
+     * Coalesces the delivery with the pending deliveries of the same coalescing key. The first delivery of the key is
+     * processed after the coalescing window, the deliveries of the same key received in the meantime are acknowledged
+     * together with the first one without being processed. The key is in-flight until the processing finishes, the
+     * deliveries of the key received during the processing are coalesced and processed after it.
+     *
+     * @param consumerTag
+     *      consumer tag
+     * @param rawMessage
+     *      incoming message (UTF-8 encoded json)
+     * @param delivery
+     *      delivery of the message
+     * @return false in case that the message can't be coalesced and has to be processed immediately
+     */
+    private boolean coalesce(final String consumerTag, final byte[] rawMessage, final Delivery delivery) {
+        final Message message;
+        final String key;
+        try {
+            message = MessageFactory.getMessage(rawMessage);
+            key = message.getValue("command") == null ? getCoalescingKey(message) : null;
+        } catch (final Exception ex) {
+            // invalid message is processed (and rejected) as usual
+            return false;
+        }
+
+        if (key == null) {
+            return false;
+        }
+
+        synchronized (coalescedMessages) {
+            CoalescedMessage coalesced = coalescedMessages.get(key);
+            if (coalesced == null) {
+                coalesced = new CoalescedMessage();
+                coalescedMessages.put(key, coalesced);
+                coalesced.add(consumerTag, rawMessage, message, delivery);
+                scheduleCoalesced(key, coalesced);
+                return true;
+            }
+
+            if (!coalesced.deliveries.isEmpty()) {
+                Metrics.counter("dl_worker_coalesced_messages_total",
+                    "Number of messages coalesced with another message of the same key", "worker", getName()).inc();
+            }
+            // the deliveries received during the processing of the key are scheduled once the processing finishes
+            coalesced.add(consumerTag, rawMessage, message, delivery);
         }
+
+        return true;
+    }
+
+    /**
+     * Schedules processing of the coalesced message after the coalescing window. Once the message is processed, the
+     * deliveries of the key received during the processing are scheduled again or the key is released.
+     *
+     * @param key
+     *      coalescing key
+     * @param coalesced
+     *      coalesced message
+     */
+    private void scheduleCoalesced(final String key, final CoalescedMessage coalesced) {
+        coalescingExecutor.schedule(() -> {
+            final String consumerTag;
+            final byte[] rawMessage;
+            final Message message;
+            final List<Delivery> deliveries;
+            synchronized (coalescedMessages) {
+                consumerTag = coalesced.consumerTag;
+                rawMessage = coalesced.rawMessage;
+                message = coalesced.message;
+                deliveries = coalesced.deliveries;
+                coalesced.clear();
+            }
+
+            if (deliveries.size() > 1) {
+                logger.info("Processing message with key {} for {} coalesced deliveries", key, deliveries.size());
+            }
+
+            try {
+                processMessage(consumerTag, rawMessage, message, deliveries);
+            } catch (final IOException | RuntimeException ex) {
+                logger.error("Unable to process coalesced message with key {} because of", key, ex);
+            } finally {
+                synchronized (coalescedMessages) {
+                    if (coalesced.deliveries.isEmpty()) {
+                        coalescedMessages.remove(key);
+                    } else {
+                        scheduleCoalesced(key, coalesced);
+                    }
+                }
+            }
+        }, coalesceWindow, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Returns the key used to coalesce the incoming messages. Messages with the same key received within the
+     * coalescing window ({@code <worker_class>.coalesceWindow} in milliseconds) are processed only once. Only the
+     * messages prefetched by the consumers can be coalesced, so the number of prefetched messages
+     * ({@code <worker_class>.prefetch}) should be set accordingly. Coalescing is disabled by default.
+     *
+     * @param message
+     *      incoming message
+     * @return coalescing key or null if the message shouldn't be coalesced
+     */
+    protected String getCoalescingKey(final Message message) {
+        return null;
     }
 
     /**
      * Gets channel for incoming queue.
-     * 
+     *
+     * @param connection
+     *      connection to the messaging system
+     * @param prefetch
+     *      maximal number of unacknowledged messages delivered via the channel
      * @return initialised channel
      * 
      * @throws IOException 
-     * @throws TimeoutException 
      */
-    private Channel getIncommingChanel() throws IOException, TimeoutException {
-        // configure connection
-        final ConnectionFactory factory = new ConnectionFactory();
-        factory.setHost(config.getParam("rabbitmq.host"));
-        factory.setUsername(config.getParam("rabbitmq.username"));
-        factory.setPassword(config.getParam("rabbitmq.password"));
-//        factory.setPort(5674);
-
-        // establish connection
-        final Connection connection = factory.newConnection();
+    private Channel getIncommingChanel(final Connection connection, final int prefetch) throws IOException {
         final Channel channel = connection.createChannel();
         
         // define the queue as lazy - store params on the disk
@@ -401,7 +673,7 @@ public abstract class BaseWorker implements Worker {
         // declare the queue itself
         channel.queueDeclare(envPrefix + getIncomingQueueName(), true, false, false, args);
         channel.exchangeDeclare(envPrefix + getIncomingExchangeName(), "direct", true);
-        channel.basicQos(1);
+        channel.basicQos(prefetch);
 
         channel.queueBind(envPrefix + getIncomingQueueName(), 
                           envPrefix + getIncomingExchangeName(), 
@@ -412,24 +684,31 @@ public abstract class BaseWorker implements Worker {
 
     /**
      * Registers itself to send messages to the queue. The queue is defined here
-     * (and created if it doesn't exist yet).
+     * (and created if it doesn't exist yet). In case that the connection is open (another thread has reconnected it
+     * in the meantime), nothing happens. The replaced connection is closed.
      */
-    private void connectOutgoingExchange() {
+    private synchronized void connectOutgoingExchange() {
+        final Connection replaced = outgoingConnection;
+        if (replaced != null && replaced.isOpen()) {
+            return;
+        }
+
         try {
-            // configure connection
-            final ConnectionFactory factory = new ConnectionFactory();
-            factory.setHost(config.getParam("rabbitmq.host"));
-            factory.setUsername(config.getParam("rabbitmq.username"));
-            factory.setPassword(config.getParam("rabbitmq.password"));
-//            factory.setPort(5674);
             logger.info("Initialised outgoing queue host:{} username:{} password:{}", config.getParam("rabbitmq.host"),
                     config.getParam("rabbitmq.username"), config.getParam("rabbitmq.password"));
 
             // establish connection
-            final Connection connection = factory.newConnection();
-            outgoingChannel = connection.createChannel();
+            final Connection connection = getConnectionFactory().newConnection();
+            final Channel channel = connection.createChannel();
 
-            outgoingChannel.exchangeDeclare(envPrefix + getOutgoingExchangeName(), "direct", true);
+            channel.exchangeDeclare(envPrefix + getOutgoingExchangeName(), "direct", true);
+            channel.confirmSelect();
+
+            outgoingConnection = connection;
+            outgoingBatch.get().channel = channel;
+            if (replaced != null) {
+                replaced.abort();
+            }
 
             logger.info("Connection to outgoing exchange {} established", envPrefix + getOutgoingExchangeName());
         } catch (IOException | TimeoutException ex) {
@@ -438,6 +717,70 @@ public abstract class BaseWorker implements Worker {
         }
     }
 
+    /**
+     * Returns outgoing channel of the current thread. The channel is opened in case that the thread doesn't have one
+     * yet or the connection has been re-established in the meantime. Publisher confirms are enabled on the channel.
+     *
+     * @param batch
+     *      outgoing messages of the current thread
+     * @return outgoing channel
+     * @throws IOException
+     *      in case the channel can't be opened
+     */
+    private Channel getOutgoingChannel(final OutgoingBatch batch) throws IOException {
+        final Connection connection = outgoingConnection;
+        Channel channel = batch.channel;
+        if (channel == null || !channel.isOpen() || channel.getConnection() != connection) {
+            channel = connection.createChannel();
+            channel.confirmSelect();
+            batch.channel = channel;
+            logger.debug("Outgoing channel {} opened for thread {}", channel.getChannelNumber(),
+                    Thread.currentThread().getName());
+        }
+
+        return channel;
+    }
+
+    /**
+     * @return connection factory configured for the messaging system
+     */
+    private ConnectionFactory getConnectionFactory() {
+        final ConnectionFactory factory = new ConnectionFactory();
+        factory.setHost(config.getParam("rabbitmq.host"));
+        factory.setUsername(config.getParam("rabbitmq.username"));
+        factory.setPassword(config.getParam("rabbitmq.password"));
+//        factory.setPort(5674);
+
+        return factory;
+    }
+
+    /**
+     * Reads positive integer configuration property.
+     *
+     * @param name
+     *      property name
+     * @param defaultValue
+     *      value used in case that the property isn't set
+     * @return property value
+     */
+    protected final int getIntParam(final String name, final int defaultValue) {
+        final String value = config.getParam(name);
+        if (StringUtils.isBlank(value)) {
+            return defaultValue;
+        }
+
+        try {
+            final int result = Integer.parseInt(value.trim());
+            if (result < 1) {
+                throw new NumberFormatException("Value must be positive");
+            }
+            return result;
+        } catch (final NumberFormatException ex) {
+            logger.error("Value '{}' of property {} isn't a positive integer", value, name);
+            throw new MisconfigurationException("Configuration property must be a positive integer");
+        }
+    }
+
     /**
      * Sends message to the outgoing exchange with default tag.
      *
@@ -449,7 +792,11 @@ public abstract class BaseWorker implements Worker {
     }
 
     /**
-     * Sends message to the outgoing echange with a specified tag.
+     * Sends message to the outgoing echange with a specified tag. During the processing of an incoming message, the
+     * outgoing messages are published in batches of {@code <worker_class>.publishBatchSize} messages without waiting
+     * for the broker. The broker confirms are awaited when the number of unconfirmed messages reaches
+     * {@code <worker_class>.publishWindow} and before the incoming message is acknowledged. Outside of the message
+     * processing, each message is published and confirmed immediately.
      *
      * @param message
      *            message to be send to other workers
@@ -457,52 +804,183 @@ public abstract class BaseWorker implements Worker {
      *            tag for the message
      */
     protected final void publishMessage(final Message message, final String tag) {
-        try {
-            logger.debug("Message body: {}", StringUtils.abbreviate(message.toJson(), RAW_MESSAGE_LONG));
-            logger.trace("Message body: {}", message.toJson());
+        final byte[] json = message.toJsonBytes();
+        logMessageBody(json);
 
-            int exceptionsCount = 0;
-            while (true) {
-                try {
-                    outgoingChannel.basicPublish(envPrefix + getOutgoingExchangeName(),
-                            envPrefix + tag,
-                            MessageProperties.PERSISTENT_TEXT_PLAIN,
-                            message.toJson().getBytes());
-                    break;
-                } catch (SocketException | AlreadyClosedException e1) {
-                    logger.error(e1.getClass().getName() + " exception occurred during message publish.", e1);
-                    if (exceptionsCount > 0) {
-                        throw new UnrecoverableException("Reconnection outgoing channel did not work");
+        final OutgoingBatch batch = outgoingBatch.get();
+        batch.queued.add(new OutgoingMessage(envPrefix + getOutgoingExchangeName(), envPrefix + tag, json));
+        logger.info("Queued json message to exchange {} , tag {}", envPrefix + getOutgoingExchangeName(),
+                envPrefix + tag);
+
+        if (!batch.inUnitOfWork) {
+            confirmPublished();
+        } else if (batch.queued.size() >= publishBatchSize) {
+            flushPublished(false);
+        }
+    }
+
+    /**
+     * Registers action which is run once the incoming message being processed is acknowledged, ie. after all the
+     * outgoing messages are confirmed by the broker. The action isn't run in case that the processing fails or the
+     * message is requeued. Outside of the message processing, the action is run immediately.
+     *
+     * @param action
+     *            action to be run, eg. cleanup of data which are needed until the message is acknowledged
+     */
+    protected final void runAfterAcknowledgement(final Runnable action) {
+        final OutgoingBatch batch = outgoingBatch.get();
+        if (batch.inUnitOfWork) {
+            batch.afterAcknowledgement.add(action);
+        } else {
+            action.run();
+        }
+    }
+
+    /**
+     * Runs actions registered to be run after the acknowledgement of the incoming message. Failure of an action
+     * doesn't affect the processed message.
+     *
+     * @param batch
+     *            outgoing messages and actions of the current thread
+     */
+    private void runAcknowledged(final OutgoingBatch batch) {
+        for (Runnable action : batch.afterAcknowledgement) {
+            try {
+                action.run();
+            } catch (final RuntimeException ex) {
+                logger.error("Action after acknowledgement of the message failed {}", ex);
+            }
+        }
+        batch.afterAcknowledgement.clear();
+    }
+
+    /**
+     * Logs body of the outgoing message, the json is decoded only if the debug level is enabled.
+     *
+     * @param json
+     *            UTF-8 encoded message json
+     */
+    private void logMessageBody(final byte[] json) {
+        if (logger.isDebugEnabled()) {
+            final String body = new String(json, StandardCharsets.UTF_8);
+            logger.debug("Message body: {}", StringUtils.abbreviate(body, RAW_MESSAGE_LONG));
+            logger.trace("Message body: {}", body);
+        }
+    }
+
+    /**
+     * Publishes all queued messages of the current thread and waits until the broker confirms all of them.
+     *
+     * @throws UnrecoverableException
+     *      in case the messages can't be published
+     */
+    private void confirmPublished() {
+        flushPublished(true);
+    }
+
+    /**
+     * Publishes queued messages of the current thread. In case of failure, all the unconfirmed messages are published
+     * again via new channel (reconnecting if necessary), so the messages are delivered at least once.
+     *
+     * @param confirm
+     *      whether to wait for confirms of all the published messages
+     * @throws UnrecoverableException
+     *      in case the messages can't be published
+     */
+    private void flushPublished(final boolean confirm) {
+        final OutgoingBatch batch = outgoingBatch.get();
+        if (batch.queued.isEmpty() && (batch.unconfirmed.isEmpty() || !confirm)) {
+            return;
+        }
+
+        final long startTime = System.nanoTime();
+        int exceptionsCount = 0;
+        while (true) {
+            try {
+                final Channel channel = getOutgoingChannel(batch);
+                while (!batch.queued.isEmpty()) {
+                    final OutgoingMessage outgoing = batch.queued.peekFirst();
+                    channel.basicPublish(outgoing.exchange, outgoing.routingKey,
+                            MessageProperties.PERSISTENT_TEXT_PLAIN, outgoing.body);
+                    batch.unconfirmed.addLast(batch.queued.removeFirst());
+                }
+
+                if (confirm || batch.unconfirmed.size() >= publishWindow) {
+                    channel.waitForConfirmsOrDie(PUBLISH_CONFIRM_TIMEOUT);
+                    logger.debug("Broker confirmed {} published messages", batch.unconfirmed.size());
+                    batch.unconfirmed.clear();
+                }
+                break;
+            } catch (IOException | TimeoutException | AlreadyClosedException ex) {
+                logger.error(ex.getClass().getName() + " exception occurred during message publish.", ex);
+                // unconfirmed messages are published again
+                while (!batch.unconfirmed.isEmpty()) {
+                    batch.queued.addFirst(batch.unconfirmed.removeLast());
+                }
+
+                if (++exceptionsCount > PUBLISH_MESSAGE_FAILURE_LIMIT) {
+                    batch.clear();
+                    throw new UnrecoverableException(
+                            "Unable to publish message. The worker have tried " + PUBLISH_MESSAGE_FAILURE_LIMIT
+                                    + " times with no success", ex);
+                }
+
+                final Connection connection = outgoingConnection;
+                if (connection == null || !connection.isOpen()) {
+                    try {
+                        logger.error("Going to sleep for " + PUBLISH_MESSAGE_FAILURE_SLEEP_TIME + " ms.");
+                        Thread.sleep(PUBLISH_MESSAGE_FAILURE_SLEEP_TIME);
+                    } catch (InterruptedException e) {
+                        logger.error("Thread interrupted, waking up {}", e);
                     }
-                    while (true) {
-                        try {
-                            logger.error("Going to sleep for " + PUBLISH_MESSAGE_FAILURE_SLEEP_TIME + " ms.");
-                            Thread.sleep(PUBLISH_MESSAGE_FAILURE_SLEEP_TIME);
-                        } catch (InterruptedException ex) {
-                            logger.error("Thread interrupted, waking up {}", ex);
-                        }
-                        try {
-                            // reconnect outgoing channel
-                            connectOutgoingExchange();
-                            break;
-                        } catch (RuntimeException e2) {
-                            if (++exceptionsCount > PUBLISH_MESSAGE_FAILURE_LIMIT) {
-                                throw new UnrecoverableException(
-                                        "Unable to publish message. The worker have been waiting " +
-                                                PUBLISH_MESSAGE_FAILURE_LIMIT * PUBLISH_MESSAGE_FAILURE_SLEEP_TIME +
-                                                " ms with no success", e2);
-                            }
-                        }
+                    try {
+                        // reconnect outgoing channel
+                        connectOutgoingExchange();
+                    } catch (RuntimeException e) {
+                        logger.error("Reconnection of outgoing channel failed {}", e);
                     }
                 }
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+                batch.clear();
+                logger.error("Thread interrupted while waiting for publisher confirms {}", ex);
+                throw new UnrecoverableException("Interrupted while waiting for publisher confirms", ex);
             }
-
-            logger.info("Published json message to exchange {} , tag {}", envPrefix + getOutgoingExchangeName(),
-                    envPrefix + tag);
-        } catch (final IOException ex) {
-            logger.error("Unable to publish message - {}", ex);
-            throw new UnrecoverableException("Unable to publish message", ex);
         }
+
+        Metrics.histogram("dl_worker_publish_duration_seconds", "Duration of message publishing",
+            "worker", getName()).observeSince(startTime);
+    }
+
+    /**
+     * Increments counter of the messages processed by the worker.
+     *
+     * @param outcome
+     *      received, acked, nacked or retried
+     * @param count
+     *      number of messages
+     */
+    private void countMessage(final String outcome, final int count) {
+        Metrics.counter("dl_worker_messages_total", "Number of messages processed by the worker",
+            "worker", getName(), "outcome", outcome).inc(count);
+    }
+
+    /**
+     * Records duration of a plugin execution to histogram {@code dl_worker_plugin_duration_seconds}.
+     *
+     * @param stage
+     *      plugin type, eg. clean, match, master or indicator
+     * @param plugin
+     *      plugin name
+     * @param startTime
+     *      start of the plugin execution as returned by {@link System#nanoTime()}
+     * @return duration of the plugin execution in milliseconds
+     */
+    protected final long recordPluginTime(final String stage, final String plugin, final long startTime) {
+        final long elapsed = Metrics.histogram("dl_worker_plugin_duration_seconds", "Duration of plugin execution",
+            "worker", getName(), "stage", stage, "plugin", plugin).observeSince(startTime);
+
+        return TimeUnit.NANOSECONDS.toMillis(elapsed);
     }
 
     /**
@@ -538,4 +1016,167 @@ public abstract class BaseWorker implements Worker {
         }
         return result;
     }
+
+    /**
+     * Outgoing message waiting for publishing or for confirmation.
+     */
+    private static final class OutgoingMessage {
+        private final String exchange;
+
+        private final String routingKey;
+
+        private final byte[] body;
+
+        /**
+         * @param exchange
+         *      exchange name, empty for the default exchange
+         * @param routingKey
+         *      routing key
+         * @param body
+         *      serialized message
+         */
+        OutgoingMessage(final String exchange, final String routingKey, final byte[] body) {
+            this.exchange = exchange;
+            this.routingKey = routingKey;
+            this.body = body;
+        }
+    }
+
+    /**
+     * Outgoing messages of one thread and actions run after the acknowledgement of the incoming message.
+     */
+    private static final class OutgoingBatch {
+        private Channel channel;
+
+        private boolean inUnitOfWork = false;
+
+        private final ArrayDeque<OutgoingMessage> queued = new ArrayDeque<>();
+
+        private final ArrayDeque<OutgoingMessage> unconfirmed = new ArrayDeque<>();
+
+        private final List<Runnable> afterAcknowledgement = new ArrayList<>();
+
+        /**
+         * Starts processing of an incoming message.
+         */
+        void begin() {
+            clear();
+            afterAcknowledgement.clear();
+            inUnitOfWork = true;
+        }
+
+        /**
+         * Ends processing of an incoming message, messages which weren't published yet and actions which weren't run
+         * are discarded.
+         */
+        void end() {
+            clear();
+            afterAcknowledgement.clear();
+            inUnitOfWork = false;
+        }
+
+        /**
+         * Discards all the messages.
+         */
+        void clear() {
+            queued.clear();
+            unconfirmed.clear();
+        }
+    }
+
+    /**
+     * Message of one coalescing key and its deliveries waiting for processing. The message of the first waiting
+     * delivery is processed for all of them.
+     */
+    private static final class CoalescedMessage {
+        private String consumerTag;
+
+        private byte[] rawMessage;
+
+        private Message message;
+
+        private List<Delivery> deliveries = new ArrayList<>();
+
+        /**
+         * Adds delivery of the message.
+         *
+         * @param newConsumerTag
+         *      consumer tag
+         * @param newRawMessage
+         *      incoming message (UTF-8 encoded json)
+         * @param newMessage
+         *      decoded incoming message
+         * @param delivery
+         *      delivery of the message
+         */
+        void add(final String newConsumerTag, final byte[] newRawMessage, final Message newMessage,
+                 final Delivery delivery) {
+            if (deliveries.isEmpty()) {
+                consumerTag = newConsumerTag;
+                rawMessage = newRawMessage;
+                message = newMessage;
+            }
+            deliveries.add(delivery);
+        }
+
+        /**
+         * Removes the waiting deliveries, they are being processed.
+         */
+        void clear() {
+            consumerTag = null;
+            rawMessage = null;
+            message = null;
+            deliveries = new ArrayList<>();
+        }
+    }
+
+    /**
+     * Delivery of an incoming message. The deliveries of one channel are acknowledged under the lock of the channel,
+     * because the coalesced deliveries are acknowledged from other threads than the consumer one.
+     */
+    private static final class Delivery {
+        private final Channel channel;
+
+        private final Object channelLock;
+
+        private final long deliveryTag;
+
+        /**
+         * @param channel
+         *      channel which received the message
+         * @param channelLock
+         *      lock of the channel
+         * @param deliveryTag
+         *      delivery tag
+         */
+        Delivery(final Channel channel, final Object channelLock, final long deliveryTag) {
+            this.channel = channel;
+            this.channelLock = channelLock;
+            this.deliveryTag = deliveryTag;
+        }
+
+        /**
+         * Acknowledges the message.
+         *
+         * @throws IOException
+         *      in case of communication failure
+         */
+        void ack() throws IOException {
+            synchronized (channelLock) {
+                channel.basicAck(deliveryTag, false);
+            }
+        }
+
+        /**
+         * Rejects the message, the message isn't requeued.
+         *
+         * @throws IOException
+         *      in case of communication failure
+         */
+        void nack() throws IOException {
+            synchronized (channelLock) {
+                channel.basicNack(deliveryTag, false, false);
+            }
+        }
+    }
 }
@@ -18,6 +18,14 @@ public interface Message {
      */
     void init(String json);
 
+    /**
+     * Create message and populates with data from UTF-8 encoded json.
+     *
+     * @param json
+     *            message
+     */
+    void init(byte[] json);
+
     /**
      * set the parama of message to be used and returns the message instance,
      * which is handy for fluent interface.
@@ -64,6 +72,13 @@ public interface Message {
      */
     String toJson();
 
+    /**
+     * Returns UTF-8 encoded json interpretation of the message.
+     *
+     * @return json
+     */
+    byte[] toJsonBytes();
+
     /**
      * Returns param identified by key as an instance of T class.
      *
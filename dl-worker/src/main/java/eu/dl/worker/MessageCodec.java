@@ -0,0 +1,110 @@
+package eu.dl.worker;
+
+import java.io.IOException;
+import java.util.List;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+
+/**
+ * Process-wide json codec of the messages. Object mapper is expensive to create, so it is created once and its
+ * readers and writers (which are immutable and thread-safe) are shared by all the messages.
+ */
+final class MessageCodec {
+
+    private static final ObjectMapper MAPPER = new ObjectMapper()
+        // java time module must be registered to support java 8 date time classes
+        .registerModule(new JavaTimeModule());
+
+    private static final ObjectReader ENVELOPE_READER = MAPPER.readerFor(MessageEnvelope.class);
+
+    private static final ObjectWriter ENVELOPE_WRITER = MAPPER.writerFor(MessageEnvelope.class);
+
+    /**
+     * Suppress default constructor for noninstantiability.
+     */
+    private MessageCodec() {
+        throw new AssertionError();
+    }
+
+    /**
+     * @param json
+     *      UTF-8 encoded message json
+     * @return message envelope
+     * @throws IOException
+     *      in case the json is invalid
+     */
+    static MessageEnvelope decode(final byte[] json) throws IOException {
+        return ENVELOPE_READER.readValue(json);
+    }
+
+    /**
+     * @param json
+     *      message json
+     * @return message envelope
+     * @throws IOException
+     *      in case the json is invalid
+     */
+    static MessageEnvelope decode(final String json) throws IOException {
+        return ENVELOPE_READER.readValue(json);
+    }
+
+    /**
+     * @param envelope
+     *      message envelope
+     * @return UTF-8 encoded message json
+     * @throws IOException
+     *      in case the envelope can't be serialized
+     */
+    static byte[] encode(final MessageEnvelope envelope) throws IOException {
+        return ENVELOPE_WRITER.writeValueAsBytes(envelope);
+    }
+
+    /**
+     * @param envelope
+     *      message envelope
+     * @return message json
+     * @throws IOException
+     *      in case the envelope can't be serialized
+     */
+    static String encodeToString(final MessageEnvelope envelope) throws IOException {
+        return ENVELOPE_WRITER.writeValueAsString(envelope);
+    }
+
+    /**
+     * Converts the message value to an instance of the class via its json representation.
+     *
+     * @param <T>
+     *      class type
+     * @param value
+     *      message value
+     * @param cls
+     *      class
+     * @return instance of the class
+     * @throws IOException
+     *      in case the value can't be converted
+     */
+    static <T> T convert(final Object value, final Class<T> cls) throws IOException {
+        return MAPPER.readerFor(cls).readValue(MAPPER.writeValueAsBytes(value));
+    }
+
+    /**
+     * Converts the message value to a list of instances of the class via its json representation.
+     *
+     * @param <T>
+     *      class type
+     * @param value
+     *      message value
+     * @param cls
+     *      class of the list items
+     * @return list of the class instances
+     * @throws IOException
+     *      in case the value can't be converted
+     */
+    static <T> List<T> convertToList(final Object value, final Class<T> cls) throws IOException {
+        return MAPPER.readerFor(MAPPER.getTypeFactory().constructCollectionType(List.class, cls))
+            .readValue(MAPPER.writeValueAsBytes(value));
+    }
+}
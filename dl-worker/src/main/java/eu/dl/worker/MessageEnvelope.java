@@ -0,0 +1,108 @@
+package eu.dl.worker;
+
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import com.fasterxml.jackson.annotation.JsonAnyGetter;
+import com.fasterxml.jackson.annotation.JsonAnySetter;
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import com.fasterxml.jackson.annotation.JsonPropertyOrder;
+
+/**
+ * Typed representation of the message json. The values read by the workers for each message are held in fields,
+ * any other values are kept in a map. The json format is the same as of a plain map of the values.
+ */
+@JsonInclude(JsonInclude.Include.NON_NULL)
+@JsonPropertyOrder({MessageEnvelope.ID, MessageEnvelope.GROUP_ID, MessageEnvelope.COMMAND,
+    MessageEnvelope.RETRY_COUNT, MessageEnvelope.METADATA})
+final class MessageEnvelope {
+
+    static final String ID = "id";
+
+    static final String GROUP_ID = "groupId";
+
+    static final String COMMAND = "command";
+
+    static final String RETRY_COUNT = "retryCount";
+
+    static final String METADATA = "8hfamudahf987t342thlhjdsnfjkln9qe8uuth9qgbhda";
+
+    @JsonProperty(ID)
+    private String id;
+
+    @JsonProperty(GROUP_ID)
+    private String groupId;
+
+    @JsonProperty(COMMAND)
+    private String command;
+
+    @JsonProperty(RETRY_COUNT)
+    private String retryCount;
+
+    @JsonProperty(METADATA)
+    private HashMap<String, Object> metaData;
+
+    private final Map<String, Object> values = new LinkedHashMap<>();
+
+    /**
+     * @param key
+     *      value key
+     * @return value or null
+     */
+    Object get(final String key) {
+        switch (key) {
+            case ID:
+                return id;
+            case GROUP_ID:
+                return groupId;
+            case COMMAND:
+                return command;
+            case RETRY_COUNT:
+                return retryCount;
+            case METADATA:
+                return metaData;
+            default:
+                return values.get(key);
+        }
+    }
+
+    /**
+     * @param key
+     *      value key
+     * @param value
+     *      value
+     */
+    @JsonAnySetter
+    @SuppressWarnings("unchecked")
+    void put(final String key, final Object value) {
+        switch (key) {
+            case ID:
+                id = (String) value;
+                break;
+            case GROUP_ID:
+                groupId = (String) value;
+                break;
+            case COMMAND:
+                command = (String) value;
+                break;
+            case RETRY_COUNT:
+                retryCount = (String) value;
+                break;
+            case METADATA:
+                metaData = (HashMap<String, Object>) value;
+                break;
+            default:
+                values.put(key, value);
+        }
+    }
+
+    /**
+     * @return values which aren't held in the fields
+     */
+    @JsonAnyGetter
+    Map<String, Object> getValues() {
+        return values;
+    }
+}
@@ -34,4 +34,16 @@ public final class MessageFactory {
         message.init(json);
         return message;
     }
+
+    /**
+     * Return initialized message with data from UTF-8 encoded json (eg. body of the delivered message).
+     *
+     * @param json message data
+     * @return message with data
+     */
+    public static Message getMessage(final byte[] json) {
+        Message message = new SimpleMessage();
+        message.init(json);
+        return message;
+    }
 }
@@ -15,6 +15,7 @@ import org.apache.logging.log4j.ThreadContext;
 
 import java.util.List;
 import java.util.Map.Entry;
+import java.util.stream.Stream;
 
 /**
  * This class covers the main functionality for the cleaners implementation.
@@ -70,7 +71,9 @@ public abstract class BaseCleaner<T extends Parsable, V extends Cleanable> exten
             // iterate over all plugins and execute them in a proper order
             for (Entry<String, CleaningPlugin> entry : pluginRegistry.getPlugins().entrySet()) {
                 CleaningPlugin<T, V> plugin = entry.getValue();
+                final long pluginStartTime = System.nanoTime();
                 cleanItem = plugin.clean(parsedItem, cleanItem);
+                recordPluginTime("clean", entry.getKey(), pluginStartTime);
                 logger.debug("Tender cleaned with plugin {}", plugin);
             }
 
@@ -143,12 +146,12 @@ public abstract class BaseCleaner<T extends Parsable, V extends Cleanable> exten
                 resendVersion = getVersion();
             }
 
-            final List<V> items = cleanDao.getMine(getName(), resendVersion, dateFrom, dateTo);
-
-            for (final V item : items) {
-                final Message outgoingMessage = MessageFactory.getMessage();
-                outgoingMessage.setValue("id", item.getId());
-                publishMessage(outgoingMessage);
+            try (Stream<V> items = cleanDao.streamMine(getName(), resendVersion, dateFrom, dateTo)) {
+                items.forEach(item -> {
+                    final Message outgoingMessage = MessageFactory.getMessage();
+                    outgoingMessage.setValue("id", item.getId());
+                    publishMessage(outgoingMessage);
+                });
             }
         } catch (final Exception ex) {
             logger.error("Unable to resend messages for matching {}", ex);
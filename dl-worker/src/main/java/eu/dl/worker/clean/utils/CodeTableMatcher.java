@@ -0,0 +1,364 @@
+package eu.dl.worker.clean.utils;
+
+import static org.apache.commons.lang3.StringUtils.getLevenshteinDistance;
+
+import java.lang.ref.ReferenceQueue;
+import java.lang.ref.WeakReference;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Code table mapping compiled for repeated lookups. Exact matches are found in a hash map of case-normalized aliases,
+ * fuzzy matches in a BK-tree of lower-cased aliases searched within the Levenshtein distance threshold. Results of
+ * the fuzzy lookups are memoized. The null key is a regular key of the mapping (an explicit mapping to null).
+ *
+ * Matchers are compiled once per mapping instance (see {@link #of(Map, int)}), so the mapping must not be modified
+ * after its first use. Only the change of the number of keys is detected and the mapping is recompiled then, changes
+ * of the aliases aren't taken into account.
+ */
+final class CodeTableMatcher {
+
+    /**
+     * Maximal number of memoized fuzzy lookup results per matcher.
+     */
+    private static final int MAX_CACHED_RESULTS = 10000;
+
+    private static final ConcurrentMap<MappingReference, CodeTableMatcher> MATCHERS = new ConcurrentHashMap<>();
+
+    private static final ReferenceQueue<Object> RELEASED_MAPPINGS = new ReferenceQueue<>();
+
+    private final int threshold;
+
+    /**
+     * Number of keys of the compiled mapping.
+     */
+    private final int size;
+
+    private final Map<String, Match> exact;
+
+    private final Node root;
+
+    private final ConcurrentMap<String, Match> fuzzyCache = new ConcurrentHashMap<>();
+
+    /**
+     * Compiles the mapping.
+     *
+     * @param mapping
+     *         mapping, aliases of the keys are processed in the iteration order
+     * @param threshold
+     *         fuzzy matches have Levenshtein distance lower than threshold
+     */
+    CodeTableMatcher(final Map<Enum, List<String>> mapping, final int threshold) {
+        this.threshold = threshold;
+        this.size = mapping.size();
+        this.exact = new HashMap<>();
+
+        Node tree = null;
+        for (Map.Entry<Enum, List<String>> entry : mapping.entrySet()) {
+            final Enum key = entry.getKey();
+            if (entry.getValue() == null) {
+                continue;
+            }
+
+            for (String alias : entry.getValue()) {
+                if (alias == null) {
+                    continue;
+                }
+
+                // the first key with the alias wins, same as in the sequential search
+                exact.putIfAbsent(normalize(alias), new Match(key, 0, false));
+
+                final String term = alias.toLowerCase();
+                if (tree == null) {
+                    tree = new Node(term, key);
+                } else {
+                    tree.add(term, key);
+                }
+            }
+        }
+
+        this.root = tree;
+    }
+
+    /**
+     * Returns matcher of the mapping. Matchers are cached by identity of the mapping as long as the mapping is
+     * reachable. The mapping is recompiled only if its number of keys differs from the compiled one.
+     *
+     * @param mapping
+     *         mapping
+     * @param threshold
+     *         fuzzy matches have Levenshtein distance lower than threshold
+     * @return matcher
+     */
+    static CodeTableMatcher of(final Map<Enum, List<String>> mapping, final int threshold) {
+        final CodeTableMatcher cached = MATCHERS.get(new MappingReference(mapping, null));
+        if (cached != null && cached.threshold == threshold && cached.size == mapping.size()) {
+            return cached;
+        }
+
+        MappingReference released;
+        while ((released = (MappingReference) RELEASED_MAPPINGS.poll()) != null) {
+            MATCHERS.remove(released);
+        }
+
+        final CodeTableMatcher matcher = new CodeTableMatcher(mapping, threshold);
+        MATCHERS.put(new MappingReference(mapping, RELEASED_MAPPINGS), matcher);
+
+        return matcher;
+    }
+
+    /**
+     * Returns the match of the key with an alias equal to the value ignoring case. The matched key may be null.
+     *
+     * @param value
+     *         value to be matched
+     * @return exact match or null if no alias equals the value
+     */
+    Match getExactMatch(final String value) {
+        return exact.get(normalize(value));
+    }
+
+    /**
+     * Returns keys of the aliases with the lowest Levenshtein distance lower than threshold. The distance is
+     * calculated case-insensitive.
+     *
+     * @param value
+     *         value to be matched
+     * @return fuzzy match, never null (the key of the match is null if no alias is close enough)
+     */
+    Match getFuzzyMatch(final String value) {
+        final Match cached = fuzzyCache.get(value);
+        if (cached != null) {
+            return cached;
+        }
+
+        final Match match = search(value.toLowerCase());
+        if (fuzzyCache.size() < MAX_CACHED_RESULTS) {
+            fuzzyCache.put(value, match);
+        }
+
+        return match;
+    }
+
+    /**
+     * Searches the BK-tree for the closest aliases.
+     *
+     * @param term
+     *         lower-cased value
+     * @return fuzzy match
+     */
+    private Match search(final String term) {
+        int bestDistance = threshold;
+        final List<Enum> bestKeys = new ArrayList<>();
+
+        final Deque<Node> stack = new ArrayDeque<>();
+        if (root != null) {
+            stack.push(root);
+        }
+
+        while (!stack.isEmpty()) {
+            final Node node = stack.pop();
+            final int distance = getLevenshteinDistance(term, node.term);
+
+            if (distance < bestDistance) {
+                bestDistance = distance;
+                bestKeys.clear();
+            }
+            if (distance == bestDistance && distance < threshold) {
+                for (Enum key : node.keys) {
+                    if (!bestKeys.contains(key)) {
+                        bestKeys.add(key);
+                    }
+                }
+            }
+
+            // only the children within the searched distance can contain closer aliases (triangle inequality)
+            if (node.children != null) {
+                final int radius = threshold - 1;
+                for (int d = Math.max(1, distance - radius); d <= distance + radius; d++) {
+                    final Node child = node.children.get(d);
+                    if (child != null) {
+                        stack.push(child);
+                    }
+                }
+            }
+        }
+
+        if (bestKeys.isEmpty()) {
+            return new Match(null, threshold, false);
+        }
+
+        return new Match(bestKeys.get(0), bestDistance, bestKeys.size() > 1);
+    }
+
+    /**
+     * Normalizes the value so that two values are equal ignoring case (see {@link String#equalsIgnoreCase(String)})
+     * exactly when their normalized forms are equal.
+     *
+     * @param value
+     *         value
+     * @return normalized value
+     */
+    static String normalize(final String value) {
+        StringBuilder result = null;
+        for (int i = 0; i < value.length();) {
+            final int codePoint = value.codePointAt(i);
+            final int normalized = Character.toLowerCase(Character.toUpperCase(codePoint));
+            if (normalized != codePoint && result == null) {
+                result = new StringBuilder(value.length()).append(value, 0, i);
+            }
+            if (result != null) {
+                result.appendCodePoint(normalized);
+            }
+            i += Character.charCount(codePoint);
+        }
+
+        return result == null ? value : result.toString();
+    }
+
+    /**
+     * Result of the lookup.
+     */
+    static final class Match {
+
+        private final Enum key;
+
+        private final int distance;
+
+        private final boolean ambiguous;
+
+        /**
+         * @param key
+         *         matched key or null
+         * @param distance
+         *         Levenshtein distance of the closest alias
+         * @param ambiguous
+         *         whether more keys have aliases with the same lowest distance
+         */
+        Match(final Enum key, final int distance, final boolean ambiguous) {
+            this.key = key;
+            this.distance = distance;
+            this.ambiguous = ambiguous;
+        }
+
+        /**
+         * @return matched key, null if the alias of the null key matched or if no alias is close enough
+         */
+        Enum getKey() {
+            return key;
+        }
+
+        /**
+         * @return Levenshtein distance of the closest alias
+         */
+        int getDistance() {
+            return distance;
+        }
+
+        /**
+         * @return whether more keys have aliases with the same lowest distance
+         */
+        boolean isAmbiguous() {
+            return ambiguous;
+        }
+    }
+
+    /**
+     * Node of the BK-tree. Children are indexed by their distance from the node.
+     */
+    private static final class Node {
+
+        private final String term;
+
+        private final List<Enum> keys = new ArrayList<>(1);
+
+        private Map<Integer, Node> children;
+
+        /**
+         * @param term
+         *         lower-cased alias
+         * @param key
+         *         key of the alias
+         */
+        Node(final String term, final Enum key) {
+            this.term = term;
+            this.keys.add(key);
+        }
+
+        /**
+         * Adds alias to the subtree.
+         *
+         * @param newTerm
+         *         lower-cased alias
+         * @param key
+         *         key of the alias
+         */
+        void add(final String newTerm, final Enum key) {
+            Node node = this;
+            while (true) {
+                final int distance = getLevenshteinDistance(newTerm, node.term);
+                if (distance == 0) {
+                    if (!node.keys.contains(key)) {
+                        node.keys.add(key);
+                    }
+                    return;
+                }
+
+                if (node.children == null) {
+                    node.children = new HashMap<>();
+                }
+
+                final Node child = node.children.get(distance);
+                if (child == null) {
+                    node.children.put(distance, new Node(newTerm, key));
+                    return;
+                }
+                node = child;
+            }
+        }
+    }
+
+    /**
+     * Weak reference to the mapping compared by identity.
+     */
+    private static final class MappingReference extends WeakReference<Object> {
+
+        private final int hash;
+
+        /**
+         * @param mapping
+         *         mapping
+         * @param queue
+         *         queue notified when the mapping is released or null
+         */
+        MappingReference(final Object mapping, final ReferenceQueue<Object> queue) {
+            super(mapping, queue);
+            this.hash = System.identityHashCode(mapping);
+        }
+
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+
+        @Override
+        public boolean equals(final Object obj) {
+            if (this == obj) {
+                return true;
+            }
+
+            if (!(obj instanceof MappingReference)) {
+                return false;
+            }
+
+            final Object mapping = get();
+            return mapping != null && mapping == ((MappingReference) obj).get();
+        }
+    }
+}
@@ -2,8 +2,6 @@ package eu.dl.worker.clean.utils;
 
 import java.util.ArrayList;
 import java.util.Collections;
-import static org.apache.commons.lang3.StringUtils.getLevenshteinDistance;
-
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -40,6 +38,8 @@ public final class CodeTableUtils {
      * and if there is one lowest distance found, the key is returned as a match.
      * If there are two keys with the same distance, the exception is thrown, as there
      * is no single candidate found.
+     * Aliases of the null key map the value to null.
+     * The mapping is compiled on its first use (see {@link CodeTableMatcher}) and must not be modified afterwards.
      *
      * @param input
      *         value to be mapped
@@ -63,85 +63,32 @@ public final class CodeTableUtils {
             return defaultEnumValue;
         }
         
-        String enumClass;
-        if (defaultEnumValue != null) {
-            enumClass = defaultEnumValue.getClass().getName();
-        } else {
-            enumClass = mapping.keySet().stream()
-                .filter(Objects::nonNull)
-                .map(n -> n.getClass().getName())
-                .findFirst()
-                .orElse(null);
-        }
+        final CodeTableMatcher matcher = CodeTableMatcher.of(mapping, LEVENSHTEIN_THRESHOLD);
+
         // try the simple match
-        for (Map.Entry<Enum, List<String>> entry : mapping.entrySet()) {
-            Enum key = entry.getKey();
-            for (String value : entry.getValue()) {
-                if (inputForCleaning.equalsIgnoreCase(value)) {
-                    logger.debug("Value '{}' found, returning mapping result '{}'", value, key);
-                    return key;
-                }
-            }
+        final CodeTableMatcher.Match exactMatch = matcher.getExactMatch(inputForCleaning);
+        if (exactMatch != null) {
+            logger.debug("Value '{}' found, returning mapping result '{}'", inputForCleaning, exactMatch.getKey());
+            return exactMatch.getKey();
         }
 
         // try to find the value
         if (tryFuzzyMatch) {
-            Enum bestKey = null;
-            Integer bestLDistance = LEVENSHTEIN_THRESHOLD;
-            Boolean isBestScoreKeySingleOne = true;
-            for (Map.Entry<Enum, List<String>> entry : mapping.entrySet()) {
-                Enum key = entry.getKey();
-                Integer bestKeyLDistance = LEVENSHTEIN_THRESHOLD;
-                for (String value : entry.getValue()) {
-                    // try the simple match(if there is equality)
-                    if (inputForCleaning.equalsIgnoreCase(value)) {
-                        logger.debug("Value '{}' found, returning mapping result '{}'", value, key);
-                        return key;
-                    } else {
-                        // get Levenshtein distance between strings
-                        Integer lDistance = getLevenshteinDistance(inputForCleaning.toLowerCase(), value.toLowerCase());
-                        if (lDistance < LEVENSHTEIN_THRESHOLD) {
-                            // great, the distance is lower then threshold
-
-                            // is it better than other ones for this key
-                            if (lDistance < bestKeyLDistance) {
-                                // great, its the local minimum so far
-                                bestKeyLDistance = lDistance;
-
-                                // check whether it equals to the global minimum
-                                if (lDistance == bestLDistance) {
-                                    // we have two keys with the same score,
-                                    // thats bad for cleaning as we are unable to
-                                    // choose the proper one
-                                    isBestScoreKeySingleOne = false;
-                                }
-
-                                // check whether its better than global minimum
-                                if (lDistance < bestLDistance) {
-                                    // we have the new minimum
-                                    bestKey = key;
-                                    bestLDistance = lDistance;
-                                    isBestScoreKeySingleOne = true;
-                                }
-                            }
-                        }
-                    }
-                }
-            }
-
-            if (!isBestScoreKeySingleOne) {
+            final CodeTableMatcher.Match match = matcher.getFuzzyMatch(inputForCleaning);
+            if (match.isAmbiguous()) {
                 // unfortunately the Levenshtein distance for more keys is the same
                 // there is no single candidate
                 logger.error("Cleaning failed for {} - found more than one candidates with levenshtein = {}, "
                         + "unable to pick single one.",
-                        enumClass, bestLDistance);
+                        getEnumClass(mapping, defaultEnumValue), match.getDistance());
                 return null;
             }
 
             // check the scores calculated by Levenshtein
-            if (bestLDistance < LEVENSHTEIN_THRESHOLD && bestKey != null) {
-                logger.debug("Key {} selected based on Levensthein distance of {}.", bestKey, bestLDistance);
-                return bestKey;
+            if (match.getKey() != null) {
+                logger.debug("Key {} selected based on Levensthein distance of {}.", match.getKey(),
+                    match.getDistance());
+                return match.getKey();
             }
         }
 
@@ -149,11 +96,30 @@ public final class CodeTableUtils {
             return defaultEnumValue;
         }
 
-        logger.error("Cleaning failed for {} - unique value not found for {}, throwing an exception", enumClass,
-            inputForCleaning);
+        logger.error("Cleaning failed for {} - unique value not found for {}, throwing an exception",
+            getEnumClass(mapping, null), inputForCleaning);
         return null;
     }
 
+    /**
+     * @param mapping
+     *         mapping
+     * @param defaultEnumValue
+     *         default enum value or null
+     * @return name of the mapped enum class or null
+     */
+    private static String getEnumClass(final Map<Enum, List<String>> mapping, final Enum defaultEnumValue) {
+        if (defaultEnumValue != null) {
+            return defaultEnumValue.getClass().getName();
+        }
+
+        return mapping.keySet().stream()
+            .filter(Objects::nonNull)
+            .map(n -> n.getClass().getName())
+            .findFirst()
+            .orElse(null);
+    }
+
     /**
      * Maps the string value to enum value (tries both - exact match and fuzzy match using levenshtein).
      *
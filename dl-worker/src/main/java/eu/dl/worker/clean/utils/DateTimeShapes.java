@@ -0,0 +1,172 @@
+package eu.dl.worker.clean.utils;
+
+import java.text.ParsePosition;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DecimalStyle;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.WeakHashMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Syntactic pre-check of date(time) strings against formatters. It tells whether the formatter is able to parse the
+ * whole string without resolving the parsed fields, so that the formatters which don't fit the string are skipped
+ * without construction of {@link java.time.format.DateTimeParseException}.
+ *
+ * Strings are classified by their shape - digits are replaced with 0 (zero) or 1 (non-zero), all other characters
+ * (separators, month names etc.) are kept. For formatters consisting only of numeric and text fields and literals,
+ * the result of the syntactic parsing depends only on the shape of the string, so it is cached per formatter and
+ * shape and the formatter is not run at all for the already known shapes.
+ */
+final class DateTimeShapes {
+
+    /**
+     * Maximal number of cached shapes per formatter.
+     */
+    private static final int MAX_CACHED_SHAPES = 1000;
+
+    /**
+     * Maximal length of digit run for which the parsing doesn't depend on the value (longer numbers are parsed as
+     * BigInteger and truncated according to their value).
+     */
+    private static final int MAX_DIGIT_RUN = 18;
+
+    private static final Pattern LITERAL = Pattern.compile("'(?:[^']|'')*'");
+
+    private static final Pattern FIELD = Pattern.compile("(?:Value|ReducedValue|Text|Fraction)\\((\\w+)[^)]*\\)");
+
+    private static final Pattern SETTING = Pattern.compile("ParseCaseSensitive\\((?:true|false)\\)"
+        + "|ParseStrict\\((?:true|false)\\)|[()\\[\\]]");
+
+    private static final Map<DateTimeFormatter, FormatterShapes> FORMATTERS =
+        Collections.synchronizedMap(new WeakHashMap<>());
+
+    /**
+     * Utility classes should not have default constructor.
+     */
+    private DateTimeShapes() {
+
+    }
+
+    /**
+     * Checks whether the formatter parses the whole string. The parsed fields aren't resolved, so the parsing with
+     * the formatter can still fail, eg. on invalid day of month.
+     *
+     * @param formatter
+     *         formatter
+     * @param text
+     *         date(time) string
+     * @return true if the string matches formatter
+     */
+    static boolean accepts(final DateTimeFormatter formatter, final String text) {
+        final FormatterShapes shapes = FORMATTERS.computeIfAbsent(formatter, FormatterShapes::new);
+        if (shapes.cache == null) {
+            return parse(formatter, text);
+        }
+
+        final String shape = getShape(text);
+        if (shape == null) {
+            return parse(formatter, text);
+        }
+
+        final Boolean cached = shapes.cache.get(shape);
+        if (cached != null) {
+            return cached;
+        }
+
+        final boolean accepted = parse(formatter, text);
+        if (shapes.cache.size() < MAX_CACHED_SHAPES) {
+            shapes.cache.put(shape, accepted);
+        }
+
+        return accepted;
+    }
+
+    /**
+     * @param formatter
+     *         formatter
+     * @param text
+     *         date(time) string
+     * @return true if the formatter parses the whole string
+     */
+    private static boolean parse(final DateTimeFormatter formatter, final String text) {
+        final ParsePosition position = new ParsePosition(0);
+        return formatter.parseUnresolved(text, position) != null && position.getErrorIndex() < 0
+            && position.getIndex() == text.length();
+    }
+
+    /**
+     * @param text
+     *         date(time) string
+     * @return shape of the string or null if the string contains too long number
+     */
+    static String getShape(final String text) {
+        final char[] shape = new char[text.length()];
+        int digitRun = 0;
+        for (int i = 0; i < shape.length; i++) {
+            final char c = text.charAt(i);
+            if (c >= '0' && c <= '9') {
+                if (++digitRun > MAX_DIGIT_RUN) {
+                    return null;
+                }
+                shape[i] = c == '0' ? '0' : '1';
+            } else {
+                digitRun = 0;
+                shape[i] = c;
+            }
+        }
+
+        return new String(shape);
+    }
+
+    /**
+     * Checks whether the result of the syntactic parsing with the formatter depends only on the shape of the string.
+     * That is true for formatters with standard decimal style, consisting of numeric and text fields, literals,
+     * optional sections and parse settings, where each field occurs at most once.
+     *
+     * @param formatter
+     *         formatter
+     * @return true if the parsing result can be cached per shape
+     */
+    static boolean isShapeDetermined(final DateTimeFormatter formatter) {
+        if (!DecimalStyle.STANDARD.equals(formatter.getDecimalStyle())) {
+            return false;
+        }
+
+        final String description = LITERAL.matcher(formatter.toString()).replaceAll("");
+
+        final Set<String> fields = new HashSet<>();
+        final Matcher field = FIELD.matcher(description);
+        while (field.find()) {
+            if (!fields.add(field.group(1))) {
+                return false;
+            }
+        }
+
+        return SETTING.matcher(field.replaceAll("")).replaceAll("").isEmpty();
+    }
+
+    /**
+     * Cached shapes of one formatter.
+     */
+    private static final class FormatterShapes {
+
+        /**
+         * Results of the syntactic parsing per shape or null if the formatter isn't shape determined.
+         */
+        private final ConcurrentMap<String, Boolean> cache;
+
+        /**
+         * @param formatter
+         *         formatter
+         */
+        FormatterShapes(final DateTimeFormatter formatter) {
+            this.cache = isShapeDetermined(formatter) ? new ConcurrentHashMap<>() : null;
+        }
+    }
+}
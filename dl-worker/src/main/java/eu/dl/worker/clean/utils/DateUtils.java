@@ -10,6 +10,7 @@ import java.time.format.DateTimeParseException;
 import java.util.Arrays;
 import java.util.List;
 import java.util.function.BiFunction;
+import java.util.regex.Pattern;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -26,6 +27,8 @@ public final class DateUtils {
     private static final LocalDate DATE_MIN = LocalDate.of(2000, Month.JANUARY, 1);
     private static final LocalDate DATE_MAX = LocalDate.of(2025, Month.JANUARY, 1);
 
+    private static final Pattern LEADING_LABEL = Pattern.compile("^\\D+:");
+
     /**
      * Utility classes should not have default constructor.
      */
@@ -49,7 +52,7 @@ public final class DateUtils {
         }
 
         // if there is text ending with colon in the beginning of the input string, remove it
-        String checkedInput = inputForCleaning.replaceAll("^\\D+:", "").trim();
+        String checkedInput = LEADING_LABEL.matcher(inputForCleaning).replaceAll("").trim();
 
         try {
             logger.debug("Cleaning date string \"{}\"", checkedInput);
@@ -112,7 +115,8 @@ public final class DateUtils {
 
     /**
      * Parses date(time) with help the given function {@code parsed}. This function accepts two parameters. The first
-     * is date(time) string and second is formatter.
+     * is date(time) string and second is formatter. The first formatter which parses the string wins, formatters which
+     * don't fit the string syntactically are skipped (see {@link DateTimeShapes}).
      *
      * @param <T>
      *         this instance should be LocalDate or LocalDateTime
@@ -136,6 +140,10 @@ public final class DateUtils {
 
         DateTimeParseException exception = null;
         for (DateTimeFormatter formatter : formatters) {
+            if (!DateTimeShapes.accepts(formatter, dateTime)) {
+                continue;
+            }
+
             try {
                 return RemoveNonsenseUtils.removeNonsensicalDateTime(parser.apply(dateTime, formatter), DATE_MIN,
                     DATE_MAX);
@@ -144,6 +152,10 @@ public final class DateUtils {
             }
         }
 
+        if (exception == null) {
+            exception = new DateTimeParseException("Text '" + dateTime + "' could not be parsed", dateTime, 0);
+        }
+
         throw exception;
     }
 }
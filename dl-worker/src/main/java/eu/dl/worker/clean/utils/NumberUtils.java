@@ -3,8 +3,10 @@ package eu.dl.worker.clean.utils;
 import java.math.BigDecimal;
 import java.text.NumberFormat;
 import java.text.ParseException;
+import java.text.ParsePosition;
 import java.util.Arrays;
 import java.util.List;
+import java.util.function.Function;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -18,35 +20,6 @@ public final class NumberUtils {
 
     private static final Logger logger = LoggerFactory.getLogger(NumberUtils.class.getName());
 
-    /**
-     * Functional interface defines function for number parsing that throws java.text.ParseException.
-     *
-     * @param <S>
-     *      number string
-     * @param <F>
-     *      NumberFormat
-     * @param <N>
-     *      Integer or BigDecimal number
-     */
-    @FunctionalInterface
-    private interface NumberParserFunction<S, F, N> {
-        /**
-         * Method attempts parse number from the given string {@code s} using number format {@code f} and its method
-         * parse.
-         *
-         * @see java.text.NumberFormat#parse(String)
-         *
-         * @param s
-         *      number string
-         * @param f
-         *      number format
-         * @return number
-         * @throws ParseException
-         *      in case that an error occurs during parsing
-         */
-        N apply(S s, F f) throws ParseException;
-    }
-
     /**
      * Utility classes should not have default constructor.
      */
@@ -66,7 +39,7 @@ public final class NumberUtils {
     public static Integer cleanInteger(final String input, final List<NumberFormat> format) {
         try {
             logger.debug("Cleaning integer string \"{}\"", input);
-            return parseNumber(input, format, (i, f) -> f.parse(i).intValue());
+            return parseNumber(input, format, Number::intValue);
         } catch (ParseException e) {
             logger.error("Cleaning failed - parsing string \"{}\" into integer failed because of {}", input, e);
             return null;
@@ -100,7 +73,7 @@ public final class NumberUtils {
     public static BigDecimal cleanBigDecimal(final String input, final List<NumberFormat> format) {
         try {
             logger.debug("Cleaning big decimal string \"{}\"", input);
-            return parseNumber(input, format, (i, f) -> new BigDecimal(f.parse(i).toString()));
+            return parseNumber(input, format, n -> new BigDecimal(n.toString()));
         } catch (ParseException e) {
             logger.error("Cleaning failed - parsing string \"{}\" into BigDecimal failed because of {}", input, e);
             return null;
@@ -122,8 +95,8 @@ public final class NumberUtils {
     }
 
     /**
-     * Parses number with help the given function {@code parsed}. This function accepts two parameters. The first
-     * is number string and second is number formats.
+     * Parses number with all the given formats and converts it with help the given function {@code converter}. Formats
+     * are used through {@link ParsePosition}, so that the failed attempts don't throw exceptions.
      *
      * @param <T>
      *         this instance should be Integer or BigDecimal
@@ -131,38 +104,46 @@ public final class NumberUtils {
      *         number string
      * @param formats
      *         list of used number formats.
-     * @param parser
-     *         function used for number parsing.
+     * @param converter
+     *         function used for conversion of the parsed number.
      * @return number
      * @throws ParseException
      *         in case that an error occurs during parsing
      */
     private static <T> T parseNumber(final String input, final List<NumberFormat> formats,
-        final NumberParserFunction<String, NumberFormat, T> parser) throws ParseException {
+        final Function<Number, T> converter) throws ParseException {
 
         final String inputForCleaning = removeNonDigitsBeginningAndEndLine(StringUtils.prepareStringForCleaning(input));
         if (inputForCleaning == null || inputForCleaning.isEmpty()) {
             return null;
         }
 
-        ParseException exception = null;
+        ParsePosition failure = null;
         T best = null;
         for (NumberFormat format : formats) {
-            try {
-                final T current = parser.apply(inputForCleaning, format);
-                /*
-                 * the longest string from parsed number means better result because contains more information.
-                 */
-                if (best == null || best.toString().length() < current.toString().length()) {
-                    best = current;
-                }
-            } catch (ParseException e) {
-                exception = e;
+            final ParsePosition position = new ParsePosition(0);
+            final Number parsed;
+            // number formats aren't thread-safe and the instances are shared by the workers
+            synchronized (format) {
+                parsed = format.parse(inputForCleaning, position);
+            }
+
+            if (position.getIndex() == 0) {
+                failure = position;
+                continue;
+            }
+
+            final T current = converter.apply(parsed);
+            /*
+             * the longest string from parsed number means better result because contains more information.
+             */
+            if (best == null || best.toString().length() < current.toString().length()) {
+                best = current;
             }
         }
 
-        if (best == null && exception != null) {
-            throw exception;
+        if (best == null && failure != null) {
+            throw new ParseException("Unparseable number: \"" + inputForCleaning + "\"", failure.getErrorIndex());
         }
 
         return best;
@@ -179,6 +160,25 @@ public final class NumberUtils {
             return null;
         }
 
-        return input.replaceAll("^\\D*", "").replaceAll("\\D*$", "");
+        int start = 0;
+        while (start < input.length() && !isDigit(input.charAt(start))) {
+            start++;
+        }
+
+        int end = input.length();
+        while (end > start && !isDigit(input.charAt(end - 1))) {
+            end--;
+        }
+
+        return input.substring(start, end);
+    }
+
+    /**
+     * @param c
+     *      character
+     * @return true if the character is matched by regular expression \\d
+     */
+    private static boolean isDigit(final char c) {
+        return c >= '0' && c <= '9';
     }
 }
@@ -53,19 +53,26 @@ public final class StringUtils {
 
         logger.debug("Cleaning short string \"{}\"", value);
 
+        // plain text without markup and entities, only whitespace has to be collapsed
+        if (!containsMarkup(valueForCleaning)) {
+            return collapseWhitespace(valueForCleaning);
+        }
+
         // remove html
         String cleaned = Jsoup.parse(valueForCleaning).text();
 
         // remove trailing whitespace
         cleaned = cleaned.trim();
 
-        // Remove html
-        cleaned = Jsoup.clean(cleaned, "", Whitelist.none(), new Document.OutputSettings().prettyPrint(false));
-        cleaned = StringEscapeUtils.unescapeHtml4(cleaned);
+        // Remove html decoded from entities, the second pass is an identity for text without markup
+        if (containsMarkup(cleaned)) {
+            cleaned = Jsoup.clean(cleaned, "", Whitelist.none(), new Document.OutputSettings().prettyPrint(false));
+            cleaned = StringEscapeUtils.unescapeHtml4(cleaned);
+        }
 
         // replace double whitespace in a row
         // and replace end lines. tabs etc. with space
-        cleaned = cleaned.replaceAll("\\s+", " ");
+        cleaned = collapseWhitespace(cleaned);
 
         if (cleaned.isEmpty()) {
             return null;
@@ -74,6 +81,68 @@ public final class StringUtils {
         }
     }
 
+    /**
+     * @param value
+     *      value to be checked
+     * @return true if the value contains a character which may start html tag or entity
+     */
+    private static boolean containsMarkup(final String value) {
+        return value.indexOf('<') != -1 || value.indexOf('&') != -1;
+    }
+
+    /**
+     * Replaces each sequence of whitespace characters ([ \\t\\n\\x0B\\f\\r]) with a single space, same as
+     * {@code value.replaceAll("\\s+", " ")}. The value itself is returned if there is nothing to replace.
+     *
+     * @param value
+     *      value to be collapsed
+     * @return collapsed value
+     */
+    private static String collapseWhitespace(final String value) {
+        int i = 0;
+        while (i < value.length()) {
+            final char c = value.charAt(i);
+            if (isWhitespace(c) && (c != ' ' || (i + 1 < value.length() && isWhitespace(value.charAt(i + 1))))) {
+                break;
+            }
+            i++;
+        }
+
+        if (i == value.length()) {
+            return value;
+        }
+
+        final StringBuilder result = new StringBuilder(value.length()).append(value, 0, i);
+        boolean whitespace = false;
+        for (; i < value.length(); i++) {
+            final char c = value.charAt(i);
+            if (isWhitespace(c)) {
+                whitespace = true;
+            } else {
+                if (whitespace) {
+                    result.append(' ');
+                    whitespace = false;
+                }
+                result.append(c);
+            }
+        }
+
+        if (whitespace) {
+            result.append(' ');
+        }
+
+        return result.toString();
+    }
+
+    /**
+     * @param c
+     *      character
+     * @return true if the character is matched by regular expression \\s
+     */
+    private static boolean isWhitespace(final char c) {
+        return c == ' ' || c == '\t' || c == '\n' || c == '\u000B' || c == '\f' || c == '\r';
+    }
+
     /**
      * Method to clean long texts such a descriptions. It does trim, beautify
      * whitespaces, removes html(but keeps end lines) etc.
@@ -368,6 +437,46 @@ public final class StringUtils {
             return null;
         }
 
+        // most of the values contain no special characters, skip the regular expressions for them
+        if (!containsSpecialCharacters(input)) {
+            return input.trim();
+        }
+
         return cleanUnicodeInvisibleCharacters(clearUnicodeSpaces(input)).trim();
     }
+
+    /**
+     * @param input
+     *      input string
+     * @return true if the input contains any character replaced by {@link #clearUnicodeSpaces(String)} or removed by
+     *      {@link #cleanUnicodeInvisibleCharacters(String)}
+     */
+    private static boolean containsSpecialCharacters(final String input) {
+        for (int i = 0; i < input.length(); i++) {
+            final char c = input.charAt(i);
+            // printable ASCII is the most common case
+            if (c >= ' ' && c < '\u007F') {
+                continue;
+            }
+
+            final int codePoint = input.codePointAt(i);
+            switch (Character.getType(codePoint)) {
+                case Character.CONTROL:
+                case Character.FORMAT:
+                case Character.PRIVATE_USE:
+                case Character.SURROGATE:
+                case Character.UNASSIGNED:
+                case Character.SPACE_SEPARATOR:
+                    return true;
+                default:
+                    break;
+            }
+
+            if (Character.isSupplementaryCodePoint(codePoint)) {
+                i++;
+            }
+        }
+
+        return false;
+    }
 }
@@ -0,0 +1,36 @@
+package eu.dl.worker.indicator.plugin;
+
+import eu.dl.dataaccess.dto.indicator.Indicator;
+
+/**
+ * Indicator plugin which reads the data it needs from the shared {@link IndicatorContext} instead of querying the
+ * DAOs for each evaluated item. The master first calls {@link #prefetch(Object, IndicatorContext)} on all the
+ * registered plugins, so that the context can fetch the required records in bulk, and then evaluates them.
+ *
+ * @param <T>
+ *            evaulated item
+ */
+public interface ContextAwareIndicatorPlugin<T> extends IndicatorPlugin<T> {
+
+    /**
+     * Registers ids of the records needed for evaluation of the item in the context.
+     *
+     * @param item
+     *            item to be evaluated
+     * @param context
+     *            evaluation context
+     */
+    void prefetch(T item, IndicatorContext context);
+
+    /**
+     * Evaluates the item with help of the prefetched data.
+     *
+     * @param item
+     *            item to be evaulated
+     * @param context
+     *            evaluation context, null means that the data are read directly from the DAOs
+     *
+     * @return calculated indicator or null if none
+     */
+    Indicator evaluate(T item, IndicatorContext context);
+}
@@ -0,0 +1,130 @@
+package eu.dl.worker.indicator.plugin;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * Data shared by the indicator plugins during evaluation of one master record. Matched items of the mastered group
+ * are loaded at most once and records required by the plugins are collected per namespace and fetched with one bulk
+ * query.
+ */
+public final class IndicatorContext {
+
+    private final String groupId;
+
+    private final Supplier<? extends List<?>> matchedItemsLoader;
+
+    private List<?> matchedItems;
+
+    private final Map<String, Function<List<String>, Map<String, ?>>> loaders = new LinkedHashMap<>();
+
+    private final Map<String, Set<String>> required = new HashMap<>();
+
+    private final Map<String, Map<String, Object>> fetched = new HashMap<>();
+
+    /**
+     * @param groupId
+     *            group id of the evaluated master record
+     * @param matchedItemsLoader
+     *            loader of the matched items of the group
+     */
+    public IndicatorContext(final String groupId, final Supplier<? extends List<?>> matchedItemsLoader) {
+        this.groupId = groupId;
+        this.matchedItemsLoader = matchedItemsLoader;
+    }
+
+    /**
+     * @return group id of the evaluated master record
+     */
+    public String getGroupId() {
+        return groupId;
+    }
+
+    /**
+     * Returns matched items of the given group. The items are loaded on the first call.
+     *
+     * @param <R>
+     *            matched item type
+     * @param group
+     *            group id
+     * @return matched items or null if the group isn't the evaluated one
+     */
+    @SuppressWarnings("unchecked")
+    public <R> List<R> getMatchedItems(final String group) {
+        if (group == null || !group.equals(groupId)) {
+            return null;
+        }
+
+        if (matchedItems == null) {
+            matchedItems = matchedItemsLoader.get();
+        }
+
+        return (List<R>) matchedItems;
+    }
+
+    /**
+     * Registers records which will be fetched by the loader of the namespace. In case that more plugins use the same
+     * namespace, the loader registered first is used.
+     *
+     * @param namespace
+     *            namespace of the records (eg. clean tenders)
+     * @param ids
+     *            ids of the required records
+     * @param loader
+     *            bulk loader, returns records by id
+     */
+    public void require(final String namespace, final Collection<String> ids,
+                        final Function<List<String>, Map<String, ?>> loader) {
+        loaders.putIfAbsent(namespace, loader);
+        Set<String> namespaceIds = required.computeIfAbsent(namespace, n -> new LinkedHashSet<>());
+        ids.stream().filter(Objects::nonNull).forEach(namespaceIds::add);
+    }
+
+    /**
+     * Fetches all the required records which haven't been fetched yet, one query per namespace.
+     */
+    public void fetch() {
+        loaders.forEach((namespace, loader) -> {
+            Map<String, Object> records = fetched.computeIfAbsent(namespace, n -> new HashMap<>());
+            List<String> ids = new ArrayList<>();
+            required.get(namespace).stream().filter(id -> !records.containsKey(id)).forEach(ids::add);
+
+            if (!ids.isEmpty()) {
+                Map<String, ?> loaded = loader.apply(ids);
+                // missing records are stored too, so that they aren't fetched again
+                ids.forEach(id -> records.put(id, loaded == null ? null : loaded.get(id)));
+            }
+        });
+    }
+
+    /**
+     * Returns the fetched record. Records required after the last {@link #fetch()} are fetched first.
+     *
+     * @param <R>
+     *            record type
+     * @param namespace
+     *            namespace of the record
+     * @param id
+     *            record id
+     * @return record or null if it doesn't exist
+     */
+    @SuppressWarnings("unchecked")
+    public <R> R get(final String namespace, final String id) {
+        Map<String, Object> records = fetched.get(namespace);
+        if (records == null || !records.containsKey(id)) {
+            fetch();
+            records = fetched.get(namespace);
+        }
+
+        return records == null ? null : (R) records.get(id);
+    }
+}
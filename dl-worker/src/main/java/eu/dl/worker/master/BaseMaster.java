@@ -1,6 +1,7 @@
 package eu.dl.worker.master;
 
 import eu.dl.core.UnrecoverableException;
+import eu.dl.core.metrics.Metrics;
 import eu.dl.dataaccess.dao.MasterDAO;
 import eu.dl.dataaccess.dao.MatchedDAO;
 import eu.dl.dataaccess.dto.indicator.Indicator;
@@ -9,17 +10,25 @@ import eu.dl.dataaccess.dto.matched.MasterablePart;
 import eu.dl.dataaccess.dto.matched.Matchable;
 import eu.dl.worker.BaseWorker;
 import eu.dl.worker.Message;
+import eu.dl.worker.indicator.plugin.ContextAwareIndicatorPlugin;
+import eu.dl.worker.indicator.plugin.IndicatorContext;
 import eu.dl.worker.indicator.plugin.IndicatorPlugin;
 import eu.dl.worker.master.plugin.MasterPlugin;
 import eu.dl.worker.utils.BasicPluginRegistry;
 import eu.dl.worker.utils.PluginRegistry;
 import org.apache.logging.log4j.ThreadContext;
 
+import java.time.LocalDateTime;
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Map.Entry;
+import java.util.TreeMap;
 import java.util.stream.Collectors;
 
+import static org.apache.commons.codec.digest.DigestUtils.sha256Hex;
+
 /**
  * Base class for all the masters.
  *
@@ -47,17 +56,42 @@ public abstract class BaseMaster<T extends Matchable & MasterablePart, V extends
      */
     private static final long WORKER_TIME_THRESHOLD = 1000;
 
+    /**
+     * Key of the master record metadata with the fingerprint of the mastering inputs.
+     */
+    public static final String INPUT_FINGERPRINT = "inputFingerprint";
+
+    /**
+     * Whether the master records are recomputed even if their inputs haven't changed. Can be set with a configuration
+     * property {@code <worker_class>.forceRecompute=1} or for one group with message field {@code force=true}.
+     */
+    private final boolean forceRecompute;
+
     /**
      * Initializes this class to be used. Registers plugins etc.
      */
     public BaseMaster() {
         super();
+        forceRecompute = "1".equals(config.getParam(getName() + ".forceRecompute"));
         registerCommonPlugins();
         registerProjectSpecificPlugins();
         registerSpecificPlugins();
         registerIndicatorPlugins();
     }
 
+    /**
+     * Messages of the same group are coalesced, because each mastering reads all the matched items of the group. So
+     * the group is mastered once for all the messages received within the coalescing window.
+     *
+     * @param message
+     *      incoming message
+     * @return group id
+     */
+    @Override
+    protected final String getCoalescingKey(final Message message) {
+        return message.getValue("groupId");
+    }
+
     @Override
     protected final void doWork(final Message message) {
         long startTime = System.currentTimeMillis();
@@ -66,6 +100,22 @@ public abstract class BaseMaster<T extends Matchable & MasterablePart, V extends
         final String groupId = message.getValue("groupId");
         ThreadContext.put("group_id", groupId);
 
+        // get already existing items(result of previous mastering)
+        List<V> existingItems = masterDAO.getByGroupId(groupId);
+
+        // skip the mastering in case that the inputs of the existing master record haven't changed
+        final boolean force = forceRecompute || Boolean.parseBoolean(message.getValue("force"));
+        if (!force && existingItems.size() == 1 && existingItems.get(0).getMetaData() != null) {
+            final Object previousFingerprint = existingItems.get(0).getMetaData().get(INPUT_FINGERPRINT);
+            if (previousFingerprint != null
+                && previousFingerprint.equals(getInputFingerprint(matchedDAO.getModifiedByGroupId(groupId)))) {
+                logger.info("Matched items of group id {} haven't changed, mastering skipped", groupId);
+                Metrics.counter("dl_master_skipped_total", "Number of groups whose mastering was skipped because "
+                    + "their inputs haven't changed", "worker", getName()).inc();
+                return;
+            }
+        }
+
         // get the matched items
         long selectStartTime = System.currentTimeMillis();
         List<T> matchedItems = matchedDAO.getByGroupId(groupId);
@@ -75,8 +125,8 @@ public abstract class BaseMaster<T extends Matchable & MasterablePart, V extends
         logger.info("Selection of matched objects for {} took {} ms.", this.getClass().getName(),
                     selectEndTime - selectStartTime);
 
-        // get already existing items(result of previous mastering)
-        List<V> existingItems = masterDAO.getByGroupId(groupId);
+        final Map<String, LocalDateTime> inputs = new HashMap<>();
+        rawMatchedItems.forEach(n -> inputs.put(n.getId(), n.getModified()));
 
         // check whether there is only one item and prepare this item to be updated
         V item = masterDAO.getEmptyInstance();
@@ -106,7 +156,9 @@ public abstract class BaseMaster<T extends Matchable & MasterablePart, V extends
         // iterate over all plugins and execute them in a proper order
         for (Entry<String, MasterPlugin> entry : pluginRegistry.getPlugins().entrySet()) {
             MasterPlugin<T, V, T> plugin = entry.getValue();
+            final long pluginStartTime = System.nanoTime();
             item = plugin.master(matchedItems, item, matchedItems);
+            recordPluginTime("master", entry.getKey(), pluginStartTime);
         }
 
         // save master record
@@ -117,11 +169,25 @@ public abstract class BaseMaster<T extends Matchable & MasterablePart, V extends
         item = sourceSpecificPostprocessData(item);
 
         List<Indicator> indicators = new ArrayList<>();
-        
+
+        // collect the records needed by the indicator plugins and fetch them in bulk
+        final IndicatorContext indicatorContext = new IndicatorContext(groupId, () -> matchedDAO.getByGroupId(groupId));
+        final long prefetchStartTime = System.nanoTime();
+        for (IndicatorPlugin<V> plugin : indicatorPluginRegistry.getPlugins().values()) {
+            if (plugin instanceof ContextAwareIndicatorPlugin) {
+                ((ContextAwareIndicatorPlugin<V>) plugin).prefetch(item, indicatorContext);
+            }
+        }
+        indicatorContext.fetch();
+        recordPluginTime("indicator", "prefetch", prefetchStartTime);
+
         // iterate over all indicator plugins and execute them in a proper order
         for (Entry<String, IndicatorPlugin<V>> entry : indicatorPluginRegistry.getPlugins().entrySet()) {
             IndicatorPlugin<V> plugin = entry.getValue();
-            Indicator indicator = plugin.evaluate(item);
+            final long pluginStartTime = System.nanoTime();
+            Indicator indicator = plugin instanceof ContextAwareIndicatorPlugin
+                ? ((ContextAwareIndicatorPlugin<V>) plugin).evaluate(item, indicatorContext) : plugin.evaluate(item);
+            recordPluginTime("indicator", entry.getKey(), pluginStartTime);
             if (indicator != null) {
             		indicators.add(indicator);
             }
@@ -129,6 +195,11 @@ public abstract class BaseMaster<T extends Matchable & MasterablePart, V extends
 
         item.setIndicators(indicators);
 
+        if (item.getMetaData() == null) {
+            item.setMetaData(new HashMap<>());
+        }
+        item.getMetaData().put(INPUT_FINGERPRINT, getInputFingerprint(inputs));
+
         String savedId = masterDAO.save(item);
 
         
@@ -141,6 +212,26 @@ public abstract class BaseMaster<T extends Matchable & MasterablePart, V extends
         }
     }
 
+    /**
+     * Calculates fingerprint of the mastering inputs. The fingerprint includes ids and modification timestamps of the
+     * matched items, version of the worker and the registered master and indicator plugins.
+     *
+     * @param inputs
+     *      modification timestamps of the matched items by their ids
+     * @return fingerprint
+     */
+    private String getInputFingerprint(final Map<String, LocalDateTime> inputs) {
+        final StringBuilder fingerprint = new StringBuilder(getName()).append('|').append(getVersion());
+        pluginRegistry.getPlugins().forEach((name, plugin) ->
+            fingerprint.append("|plugin:").append(name).append('=').append(plugin.getClass().getName()));
+        indicatorPluginRegistry.getPlugins().forEach((name, plugin) ->
+            fingerprint.append("|indicator:").append(name).append('=').append(plugin.getClass().getName()));
+        new TreeMap<>(inputs).forEach((id, modified) -> fingerprint.append("|item:").append(id).append('=')
+            .append(modified));
+
+        return sha256Hex(fingerprint.toString());
+    }
+
     /**
      * This method is used for master item postProcessing before its saved to persistent storage. 
      * There can be additional values calculated etc.
@@ -7,12 +7,12 @@ import eu.dl.dataaccess.dto.matched.MatchedBody;
 import eu.dl.dataaccess.dto.utils.InitUtils;
 import eu.dl.dataaccess.utils.BodyUtils;
 import eu.dl.worker.master.plugin.MasterPlugin;
+import eu.dl.worker.master.plugin.generic.FieldAccessor;
 import eu.dl.worker.master.plugin.generic.UnionPlugin;
 import eu.dl.worker.master.plugin.generic.converter.TenderConverter;
 import eu.dl.worker.utils.BasePlugin;
 import org.apache.commons.lang3.StringUtils;
 
-import java.lang.reflect.Method;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
@@ -76,13 +76,13 @@ public class BodiesPlugin<T extends MasterablePart, V, U> extends BasePlugin imp
         for (String fieldName : fieldNames) {
             try {
                 // getter method
-                Method getter = items.get(0).getClass().getMethod("get" + fieldName);
+                FieldAccessor getter = FieldAccessor.getter(items.get(0).getClass(), fieldName);
 
                 boolean unionMade = false;
 
                 // Go through arrays of bodies and find if some contains more than one, if yes create union
                 for (T item : items) {
-                    List<MatchedBody> bodies = (List<MatchedBody>) getter.invoke(item);
+                    List<MatchedBody> bodies = (List<MatchedBody>) getter.get(item);
 
                     // check whether there is at least one item with more then one body
                     if (bodies != null && bodies.size() > 1) {
@@ -101,8 +101,9 @@ public class BodiesPlugin<T extends MasterablePart, V, U> extends BasePlugin imp
 
                     // collect bodies from all items to one list
                     for (T item : items) {
-                        if ((List<MatchedBody>) getter.invoke(item) != null) {
-                            bodies.addAll((List<MatchedBody>) getter.invoke(item));
+                        List<MatchedBody> itemBodies = (List<MatchedBody>) getter.get(item);
+                        if (itemBodies != null) {
+                            bodies.addAll(itemBodies);
                         }
                     }
 
@@ -112,15 +113,10 @@ public class BodiesPlugin<T extends MasterablePart, V, U> extends BasePlugin imp
                         List<MasterBody> masterBodies = InitUtils
                                 .matchedToMasterBody(Arrays.asList(BodyUtils.getMostCompleteBody(bodies)));
 
-                        // search for proper setter method
-                        for (Method method : finalItem.getClass().getMethods()) {                        
-                            if (method.getName().equals("set" + fieldName)) {
-                                // store the result
-                                method.invoke(finalItem, masterBodies);
-    
-                                // skip the loop, the value is already set
-                                break;
-                            }
+                        // store the result with proper setter
+                        FieldAccessor setter = FieldAccessor.setter(finalItem.getClass(), fieldName);
+                        if (setter != null) {
+                            setter.set(finalItem, masterBodies);
                         }
                     }
                 }
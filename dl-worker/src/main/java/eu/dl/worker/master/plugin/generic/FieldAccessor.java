@@ -0,0 +1,154 @@
+package eu.dl.worker.master.plugin.generic;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Method;
+import java.lang.reflect.UndeclaredThrowableException;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Getter or setter of an item field compiled to a method handle. Accessors are looked up once per class and field and
+ * cached, so that the generic plugins and comparators don't search the methods via reflection for every item.
+ */
+public final class FieldAccessor {
+
+    private static final MethodType GETTER_TYPE = MethodType.methodType(Object.class, Object.class);
+
+    private static final MethodType SETTER_TYPE = MethodType.methodType(void.class, Object.class, Object.class);
+
+    private static final ClassValue<ConcurrentMap<String, Optional<FieldAccessor>>> GETTERS = new AccessorCache();
+
+    private static final ClassValue<ConcurrentMap<String, Optional<FieldAccessor>>> SETTERS = new AccessorCache();
+
+    private final MethodHandle handle;
+
+    private final Class<?> type;
+
+    /**
+     * @param handle
+     *      method handle of type (Object)Object for getters or (Object,Object)void for setters
+     * @param type
+     *      field type
+     */
+    private FieldAccessor(final MethodHandle handle, final Class<?> type) {
+        this.handle = handle;
+        this.type = type;
+    }
+
+    /**
+     * Returns getter of the field ({@code get<FieldName>()}).
+     *
+     * @param itemClass
+     *      item class
+     * @param fieldName
+     *      capitalized field name
+     * @return getter
+     * @throws NoSuchMethodException
+     *      in case that the class has no such getter
+     */
+    public static FieldAccessor getter(final Class<?> itemClass, final String fieldName)
+        throws NoSuchMethodException {
+        final Optional<FieldAccessor> getter = GETTERS.get(itemClass).computeIfAbsent(fieldName, f -> {
+            try {
+                final Method method = itemClass.getMethod("get" + f);
+                return Optional.of(new FieldAccessor(unreflect(method).asType(GETTER_TYPE), method.getReturnType()));
+            } catch (NoSuchMethodException e) {
+                return Optional.empty();
+            }
+        });
+
+        return getter.orElseThrow(() -> new NoSuchMethodException(itemClass.getName() + ".get" + fieldName + "()"));
+    }
+
+    /**
+     * Returns setter of the field, the first public one-argument method {@code set<FieldName>}.
+     *
+     * @param itemClass
+     *      item class
+     * @param fieldName
+     *      capitalized field name
+     * @return setter or null if the class has no such setter
+     */
+    public static FieldAccessor setter(final Class<?> itemClass, final String fieldName) {
+        return SETTERS.get(itemClass).computeIfAbsent(fieldName, f -> {
+            for (Method method : itemClass.getMethods()) {
+                if (method.getName().equals("set" + f) && method.getParameterCount() == 1) {
+                    return Optional.of(new FieldAccessor(unreflect(method).asType(SETTER_TYPE),
+                        method.getParameterTypes()[0]));
+                }
+            }
+
+            return Optional.empty();
+        }).orElse(null);
+    }
+
+    /**
+     * @param item
+     *      item
+     * @return field value
+     */
+    public Object get(final Object item) {
+        try {
+            return (Object) handle.invokeExact(item);
+        } catch (RuntimeException | Error e) {
+            throw e;
+        } catch (Throwable e) {
+            throw new UndeclaredThrowableException(e);
+        }
+    }
+
+    /**
+     * @param item
+     *      item
+     * @param value
+     *      field value to be set
+     */
+    public void set(final Object item, final Object value) {
+        try {
+            handle.invokeExact(item, value);
+        } catch (RuntimeException | Error e) {
+            throw e;
+        } catch (Throwable e) {
+            throw new UndeclaredThrowableException(e);
+        }
+    }
+
+    /**
+     * @return return type of the getter or parameter type of the setter
+     */
+    public Class<?> getType() {
+        return type;
+    }
+
+    /**
+     * @param method
+     *      public method
+     * @return method handle
+     */
+    private static MethodHandle unreflect(final Method method) {
+        try {
+            return MethodHandles.publicLookup().unreflect(method);
+        } catch (IllegalAccessException e) {
+            // public method declared in a non-public class
+            try {
+                method.setAccessible(true);
+                return MethodHandles.lookup().unreflect(method);
+            } catch (IllegalAccessException | RuntimeException ex) {
+                throw new IllegalStateException("Unable to access method " + method, ex);
+            }
+        }
+    }
+
+    /**
+     * Cache of accessors of one class by field name.
+     */
+    private static final class AccessorCache extends ClassValue<ConcurrentMap<String, Optional<FieldAccessor>>> {
+        @Override
+        protected ConcurrentMap<String, Optional<FieldAccessor>> computeValue(final Class<?> type) {
+            return new ConcurrentHashMap<>();
+        }
+    }
+}
@@ -3,7 +3,13 @@ package eu.dl.worker.master.plugin.generic;
 import eu.dl.worker.utils.BasePlugin;
 import org.apache.commons.lang3.StringUtils;
 
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.time.temporal.Temporal;
+import java.util.Arrays;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Set;
 import java.util.stream.Collectors;
 
 /**
@@ -12,6 +18,27 @@ import java.util.stream.Collectors;
 public abstract class GenericMasterPlugin extends BasePlugin {
     protected List<String> fieldNames;
 
+    /**
+     * Class declaring the toString method used by the instances of the class.
+     */
+    private static final ClassValue<Class<?>> TO_STRING_OWNER = new ClassValue<Class<?>>() {
+        @Override
+        protected Class<?> computeValue(final Class<?> type) {
+            try {
+                return type.getMethod("toString").getDeclaringClass();
+            } catch (NoSuchMethodException e) {
+                return Object.class;
+            }
+        }
+    };
+
+    /**
+     * Value classes whose equals method gives the same result as comparison of their string representations.
+     */
+    private static final Set<Class<?>> VALUE_CLASSES = new HashSet<>(Arrays.asList(String.class, Boolean.class,
+        Character.class, Byte.class, Short.class, Integer.class, Long.class, Float.class, Double.class,
+        BigInteger.class, BigDecimal.class));
+
     /**
      * Initializes field names for usage.
      *
@@ -22,4 +49,55 @@ public abstract class GenericMasterPlugin extends BasePlugin {
         super();
         this.fieldNames = fieldNames.stream().map(StringUtils::capitalize).collect(Collectors.toList());
     }
+
+    /**
+     * Returns key identifying equal values. Values are historically compared by their string representation, the
+     * key is the value itself wherever its equals method gives the same result (strings, numbers, dates, enums
+     * and objects without own string representation), so the string doesn't need to be created.
+     *
+     * @param value
+     *      value
+     * @return key of the value or null
+     */
+    protected static Object getValueKey(final Object value) {
+        if (value == null) {
+            return null;
+        }
+
+        final Class<?> toStringOwner = TO_STRING_OWNER.get(value.getClass());
+        if (toStringOwner == Object.class) {
+            // default string representation identifies the instance
+            return new IdentityKey(value);
+        } else if (toStringOwner == Enum.class || VALUE_CLASSES.contains(value.getClass())
+            || value instanceof Temporal && value.getClass().getName().startsWith("java.time.")) {
+            return value;
+        }
+
+        return value.toString();
+    }
+
+    /**
+     * Key comparing the instances by identity.
+     */
+    private static final class IdentityKey {
+        private final Object value;
+
+        /**
+         * @param value
+         *      value
+         */
+        IdentityKey(final Object value) {
+            this.value = value;
+        }
+
+        @Override
+        public boolean equals(final Object o) {
+            return o instanceof IdentityKey && ((IdentityKey) o).value == value;
+        }
+
+        @Override
+        public int hashCode() {
+            return System.identityHashCode(value);
+        }
+    }
 }
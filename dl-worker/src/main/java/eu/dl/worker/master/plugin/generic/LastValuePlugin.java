@@ -6,7 +6,6 @@ import eu.dl.dataaccess.dto.utils.DTOUtils;
 import eu.dl.worker.master.plugin.MasterPlugin;
 import eu.dl.worker.master.plugin.generic.converter.Converter;
 
-import java.lang.reflect.Method;
 import java.util.Arrays;
 import java.util.Comparator;
 import java.util.List;
@@ -69,30 +68,24 @@ public class LastValuePlugin<T extends MasterablePart, V, U>
     public final V master(final List<T> items, final V finalItem, final List<U> context) {
         for (String fieldName : fieldNames) {
             // getter and setter methods
-            Method getter;
+            FieldAccessor getter;
             try {
                 // getter method
-                getter = items.get(0).getClass().getMethod("get" + fieldName);
+                getter = FieldAccessor.getter(items.get(0).getClass(), fieldName);
 
                 Object result;
 
                 // pick the setter
-                Method setter = null;
-                for (Method methodFound : finalItem.getClass().getMethods()) {
-                    if (methodFound.getName().equals("set" + fieldName)) {
-                        setter = methodFound;
-                        break;
-                    }
-                }
+                FieldAccessor setter = FieldAccessor.setter(finalItem.getClass(), fieldName);
                 
                 // iterate over result set and "pick" the last nonempty value
                 for (T item : items.stream().sorted(comparator.reversed()).collect(Collectors.toList())) {
-                    result = getter.invoke(item);
+                    result = getter.get(item);
 
                     // setter method
                     if (!DTOUtils.isEmpty(result)) {
                         // save tbe value, call the setter
-                        setter.invoke(finalItem, converter.convert(result));
+                        setter.set(finalItem, converter.convert(result));
                         
                         // sorted in reversed order, we dont need to pick last value but first non null instead
                         break;
@@ -4,7 +4,6 @@ import eu.dl.core.UnrecoverableException;
 import eu.dl.dataaccess.dto.matched.MasterablePart;
 import eu.dl.worker.master.plugin.MasterPlugin;
 
-import java.lang.reflect.Method;
 import java.math.BigDecimal;
 import java.util.ArrayList;
 import java.util.Arrays;
@@ -51,12 +50,12 @@ public class MedianPlugin<T extends MasterablePart, V, U> extends GenericMasterP
             // getter and setter methods
             try {
                 // getter method
-                Method getter = items.get(0).getClass().getMethod("get" + fieldName);
+                FieldAccessor getter = FieldAccessor.getter(items.get(0).getClass(), fieldName);
 
                 // get array of all numbers we want to get median from into one list
                 List<BigDecimal> list = new ArrayList<>();
                 for (T item : items) {
-                    final Object numberObject = getter.invoke(item);
+                    final Object numberObject = getter.get(item);
                     if (numberObject != null) {
                         final BigDecimal number = numberObject instanceof BigDecimal ? (BigDecimal) numberObject
                                 : BigDecimal.valueOf((Integer) numberObject);
@@ -78,19 +77,13 @@ public class MedianPlugin<T extends MasterablePart, V, U> extends GenericMasterP
                 Collections.sort(list);
                 BigDecimal result = list.get(medianIndex);
 
-                if (null != result) {
-                    for (Method method : finalItem.getClass().getMethods()) {
-                        if (method.getName().equals("set" + fieldName)) {
-
-                            // check if we must convert matched to master
-                            if (getter.getReturnType().equals(Integer.class)) {
-                                method.invoke(finalItem, result.intValue());
-                            } else {
-                                method.invoke(finalItem, result);
-                            }
-
-                            break;
-                        }
+                FieldAccessor setter = FieldAccessor.setter(finalItem.getClass(), fieldName);
+                if (null != result && setter != null) {
+                    // check if we must convert matched to master
+                    if (getter.getType().equals(Integer.class)) {
+                        setter.set(finalItem, result.intValue());
+                    } else {
+                        setter.set(finalItem, result);
                     }
                 }
             } catch (Exception e) {
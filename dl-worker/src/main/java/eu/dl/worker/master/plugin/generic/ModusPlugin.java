@@ -7,8 +7,8 @@ import eu.dl.dataaccess.dto.utils.DTOUtils;
 import eu.dl.worker.master.plugin.MasterPlugin;
 import eu.dl.worker.master.plugin.generic.converter.Converter;
 
-import java.lang.reflect.Method;
 import java.time.LocalDate;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.HashMap;
 import java.util.List;
@@ -64,15 +64,23 @@ public class ModusPlugin<T extends MasterablePart, V, U> extends GenericMasterPl
             // getter and setter methods
             try {
                 // getter method
-                Method getter = items.get(0).getClass().getMethod("get" + fieldName);
+                FieldAccessor getter = FieldAccessor.getter(items.get(0).getClass(), fieldName);
 
-                // iterate over all items and store the values into storages
+                // iterate over all items and store the values into storages, values and their hashes are evaluated
+                // only once for each item
                 HashMap<String, Integer> occurrencesCountStorage = new HashMap<>();
                 HashMap<String, LocalDate> lastPublicationDateStorage = new HashMap<>();
+                List<Object> values = new ArrayList<>(items.size());
+                List<String> hashes = new ArrayList<>(items.size());
                 
                 for (T item : items) {
-                    putToOccurrencesCountStorage(getter.invoke(item), occurrencesCountStorage);
-                    putToLastPublicationDateStorage(item, getHash(getter.invoke(item)), lastPublicationDateStorage);
+                    Object value = getter.get(item);
+                    String hash = getHash(value);
+                    values.add(value);
+                    hashes.add(hash);
+
+                    putToOccurrencesCountStorage(value, hash, occurrencesCountStorage);
+                    putToLastPublicationDateStorage(item, hash, lastPublicationDateStorage);
                 }
                 
                 if (!occurrencesCountStorage.isEmpty()){
@@ -112,22 +120,16 @@ public class ModusPlugin<T extends MasterablePart, V, U> extends GenericMasterPl
                     
                     
                     // get the setter used to store value in master item
-                    Method setter = null;
-                    for (Method methodFound : finalItem.getClass().getMethods()) {
-                        if (methodFound.getName().equals("set" + fieldName)) {
-                            setter = methodFound;
-                            break;
-                        }
-                    }
+                    FieldAccessor setter = FieldAccessor.setter(finalItem.getClass(), fieldName);
                         
                     // iterate over result set and "pick" the first nonempty value
-                    for (T item : items) {
-                        Object result = getter.invoke(item);
+                    for (int i = 0; i < values.size(); i++) {
+                        Object result = values.get(i);
 
                         // setter method
-                        if (!DTOUtils.isEmpty(result) && getHash(result).equals(winningHash)) {
+                        if (!DTOUtils.isEmpty(result) && hashes.get(i).equals(winningHash)) {
                             // check if we must convert matched to master
-                            setter.invoke(finalItem, converter.convert(result));
+                            setter.set(finalItem, converter.convert(result));
 
                             break;
                         }
@@ -146,18 +148,16 @@ public class ModusPlugin<T extends MasterablePart, V, U> extends GenericMasterPl
      * Put object to occurrences count storage(hash map) if not there, otherwise increase its counter.
      *
      * @param object object
+     * @param objectHash unique hash representing the object
      * @param occurrencesCountStorage hash
      *
      */
-    private void putToOccurrencesCountStorage(
-            final Object object, final HashMap<String, Integer> occurrencesCountStorage) {
+    private void putToOccurrencesCountStorage(final Object object, final String objectHash,
+            final HashMap<String, Integer> occurrencesCountStorage) {
         if (object == null) {
             return;
         }
 
-        // get unique hash representing the object
-        final String objectHash = getHash(object);
-
         if (!occurrencesCountStorage.containsKey(objectHash)) {
             // first occurrence
             occurrencesCountStorage.put(objectHash, 1);
@@ -203,7 +203,8 @@ public class ModusPlugin<T extends MasterablePart, V, U> extends GenericMasterPl
     }
     
     /**
-     * Returns hash used to uniquely identify this value.
+     * Returns hash used to uniquely identify this value. The hash is a string on purpose, order of the hashes in
+     * the storages decides ties of equally frequent values published at the same date.
      * 
      * @param object key is used for this
      * @return hash
@@ -13,7 +13,6 @@ import eu.dl.worker.master.plugin.MasterPlugin;
 import eu.dl.worker.master.plugin.generic.converter.Converter;
 import eu.dl.worker.utils.ArrayUtils;
 
-import java.lang.reflect.Method;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
@@ -70,12 +69,12 @@ public final class UnionPlugin<T extends MasterablePart, V, U>
         for (String fieldName : fieldNames) {
             try {
                 // getter method
-                Method getter = items.get(0).getClass().getMethod("get" + fieldName);
+                FieldAccessor getter = FieldAccessor.getter(items.get(0).getClass(), fieldName);
 
                 // Get content of all lists
                 List<Object> listOfAll = new ArrayList<>();
                 for (Object item : items) {
-                    final Object temp = getter.invoke(item);
+                    final Object temp = getter.get(item);
 
                     if (temp != null) {
                         listOfAll.addAll((List<Object>) temp);
@@ -130,18 +129,15 @@ public final class UnionPlugin<T extends MasterablePart, V, U>
                         .filter(ArrayUtils.distinct(t -> t.getDescription() + t.getUnitNumber()))
                         .collect(Collectors.toList());
                 } else {
-                    result = listOfAll.stream().filter(ArrayUtils.distinct())
+                    // null values are considered equal, like their string representations
+                    result = listOfAll.stream().filter(ArrayUtils.distinct(t -> t == null ? "null" : getValueKey(t)))
                         .collect(Collectors.toList());
                 }
 
                 // Save the result
-                if (!DTOUtils.isEmpty(result)) {
-                    for (Method method : finalItem.getClass().getMethods()) {
-                        if (method.getName().equals("set" + fieldName)) {
-                            method.invoke(finalItem, converter.convert(result));
-                            break;
-                        }
-                    }
+                FieldAccessor setter = FieldAccessor.setter(finalItem.getClass(), fieldName);
+                if (!DTOUtils.isEmpty(result) && setter != null) {
+                    setter.set(finalItem, converter.convert(result));
                 }
             } catch (Exception e) {
                 // unable to pick the last value
@@ -1,10 +1,10 @@
 package eu.dl.worker.master.plugin.generic.comparators;
 
 import eu.dl.core.UnrecoverableException;
+import eu.dl.worker.master.plugin.generic.FieldAccessor;
 import org.apache.commons.lang3.StringUtils;
 import org.slf4j.LoggerFactory;
 
-import java.lang.reflect.Method;
 import java.time.LocalDateTime;
 import java.util.Comparator;
 
@@ -31,9 +31,9 @@ public class DateTimeComparator<T> implements Comparator<T> {
     @Override
     public final int compare(final T o1, final T o2) {
         try {
-            final Method getter = o1.getClass().getMethod("get" + fieldName);
-            final LocalDateTime value1 = (LocalDateTime) getter.invoke(o1);
-            final LocalDateTime value2 = (LocalDateTime) getter.invoke(o2);
+            final FieldAccessor getter = FieldAccessor.getter(o1.getClass(), fieldName);
+            final LocalDateTime value1 = (LocalDateTime) getter.get(o1);
+            final LocalDateTime value2 = (LocalDateTime) getter.get(o2);
 
             if (value1 == null && value2 == null) {
                 return 0;
@@ -1,10 +1,10 @@
 package eu.dl.worker.master.plugin.generic.comparators;
 
 import eu.dl.core.UnrecoverableException;
+import eu.dl.worker.master.plugin.generic.FieldAccessor;
 import org.apache.commons.lang3.StringUtils;
 import org.slf4j.LoggerFactory;
 
-import java.lang.reflect.Method;
 import java.math.BigDecimal;
 import java.util.Comparator;
 
@@ -31,9 +31,9 @@ public class NumberComparator<T> implements Comparator<T> {
     @Override
     public final int compare(final T o1, final T o2) {
         try {
-            final Method getter = o1.getClass().getMethod("get" + fieldName);
-            final Object object1 = getter.invoke(o1);
-            final Object object2 = getter.invoke(o2);
+            final FieldAccessor getter = FieldAccessor.getter(o1.getClass(), fieldName);
+            final Object object1 = getter.get(o1);
+            final Object object2 = getter.get(o2);
 
             final BigDecimal value1;
             final BigDecimal value2;
@@ -1,8 +1,8 @@
 package eu.dl.worker.master.plugin.generic.comparators;
 
+import eu.dl.worker.master.plugin.generic.FieldAccessor;
 import org.apache.commons.lang3.StringUtils;
 
-import java.lang.reflect.Method;
 import java.util.Comparator;
 
 /**
@@ -28,10 +28,10 @@ public class StringComparator<T> implements Comparator<T> {
     @Override
     public final int compare(final T o1, final T o2) {
         try {
-            final Method getter = o1.getClass().getMethod("get" + fieldName);
+            final FieldAccessor getter = FieldAccessor.getter(o1.getClass(), fieldName);
 
-            final String value1 = (String) getter.invoke(o1);
-            final String value2 = (String) getter.invoke(o2);
+            final String value1 = (String) getter.get(o1);
+            final String value2 = (String) getter.get(o2);
 
             if (value1 == null && value2 == null) {
                 return 0;
@@ -3,18 +3,23 @@ package eu.dl.worker.matched.plugin;
 import eu.dl.dataaccess.dao.MatchedBodyDAO;
 import eu.dl.dataaccess.dao.ApproximateMatchBodyDAO;
 import eu.dl.dataaccess.dto.matched.MatchedBody;
+import eu.dl.worker.utils.matched.BodyCandidateIndex;
 import java.util.List;
 
 /**
- * This plugin attempts to find approximate match with already matched bodies.
+ * This plugin attempts to find approximate match with already matched bodies. In case that the resident candidate
+ * index is provided, the pool of bodies is taken from the index instead of the database.
  * 
  * @see BaseApproximateMatchingPlugin
+ * @see BodyCandidateIndex
  * 
  * @param <T>
  *      class of the matched body
  */
 public class ApproximateMatchingPlugin<T extends MatchedBody> extends BaseApproximateMatchingPlugin<T, T> {
     private final MatchedBodyDAO matchedDAO;
+
+    private final BodyCandidateIndex<T> candidateIndex;
     
     private static final String MATCHED_BY = "approximate";
 
@@ -25,8 +30,21 @@ public class ApproximateMatchingPlugin<T extends MatchedBody> extends BaseApprox
      *      matched body DAO
      */
     public ApproximateMatchingPlugin(final MatchedBodyDAO matchedBodyDAO) {
+        this(matchedBodyDAO, null);
+    }
+
+    /**
+     * Approximate matching plugin with matched body DAO and candidate index initialization.
+     *
+     * @param matchedBodyDAO
+     *      matched body DAO
+     * @param candidateIndex
+     *      resident index of the matched bodies, if null the pool is loaded from the database
+     */
+    public ApproximateMatchingPlugin(final MatchedBodyDAO matchedBodyDAO, final BodyCandidateIndex<T> candidateIndex) {
         super(matchedBodyDAO);
         this.matchedDAO = matchedBodyDAO;
+        this.candidateIndex = candidateIndex;
     }
 
     @Override
@@ -36,6 +54,10 @@ public class ApproximateMatchingPlugin<T extends MatchedBody> extends BaseApprox
     
     @Override
     protected final List<T> getBodiesPool(final T item) {
+        if (candidateIndex != null) {
+            return candidateIndex.getCandidates(item);
+        }
+
         return ((ApproximateMatchBodyDAO) poolDAO).getApproximateMatchBodiesPool(item.getStandardizedName(),
             item.getStandardizedAddress(), item.getBodyIds(), item.getDigest());
     }
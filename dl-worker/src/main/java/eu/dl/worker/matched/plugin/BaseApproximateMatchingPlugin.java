@@ -1,8 +1,6 @@
 package eu.dl.worker.matched.plugin;
 
 import eu.dl.dataaccess.dao.ApproximateMatchBodyDAO;
-import java.util.ArrayList;
-import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -13,6 +11,7 @@ import eu.dl.dataaccess.dto.matched.ApproximatellyMatchable;
 import eu.dl.dataaccess.dto.matched.EtalonBody;
 import eu.dl.dataaccess.dto.matched.MatchedBody;
 import eu.dl.worker.utils.matched.MatchedUtils;
+import eu.dl.worker.utils.matched.TrigramProfile;
 
 /**
  * This plugin attempts to find approximate match with pool of bodies. 
@@ -52,6 +51,11 @@ public abstract class BaseApproximateMatchingPlugin<T extends MatchedBody, U ext
         
     private static final float MATCH_LOWER_THRESHOLD = 0.75f;
 
+    /**
+     * Tolerance of the float rounding used when the upper bound of the similarity is compared with the threshold.
+     */
+    private static final float UPPER_BOUND_TOLERANCE = 0.0001f;
+
     /**
      * Constructor with body pool DAO initialization.
      *
@@ -66,18 +70,47 @@ public abstract class BaseApproximateMatchingPlugin<T extends MatchedBody, U ext
     protected final Map<U, Float> getSimiliraties(final T item, final List<U> pool) {
         final Map<U, Float> bodySimilarities = new HashMap<>();
 
-        pool.forEach((body) -> {
-            float nameSim =
-                MatchedUtils.trigramSimilarity(item.getStandardizedName(), body.getStandardizedName());
+        // trigram profiles of the item are prepared once for the whole pool
+        final TrigramProfile nameProfile = new TrigramProfile(item.getStandardizedName());
+        final TrigramProfile addressProfile = new TrigramProfile(item.getStandardizedAddress());
+
+        // the lowest sum of name and address similarities which can reach the threshold with the best possible
+        // similarities of ids, postcode and nuts
+        final float minTrigramSum = MATCH_LOWER_THRESHOLD * (1 + 1 + 1 + 0.2f + 0.2f) - (1 + 0.2f + 0.2f)
+            - UPPER_BOUND_TOLERANCE;
 
-            float addrSim =
-                MatchedUtils.trigramSimilarity(item.getStandardizedAddress(), body.getStandardizedAddress());
+        for (U body : pool) {
+            // skip bodies which can't reach the threshold even with the best possible similarities of ids, postcode
+            // and nuts, trigram similarities are estimated by the lengths of the compared strings
+            final float nameUpperBound =
+                MatchedUtils.trigramSimilarityUpperBound(item.getStandardizedName(), body.getStandardizedName());
+            final float addrUpperBound =
+                MatchedUtils.trigramSimilarityUpperBound(item.getStandardizedAddress(), body.getStandardizedAddress());
 
-            final Float bodyIdSim = getBestBodyIdSimilarity(item.getBodyIds(), body.getBodyIds());
+            float upperBound = (nameUpperBound + addrUpperBound + 1 + 0.2f + 0.2f) / (1 + 1 + 1 + 0.2f + 0.2f);
+
+            if (upperBound < MATCH_LOWER_THRESHOLD - UPPER_BOUND_TOLERANCE) {
+                continue;
+            }
+
+            // trigram matching stops as soon as the body can't reach the threshold
+            final float minNameSim = minTrigramSum - addrUpperBound;
+            float nameSim = nameProfile.similarity(body.getStandardizedName(), minNameSim);
+            if (nameSim < minNameSim) {
+                continue;
+            }
+
+            final float minAddrSim = minTrigramSum - nameSim;
+            float addrSim = addressProfile.similarity(body.getStandardizedAddress(), minAddrSim);
+            if (addrSim < minAddrSim) {
+                continue;
+            }
+
+            final float bodyIdSim = getBestBodyIdSimilarity(item.getBodyIds(), body.getBodyIds());
 
             float postcodeSim = getPostcodeSimilarity(item.getPostcode(), body.getPostcode());
 
-            final Float nutsSim =
+            final float nutsSim =
                 getBestNutsSimilarity(item.getNuts(), body.getNuts(), (body instanceof EtalonBody ? 5 : 0));
 
             float weightenedAverage = (
@@ -91,7 +124,7 @@ public abstract class BaseApproximateMatchingPlugin<T extends MatchedBody, U ext
             if (weightenedAverage >= MATCH_LOWER_THRESHOLD) {
                 bodySimilarities.put(body, weightenedAverage);
             }
-        });
+        }
 
         return bodySimilarities;
     }
@@ -122,7 +155,7 @@ public abstract class BaseApproximateMatchingPlugin<T extends MatchedBody, U ext
      *      list of bodies identifiers that is compared with {@code source}
      * @return best match or null
      */
-    private Float getBestBodyIdSimilarity(final List<BodyIdentifier> source, final List<BodyIdentifier> target) {
+    private float getBestBodyIdSimilarity(final List<BodyIdentifier> source, final List<BodyIdentifier> target) {
         if (source == null || target == null || source.isEmpty() || target.isEmpty()) {
             return 0.5f;
         }
@@ -132,12 +165,21 @@ public abstract class BaseApproximateMatchingPlugin<T extends MatchedBody, U ext
             return 0.5f;
         }
 
-        final List<Float> similarities = new ArrayList<>();        
-        source.forEach((bodyId) -> {
-            similarities.addAll(MatchedUtils.bodyIdSimilarities(bodyId, target));
-        });
-        
-        return (similarities.isEmpty() ? 0f : Collections.max(similarities));
+        float best = 0f;
+        for (BodyIdentifier bodyId : source) {
+            if (bodyId == null) {
+                best = Math.max(best, 0.5f);
+                continue;
+            }
+
+            for (BodyIdentifier t : target) {
+                if (MatchedUtils.areBodyIdsComparable(t, bodyId)) {
+                    best = Math.max(best, MatchedUtils.bodyIdSimilarity(bodyId, t));
+                }
+            }
+        }
+
+        return best;
     }
     
     /**
@@ -149,8 +191,8 @@ public abstract class BaseApproximateMatchingPlugin<T extends MatchedBody, U ext
      *      postcode that is compared with {@code source}
      * @return similarity of postocodes or 0.5 in case that on of compared items haven't defined postcode
      */
-    private Float getPostcodeSimilarity(final String source, final String target) {
-        return MatchedUtils.oneDigitSimilarity(source, target);
+    private float getPostcodeSimilarity(final String source, final String target) {
+        return MatchedUtils.oneDigitSimilarityValue(source, target);
     }
     
     /**
@@ -164,16 +206,23 @@ public abstract class BaseApproximateMatchingPlugin<T extends MatchedBody, U ext
      *      number of the most left characters of nuts used for matching, if is 0 orginal codes are comapred
      * @return best match
      */
-    private Float getBestNutsSimilarity(final List<String> source, final List<String> target, final int trimNuts) {
+    private float getBestNutsSimilarity(final List<String> source, final List<String> target, final int trimNuts) {
         if (source == null || target == null) {            
             return 0.5f;
         }
-        
-        final List<Float> similarities = new ArrayList<>();        
-        source.forEach((code) -> {
-            similarities.addAll(MatchedUtils.nutsSimilarities(code, target, trimNuts));
-        });
-        
-        return (similarities.isEmpty() ? 0f : Collections.max(similarities));
+
+        float best = 0f;
+        for (String code : source) {
+            if (code == null) {
+                best = Math.max(best, 0.5f);
+                continue;
+            }
+
+            for (String t : target) {
+                best = Math.max(best, MatchedUtils.nutsSimilarity(code, t, trimNuts));
+            }
+        }
+
+        return best;
     }
 }
@@ -12,6 +12,7 @@ import org.apache.logging.log4j.ThreadContext;
 
 import java.time.format.DateTimeFormatter;
 import java.util.List;
+import java.util.stream.Stream;
 
 /**
  * Base class for all the parsers.
@@ -68,12 +69,16 @@ public abstract class BaseParser<V extends Raw, T extends Parsable> extends Base
                 parsedTender.setProcessingOrder(rawItem.getCreated().format(formatter));
             }
 
-            getTransactionUtils().begin();
-            final String parsedId = parsedDao.save(parsedTender);
-            getTransactionUtils().commit();
-            createAndPublishMessage(parsedId);
         }
 
+        // store all the parsed items at once and publish messages once they are commited
+        getTransactionUtils().begin();
+        final List<String> parsedIds = parsedDao.saveAll(processedParsedItems);
+        getTransactionUtils().commit();
+
+        for (String parsedId : parsedIds) {
+            createAndPublishMessage(parsedId);
+        }
     }
 
     @Override
@@ -87,12 +92,12 @@ public abstract class BaseParser<V extends Raw, T extends Parsable> extends Base
                 resendVersion = getVersion();
             }
 
-            final List<T> items = parsedDao.getMine(getName(), resendVersion, dateFrom, dateTo);
-
-            for (final Parsable item : items) {
-                final Message outgoingMessage = MessageFactory.getMessage();
-                outgoingMessage.setValue("id", item.getId());
-                publishMessage(outgoingMessage);
+            try (Stream<T> items = parsedDao.streamMine(getName(), resendVersion, dateFrom, dateTo)) {
+                items.forEach(item -> {
+                    final Message outgoingMessage = MessageFactory.getMessage();
+                    outgoingMessage.setValue("id", item.getId());
+                    publishMessage(outgoingMessage);
+                });
             }
         } catch (final Exception ex) {
             logger.error("Unable to resend messages for cleaning {}", ex);
@@ -3,6 +3,7 @@ package eu.dl.worker.raw;
 import eu.dl.core.UnrecoverableException;
 import eu.dl.worker.Message;
 import eu.dl.worker.MessageFactory;
+import eu.dl.worker.raw.utils.ClaimCheckUtils;
 import eu.dl.worker.utils.NetworkUtils;
 
 import java.util.HashMap;
@@ -14,10 +15,19 @@ public abstract class BaseCrawler extends BaseRawWorker {
 
     private static final String INCOMING_EXCHANGE_NAME = "init";
 
+    /**
+     * Maximal length of the source data sent in the message. Longer source data are saved to the storage and only
+     * their key is sent, see {@link ClaimCheckUtils}. Can be set with a configuration property
+     * {@code <worker_class>.claimCheckThreshold}, by default the source data are always sent in the message.
+     */
+    private final int claimCheckThreshold;
+
     /**
      * Default constructor.
      */
     public BaseCrawler() {
+        claimCheckThreshold = getIntParam(getName() + ".claimCheckThreshold", Integer.MAX_VALUE);
+
         // check whether TOR should be started
         if (config.getParam(getName() + ".torEnabled") != null
                 && config.getParam(getName() + ".torEnabled").equals("1")) {
@@ -49,7 +59,7 @@ public abstract class BaseCrawler extends BaseRawWorker {
     protected final void createAndPublishMessage(final String url, final String content) {
         final Message outgoingMessage = MessageFactory.getMessage();
         outgoingMessage.setValue("url", url);
-        outgoingMessage.setValue("sourceData", content);
+        setSourceData(outgoingMessage, content);
         publishMessage(outgoingMessage);
         logger.info("New message sent to be processed: {}", outgoingMessage);
     }
@@ -84,12 +94,26 @@ public abstract class BaseCrawler extends BaseRawWorker {
             final HashMap<String, Object> metaData) {
         final Message outgoingMessage = MessageFactory.getMessage();
         outgoingMessage.setValue("url", url);
-        outgoingMessage.setValue("sourceData", content);
+        setSourceData(outgoingMessage, content);
         outgoingMessage.setMetaData(metaData);
         publishMessage(outgoingMessage);
         logger.info("New message sent to be processed: {}", outgoingMessage);
     }
 
+    /**
+     * Sets source data of the message. Source data longer than the configured threshold are saved to the storage and
+     * only their key is set.
+     *
+     * @param message
+     *         message
+     * @param content
+     *         downloaded content
+     * @return message
+     */
+    protected final Message setSourceData(final Message message, final String content) {
+        return ClaimCheckUtils.setSourceData(message, content, claimCheckThreshold);
+    }
+
     @Override
     protected final void resend(final String version, final String dateFrom, final String dateTo) {
         throw new UnrecoverableException("Crawler does not support message resending.");
@@ -6,12 +6,14 @@ import eu.dl.dataaccess.dto.raw.Raw;
 import eu.dl.worker.Message;
 import eu.dl.worker.MessageFactory;
 import eu.dl.worker.raw.BaseRawWorker;
+import eu.dl.worker.raw.utils.ClaimCheckUtils;
 import eu.dl.worker.utils.ThreadUtils;
 
 import java.sql.Timestamp;
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
 import java.util.List;
+import java.util.stream.Stream;
 
 import static eu.dl.worker.raw.utils.DownloaderUtils.generatePersistentId;
 
@@ -56,29 +58,38 @@ public abstract class BaseDownloader<T extends Raw> extends BaseRawWorker {
         // download and populate raw data (there might me more records at once => list of raw data objects)
         final List<T> rawData = downloadAndPopulateRawData(message);
 
-        // save all the stuff
+        // prepare all the stuff
+        DateTimeFormatter formatter = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss.SSSSSSSS");
         for (T rawDataItem : rawData) {
-            getTransactionUtils().begin();
-
             // generate persistent id if not already set by the worker logic
             if (rawDataItem.getPersistentId() == null) {
                 rawDataItem.setPersistentId(generatePersistentId(rawDataItem, getSourceId()));
             }
 
-            DateTimeFormatter formatter = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss.SSSSSSSS");
             rawDataItem.setProcessingOrder(Timestamp.valueOf(LocalDateTime.now()).toLocalDateTime().format(formatter));
-            final String savedId = rawDao.save(rawDataItem);
-            getTransactionUtils().commit();
-            logger.info("Stored raw data as {}", savedId);
+        }
+
+        // save all the stuff in one batch
+        getTransactionUtils().begin();
+        final List<String> savedIds = rawDao.saveAll(rawData);
+        getTransactionUtils().commit();
+        logger.info("Stored {} raw data items", savedIds.size());
+
+        for (T rawDataItem : rawData) {
+            logger.info("Stored raw data as {}", rawDataItem.getId());
 
             // post-processing, doesn't affect raw record
             postProcess(rawDataItem);
 
             // create and publish message with saved id
             final Message outgoingMessage = MessageFactory.getMessage();
-            outgoingMessage.setValue("id", savedId);
+            outgoingMessage.setValue("id", rawDataItem.getId());
             publishMessage(outgoingMessage);
         }
+
+        // source data are saved in the raw record, the claim checked copy isn't needed once the outgoing messages are
+        // confirmed and the message is acknowledged (the message is downloaded from the storage again on retry)
+        runAfterAcknowledgement(() -> ClaimCheckUtils.removeSourceData(message));
     }
 
     @Override
@@ -92,12 +103,12 @@ public abstract class BaseDownloader<T extends Raw> extends BaseRawWorker {
                 resendVersion = getVersion();
             }
 
-            final List<T> rawDataItems = getRawDataDao().getMine(getName(), resendVersion, dateFrom, dateTo);
-
-            for (final T rawDataItem : rawDataItems) {
-                final Message outgoingMessage = MessageFactory.getMessage();
-                outgoingMessage.setValue("id", rawDataItem.getId());
-                publishMessage(outgoingMessage);
+            try (Stream<T> rawDataItems = getRawDataDao().streamMine(getName(), resendVersion, dateFrom, dateTo)) {
+                rawDataItems.forEach(rawDataItem -> {
+                    final Message outgoingMessage = MessageFactory.getMessage();
+                    outgoingMessage.setValue("id", rawDataItem.getId());
+                    publishMessage(outgoingMessage);
+                });
             }
         } catch (final Exception ex) {
             logger.error("Unable to resend messages for parsing {}", ex);
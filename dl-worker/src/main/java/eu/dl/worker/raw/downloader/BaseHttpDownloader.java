@@ -11,6 +11,7 @@ import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
 
+import eu.dl.worker.raw.utils.ClaimCheckUtils;
 import eu.dl.worker.raw.utils.DownloaderUtils;
 import org.apache.commons.io.IOUtils;
 import org.jsoup.Connection;
@@ -61,7 +62,6 @@ public abstract class BaseHttpDownloader<T extends Raw> extends BaseDownloader<T
 
         // get message parameters
         final String sourceDataUrl = message.getValue("url");
-        final String sourceData = message.getValue("sourceData");
         final String sourceBinaryDataUrl = message.getValue("binaryDataUrl");
         final HashMap<String, Object> metaData = message.getMetaData();
 
@@ -70,6 +70,19 @@ public abstract class BaseHttpDownloader<T extends Raw> extends BaseDownloader<T
             return Collections.emptyList();
         }
 
+        // source data are either included in the message or claim checked in the storage
+        final String sourceData = ClaimCheckUtils.getSourceData(message);
+        if (sourceData == null && ClaimCheckUtils.hasSourceDataKey(message)) {
+            // stored source data are removed once the raw record is saved, so the message was already processed
+            if (sourceDataUrl != null && rawDao.getBySourceUrl(getName(), getVersion(), sourceDataUrl) != null) {
+                logger.info("Raw data from {} are already saved", sourceDataUrl);
+                return Collections.emptyList();
+            }
+
+            logger.error("Source data for {} not found in the storage", sourceDataUrl);
+            throw new UnrecoverableException("Unable to get source data from the storage");
+        }
+
         // download data and populate raw data object
         // valid cases:
         // 1) sourceDataUrl only => save sourceDataUrl, download data from sourceDataUrl and save as source data
@@ -0,0 +1,117 @@
+package eu.dl.worker.raw.utils;
+
+import eu.dl.core.UnrecoverableException;
+import eu.dl.core.storage.StorageService;
+import eu.dl.core.storage.StorageServiceFactory;
+import eu.dl.worker.Message;
+import org.apache.commons.io.IOUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Claim check for the source data sent from crawlers to downloaders. Source data larger than the threshold aren't
+ * included in the message, they are saved to the {@link StorageService} and the message includes only the storage key.
+ * Every message gets its own key, even if more messages carry the same source data, so the downloader can remove the
+ * stored data of the message once its raw record is saved.
+ */
+public final class ClaimCheckUtils {
+    private static final Logger logger = LoggerFactory.getLogger(ClaimCheckUtils.class);
+
+    /**
+     * Message field with the source data.
+     */
+    public static final String SOURCE_DATA = "sourceData";
+
+    /**
+     * Message field with the storage key of the source data.
+     */
+    public static final String SOURCE_DATA_KEY = "sourceDataKey";
+
+    /**
+     * Storage namespace of the source data.
+     */
+    private static final String NAMESPACE = "claimcheck";
+
+    /**
+     * Suppress default constructor for noninstantiability.
+     */
+    private ClaimCheckUtils() {
+    }
+
+    /**
+     * Sets source data of the message. Source data longer than {@code threshold} characters are saved to the storage
+     * and only the key is set.
+     *
+     * @param message
+     *      message
+     * @param sourceData
+     *      source data
+     * @param threshold
+     *      maximal length of the source data included in the message
+     * @return message
+     */
+    public static Message setSourceData(final Message message, final String sourceData, final int threshold) {
+        if (sourceData == null || sourceData.length() <= threshold) {
+            return message.setValue(SOURCE_DATA, sourceData);
+        }
+
+        final String key = StorageServiceFactory.getStorageService()
+            .saveContent(sourceData.getBytes(StandardCharsets.UTF_8), NAMESPACE);
+        logger.debug("Source data of length {} saved with key {}", sourceData.length(), key);
+
+        return message.setValue(SOURCE_DATA_KEY, key);
+    }
+
+    /**
+     * @param message
+     *      message
+     * @return whether the message includes the key of the stored source data
+     */
+    public static boolean hasSourceDataKey(final Message message) {
+        return message.getValue(SOURCE_DATA_KEY) != null;
+    }
+
+    /**
+     * Returns source data of the message. The source data are either included in the message or loaded from the
+     * storage.
+     *
+     * @param message
+     *      message
+     * @return source data or null if the message includes no source data or the stored data don't exist
+     */
+    public static String getSourceData(final Message message) {
+        final String key = message.getValue(SOURCE_DATA_KEY);
+        if (key == null) {
+            return message.getValue(SOURCE_DATA);
+        }
+
+        try (InputStream content = StorageServiceFactory.getStorageService().get(key)) {
+            if (content == null) {
+                logger.warn("Source data with key {} not found", key);
+                return null;
+            }
+
+            return IOUtils.toString(content, StandardCharsets.UTF_8);
+        } catch (final IOException ex) {
+            logger.error("Unable to read source data with key {}", key);
+            throw new UnrecoverableException("Unable to read source data", ex);
+        }
+    }
+
+    /**
+     * Removes the stored source data of the message, if any.
+     *
+     * @param message
+     *      message
+     */
+    public static void removeSourceData(final Message message) {
+        final String key = message.getValue(SOURCE_DATA_KEY);
+        if (key != null && !StorageServiceFactory.getStorageService().remove(key)) {
+            logger.warn("Unable to remove source data with key {}", key);
+        }
+    }
+}
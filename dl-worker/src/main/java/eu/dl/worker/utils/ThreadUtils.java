@@ -3,8 +3,14 @@ package eu.dl.worker.utils;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.lang.reflect.Method;
 import java.time.LocalDateTime;
 import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
 
 /**
  *
@@ -60,4 +66,62 @@ public final class ThreadUtils {
             logger.debug("Thread interrupted, waking up {}", ex);
         }
     }
+
+    /**
+     * Creates executor with fixed number of threads used to process incoming messages. Virtual threads are used
+     * where available (Java 21+), platform threads otherwise.
+     *
+     * @param size
+     *         number of threads
+     * @param namePrefix
+     *         prefix of the threads name
+     * @return executor
+     */
+    public static ExecutorService newConsumerExecutor(final int size, final String namePrefix) {
+        ThreadFactory factory = getVirtualThreadFactory(namePrefix);
+        if (factory == null) {
+            final AtomicInteger counter = new AtomicInteger();
+            factory = runnable -> new Thread(runnable, namePrefix + "-consumer-" + counter.incrementAndGet());
+            logger.debug("Virtual threads aren't available, consumers run in platform threads");
+        } else {
+            logger.debug("Consumers run in virtual threads");
+        }
+
+        return Executors.newFixedThreadPool(size, factory);
+    }
+
+    /**
+     * Creates executor with fixed number of threads used to process scheduled messages.
+     *
+     * @param size
+     *         number of threads
+     * @param namePrefix
+     *         prefix of the threads name
+     * @return executor
+     */
+    public static ScheduledExecutorService newScheduledExecutor(final int size, final String namePrefix) {
+        final AtomicInteger counter = new AtomicInteger();
+        return Executors.newScheduledThreadPool(size,
+            runnable -> new Thread(runnable, namePrefix + "-scheduled-" + counter.incrementAndGet()));
+    }
+
+    /**
+     * Creates factory of virtual threads. The API is accessed via reflection to keep the code compilable with older
+     * JDKs.
+     *
+     * @param namePrefix
+     *         prefix of the threads name
+     * @return virtual threads factory or null if virtual threads aren't available
+     */
+    private static ThreadFactory getVirtualThreadFactory(final String namePrefix) {
+        try {
+            final Class<?> builderClass = Class.forName("java.lang.Thread$Builder");
+            Object builder = Thread.class.getMethod("ofVirtual").invoke(null);
+            final Method name = builderClass.getMethod("name", String.class, long.class);
+            builder = name.invoke(builder, namePrefix + "-consumer-", 1L);
+            return (ThreadFactory) builderClass.getMethod("factory").invoke(builder);
+        } catch (final ReflectiveOperationException | RuntimeException ex) {
+            return null;
+        }
+    }
 }
@@ -0,0 +1,20 @@
+package eu.dl.worker.utils.archive;
+
+import java.io.IOException;
+
+/**
+ * Processes entries of an archive one by one as they are extracted.
+ */
+@FunctionalInterface
+public interface ArchiveEntryConsumer {
+
+    /**
+     * Processes the extracted entry. The entry content can be read only within this call.
+     *
+     * @param entry
+     *         extracted entry
+     * @throws IOException
+     *         if reading of the entry content fails
+     */
+    void accept(ExtractedEntry entry) throws IOException;
+}
@@ -1,20 +1,23 @@
 package eu.dl.worker.utils.archive;
 
 import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
 import java.io.File;
 import java.io.IOException;
 import java.io.InputStream;
+import java.io.OutputStream;
 import java.io.RandomAccessFile;
-import java.io.StringWriter;
-import java.io.UnsupportedEncodingException;
 import java.nio.charset.Charset;
 import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
 import java.nio.file.StandardCopyOption;
 import java.util.Arrays;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.Set;
+import java.util.function.Predicate;
 
 import org.apache.commons.compress.archivers.ArchiveEntry;
 import org.apache.commons.compress.archivers.ArchiveException;
@@ -23,7 +26,7 @@ import org.apache.commons.compress.archivers.ArchiveStreamFactory;
 import org.apache.commons.compress.compressors.CompressorException;
 import org.apache.commons.compress.compressors.CompressorStreamFactory;
 import org.apache.commons.io.FilenameUtils;
-import org.apache.commons.io.IOUtils;
+import org.apache.commons.io.input.CloseShieldInputStream;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -113,36 +116,45 @@ public final class ArchiveUtils {
     public static HashMap<String, String> extract(final InputStream inputStream, final String fileName,
                                                   final String archiveFormat, final String compressionType,
                                                   final Charset charset) {
-        assert inputStream != null;
-        assert fileName != null;
-
         final HashMap<String, String> output = new HashMap<>();
+        extract(inputStream, fileName, archiveFormat, compressionType, charset, null,
+            entry -> output.put(entry.getName(), entry.getContent()));
+        return output;
+    }
 
-        try (BufferedInputStream bufferedArchiveStream = new BufferedInputStream(inputStream);
-             ArchiveInputStream archiveInputStream = getArchiveInputStream(bufferedArchiveStream, archiveFormat,
-                     compressionType)) {
-            ArchiveEntry entry;
-            while ((entry = archiveInputStream.getNextEntry()) != null) {
-                final String entryName = entry.getName();
+    /**
+     * Extracts given archive and passes the included files to the consumer one by one, so that the memory footprint
+     * doesn't depend on the archive size. Nested archives are extracted recursively. Archive format and/or
+     * compression type can be provided, otherwise this method tries to auto-detect them.
+     *
+     * @param inputStream
+     *         archive input stream, closed at the end
+     * @param fileName
+     *         name of the archive file (including extension)
+     * @param archiveFormat
+     *         archive type - one of the {@link ArchiveStreamFactory} constants or null for auto-detection
+     * @param compressionType
+     *         compression type - one of the {@link CompressorStreamFactory} constants or null for auto-detection
+     * @param charset
+     *         file content encoding
+     * @param filter
+     *         filter of the file names, files which don't pass are skipped without reading. Null means all files.
+     * @param consumer
+     *         consumer of the extracted files
+     * @throws ArchiveUnpackingException
+     *         if the unpacking fails due to any reason
+     */
+    public static void extract(final InputStream inputStream, final String fileName, final String archiveFormat,
+                               final String compressionType, final Charset charset, final Predicate<String> filter,
+                               final ArchiveEntryConsumer consumer) {
+        assert inputStream != null;
+        assert fileName != null;
 
-                // check, whether the entry is again an archive and if so, extract recursively
-                if (isKnownArchive(entryName)) {
-                    output.putAll(extract(archiveInputStream, entryName));
-                } else if (!entry.isDirectory()) {
-                    // filters out directories, but files (even those inside directories) are processed
-                    output.put(entryName, getEntryContent(archiveInputStream, charset));
-                }
-            }
-            return output;
+        try (BufferedInputStream bufferedArchiveStream = new BufferedInputStream(inputStream)) {
+            extractEntries(bufferedArchiveStream, archiveFormat, compressionType, charset, filter, consumer);
         } catch (IOException e) {
             logger.error("Error while reading extracted content from archive input stream.", e);
             throw new ArchiveUnpackingException("Reading extracted content failed.", e);
-        } finally {
-            try {
-                inputStream.close();
-            } catch (IOException e) {
-                logger.error("Error while closing input stream.", e);
-            }
         }
     }
 
@@ -156,9 +168,28 @@ public final class ArchiveUtils {
      * @return map of all the extracted file names with associated content
      */
     public static HashMap<String, String> extractUsing7zip(final InputStream inputStream, final String fileName) {
-
         final HashMap<String, String> extractedFiles = new HashMap<>();
+        extractUsing7zip(inputStream, fileName, null,
+            entry -> extractedFiles.put(entry.getName(), entry.getContent()));
+        return extractedFiles;
+    }
 
+    /**
+     * Extracts archive (not recursively) and passes the included files to the consumer one by one. The archive is
+     * stored on disk and each file is extracted into a temporary file before it is passed to the consumer, so that
+     * the memory footprint doesn't depend on the archive size.
+     *
+     * @param inputStream
+     *         archive input stream
+     * @param fileName
+     *         name of the archive file (including extension)
+     * @param filter
+     *         filter of the file names, files which don't pass are skipped without extraction. Null means all files.
+     * @param consumer
+     *         consumer of the extracted files, their content is UTF-8 encoded
+     */
+    public static void extractUsing7zip(final InputStream inputStream, final String fileName,
+                                        final Predicate<String> filter, final ArchiveEntryConsumer consumer) {
         // create work folder if necessary
         final File destinationFolder = new File(FilenameUtils.getName(WORK_FOLDER));
         destinationFolder.mkdir();
@@ -185,36 +216,14 @@ public final class ArchiveUtils {
 
             // go through the archive file by file
             for (final ISimpleInArchiveItem item : simpleInArchive.getArchiveItems()) {
-                final StringBuilder stringDataBuilder = new StringBuilder();
                 // filter out folders (but process files inside folders)
                 logger.info(item.getPath());
 
-                if (!item.isFolder()) {
-                    ExtractOperationResult result = item.extractSlow(data -> {
-                        try {
-                            logger.debug("Processing {} file {}", fileName, item.getPath());
-
-                            // convert data to string
-                            stringDataBuilder.append(new String(data, "UTF-8"));
-                        } catch (final UnsupportedEncodingException e) {
-                            throw new UnrecoverableException("Unable to convert data to UTF-8 while extracting.", e);
-                        }
-                        return data.length;
-                    });
-
-                    if (result == ExtractOperationResult.OK) {
-                        final String stringData = stringDataBuilder.toString();
-                        //logger.info("file: {} \n data: {}", item.getPath(), stringData);
-
-                        // add extracted file to output list
-                        extractedFiles.put(item.getPath(), stringData);
-                    } else {
-                        logger.error("Error extracting archive: {}", result);
-                        throw new UnrecoverableException("Unable to extractUsing7zip archive.");
-                    }
+                if (!item.isFolder() && (filter == null || filter.test(item.getPath()))) {
+                    logger.debug("Processing {} file {}", fileName, item.getPath());
+                    extractItem(item, destinationFolder.toPath(), consumer);
                 }
             }
-            return extractedFiles;
         } catch (final Exception e) {
             logger.error("Unable to download and extractUsing7zip archive.", e);
             throw new UnrecoverableException("Unable to download and extractUsing7zip archive.", e);
@@ -244,6 +253,95 @@ public final class ArchiveUtils {
         }
     }
 
+    /**
+     * Extracts the archive item into a temporary file and passes it to the consumer.
+     *
+     * @param item
+     *         archive item
+     * @param workFolder
+     *         folder for the temporary file
+     * @param consumer
+     *         consumer of the extracted files
+     * @throws IOException
+     *         if the item cannot be stored or processed
+     */
+    private static void extractItem(final ISimpleInArchiveItem item, final Path workFolder,
+                                    final ArchiveEntryConsumer consumer) throws IOException {
+        final Path itemFile = Files.createTempFile(workFolder, "item", ".tmp");
+        try {
+            try (OutputStream output = new BufferedOutputStream(Files.newOutputStream(itemFile))) {
+                ExtractOperationResult result = item.extractSlow(data -> {
+                    try {
+                        output.write(data);
+                    } catch (final IOException e) {
+                        throw new SevenZipException("Unable to store extracted data.", e);
+                    }
+                    return data.length;
+                });
+
+                if (result != ExtractOperationResult.OK) {
+                    logger.error("Error extracting archive: {}", result);
+                    throw new UnrecoverableException("Unable to extractUsing7zip archive.");
+                }
+            }
+
+            try (InputStream input = new BufferedInputStream(Files.newInputStream(itemFile))) {
+                consumer.accept(new ExtractedEntry(item.getPath(), Files.size(itemFile), input,
+                    StandardCharsets.UTF_8, workFolder, itemFile));
+            }
+        } finally {
+            Files.deleteIfExists(itemFile);
+        }
+    }
+
+    /**
+     * Passes the files of the archive to the consumer, nested archives are extracted recursively. The given stream
+     * isn't closed.
+     *
+     * @param inputStream
+     *         archive input stream
+     * @param archiveFormat
+     *         archive type or null for auto-detection
+     * @param compressionType
+     *         compression type or null for auto-detection
+     * @param charset
+     *         file content encoding
+     * @param filter
+     *         filter of the file names or null
+     * @param consumer
+     *         consumer of the extracted files
+     * @throws IOException
+     *         if the archive cannot be read
+     */
+    private static void extractEntries(final InputStream inputStream, final String archiveFormat,
+                                       final String compressionType, final Charset charset,
+                                       final Predicate<String> filter, final ArchiveEntryConsumer consumer)
+        throws IOException {
+        // the given stream is shielded, closing of the archive stream releases only the decompressor resources
+        try (ArchiveInputStream archiveInputStream = getArchiveInputStream(new CloseShieldInputStream(inputStream),
+            archiveFormat, compressionType)) {
+            ArchiveEntry entry;
+            while ((entry = archiveInputStream.getNextEntry()) != null) {
+                final String entryName = entry.getName();
+                final InputStream entryStream = new CloseShieldInputStream(archiveInputStream);
+
+                // check, whether the entry is again an archive and if so, extract recursively
+                if (isKnownArchive(entryName)) {
+                    extractEntries(new BufferedInputStream(entryStream), null, null, charset, filter, consumer);
+                } else if (!entry.isDirectory() && (filter == null || filter.test(entryName))) {
+                    // filters out directories, but files (even those inside directories) are processed
+                    final ExtractedEntry extracted = new ExtractedEntry(entryName, entry.getSize(), entryStream,
+                        charset, Paths.get(WORK_FOLDER), null);
+                    try {
+                        consumer.accept(extracted);
+                    } finally {
+                        extracted.cleanup();
+                    }
+                }
+            }
+        }
+    }
+
     /**
      * Checks whether the file is known archive by its extension.
      *
@@ -314,24 +412,4 @@ public final class ArchiveUtils {
             throw new ArchiveUnpackingException("ArchiveUtils input stream creation failed,", e);
         }
     }
-
-    /**
-     * @param archiveInputStream
-     *         input stream with archive content
-     * @param charset
-     *         archive content encoding
-     * @return the content of given archive stream as text
-     * @throws ArchiveUnpackingException
-     *         if the stream cannot be read or some other I/O error occurs
-     */
-    private static String getEntryContent(final ArchiveInputStream archiveInputStream, final Charset charset) {
-        try {
-            final StringWriter writer = new StringWriter();
-            IOUtils.copy(archiveInputStream, writer, charset);
-            return writer.toString();
-        } catch (IOException e) {
-            logger.error("Error while reading content from archive input stream.", e);
-            throw new ArchiveUnpackingException("Error while reading content from archive input stream", e);
-        }
-    }
 }
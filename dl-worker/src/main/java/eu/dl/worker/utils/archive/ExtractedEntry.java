@@ -0,0 +1,128 @@
+package eu.dl.worker.utils.archive;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.charset.Charset;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+
+import org.apache.commons.io.IOUtils;
+
+/**
+ * File extracted from an archive. Its content is streamed directly from the archive, so it can be read only once and
+ * only within {@link ArchiveEntryConsumer#accept(ExtractedEntry)}.
+ */
+public final class ExtractedEntry {
+
+    private final String name;
+
+    private final long size;
+
+    private final InputStream inputStream;
+
+    private final Charset charset;
+
+    private final Path workFolder;
+
+    private Path file;
+
+    private boolean temporary;
+
+    /**
+     * @param name
+     *         entry name (path inside the archive)
+     * @param size
+     *         uncompressed size in bytes or -1 if unknown
+     * @param inputStream
+     *         entry content
+     * @param charset
+     *         content encoding
+     * @param workFolder
+     *         folder for the spilled content
+     * @param file
+     *         file with the entry content if it is already on disk, otherwise null
+     */
+    ExtractedEntry(final String name, final long size, final InputStream inputStream, final Charset charset,
+                   final Path workFolder, final Path file) {
+        this.name = name;
+        this.size = size;
+        this.inputStream = inputStream;
+        this.charset = charset;
+        this.workFolder = workFolder;
+        this.file = file;
+    }
+
+    /**
+     * @return entry name (path inside the archive)
+     */
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * @return uncompressed size in bytes or -1 if unknown
+     */
+    public long getSize() {
+        return size;
+    }
+
+    /**
+     * @return entry content
+     */
+    public InputStream getInputStream() {
+        return inputStream;
+    }
+
+    /**
+     * @return reader of the entry content in the archive encoding
+     */
+    public Reader getReader() {
+        return new BufferedReader(new InputStreamReader(inputStream, charset));
+    }
+
+    /**
+     * Reads whole entry content into memory. Use only for entries of reasonable size.
+     *
+     * @return the entry content as text
+     * @throws IOException
+     *         if the entry content cannot be read
+     */
+    public String getContent() throws IOException {
+        return IOUtils.toString(inputStream, charset);
+    }
+
+    /**
+     * Stores the entry content in a temporary file for random access. The file is deleted after the entry is
+     * processed.
+     *
+     * @return path of the file with the entry content
+     * @throws IOException
+     *         if the entry content cannot be stored
+     */
+    public Path spill() throws IOException {
+        if (file == null) {
+            Files.createDirectories(workFolder);
+            file = Files.createTempFile(workFolder, "entry", ".tmp");
+            temporary = true;
+            Files.copy(inputStream, file, StandardCopyOption.REPLACE_EXISTING);
+        }
+
+        return file;
+    }
+
+    /**
+     * Deletes the spilled content, if any.
+     *
+     * @throws IOException
+     *         if the file cannot be deleted
+     */
+    void cleanup() throws IOException {
+        if (temporary) {
+            Files.deleteIfExists(file);
+        }
+    }
+}
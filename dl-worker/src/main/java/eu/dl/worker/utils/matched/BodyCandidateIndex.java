@@ -0,0 +1,414 @@
+package eu.dl.worker.utils.matched;
+
+import java.util.AbstractMap;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+import eu.dl.dataaccess.dto.codetables.BodyIdentifier;
+import eu.dl.dataaccess.dto.matched.ApproximatellyMatchable;
+import eu.dl.dataaccess.dto.matched.EtalonBody;
+
+/**
+ * Resident index of bodies for approximate matching. Standardized names and addresses are indexed by their trigrams,
+ * bodies are further indexed by standardized name, standardized address, body identifiers, NUTS codes and digest.
+ *
+ * Candidates for the given body are bodies with the same name, address, body identifier or with a trigram of name or
+ * address in common and all bodies of the groups with the same digest. Each candidate gets an upper bound of the score
+ * of the approximate matching, names and addresses are bounded by
+ * {@link MatchedUtils#trigramSimilarityUpperBound(String, String)}. Only candidates with the upper bound at least
+ * {@code minScore} are returned, at most {@code limit} of the ones with the highest bound. Candidates with the same
+ * bound are ordered by number of common trigrams.
+ *
+ * The index is thread-safe and new bodies can be added anytime. It knows only the bodies added to it, ie. the bodies
+ * loaded when the index is populated and the bodies added later by this process. Bodies saved by other processes in
+ * the meantime aren't candidates until the index is populated again.
+ *
+ * @param <U>
+ *      class of the indexed body
+ */
+public final class BodyCandidateIndex<U extends ApproximatellyMatchable> {
+
+    private static final int GRAM_SIZE = 3;
+
+    /**
+     * Trigrams included in more bodies are too common to tell anything about the similarity, these are skipped when
+     * the candidates are searched.
+     */
+    private static final int MAX_GRAM_POSTINGS = 100000;
+
+    private final int limit;
+
+    private final float minScore;
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    private final List<U> bodies = new ArrayList<>();
+
+    private final Map<String, Integer> entriesById = new HashMap<>();
+
+    private final Map<String, IntArray> nameGrams = new HashMap<>();
+
+    private final Map<String, IntArray> addressGrams = new HashMap<>();
+
+    private final Map<String, IntArray> names = new HashMap<>();
+
+    private final Map<String, IntArray> addresses = new HashMap<>();
+
+    private final Map<String, IntArray> bodyIds = new HashMap<>();
+
+    private final Map<String, IntArray> nuts = new HashMap<>();
+
+    private final Map<String, IntArray> digests = new HashMap<>();
+
+    private final Map<String, IntArray> groups = new HashMap<>();
+
+    /**
+     * Creates empty index.
+     *
+     * @param limit
+     *      maximal number of returned candidates
+     * @param minScore
+     *      minimal upper bound of the score of returned candidate
+     */
+    public BodyCandidateIndex(final int limit, final float minScore) {
+        this.limit = limit;
+        this.minScore = minScore;
+    }
+
+    /**
+     * Adds body to the index. Previously added body with the same id is replaced and removed from the postings.
+     *
+     * @param body
+     *      body with id and group id
+     */
+    public void add(final U body) {
+        if (body == null || body.getId() == null) {
+            return;
+        }
+
+        lock.writeLock().lock();
+        try {
+            final Integer replaced = entriesById.get(body.getId());
+            final int entry;
+            if (replaced != null) {
+                // the replaced body is removed from the postings and its entry is reused
+                entry = replaced;
+                update(bodies.get(entry), entry, false);
+                bodies.set(entry, body);
+            } else {
+                entry = bodies.size();
+                entriesById.put(body.getId(), entry);
+                bodies.add(body);
+            }
+
+            update(body, entry, true);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Removes body with the given id from the index. The entry of the body is left empty.
+     *
+     * @param id
+     *      id of the body
+     */
+    public void remove(final String id) {
+        lock.writeLock().lock();
+        try {
+            final Integer entry = entriesById.remove(id);
+            if (entry != null) {
+                update(bodies.get(entry), entry, false);
+                bodies.set(entry, null);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Adds the entry to the postings of the body or removes it from them.
+     *
+     * @param body
+     *      body
+     * @param entry
+     *      entry of the body
+     * @param add
+     *      whether the entry is added or removed
+     */
+    private void update(final U body, final int entry, final boolean add) {
+        grams(body.getStandardizedName()).forEach(n -> update(nameGrams, n, entry, add));
+        grams(body.getStandardizedAddress()).forEach(n -> update(addressGrams, n, entry, add));
+        update(names, body.getStandardizedName(), entry, add);
+        update(addresses, body.getStandardizedAddress(), entry, add);
+        if (body.getBodyIds() != null) {
+            body.getBodyIds().forEach(n -> update(bodyIds, bodyIdKey(n), entry, add));
+        }
+        if (body.getNuts() != null) {
+            body.getNuts().forEach(n -> update(nuts, n, entry, add));
+        }
+        update(digests, body.getDigest(), entry, add);
+        update(groups, body.getGroupId(), entry, add);
+    }
+
+    /**
+     * @return number of indexed bodies
+     */
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return entriesById.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Returns candidates for approximate matching of the given body ordered by upper bound of the score in descending
+     * order.
+     *
+     * @param item
+     *      matched body
+     * @return list of candidates
+     */
+    public List<U> getCandidates(final ApproximatellyMatchable item) {
+        if (item == null) {
+            return Collections.emptyList();
+        }
+
+        final Set<String> itemNameGrams = grams(item.getStandardizedName());
+        final Set<String> itemAddressGrams = grams(item.getStandardizedAddress());
+
+        lock.readLock().lock();
+        try {
+            // number of common name and address trigrams for each candidate
+            final Map<Integer, Integer> common = new HashMap<>();
+            countGrams(nameGrams, itemNameGrams, common);
+            countGrams(addressGrams, itemAddressGrams, common);
+
+            final Set<Integer> sameName = entries(names, item.getStandardizedName());
+            final Set<Integer> sameAddress = entries(addresses, item.getStandardizedAddress());
+            final Set<Integer> sameBodyId = new HashSet<>();
+            if (item.getBodyIds() != null) {
+                item.getBodyIds().forEach(n -> sameBodyId.addAll(entries(bodyIds, bodyIdKey(n))));
+            }
+            final Set<Integer> sameNuts = new HashSet<>();
+            if (item.getNuts() != null) {
+                item.getNuts().forEach(n -> sameNuts.addAll(entries(nuts, n)));
+            }
+
+            final Set<Integer> candidates = new HashSet<>(common.keySet());
+            candidates.addAll(sameName);
+            candidates.addAll(sameAddress);
+            candidates.addAll(sameBodyId);
+            for (Integer entry : entries(digests, item.getDigest())) {
+                candidates.addAll(entries(groups, bodies.get(entry).getGroupId()));
+            }
+
+            final List<Map.Entry<Integer, Float>> scored = new ArrayList<>();
+            for (Integer entry : candidates) {
+                final U body = bodies.get(entry);
+
+                // upper bounds of the similarities computed by the approximate matching, different ids and nuts
+                // may still differ in one character only and cropped nuts of etalon bodies may be the same
+                final float nameSim = MatchedUtils.trigramSimilarityUpperBound(item.getStandardizedName(),
+                    body.getStandardizedName());
+                final float addressSim = MatchedUtils.trigramSimilarityUpperBound(item.getStandardizedAddress(),
+                    body.getStandardizedAddress());
+                final float bodyIdSim = sameBodyId.contains(entry) ? 1f : 0.8f;
+                final float postcodeSim = MatchedUtils.oneDigitSimilarityValue(item.getPostcode(), body.getPostcode());
+                final float nutsSim = sameNuts.contains(entry) || body instanceof EtalonBody ? 1f : 0.8f;
+
+                final float score = (nameSim + addressSim + bodyIdSim + postcodeSim * 0.2f + nutsSim * 0.2f)
+                    / (1 + 1 + 1 + 0.2f + 0.2f);
+
+                if (score >= minScore) {
+                    scored.add(new AbstractMap.SimpleImmutableEntry<>(entry, score));
+                }
+            }
+
+            scored.sort((a, b) -> {
+                final int result = Float.compare(b.getValue(), a.getValue());
+                return result != 0 ? result
+                    : Integer.compare(common.getOrDefault(b.getKey(), 0), common.getOrDefault(a.getKey(), 0));
+            });
+
+            final List<U> result = new ArrayList<>();
+            for (int i = 0; i < scored.size() && i < limit; i++) {
+                result.add(bodies.get(scored.get(i).getKey()));
+            }
+
+            return result;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Counts common trigrams of the candidates.
+     *
+     * @param postings
+     *      trigram postings
+     * @param itemGrams
+     *      trigrams of the matched body
+     * @param common
+     *      counts of common trigrams for each candidate
+     */
+    private static void countGrams(final Map<String, IntArray> postings, final Set<String> itemGrams,
+        final Map<Integer, Integer> common) {
+        for (String gram : itemGrams) {
+            final IntArray entries = postings.get(gram);
+            if (entries == null || entries.size() > MAX_GRAM_POSTINGS) {
+                continue;
+            }
+
+            for (int i = 0; i < entries.size(); i++) {
+                common.merge(entries.get(i), 1, Integer::sum);
+            }
+        }
+    }
+
+    /**
+     * @param postings
+     *      postings
+     * @param key
+     *      key
+     * @return entries for the given key
+     */
+    private static Set<Integer> entries(final Map<String, IntArray> postings, final String key) {
+        final IntArray entries = key == null ? null : postings.get(key);
+        if (entries == null) {
+            return Collections.emptySet();
+        }
+
+        final Set<Integer> result = new HashSet<>();
+        for (int i = 0; i < entries.size(); i++) {
+            result.add(entries.get(i));
+        }
+
+        return result;
+    }
+
+    /**
+     * @param postings
+     *      postings
+     * @param key
+     *      key, null is ignored
+     * @param entry
+     *      entry
+     * @param add
+     *      whether the entry is added or removed
+     */
+    private static void update(final Map<String, IntArray> postings, final String key, final int entry,
+        final boolean add) {
+        if (key == null) {
+            return;
+        }
+
+        if (add) {
+            postings.computeIfAbsent(key, n -> new IntArray()).add(entry);
+        } else {
+            final IntArray entries = postings.get(key);
+            if (entries != null && entries.remove(entry) && entries.size() == 0) {
+                postings.remove(key);
+            }
+        }
+    }
+
+    /**
+     * @param bodyId
+     *      body identifier
+     * @return key of the body identifier or null
+     */
+    private static String bodyIdKey(final BodyIdentifier bodyId) {
+        if (bodyId == null || bodyId.getId() == null) {
+            return null;
+        }
+
+        return Objects.toString(bodyId.getScope()) + "|" + bodyId.getId();
+    }
+
+    /**
+     * @param input
+     *      string
+     * @return distinct trigrams of the string, string shorter than three characters is its own trigram
+     */
+    static Set<String> grams(final String input) {
+        if (input == null || input.isEmpty()) {
+            return Collections.emptySet();
+        } else if (input.length() < GRAM_SIZE) {
+            return Collections.singleton(input);
+        }
+
+        final Set<String> grams = new HashSet<>();
+        for (int i = 0; i <= input.length() - GRAM_SIZE; i++) {
+            grams.add(input.substring(i, i + GRAM_SIZE));
+        }
+
+        return grams;
+    }
+
+    /**
+     * Growable array of primitive integers.
+     */
+    private static final class IntArray {
+
+        private int[] values = new int[2];
+
+        private int size;
+
+        /**
+         * @param value
+         *      appended value
+         */
+        void add(final int value) {
+            if (size == values.length) {
+                values = Arrays.copyOf(values, size * 2);
+            }
+            values[size++] = value;
+        }
+
+        /**
+         * Removes all occurrences of the value, order of the remaining values isn't kept.
+         *
+         * @param value
+         *      removed value
+         * @return whether the value was found
+         */
+        boolean remove(final int value) {
+            boolean found = false;
+            for (int i = size - 1; i >= 0; i--) {
+                if (values[i] == value) {
+                    values[i] = values[--size];
+                    found = true;
+                }
+            }
+            return found;
+        }
+
+        /**
+         * @param index
+         *      index
+         * @return value
+         */
+        int get(final int index) {
+            return values[index];
+        }
+
+        /**
+         * @return number of values
+         */
+        int size() {
+            return size;
+        }
+    }
+}
@@ -7,8 +7,6 @@ import java.util.function.BiFunction;
 import java.util.stream.Collectors;
 
 import org.apache.commons.lang3.StringUtils;
-import org.apache.lucene.search.spell.LevensteinDistance;
-import org.apache.lucene.search.spell.NGramDistance;
 
 import eu.dl.dataaccess.dto.codetables.BodyIdentifier;
 
@@ -18,7 +16,7 @@ import eu.dl.dataaccess.dto.codetables.BodyIdentifier;
  * @author Tomas Mrazek
  */
 public final class MatchedUtils {
-    
+
     /**
      * Suppress default constructor for noninstantiability.
      */
@@ -86,9 +84,10 @@ public final class MatchedUtils {
     }
     
     /**
-     * Computes similarity of two given strings with help of trigram matching algorithm.
+     * Computes similarity of two given strings with help of trigram matching algorithm (same as Lucene's
+     * {@code NGramDistance} with n = 3). For repeated comparisons of one string use {@link TrigramProfile}.
      * 
-     * @see NGramDistance#getDistance(java.lang.String, java.lang.String)
+     * @see TrigramProfile#similarity(java.lang.String)
      * @see MatchedUtils#getSimilarity(java.lang.Object, java.lang.Object, java.util.function.BiFunction)
      * 
      * @param source
@@ -98,7 +97,31 @@ public final class MatchedUtils {
      * @return similarity of strings
      */
     public static Float trigramSimilarity(final String source, final String target) {
-        return getSimilarity(source, target, (s, t) -> new NGramDistance(3).getDistance(s, t));
+        return new TrigramProfile(source).similarity(target);
+    }
+
+    /**
+     * Returns upper bound of the trigram similarity of two given strings. Trigram distance is at least the difference
+     * of the string lengths, so the similarity can't be greater than the ratio of the shorter and the longer length.
+     *
+     * @see MatchedUtils#trigramSimilarity(java.lang.String, java.lang.String)
+     *
+     * @param source
+     *      source string
+     * @param target
+     *      target string
+     * @return upper bound of the similarity of strings
+     */
+    public static float trigramSimilarityUpperBound(final String source, final String target) {
+        if (source == null || target == null) {
+            return 0.5f;
+        } else if (source.equals(target)) {
+            return 1f;
+        }
+
+        final int max = Math.max(source.length(), target.length());
+
+        return max == 0 ? 1f : (float) Math.min(source.length(), target.length()) / max;
     }
     
     /**
@@ -119,20 +142,102 @@ public final class MatchedUtils {
      * @return similarity of strings 
      */
     public static Float oneDigitSimilarity(final String source, final String target) {
-        return getSimilarity(source, target, (s, t) -> {
-            final LevensteinDistance ld = new LevensteinDistance();
-            final float similarity = ld.getDistance(s, t);
-
-            final int distance = levensteinDistanceFromSimilarity(source, target, similarity);
-            
-            if (distance == 0) {
-                return 1f;
-            } else if (distance == 1) {
-                return 0.8f;
+        return oneDigitSimilarityValue(source, target);
+    }
+
+    /**
+     * Primitive version of {@link MatchedUtils#oneDigitSimilarity(java.lang.String, java.lang.String)}.
+     *
+     * @param source
+     *      source string
+     * @param target
+     *      target string
+     * @return similarity of strings
+     */
+    public static float oneDigitSimilarityValue(final String source, final String target) {
+        if (source == null || target == null) {
+            return 0.5f;
+        } else if (source.equals(target)) {
+            return 1f;
+        }
+
+        final int distance = levensteinDistance(source, target, 1);
+
+        if (distance == 0) {
+            return 1f;
+        } else if (distance == 1) {
+            return 0.8f;
+        }
+
+        return 0f;
+    }
+
+    /**
+     * Computes Levenstein distance of two given strings up to the given maximum. The computation stops as soon as the
+     * distance exceeds the maximum.
+     *
+     * @param source
+     *      source string
+     * @param target
+     *      target string
+     * @param max
+     *      maximal computed distance
+     * @return distance of strings or {@code max + 1} if the distance is greater than {@code max}
+     */
+    public static int levensteinDistance(final String source, final String target, final int max) {
+        final int sl = source.length();
+        final int tl = target.length();
+        if (Math.abs(sl - tl) > max) {
+            return max + 1;
+        }
+
+        // skip common prefix and suffix, they don't change the distance
+        int start = 0;
+        while (start < sl && start < tl && source.charAt(start) == target.charAt(start)) {
+            start++;
+        }
+        int sEnd = sl;
+        int tEnd = tl;
+        while (sEnd > start && tEnd > start && source.charAt(sEnd - 1) == target.charAt(tEnd - 1)) {
+            sEnd--;
+            tEnd--;
+        }
+
+        final int n = sEnd - start;
+        final int m = tEnd - start;
+        if (n == 0 || m == 0) {
+            return Math.min(Math.max(n, m), max + 1);
+        } else if (max <= 1) {
+            // remainders differ in the first and the last character, so one edit is enough only for single characters
+            return n == 1 && m == 1 ? 1 : max + 1;
+        }
+
+        int[] p = new int[n + 1];
+        int[] d = new int[n + 1];
+        for (int i = 0; i <= n; i++) {
+            p[i] = i;
+        }
+
+        for (int j = 1; j <= m; j++) {
+            final char t = target.charAt(start + j - 1);
+            d[0] = j;
+            int rowMin = d[0];
+            for (int i = 1; i <= n; i++) {
+                final int cost = source.charAt(start + i - 1) == t ? 0 : 1;
+                d[i] = Math.min(Math.min(d[i - 1] + 1, p[i] + 1), p[i - 1] + cost);
+                rowMin = Math.min(rowMin, d[i]);
             }
 
-            return 0f;
-        });
+            if (rowMin > max) {
+                return max + 1;
+            }
+
+            final int[] swap = p;
+            p = d;
+            d = swap;
+        }
+
+        return Math.min(p[n], max + 1);
     }
     
     /**
@@ -175,6 +280,28 @@ public final class MatchedUtils {
         });
     }
 
+    /**
+     * Computes similarity of {@code source} body identifier and {@code target} body identifier. Identifiers are
+     * expected to be comparable.
+     *
+     * @see MatchedUtils#bodyIdSimilarities(eu.dl.dataaccess.dto.codetables.BodyIdentifier, java.util.List)
+     *
+     * @param source
+     *      source body identifier
+     * @param target
+     *      target body identifier
+     * @return similarity of body identifiers
+     */
+    public static float bodyIdSimilarity(final BodyIdentifier source, final BodyIdentifier target) {
+        if (source == null || target == null) {
+            return 0.5f;
+        } else if (source.equals(target)) {
+            return 1f;
+        }
+
+        return oneDigitSimilarityValue(target.getId(), source.getId());
+    }
+
     /**
      * @param source
      *      source body identifier
@@ -217,21 +344,45 @@ public final class MatchedUtils {
      * @return similarities of nuts codes
      */
     public static List<Float> nutsSimilarities(final String source, final List<String> targets, final int cropNuts) {
-        return getSimilarities(source, targets, (s, t) -> {
-            final LevensteinDistance ld = new LevensteinDistance();        
-            float similarity = ld.getDistance(
-                cropNuts > 0 ? StringUtils.left(s, cropNuts) : s,
-                cropNuts > 0 ? StringUtils.left(t, cropNuts) : t);
-            
-            final int distance  = levensteinDistanceFromSimilarity(s, t, similarity);
-            
-            if (distance == 0) {
-                return 1f;
-            } else if (distance == 1 && s.length() == 5 && s.substring(0, 4).equals(t.substring(0, 4))) {
-                return 0.8f;
-            }
-            
-            return 0f;            
-        });
+        return getSimilarities(source, targets, (s, t) -> nutsSimilarity(t, s, cropNuts));
+    }
+
+    /**
+     * Computes similarity of {@code source} nuts code and {@code target} nuts code.
+     *
+     * @see MatchedUtils#nutsSimilarities(java.lang.String, java.util.List, int)
+     *
+     * @param source
+     *      source nuts code
+     * @param target
+     *      target nuts code
+     * @param cropNuts
+     *      number of the most left characters of nuts used for matching, if is 0 orginal codes are comapred
+     * @return similarity of nuts codes
+     */
+    public static float nutsSimilarity(final String source, final String target, final int cropNuts) {
+        if (source == null || target == null) {
+            return 0.5f;
+        } else if (source.equals(target)) {
+            return 1f;
+        }
+
+        final String s = cropNuts > 0 ? StringUtils.left(source, cropNuts) : source;
+        final String t = cropNuts > 0 ? StringUtils.left(target, cropNuts) : target;
+
+        // similarity of the cropped codes is converted to the distance of the whole ones, which is 0 or 1 only for
+        // the cropped distance 0 or 1
+        final int maxLength = Math.max(s.length(), t.length());
+        final float similarity = maxLength == 0 ? 1f : 1.0f - ((float) levensteinDistance(s, t, 1) / maxLength);
+
+        final int distance = levensteinDistanceFromSimilarity(target, source, similarity);
+
+        if (distance == 0) {
+            return 1f;
+        } else if (distance == 1 && target.length() == 5 && target.substring(0, 4).equals(source.substring(0, 4))) {
+            return 0.8f;
+        }
+
+        return 0f;
     }
 }
@@ -0,0 +1,144 @@
+package eu.dl.worker.utils.matched;
+
+/**
+ * Trigram profile of a string prepared for scoring of many candidates. The similarity is the same n-gram edit
+ * distance (n = 3) as computed by Lucene's {@code NGramDistance}, including the order of the floating point
+ * operations, so the results are identical. Unlike {@code NGramDistance}, the padded characters of the profiled string
+ * and the rows of the distance matrix are allocated once, trigrams of the candidate are read in place and the
+ * computation stops as soon as the candidate can't reach the requested similarity.
+ *
+ * Profile reuses its buffers, so it is not thread-safe.
+ */
+public final class TrigramProfile {
+
+    private static final int N = 3;
+
+    private final String value;
+
+    /**
+     * Profiled string prefixed with N - 1 zero characters.
+     */
+    private final char[] padded;
+
+    private final float[] previous;
+
+    private final float[] current;
+
+    /**
+     * @param value
+     *      profiled string, may be null
+     */
+    public TrigramProfile(final String value) {
+        this.value = value;
+        if (value == null) {
+            this.padded = null;
+            this.previous = null;
+            this.current = null;
+        } else {
+            this.padded = new char[value.length() + N - 1];
+            value.getChars(0, value.length(), padded, N - 1);
+            this.previous = new float[value.length() + 1];
+            this.current = new float[value.length() + 1];
+        }
+    }
+
+    /**
+     * @return profiled string
+     */
+    public String getValue() {
+        return value;
+    }
+
+    /**
+     * Computes similarity of the profiled string and the given {@code other} string.
+     *
+     * @see MatchedUtils#trigramSimilarity(java.lang.String, java.lang.String)
+     *
+     * @param other
+     *      compared string
+     * @return similarity of strings
+     */
+    public float similarity(final String other) {
+        return similarity(other, Float.NEGATIVE_INFINITY);
+    }
+
+    /**
+     * Computes similarity of the profiled string and the given {@code other} string. If the similarity is lower than
+     * {@code minSimilarity}, the computation may stop early and return any value lower than {@code minSimilarity}
+     * which is not lower than the similarity.
+     *
+     * @see MatchedUtils#trigramSimilarity(java.lang.String, java.lang.String)
+     *
+     * @param other
+     *      compared string
+     * @param minSimilarity
+     *      the lowest similarity which has to be computed exactly
+     * @return similarity of strings or its upper bound lower than {@code minSimilarity}
+     */
+    public float similarity(final String other, final float minSimilarity) {
+        if (value == null || other == null) {
+            return 0.5f;
+        } else if (value.equals(other)) {
+            return 1f;
+        }
+
+        final int sl = value.length();
+        final int tl = other.length();
+        if (sl == 0 || tl == 0) {
+            return sl == tl ? 1 : 0;
+        }
+
+        if (sl < N || tl < N) {
+            int cost = 0;
+            for (int i = 0, ni = Math.min(sl, tl); i < ni; i++) {
+                if (value.charAt(i) == other.charAt(i)) {
+                    cost++;
+                }
+            }
+            return (float) cost / Math.max(sl, tl);
+        }
+
+        final int maxLength = Math.max(tl, sl);
+        float[] p = previous;
+        float[] d = current;
+        for (int i = 0; i <= sl; i++) {
+            p[i] = i;
+        }
+
+        for (int j = 1; j <= tl; j++) {
+            d[0] = j;
+            float rowMin = d[0];
+            for (int i = 1; i <= sl; i++) {
+                int cost = 0;
+                int tn = N;
+                // compare i-th n-gram of the profiled string with j-th n-gram of the other one
+                for (int ni = 0; ni < N; ni++) {
+                    final char s = padded[i - 1 + ni];
+                    final int ti = j - N + ni;
+                    final char t = ti < 0 ? 0 : other.charAt(ti);
+                    if (s != t) {
+                        cost++;
+                    } else if (s == 0) {
+                        // discount matches on prefix
+                        tn--;
+                    }
+                }
+                final float ec = (float) cost / tn;
+                d[i] = Math.min(Math.min(d[i - 1] + 1, p[i] + 1), p[i - 1] + ec);
+                rowMin = Math.min(rowMin, d[i]);
+            }
+
+            // distances in the following rows can't be lower than the minimum of the current row
+            final float bound = 1.0f - (rowMin / maxLength);
+            if (bound < minSimilarity) {
+                return bound;
+            }
+
+            final float[] swap = p;
+            p = d;
+            d = swap;
+        }
+
+        return 1.0f - (p[sl] / maxLength);
+    }
+}
@@ -0,0 +1,60 @@
+package eu.dl.utils.currency;
+
+import eu.dl.dataaccess.dto.ExchangeRates;
+import org.junit.Test;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.HashMap;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Test of {@link ExchangeRatesTable}.
+ */
+public final class ExchangeRatesTableTest {
+
+    /**
+     * Test of storing and indexing of the exchange rates.
+     */
+    @Test
+    public void putAndGetTest() {
+        ExchangeRatesTable table = new ExchangeRatesTable();
+        LocalDate date = LocalDate.of(2017, 3, 15);
+        assertNull(table.get(date));
+
+        HashMap<String, BigDecimal> rates = new HashMap<>();
+        rates.put("EUR", BigDecimal.ONE);
+        rates.put("CZK", new BigDecimal("27.02"));
+        ExchangeRates exchangeRates = new ExchangeRates().setBase("EUR").setDate(date).setRates(rates);
+
+        ExchangeRatesTable.Entry entry = table.put(date, exchangeRates);
+        assertSame(entry, table.get(date));
+        assertSame(exchangeRates, entry.getExchangeRates());
+        assertFalse(entry.isMissing());
+        assertTrue(entry.isBase(ExchangeRatesTable.getOrdinal("EUR")));
+        assertFalse(entry.isBase(ExchangeRatesTable.getOrdinal("CZK")));
+        assertEquals(new BigDecimal("27.02"), entry.getRate(ExchangeRatesTable.getOrdinal("CZK")));
+        assertNull(entry.getRate(ExchangeRatesTable.getOrdinal("XYZ")));
+
+        assertTrue(table.put(date.plusDays(1), null).isMissing());
+        assertSame(ExchangeRatesTable.MISSING, table.get(date.plusDays(1)));
+        assertEquals(2, table.size());
+    }
+
+    /**
+     * Test of loaded months.
+     */
+    @Test
+    public void monthLoadedTest() {
+        ExchangeRatesTable table = new ExchangeRatesTable();
+        table.setMonthLoaded(LocalDate.of(2017, 3, 1));
+        assertTrue(table.isMonthLoaded(LocalDate.of(2017, 3, 31)));
+        assertFalse(table.isMonthLoaded(LocalDate.of(2017, 4, 1)));
+        assertFalse(table.isMonthLoaded(LocalDate.of(2016, 3, 1)));
+    }
+}
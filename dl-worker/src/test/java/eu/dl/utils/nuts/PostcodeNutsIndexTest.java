@@ -0,0 +1,65 @@
+package eu.dl.utils.nuts;
+
+import eu.dl.dataaccess.dto.PostcodeNuts;
+import org.junit.Test;
+
+import java.util.stream.Stream;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+/**
+ * Test of {@link PostcodeNutsIndex}.
+ */
+public final class PostcodeNutsIndexTest {
+
+    /**
+     * @param country
+     *      country
+     * @param postcode
+     *      postcode
+     * @param nuts
+     *      NUTS
+     * @return mapping
+     */
+    private static PostcodeNuts mapping(final String country, final String postcode, final String nuts) {
+        return new PostcodeNuts().setCountry(country).setPostcode(postcode).setNuts(nuts);
+    }
+
+    /**
+     * Test of the lookups.
+     */
+    @Test
+    public void getTest() {
+        PostcodeNutsIndex index = PostcodeNutsIndex.build(Stream.of(
+            mapping("CZ", "110 00", "CZ010"),
+            mapping("CZ", "11000", "CZ999"),
+            mapping("CZ", "602 00", "CZ064"),
+            mapping("CZ", "602 10", "CZ071"),
+            mapping("CZ", "603 00", "CZ064"),
+            mapping("CZ", "603 10", "CZ064"),
+            mapping("CZ", "612 00", "CZ072"),
+            mapping("UK", "SW1A", "UKI32"),
+            mapping("SK", "81101", "SK010")));
+
+        assertEquals(8, index.size());
+
+        // exact, normalized and first of duplicates
+        assertEquals("CZ010", index.get("CZ", "11000"));
+        assertEquals("CZ010", index.get("cz", "110-00"));
+        assertEquals("SK010", index.get("SK", "811 01"));
+
+        // indexed postcode is a prefix
+        assertEquals("UKI32", index.get("UK", "SW1A 1AA"));
+
+        // partial postcode
+        assertEquals("CZ064", index.get("CZ", "603"));
+        assertEquals("CZ0", index.get("CZ", "602"));
+        assertNull(index.get("CZ", "60"));
+
+        assertNull(index.get("CZ", "999 99"));
+        assertNull(index.get("DE", "11000"));
+        assertNull(index.get("CZ", " - "));
+        assertNull(index.get(null, "11000"));
+    }
+}
@@ -0,0 +1,78 @@
+package eu.dl.worker;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.Test;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+/**
+ * Test of {@link SimpleMessage} json format.
+ */
+public final class SimpleMessageTest {
+
+    private static final String JSON = "{\"id\":\"1\",\"url\":\"http://x\",\"retryCount\":2,"
+        + "\"dates\":[\"2017-01-01\",\"2017-01-02\"],"
+        + "\"8hfamudahf987t342thlhjdsnfjkln9qe8uuth9qgbhda\":{\"a\":1}}";
+
+    /**
+     * Test of decoding of the message json.
+     */
+    @Test
+    public void decodeTest() {
+        for (Message message : Arrays.asList(MessageFactory.getMessage(JSON),
+            MessageFactory.getMessage(JSON.getBytes(StandardCharsets.UTF_8)))) {
+            assertEquals("1", message.getValue("id"));
+            assertEquals("http://x", message.getValue("url"));
+            assertEquals("2", message.getValue("retryCount"));
+            assertNull(message.getValue("groupId"));
+            assertEquals(1, message.getMetaData().get("a"));
+            assertEquals(Arrays.asList(LocalDate.of(2017, 1, 1), LocalDate.of(2017, 1, 2)),
+                message.getValueAsList("dates", LocalDate.class));
+            assertEquals(Integer.valueOf(1), message.getValueAsObject("id", Integer.class));
+        }
+    }
+
+    /**
+     * Test of the message json, it has to be the same as json of a plain map of the values.
+     *
+     * @throws Exception
+     *      in case the json can't be parsed
+     */
+    @Test
+    public void encodeTest() throws Exception {
+        HashMap<String, Object> metaData = new HashMap<>();
+        metaData.put("b", "c");
+        Message message = MessageFactory.getMessage()
+            .setValue("groupId", "g")
+            .setValue("command", "resend")
+            .setValue("version", "1.0")
+            .setMetaData(metaData);
+
+        Map<String, Object> expected = new HashMap<>();
+        expected.put("groupId", "g");
+        expected.put("command", "resend");
+        expected.put("version", "1.0");
+        expected.put("8hfamudahf987t342thlhjdsnfjkln9qe8uuth9qgbhda", metaData);
+
+        ObjectMapper mapper = new ObjectMapper();
+        TypeReference<Map<String, Object>> type = new TypeReference<Map<String, Object>>() {
+        };
+        assertEquals(expected, mapper.readValue(message.toJson(), type));
+        assertEquals(expected, mapper.readValue(message.toJsonBytes(), type));
+
+        List<String> keys = Arrays.asList("groupId", "command", "version");
+        Message decoded = MessageFactory.getMessage(message.toJsonBytes());
+        keys.forEach(k -> assertEquals(message.getValue(k), decoded.getValue(k)));
+        assertEquals(metaData, decoded.getMetaData());
+    }
+}
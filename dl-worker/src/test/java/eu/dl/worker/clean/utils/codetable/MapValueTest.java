@@ -9,11 +9,15 @@ import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 
+import org.apache.commons.lang3.StringUtils;
 import org.junit.Before;
 import org.junit.Test;
 
 import eu.dl.worker.clean.utils.CodeTableUtils;
+import java.time.Month;
+import java.util.ArrayList;
 import java.util.Collections;
+import java.util.Random;
 
 /**
  * Test of mapping between string value and codetable.
@@ -87,4 +91,143 @@ public final class MapValueTest {
         assertNull(CodeTableUtils.mapValue("apple", null, Fruits.APPLE));
     }
 
+    /**
+     * Test of case-insensitive matching.
+     */
+    @Test
+    public void caseInsensitiveTest() {
+        assertEquals(Fruits.APPLE, CodeTableUtils.mapValue("APPLE", mapping, null, false));
+        assertEquals(Fruits.MAPPLE, CodeTableUtils.mapValue(" Mapple ", mapping, null, false));
+        assertEquals(Fruits.MAPPLE, CodeTableUtils.mapValue("SAMPLE", mapping));
+        assertNull(CodeTableUtils.mapValue("sample", mapping, null, false));
+    }
+
+    /**
+     * Test of aliases of the null key which map the value explicitly to null.
+     */
+    @Test
+    public void nullKeyTest() {
+        final Map<Enum, List<String>> nullMapping = new HashMap<>();
+        nullMapping.put(Month.MAY, Arrays.asList("NA"));
+        nullMapping.put(Month.JUNE, Arrays.asList("JUN"));
+        nullMapping.put(null, Arrays.asList("N/A"));
+
+        assertNull(CodeTableUtils.mapValue("N/A", nullMapping));
+        assertNull(CodeTableUtils.mapValue("n/a", nullMapping, Month.JUNE, false));
+        assertNull(CodeTableUtils.mapValue("N/A", nullMapping, Month.JUNE, true));
+        assertEquals(Month.MAY, CodeTableUtils.mapValue("na", nullMapping, Month.JUNE));
+        // fuzzy match of the null key falls back to the default value
+        assertEquals(Month.JUNE, CodeTableUtils.mapValue("N/AB", nullMapping, Month.JUNE));
+    }
+
+    /**
+     * Test that the mapping is recompiled when keys are added to it after its first use.
+     */
+    @Test
+    public void addedKeyTest() {
+        final Map<Enum, List<String>> modified = new HashMap<>();
+        modified.put(Month.MAY, Arrays.asList("pear"));
+        assertEquals(Month.MAY, CodeTableUtils.mapValue("pear", modified, null, false));
+        assertNull(CodeTableUtils.mapValue("plum", modified, null, false));
+
+        modified.put(Month.JULY, Arrays.asList("plum"));
+        assertEquals(Month.JULY, CodeTableUtils.mapValue("plum", modified, null, false));
+    }
+
+    /**
+     * Test that the compiled matching gives the same results as the sequential search over all aliases.
+     */
+    @Test
+    public void sequentialSearchEquivalenceTest() {
+        final String alphabet = "abcAB ";
+        final Random random = new Random(42);
+        for (int m = 0; m < 200; m++) {
+            final Map<Enum, List<String>> randomMapping = new HashMap<>();
+            for (Month month : Month.values()) {
+                final List<String> aliases = new ArrayList<>();
+                for (int a = random.nextInt(4); a > 0; a--) {
+                    aliases.add(randomString(random, alphabet, 1 + random.nextInt(6)));
+                }
+                randomMapping.put(month, aliases);
+            }
+            if (random.nextBoolean()) {
+                // explicit mapping to null
+                randomMapping.put(null, Arrays.asList(randomString(random, alphabet, 1 + random.nextInt(6)),
+                    "a" + randomString(random, alphabet, random.nextInt(6))));
+            }
+
+            for (int i = 0; i < 50; i++) {
+                final String input = "a" + randomString(random, alphabet, random.nextInt(7));
+                final Month defaultValue = random.nextBoolean() ? Month.JANUARY : null;
+                assertEquals(input, sequentialSearch(input.trim(), randomMapping, defaultValue),
+                    CodeTableUtils.mapValue(input, randomMapping, defaultValue));
+            }
+        }
+    }
+
+    /**
+     * @param random
+     *      random generator
+     * @param alphabet
+     *      characters of the string
+     * @param length
+     *      length of the string
+     * @return random string
+     */
+    private static String randomString(final Random random, final String alphabet, final int length) {
+        final StringBuilder result = new StringBuilder();
+        for (int i = 0; i < length; i++) {
+            result.append(alphabet.charAt(random.nextInt(alphabet.length())));
+        }
+        return result.toString();
+    }
+
+    /**
+     * Reference matching which compares the input with all the aliases one by one.
+     *
+     * @param input
+     *      value to be mapped
+     * @param mapping
+     *      mapping
+     * @param defaultValue
+     *      default value or null
+     * @return mapped value
+     */
+    private static Enum sequentialSearch(final String input, final Map<Enum, List<String>> mapping,
+        final Enum defaultValue) {
+        for (Map.Entry<Enum, List<String>> entry : mapping.entrySet()) {
+            for (String value : entry.getValue()) {
+                if (input.equalsIgnoreCase(value)) {
+                    return entry.getKey();
+                }
+            }
+        }
+
+        Enum bestKey = null;
+        int bestDistance = 4;
+        boolean single = true;
+        for (Map.Entry<Enum, List<String>> entry : mapping.entrySet()) {
+            int bestKeyDistance = 4;
+            for (String value : entry.getValue()) {
+                int distance = StringUtils.getLevenshteinDistance(input.toLowerCase(), value.toLowerCase());
+                if (distance < bestKeyDistance) {
+                    bestKeyDistance = distance;
+                    if (distance == bestDistance) {
+                        single = false;
+                    }
+                    if (distance < bestDistance) {
+                        bestKey = entry.getKey();
+                        bestDistance = distance;
+                        single = true;
+                    }
+                }
+            }
+        }
+
+        if (!single) {
+            return null;
+        }
+
+        return bestKey != null ? bestKey : defaultValue;
+    }
 }
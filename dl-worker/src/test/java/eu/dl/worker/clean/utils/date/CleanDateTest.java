@@ -1,15 +1,21 @@
 package eu.dl.worker.clean.utils.date;
 
+import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertNull;
 import static org.junit.Assert.assertTrue;
 
 import java.time.LocalDate;
 import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeFormatterBuilder;
+import java.time.format.DateTimeParseException;
 import java.util.Arrays;
 import java.util.List;
+import java.util.Locale;
+import java.util.Random;
 
 import org.junit.Test;
 
+import eu.dl.dataaccess.utils.RemoveNonsenseUtils;
 import eu.dl.worker.clean.utils.DateUtils;
 
 /**
@@ -69,4 +75,72 @@ public final class CleanDateTest {
         assertNull(DateUtils.cleanDate("1999-12-31", formatters.get(0)));
         assertNull(DateUtils.cleanDate("2025-01-02", formatters.get(0)));
     }
+
+    /**
+     * Test that skipping of the formatters which don't fit the input gives the same results as parsing with all the
+     * formatters in turn.
+     */
+    @Test
+    public void formatterSelectionTest() {
+        final List<DateTimeFormatter> mixedFormatters = Arrays.asList(
+            DateTimeFormatter.ofPattern("d.M.uuuu"),
+            DateTimeFormatter.ofPattern("M/d/uuuu"),
+            DateTimeFormatter.ofPattern("d/M/uuuu"),
+            DateTimeFormatter.ofPattern("d.M.uu"),
+            DateTimeFormatter.ofPattern("uuuuMMdd"),
+            DateTimeFormatter.ISO_LOCAL_DATE,
+            new DateTimeFormatterBuilder().parseCaseInsensitive().appendPattern("d MMM uuuu").toFormatter(Locale.UK),
+            DateTimeFormatter.ISO_DATE);
+
+        final String[][] parts = {
+            {"1", "01", "12", "13", "29", "31", "0", "2012", "2019"},
+            {"-", ".", "/", " "},
+            {"1", "02", "12", "13", "Jan", "feb", "x"},
+            {"-", ".", "/", " "},
+            {"2012", "2019", "20", "99", "1", "01"},
+            {"", "", "+01:00", "."},
+        };
+        final Random random = new Random(42);
+        for (int i = 0; i < 20000; i++) {
+            final StringBuilder input = new StringBuilder();
+            for (String[] part : parts) {
+                input.append(part[random.nextInt(part.length)]);
+            }
+
+            assertEquals(input.toString(), parseSequentially(input.toString(), mixedFormatters),
+                DateUtils.cleanDate(input.toString(), mixedFormatters));
+        }
+
+        assertEquals(LocalDate.of(2012, 2, 13), DateUtils.cleanDate("13/2/2012", mixedFormatters));
+        assertEquals(LocalDate.of(2012, 2, 13), DateUtils.cleanDate("2/13/2012", mixedFormatters));
+        assertEquals(LocalDate.of(2012, 2, 1), DateUtils.cleanDate("1 FEB 2012", mixedFormatters));
+        assertEquals(LocalDate.of(2012, 2, 1), DateUtils.cleanDate("2012-02-01+01:00", mixedFormatters));
+    }
+
+    /**
+     * Reference parsing which tries all the formatters in turn.
+     *
+     * @param input
+     *      date string
+     * @param formatters
+     *      formatters
+     * @return date or null
+     */
+    private static LocalDate parseSequentially(final String input, final List<DateTimeFormatter> formatters) {
+        final String inputForCleaning = input.trim().replaceAll("^\\D+:", "").trim();
+        if (inputForCleaning.isEmpty()) {
+            return null;
+        }
+
+        for (DateTimeFormatter formatter : formatters) {
+            try {
+                return RemoveNonsenseUtils.removeNonsensicalDateTime(LocalDate.parse(inputForCleaning, formatter),
+                    LocalDate.of(2000, 1, 1), LocalDate.of(2025, 1, 1));
+            } catch (DateTimeParseException e) {
+                // try next formatter
+            }
+        }
+
+        return null;
+    }
 }
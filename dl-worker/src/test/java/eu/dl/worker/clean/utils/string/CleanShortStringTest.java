@@ -1,8 +1,16 @@
 package eu.dl.worker.clean.utils.string;
 
+import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
 import static org.junit.Assert.assertTrue;
 
+import java.util.Random;
+
+import org.apache.commons.lang3.StringEscapeUtils;
+import org.jsoup.Jsoup;
+import org.jsoup.nodes.Document;
+import org.jsoup.safety.Whitelist;
 import org.junit.Test;
 
 import eu.dl.worker.clean.utils.StringUtils;
@@ -45,4 +53,77 @@ public final class CleanShortStringTest {
                 .cleanShortString("<p>This is some text</p><ul><li>1aaa</li><li>2bbb</li><ul><p>Other text</p>")
                 .equals("This is some text 1aaa 2bbb Other text"));
     }
+
+    /**
+     * Test that plain values are returned as they are.
+     */
+    @Test
+    public void plainValues() {
+        String value = "Ministerstvo pro místní rozvoj ČR";
+        assertSame(value, StringUtils.cleanShortString(value));
+        value = "Staroměstské náměstí 1/4";
+        assertSame(value, StringUtils.cleanShortString(value));
+        assertEquals("a b", StringUtils.cleanShortString(" a \t\u00A0 b\u200B"));
+        assertEquals("a b", StringUtils.cleanShortString("a  &nbsp; b"));
+        assertEquals("x", StringUtils.cleanShortString("&lt;b&gt;x&lt;/b&gt;"));
+        assertEquals("a & b", StringUtils.cleanShortString("a &amp;amp; b"));
+    }
+
+    /**
+     * Test that the result is the same as the result of the full cleaning by Jsoup.
+     */
+    @Test
+    public void jsoupEquivalence() {
+        final String[] corpus = {
+            "Ministerstvo vnitra", "  Nákup  vozidel\n\n", "Dodávka PC &amp; příslušenství", "A&B s.r.o.",
+            "<p>Oprava&nbsp;silnice</p>", "cena < 100 000 Kč", "1 > 0", "&#8364; 100", "&euro;100", "&amp",
+            "<b>bold</b><i>italic</i>", "a<br>b", "<!-- comment -->text", "<script>alert(1)</script>x",
+            "&lt;p&gt;encoded&lt;/p&gt; text",
+            "tab\tseparated\tvalue", "\u00A0\u00A0nbsp\u2003em", "\uD83D\uDE00 smile",
+            "<div>1</div> <div>2</div>", "x &unknown; y", "<a href=\"x\">link</a>", "&quot;quoted&quot;", "<<>>",
+        };
+        for (String value : corpus) {
+            assertEquals(value, jsoupClean(value), StringUtils.cleanShortString(value));
+        }
+
+        final String alphabet = "ab <>&;/p#x3 \t\n\u00A0\u200B";
+        final String[] tokens = {"<b>", "</b>", "<p>", "</p>", "<br>", "&amp;", "&lt;", "&gt;", "&nbsp;", "&#60;",
+            "&quot;", "<!--", "-->"};
+        final Random random = new Random(42);
+        for (int i = 0; i < 5000; i++) {
+            final StringBuilder value = new StringBuilder();
+            final int length = random.nextInt(12);
+            for (int j = 0; j < length; j++) {
+                if (random.nextInt(3) == 0) {
+                    value.append(tokens[random.nextInt(tokens.length)]);
+                } else {
+                    value.append(alphabet.charAt(random.nextInt(alphabet.length())));
+                }
+            }
+
+            assertEquals(value.toString(), jsoupClean(value.toString()),
+                StringUtils.cleanShortString(value.toString()));
+        }
+    }
+
+    /**
+     * Reference cleaning of the short string done fully by Jsoup.
+     *
+     * @param value
+     *      value to be cleaned
+     * @return cleaned value
+     */
+    private static String jsoupClean(final String value) {
+        final String valueForCleaning = value.replaceAll("\\h", " ").replaceAll("\u200B|\uFEFF", " ")
+            .replaceAll("\\p{C}", "").trim();
+        if (valueForCleaning.isEmpty()) {
+            return null;
+        }
+
+        String cleaned = Jsoup.parse(valueForCleaning).text().trim();
+        cleaned = Jsoup.clean(cleaned, "", Whitelist.none(), new Document.OutputSettings().prettyPrint(false));
+        cleaned = StringEscapeUtils.unescapeHtml4(cleaned).replaceAll("\\s+", " ");
+
+        return cleaned.isEmpty() ? null : cleaned;
+    }
 }
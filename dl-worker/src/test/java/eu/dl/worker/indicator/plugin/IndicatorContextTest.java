@@ -0,0 +1,78 @@
+package eu.dl.worker.indicator.plugin;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+/**
+ * Test of {@link IndicatorContext}.
+ */
+public final class IndicatorContextTest {
+
+    /**
+     * Test of lazy loading of the matched items.
+     */
+    @Test
+    public void matchedItemsTest() {
+        List<Integer> loads = new ArrayList<>();
+        IndicatorContext context = new IndicatorContext("group-1", () -> {
+            loads.add(1);
+            return Arrays.asList("a", "b");
+        });
+
+        assertNull(context.getMatchedItems("group-2"));
+        assertEquals(0, loads.size());
+        assertEquals(Arrays.asList("a", "b"), context.getMatchedItems("group-1"));
+        assertEquals(Arrays.asList("a", "b"), context.getMatchedItems("group-1"));
+        assertEquals(1, loads.size());
+    }
+
+    /**
+     * Test of bulk fetching of the required records.
+     */
+    @Test
+    public void fetchTest() {
+        List<List<String>> queries = new ArrayList<>();
+        IndicatorContext context = new IndicatorContext("group-1", Collections::emptyList);
+
+        context.require("ns", Arrays.asList("1", "2", null), ids -> load(queries, ids));
+        context.require("ns", Arrays.asList("2", "3"), ids -> {
+            throw new IllegalStateException("The first loader has to be used.");
+        });
+        context.fetch();
+
+        assertEquals(Arrays.asList(Arrays.asList("1", "2", "3")), queries);
+        assertEquals("value-1", context.get("ns", "1"));
+        assertNull(context.get("ns", "3"));
+
+        // records required after the fetch are fetched on demand, missing records aren't fetched again
+        context.require("ns", Arrays.asList("3", "4"), ids -> load(queries, ids));
+        assertEquals("value-4", context.get("ns", "4"));
+        assertEquals(Arrays.asList("4"), queries.get(1));
+        assertEquals(2, queries.size());
+    }
+
+    /**
+     * Loader which finds all records but the third one.
+     *
+     * @param queries
+     *      list of the executed queries
+     * @param ids
+     *      ids to be loaded
+     * @return records by id
+     */
+    private static Map<String, ?> load(final List<List<String>> queries, final List<String> ids) {
+        queries.add(ids);
+        Map<String, String> result = new HashMap<>();
+        ids.stream().filter(id -> !id.equals("3")).forEach(id -> result.put(id, "value-" + id));
+        return result;
+    }
+}
@@ -0,0 +1,41 @@
+package eu.dl.worker.master.plugin;
+
+import eu.dl.dataaccess.dto.generic.Publication;
+import eu.dl.worker.master.plugin.generic.FieldAccessor;
+import org.junit.Test;
+
+import java.time.LocalDate;
+
+import static eu.dl.core.ThrowableAssertion.assertThrown;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+
+/**
+ * Field accessor tests.
+ */
+public class FieldAccessorTest {
+
+    /**
+     * Test of getters and setters.
+     */
+    @Test
+    public final void accessorTest() throws NoSuchMethodException {
+        Publication publication = new Publication().setPublicationDate(LocalDate.of(2017, 1, 1));
+
+        FieldAccessor getter = FieldAccessor.getter(Publication.class, "PublicationDate");
+        assertSame(getter, FieldAccessor.getter(Publication.class, "PublicationDate"));
+        assertEquals(LocalDate.class, getter.getType());
+        assertEquals(LocalDate.of(2017, 1, 1), getter.get(publication));
+
+        FieldAccessor setter = FieldAccessor.setter(Publication.class, "IsIncluded");
+        assertEquals(Boolean.class, setter.getType());
+        setter.set(publication, true);
+        assertEquals(Boolean.TRUE, publication.getIsIncluded());
+
+        assertNull(FieldAccessor.setter(Publication.class, "Unknown"));
+        assertThrown(() -> FieldAccessor.getter(Publication.class, "Unknown"))
+            .isInstanceOf(NoSuchMethodException.class);
+        assertThrown(() -> setter.set(publication, "true")).isInstanceOf(ClassCastException.class);
+    }
+}
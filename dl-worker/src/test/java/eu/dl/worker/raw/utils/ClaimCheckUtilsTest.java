@@ -0,0 +1,68 @@
+package eu.dl.worker.raw.utils;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import eu.dl.core.config.Config;
+import eu.dl.worker.Message;
+import eu.dl.worker.MessageFactory;
+
+/**
+ * Test of claim check of the source data.
+ */
+public final class ClaimCheckUtilsTest {
+
+    /**
+     * Initialisation of the storage used in test methods.
+     */
+    @Before
+    public void init() {
+        Config.getInstance().addConfigFile("unit_test");
+        new File(Config.getInstance().getParam("filesystemstorageservice.path")).mkdirs();
+    }
+
+    /**
+     * Test of source data included in the message.
+     */
+    @Test
+    public void smallSourceDataTest() {
+        Message message = ClaimCheckUtils.setSourceData(MessageFactory.getMessage(), "data", 10);
+
+        assertFalse(ClaimCheckUtils.hasSourceDataKey(message));
+        assertEquals("data", ClaimCheckUtils.getSourceData(message));
+    }
+
+    /**
+     * Test of two messages with the same source data, removal of the stored data of one message mustn't affect the
+     * other one.
+     */
+    @Test
+    public void sameSourceDataTest() {
+        String body = "<html><body>the same body</body></html>";
+        Message first = ClaimCheckUtils.setSourceData(MessageFactory.getMessage().setValue("url", "http://a"),
+            body, 10);
+        Message second = ClaimCheckUtils.setSourceData(MessageFactory.getMessage().setValue("url", "http://b"),
+            body, 10);
+
+        assertTrue(ClaimCheckUtils.hasSourceDataKey(first));
+        assertNull(first.getValue(ClaimCheckUtils.SOURCE_DATA));
+        assertNotEquals(first.getValue(ClaimCheckUtils.SOURCE_DATA_KEY),
+            second.getValue(ClaimCheckUtils.SOURCE_DATA_KEY));
+
+        assertEquals(body, ClaimCheckUtils.getSourceData(first));
+        ClaimCheckUtils.removeSourceData(first);
+        assertNull(ClaimCheckUtils.getSourceData(first));
+
+        assertEquals(body, ClaimCheckUtils.getSourceData(second));
+        ClaimCheckUtils.removeSourceData(second);
+        assertNull(ClaimCheckUtils.getSourceData(second));
+    }
+}
@@ -0,0 +1,145 @@
+package eu.dl.worker.utils;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.Test;
+
+import eu.dl.dataaccess.dto.codetables.BodyIdentifier;
+import eu.dl.dataaccess.dto.matched.MatchedBody;
+import eu.dl.worker.utils.matched.BodyCandidateIndex;
+import eu.dl.worker.utils.matched.MatchedUtils;
+
+/**
+ * BodyCandidateIndex test class.
+ */
+public final class BodyCandidateIndexTest {
+
+    /**
+     * @param id
+     *      body id
+     * @param name
+     *      standardized name
+     * @param address
+     *      standardized address
+     * @return body
+     */
+    private static MatchedBody body(final String id, final String name, final String address) {
+        MatchedBody body = new MatchedBody()
+            .setStandardizedName(name)
+            .setStandardizedAddress(address);
+        body.setId(id);
+        body.setGroupId("group_" + id);
+        return body;
+    }
+
+    /**
+     * Tests of candidates searching.
+     */
+    @Test
+    public void getCandidatesTest() {
+        BodyCandidateIndex<MatchedBody> index = new BodyCandidateIndex<>(2, 0.5f);
+
+        index.add(body("1", "obec horni lhota", "horni lhota 1 cz"));
+        index.add(body("2", "obec dolni lhota", "dolni lhota 5 cz"));
+        index.add(body("3", "stavby praha|AS|", "vinohradska 10 praha cz"));
+        index.add(body("4", "obec horni lhota", "horni lhota 1 cz")
+            .addBodyId(new BodyIdentifier().setId("123").setScope(BodyIdentifier.Scope.CZ)));
+        // body without id isn't indexed
+        index.add(body(null, "obec horni lhota", "horni lhota 1 cz"));
+
+        assertEquals(4, index.size());
+
+        List<MatchedBody> candidates = index.getCandidates(body(null, "obec horni lhota", "horni lhota 1 cz"));
+        assertEquals(2, candidates.size());
+        assertTrue(candidates.stream().allMatch(n -> Arrays.asList("1", "4").contains(n.getId())));
+
+        // dissimilar body
+        candidates = index.getCandidates(body(null, "stavby praha|AS|", "vinohradska 10 praha cz"));
+        assertEquals("3", candidates.get(0).getId());
+
+        // same body id wins
+        candidates = index.getCandidates(body(null, "obec lhota", "lhota cz")
+            .addBodyId(new BodyIdentifier().setId("123").setScope(BodyIdentifier.Scope.CZ)));
+        assertEquals("4", candidates.get(0).getId());
+
+        assertTrue(index.getCandidates(body(null, "xyz", "qwerty")).isEmpty());
+    }
+
+    /**
+     * Tests of replacing of the body with the same id.
+     */
+    @Test
+    public void replaceTest() {
+        BodyCandidateIndex<MatchedBody> index = new BodyCandidateIndex<>(10, 0.5f);
+
+        index.add(body("1", "obec horni lhota", "horni lhota 1 cz"));
+        index.add(body("1", "mesto brno", "namesti svobody"));
+
+        // the entry of the replaced body is reused, so its postings mustn't be left in the index
+        assertEquals(1, index.size());
+        assertTrue(index.getCandidates(body(null, "obec horni lhota", "horni lhota 1 cz")).isEmpty());
+        assertEquals(1, index.getCandidates(body(null, "mesto brno", "namesti svobody")).size());
+
+        index.add(body("1", "obec horni lhota", "horni lhota 1 cz"));
+        assertEquals(1, index.size());
+        assertTrue(index.getCandidates(body(null, "mesto brno", "namesti svobody")).isEmpty());
+        assertEquals(1, index.getCandidates(body(null, "obec horni lhota", "horni lhota 1 cz")).size());
+    }
+
+    /**
+     * Tests that removed body isn't a candidate anymore.
+     */
+    @Test
+    public void removeTest() {
+        BodyCandidateIndex<MatchedBody> index = new BodyCandidateIndex<>(10, 0.5f);
+
+        index.add(body("1", "obec horni lhota", "horni lhota 1 cz"));
+        index.add(body("2", "mesto brno", "namesti svobody"));
+        index.remove("1");
+        index.remove("3");
+
+        assertEquals(1, index.size());
+        assertTrue(index.getCandidates(body(null, "obec horni lhota", "horni lhota 1 cz")).isEmpty());
+        assertEquals(1, index.getCandidates(body(null, "mesto brno", "namesti svobody")).size());
+    }
+
+    /**
+     * Tests that no body which reaches the threshold of the approximate matching is filtered out.
+     */
+    @Test
+    public void upperBoundTest() {
+        final List<String> names = Arrays.asList("obec horni lhota", "obec dolni lhota", "obec horni lhotka",
+            "mesto brno", "statutarni mesto brno", "mestska cast brno stred", "obec lhota", "stavby praha|AS|",
+            "stavby praha", "zakladni skola brno", "zakladni skola brno stred");
+        final List<String> addresses = Arrays.asList("horni lhota 1 cz", "horni lhota 10 cz", "dolni lhota 5 cz",
+            "dominikanske namesti 1 brno", "dominikanske nam 1 brno", "vinohradska 10 praha cz");
+
+        final BodyCandidateIndex<MatchedBody> index = new BodyCandidateIndex<>(1000, 0.75f - 0.0001f);
+        final List<MatchedBody> bodies = new ArrayList<>();
+        for (String name : names) {
+            for (String address : addresses) {
+                MatchedBody body = body(String.valueOf(bodies.size()), name, address);
+                bodies.add(body);
+                index.add(body);
+            }
+        }
+
+        for (MatchedBody item : bodies) {
+            final List<MatchedBody> candidates = index.getCandidates(item);
+            for (MatchedBody body : bodies) {
+                // score of the approximate matching of bodies without ids, postcodes and nuts
+                final float score = (MatchedUtils.trigramSimilarity(item.getStandardizedName(),
+                    body.getStandardizedName()) + MatchedUtils.trigramSimilarity(item.getStandardizedAddress(),
+                    body.getStandardizedAddress()) + 0.5f + 0.5f * 0.2f + 0.5f * 0.2f) / (1 + 1 + 1 + 0.2f + 0.2f);
+                if (score >= 0.75f) {
+                    assertTrue(candidates.contains(body));
+                }
+            }
+        }
+    }
+}
@@ -7,14 +7,17 @@ import static org.junit.Assert.assertTrue;
 
 import java.util.Arrays;
 import java.util.List;
+import java.util.Random;
 import java.util.function.BiFunction;
 
+import org.apache.commons.lang3.StringUtils;
 import org.apache.lucene.search.spell.LevensteinDistance;
 import org.apache.lucene.search.spell.NGramDistance;
 import org.junit.Test;
 
 import eu.dl.dataaccess.dto.codetables.BodyIdentifier;
 import eu.dl.worker.utils.matched.MatchedUtils;
+import eu.dl.worker.utils.matched.TrigramProfile;
 
 /**
  * MatchedUtils test class.
@@ -190,4 +193,131 @@ public final class MatchedUtilsTest {
         assertFalse(MatchedUtils.areBodyIdsComparable(valid, invalid));
         assertFalse(MatchedUtils.areBodyIdsComparable(valid, incomparable));
     }
+
+    /**
+     * Tests that MatchedUtils#trigramSimilarityUpperBound(java.lang.String, java.lang.String) is never lower than
+     * the trigram similarity.
+     */
+    @Test
+    public void trigramSimilarityUpperBoundTest() {
+        final List<String> values = Arrays.asList(null, "", "a", "ab", "abc", "abcd", "obec horni lhota",
+            "obec dolni lhota", "mesto brno", "statutarni mesto brno", "|SR|name", "name", "xyz ab");
+
+        for (String s : values) {
+            for (String t : values) {
+                assertTrue(MatchedUtils.trigramSimilarityUpperBound(s, t)
+                    >= MatchedUtils.trigramSimilarity(s, t) - 0.0001f);
+            }
+        }
+
+        assertEquals(0.5f, MatchedUtils.trigramSimilarityUpperBound(null, "abc"), 0.0f);
+        assertEquals(1.0f, MatchedUtils.trigramSimilarityUpperBound("abc", "abc"), 0.0f);
+        assertEquals(0.5f, MatchedUtils.trigramSimilarityUpperBound("abcd", "ab"), 0.0f);
+    }
+
+    /**
+     * Tests that {@link TrigramProfile} computes the same similarities as Lucene's NGramDistance and that the early
+     * stopped computation returns an upper bound lower than the requested minimum.
+     */
+    @Test
+    public void trigramProfileTest() {
+        final NGramDistance trigram = new NGramDistance(3);
+        final Random random = new Random(42);
+        for (int i = 0; i < 5000; i++) {
+            final String s = randomString(random, "abc d", random.nextInt(12));
+            final String t = random.nextInt(4) == 0 ? s + randomString(random, "abc", 1) : randomString(random, "abc d",
+                random.nextInt(12));
+            final TrigramProfile profile = new TrigramProfile(s);
+
+            final float expected = s.equals(t) ? 1f : trigram.getDistance(t, s);
+            assertEquals(s + " x " + t, expected, profile.similarity(t), 0f);
+            assertEquals(s + " x " + t, expected, MatchedUtils.trigramSimilarity(s, t), 0f);
+
+            final float min = random.nextFloat();
+            final float bounded = profile.similarity(t, min);
+            if (expected >= min) {
+                assertEquals(s + " x " + t, expected, bounded, 0f);
+            } else {
+                assertTrue(s + " x " + t, bounded < min && bounded >= expected);
+            }
+        }
+
+        assertEquals(0.5f, new TrigramProfile(null).similarity("abc"), 0f);
+        assertEquals(0.5f, new TrigramProfile("abc").similarity(null), 0f);
+    }
+
+    /**
+     * Tests for MatchedUtils#levensteinDistance(java.lang.String, java.lang.String, int) function.
+     */
+    @Test
+    public void levensteinDistanceTest() {
+        final LevensteinDistance ld = new LevensteinDistance();
+        final Random random = new Random(42);
+        for (int i = 0; i < 5000; i++) {
+            final String s = randomString(random, "abc", random.nextInt(7));
+            final String t = randomString(random, "abc", random.nextInt(7));
+            final int max = random.nextInt(4);
+            final int expected = s.isEmpty() || t.isEmpty() ? Math.max(s.length(), t.length())
+                : MatchedUtils.levensteinDistanceFromSimilarity(s, t, ld.getDistance(s, t));
+
+            assertEquals(s + " x " + t, Math.min(expected, max + 1), MatchedUtils.levensteinDistance(s, t, max));
+            assertEquals(s + " x " + t, MatchedUtils.getSimilarity(s, t, (x, y) -> {
+                final int distance = MatchedUtils.levensteinDistanceFromSimilarity(s, t, ld.getDistance(x, y));
+                return distance == 0 ? 1f : (distance == 1 ? 0.8f : 0f);
+            }), MatchedUtils.oneDigitSimilarity(s, t), 0f);
+        }
+    }
+
+    /**
+     * Tests that MatchedUtils#nutsSimilarity(java.lang.String, java.lang.String, int) gives the same results as
+     * the similarity computed from Lucene's LevensteinDistance.
+     */
+    @Test
+    public void nutsSimilarityTest() {
+        final LevensteinDistance ld = new LevensteinDistance();
+        final Random random = new Random(42);
+        for (int i = 0; i < 5000; i++) {
+            final String s = "CZ" + randomString(random, "012", random.nextInt(4));
+            final String t = "CZ" + randomString(random, "012", random.nextInt(4));
+            final int crop = random.nextInt(6);
+
+            Object expected;
+            try {
+                expected = MatchedUtils.getSimilarity(s, t, (x, y) -> {
+                    final int distance = MatchedUtils.levensteinDistanceFromSimilarity(x, y, ld.getDistance(
+                        crop > 0 ? StringUtils.left(x, crop) : x, crop > 0 ? StringUtils.left(y, crop) : y));
+                    return distance == 0 ? 1f
+                        : (distance == 1 && x.length() == 5 && x.substring(0, 4).equals(y.substring(0, 4)) ? 0.8f : 0f);
+                });
+            } catch (StringIndexOutOfBoundsException e) {
+                expected = e.getClass();
+            }
+
+            Object actual;
+            try {
+                actual = MatchedUtils.nutsSimilarity(s, t, crop);
+            } catch (StringIndexOutOfBoundsException e) {
+                actual = e.getClass();
+            }
+
+            assertEquals(s + " x " + t + " / " + crop, expected, actual);
+        }
+    }
+
+    /**
+     * @param random
+     *      random generator
+     * @param alphabet
+     *      characters of the string
+     * @param length
+     *      length of the string
+     * @return random string
+     */
+    private static String randomString(final Random random, final String alphabet, final int length) {
+        final StringBuilder result = new StringBuilder();
+        for (int i = 0; i < length; i++) {
+            result.append(alphabet.charAt(random.nextInt(alphabet.length())));
+        }
+        return result.toString();
+    }
 }
@@ -0,0 +1,114 @@
+package eu.dl.worker.utils.archive;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+
+import org.apache.commons.compress.archivers.tar.TarArchiveEntry;
+import org.apache.commons.compress.archivers.tar.TarArchiveOutputStream;
+import org.apache.commons.compress.archivers.zip.ZipArchiveEntry;
+import org.apache.commons.compress.archivers.zip.ZipArchiveOutputStream;
+import org.apache.commons.compress.compressors.gzip.GzipCompressorOutputStream;
+import org.junit.Test;
+
+/**
+ * Test of {@link ArchiveUtils}.
+ */
+public final class ArchiveUtilsTest {
+
+    /**
+     * @return tar.gz archive with a directory, two files and nested zip archive between them
+     * @throws IOException
+     *      if the archive cannot be created
+     */
+    private static byte[] createArchive() throws IOException {
+        ByteArrayOutputStream zip = new ByteArrayOutputStream();
+        try (ZipArchiveOutputStream zipStream = new ZipArchiveOutputStream(zip)) {
+            zipStream.putArchiveEntry(new ZipArchiveEntry("b.xml"));
+            zipStream.write("<b/>".getBytes(StandardCharsets.UTF_8));
+            zipStream.closeArchiveEntry();
+        }
+
+        ByteArrayOutputStream tar = new ByteArrayOutputStream();
+        try (TarArchiveOutputStream tarStream = new TarArchiveOutputStream(new GzipCompressorOutputStream(tar))) {
+            tarStream.putArchiveEntry(new TarArchiveEntry("dir/"));
+            tarStream.closeArchiveEntry();
+            addTarEntry(tarStream, "dir/a.xml", "<a>příliš</a>".getBytes(StandardCharsets.UTF_8));
+            addTarEntry(tarStream, "nested.zip", zip.toByteArray());
+            addTarEntry(tarStream, "c.txt", "c".getBytes(StandardCharsets.UTF_8));
+        }
+
+        return tar.toByteArray();
+    }
+
+    /**
+     * @param tarStream
+     *      tar output stream
+     * @param name
+     *      entry name
+     * @param content
+     *      entry content
+     * @throws IOException
+     *      if the entry cannot be written
+     */
+    private static void addTarEntry(final TarArchiveOutputStream tarStream, final String name, final byte[] content)
+        throws IOException {
+        TarArchiveEntry entry = new TarArchiveEntry(name);
+        entry.setSize(content.length);
+        tarStream.putArchiveEntry(entry);
+        tarStream.write(content);
+        tarStream.closeArchiveEntry();
+    }
+
+    /**
+     * Test of extraction to map.
+     *
+     * @throws IOException
+     *      if the archive cannot be created
+     */
+    @Test
+    public void extractTest() throws IOException {
+        HashMap<String, String> files = ArchiveUtils.extract(new ByteArrayInputStream(createArchive()), "test.tar.gz");
+
+        assertEquals(3, files.size());
+        assertEquals("<a>příliš</a>", files.get("dir/a.xml"));
+        assertEquals("<b/>", files.get("b.xml"));
+        assertEquals("c", files.get("c.txt"));
+    }
+
+    /**
+     * Test of streaming extraction with filter and spilling to disk.
+     *
+     * @throws IOException
+     *      if the archive cannot be created
+     */
+    @Test
+    public void streamingExtractTest() throws IOException {
+        List<String> names = new ArrayList<>();
+        List<Path> spilled = new ArrayList<>();
+        ArchiveUtils.extract(new ByteArrayInputStream(createArchive()), "test.tar.gz", null, null,
+            StandardCharsets.UTF_8, name -> name.endsWith(".xml"), entry -> {
+                names.add(entry.getName());
+                if (entry.getName().equals("dir/a.xml")) {
+                    assertEquals("<a>příliš</a>".getBytes(StandardCharsets.UTF_8).length, entry.getSize());
+                    Path file = entry.spill();
+                    assertEquals("<a>příliš</a>", new String(Files.readAllBytes(file), StandardCharsets.UTF_8));
+                    spilled.add(file);
+                }
+            });
+
+        assertEquals(Arrays.asList("dir/a.xml", "b.xml"), names);
+        assertEquals(1, spilled.size());
+        assertFalse(Files.exists(spilled.get(0)));
+    }
+}